@@ -0,0 +1,43 @@
+#!/usr/bin/env bash
+# Runs the JMH benchmarks and compares them with a baseline, e.g. the result of the target branch of a pull request.
+#
+#   ./benchmark.sh                               run all benchmarks, result in target/jmh-result.json
+#   ./benchmark.sh baseline.json                 run all benchmarks and compare them with the baseline
+#   BENCHMARK=Scalar ./benchmark.sh baseline.json  run and compare a subset
+#   THRESHOLD=5 ./benchmark.sh baseline.json     fail on regressions above 5% (default 10%)
+#   ./benchmark.sh pipeline [100 1000 10000]     run the reporting pipeline end to end and print its cost per stage
+#
+# Exits with 1 if a benchmark got slower by more than the threshold and more than the measurement error.
+set -e
+
+classpath() {
+    mvn -B -q -P benchmarks dependency:build-classpath -Dmdep.outputFile=target/benchmark.classpath -Dmdep.includeScope=test
+    echo "target/test-classes:target/classes:$(cat target/benchmark.classpath)"
+}
+
+# jmh finds no benchmarks if its annotation processor did not run while the tests compiled
+compile() {
+    mvn -B -q -P benchmarks -DskipTests test-compile
+    if [ ! -f target/test-classes/META-INF/BenchmarkList ]; then
+        echo "The benchmarks were not generated, is jmh-generator-annprocess discovered by the test compilation?" >&2
+        exit 1
+    fi
+}
+
+if [ "$1" == "pipeline" ]; then
+    shift
+    compile
+    java -cp "$(classpath)" net.itarray.automotion.benchmarks.ReportPipelineRun "$@"
+    exit
+fi
+
+BASELINE=$1
+BENCHMARK=${BENCHMARK:-net.itarray.automotion.benchmarks.*}
+THRESHOLD=${THRESHOLD:-10}
+
+compile
+mvn -B -P benchmarks -DskipTests -Dbenchmark="$BENCHMARK" verify
+
+if [ -n "$BASELINE" ]; then
+    java -cp "$(classpath)" net.itarray.automotion.benchmarks.BaselineComparison "$BASELINE" target/jmh-result.json "$THRESHOLD"
+fi
@@ -0,0 +1,125 @@
+package net.itarray.automotion.benchmarks;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH json results, e.g. of the target branch and of a pull request, and fails if a benchmark got
+ * slower by more than the threshold and more than the error of both measurements.
+ * <p>
+ * Usage: BaselineComparison baseline.json current.json [threshold in percent, default 10]
+ */
+public class BaselineComparison {
+
+    private final Map<String, JSONObject> baseline;
+    private final Map<String, JSONObject> current;
+    private final double threshold;
+
+    public BaselineComparison(File baseline, File current, double threshold) throws IOException, ParseException {
+        this.baseline = read(baseline);
+        this.current = read(current);
+        this.threshold = threshold;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("usage: BaselineComparison <baseline.json> <current.json> [threshold percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+        int regressions = new BaselineComparison(new File(args[0]), new File(args[1]), threshold).compare();
+        System.exit(regressions == 0 ? 0 : 1);
+    }
+
+    /**
+     * Prints one line per benchmark present in both results.
+     *
+     * @return the number of regressions
+     */
+    public int compare() {
+        int regressions = 0;
+        System.out.println(String.format("%-90s %14s %14s %9s", "Benchmark", "Baseline", "Current", "Change"));
+        for (Map.Entry<String, JSONObject> entry : current.entrySet()) {
+            JSONObject before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.println(String.format("%-90s %14s %14s %9s", entry.getKey(), "-", score(entry.getValue()), "new"));
+                continue;
+            }
+            JSONObject after = entry.getValue();
+            double change = change(before, after);
+            boolean regression = isRegression(before, after, change);
+            if (regression) {
+                regressions++;
+            }
+            System.out.println(String.format("%-90s %14s %14s %+8.1f%%%s",
+                    entry.getKey(), score(before), score(after), change, regression ? " REGRESSION" : ""));
+        }
+        System.out.println(String.format("%d regression(s) above %.1f%%", regressions, threshold));
+        return regressions;
+    }
+
+    /**
+     * @return the change in percent, positive if the benchmark got slower
+     */
+    private static double change(JSONObject before, JSONObject after) {
+        double baselineScore = value(before, "score");
+        double currentScore = value(after, "score");
+        double change = (currentScore - baselineScore) / baselineScore * 100;
+        return higherIsBetter(after) ? -change : change;
+    }
+
+    private boolean isRegression(JSONObject before, JSONObject after, double change) {
+        double difference = Math.abs(value(after, "score") - value(before, "score"));
+        double error = errorOf(before) + errorOf(after);
+        return change > threshold && difference > error;
+    }
+
+    private static boolean higherIsBetter(JSONObject result) {
+        return "thrpt".equals(result.get("mode"));
+    }
+
+    private static String score(JSONObject result) {
+        JSONObject metric = (JSONObject) result.get("primaryMetric");
+        return String.format("%.3f %s", value(result, "score"), metric.get("scoreUnit"));
+    }
+
+    private static double errorOf(JSONObject result) {
+        double error = value(result, "scoreError");
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    private static double value(JSONObject result, String key) {
+        Object value = ((JSONObject) result.get("primaryMetric")).get(key);
+        return value instanceof Number ? ((Number) value).doubleValue() : Double.NaN;
+    }
+
+    private static Map<String, JSONObject> read(File file) throws IOException, ParseException {
+        Map<String, JSONObject> results = new LinkedHashMap<>();
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            for (Object result : (JSONArray) new JSONParser().parse(reader)) {
+                JSONObject json = (JSONObject) result;
+                results.put(key(json), json);
+            }
+        }
+        return results;
+    }
+
+    private static String key(JSONObject result) {
+        StringBuilder key = new StringBuilder((String) result.get("benchmark"));
+        JSONObject params = (JSONObject) result.get("params");
+        if (params != null) {
+            params.keySet().stream().sorted().forEach(name -> key.append(' ').append(name).append('=').append(params.get(name)));
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,65 @@
+package net.itarray.automotion.benchmarks;
+
+import net.itarray.automotion.validation.ResponsiveUIValidator;
+import org.openjdk.jmh.annotations.*;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static rectangles.DummyDriverFacade.createWebDriver;
+
+/**
+ * Chunk validations on grids of 10 up to 10000 elements, from fetching the geometry to the result. Elements and
+ * driver are stand-ins, so only the cost of the engine is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ChunkValidationBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int elements;
+
+    @Param({"0", "5"})
+    public int tolerance;
+
+    private ResponsiveUIValidator validator;
+    private List<WebElement> grid;
+
+    @Setup
+    public void setUp() {
+        validator = new ResponsiveUIValidator(createWebDriver());
+        validator.dontDrawMap();
+        validator.withTolerance(tolerance);
+        grid = Grid.elements(elements);
+    }
+
+    @Benchmark
+    public boolean equalSizeAndAlignedAsGrid() {
+        return validator.snapshot()
+                .findElements(grid)
+                .haveEqualSize()
+                .areAlignedAsGridCells()
+                .validate();
+    }
+
+    @Benchmark
+    public boolean alignedAsGridOfColumns() {
+        return validator.snapshot()
+                .findElements(grid)
+                .alignedAsGrid(Grid.COLUMNS)
+                .validate();
+    }
+
+    @Benchmark
+    public boolean doNotOverlap() {
+        return validator.snapshot()
+                .findElements(grid)
+                .doNotOverlap()
+                .validate();
+    }
+}
@@ -0,0 +1,74 @@
+package net.itarray.automotion.benchmarks;
+
+import net.itarray.automotion.internal.geometry.Direction;
+import net.itarray.automotion.internal.geometry.Scalar;
+import net.itarray.automotion.internal.properties.PercentReference;
+import net.itarray.automotion.internal.properties.PixelConstant;
+import net.itarray.automotion.tests.properties.TestContext;
+import net.itarray.automotion.validation.properties.Condition;
+import net.itarray.automotion.validation.properties.Expression;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static net.itarray.automotion.internal.geometry.Scalar.scalar;
+
+/**
+ * Evaluation of condition and expression trees, from a single comparison to nested and/or trees with page
+ * percentages.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExpressionBenchmark {
+
+    @Param({"0", "5"})
+    public int tolerance;
+
+    private Expression<Scalar> value;
+    private Condition<Scalar> equalTo;
+    private Condition<Scalar> between;
+    private Condition<Scalar> percentOfPage;
+    private Expression<Boolean> tree;
+    private TestContext context;
+
+    @Setup
+    public void setUp() {
+        value = new PixelConstant(scalar(42));
+        equalTo = Condition.equalTo(40);
+        between = Condition.between(10).and(50);
+        percentOfPage = Condition.lessOrEqualTo(Expression.percent(30, PercentReference.PAGE));
+        tree = Expression.or(
+                Expression.and(equalTo.applyTo(value), between.applyTo(value)),
+                Expression.and(percentOfPage.applyTo(value), Condition.greaterThan(Expression.percentOrPixels(20)).applyTo(value)));
+        context = new TestContext().withTolerance(scalar(tolerance));
+    }
+
+    @Benchmark
+    public boolean equalToWithTolerance() {
+        return equalTo.isSatisfiedOn(value, context, Direction.RIGHT);
+    }
+
+    @Benchmark
+    public boolean between() {
+        return between.isSatisfiedOn(value, context, Direction.RIGHT);
+    }
+
+    @Benchmark
+    public boolean percentOfPage() {
+        return percentOfPage.isSatisfiedOn(value, context, Direction.RIGHT);
+    }
+
+    @Benchmark
+    public boolean tree() {
+        return tree.evaluateIn(context, Direction.RIGHT);
+    }
+
+    @Benchmark
+    public String description() {
+        return tree.getDescription(context, Direction.RIGHT);
+    }
+}
@@ -0,0 +1,62 @@
+package net.itarray.automotion.benchmarks;
+
+import net.itarray.automotion.internal.geometry.ConnectedIntervals;
+import net.itarray.automotion.internal.geometry.Interval;
+import net.itarray.automotion.internal.geometry.Partition;
+import net.itarray.automotion.internal.geometry.Rectangle;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static net.itarray.automotion.internal.geometry.Interval.interval;
+
+/**
+ * The interval algorithms behind grid and alignment checks, on as many intervals as a chunk has elements.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GeometryBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int elements;
+
+    private List<Interval> intervals;
+    private List<Rectangle> rectangles;
+
+    @Setup
+    public void setUp() {
+        intervals = new ArrayList<>(elements);
+        rectangles = new ArrayList<>(elements);
+        for (Rectangle rectangle : Grid.rectangles(elements)) {
+            rectangles.add(rectangle);
+            intervals.add(interval(rectangle.getOrigin().getX(), rectangle.getCorner().getX()));
+        }
+    }
+
+    @Benchmark
+    public Interval intersectAndSpan() {
+        Interval span = intervals.get(0);
+        Interval intersection = intervals.get(0);
+        for (Interval interval : intervals) {
+            span = span.span(interval);
+            intersection = intersection.intersect(interval);
+        }
+        return intersection.isEmpty() ? span : intersection;
+    }
+
+    @Benchmark
+    public int connectedIntervals() {
+        return new ConnectedIntervals(intervals).size();
+    }
+
+    @Benchmark
+    public int partitionIntoRows() {
+        return new Partition<Rectangle>(rectangles, rectangle -> rectangle.getOrigin().getY()).getPartitions().size();
+    }
+}
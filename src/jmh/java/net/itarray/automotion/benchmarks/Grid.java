@@ -0,0 +1,42 @@
+package net.itarray.automotion.benchmarks;
+
+import net.itarray.automotion.internal.geometry.Rectangle;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static rectangles.DummyWebElement.createElement;
+
+/**
+ * Equally sized cells in rows of {@link #COLUMNS}, the layout of a typical product list.
+ */
+final class Grid {
+
+    static final int COLUMNS = 10;
+    static final int CELL = 40;
+    static final int GAP = 10;
+
+    private Grid() {
+    }
+
+    static List<Rectangle> rectangles(int count) {
+        List<Rectangle> rectangles = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int x = GAP + (i % COLUMNS) * (CELL + GAP);
+            int y = GAP + (i / COLUMNS) * (CELL + GAP);
+            rectangles.add(new Rectangle(x, y, x + CELL, y + CELL));
+        }
+        return rectangles;
+    }
+
+    static List<WebElement> elements(int count) {
+        List<WebElement> elements = new ArrayList<>(count);
+        for (Rectangle rectangle : rectangles(count)) {
+            elements.add(createElement(
+                    rectangle.getOrigin().getX().intValue(), rectangle.getOrigin().getY().intValue(),
+                    rectangle.getCorner().getX().intValue(), rectangle.getCorner().getY().intValue()));
+        }
+        return elements;
+    }
+}
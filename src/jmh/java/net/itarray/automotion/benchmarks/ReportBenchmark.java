@@ -0,0 +1,90 @@
+package net.itarray.automotion.benchmarks;
+
+import net.itarray.automotion.internal.FinalReportBuilder;
+import net.itarray.automotion.internal.HtmlReportBuilder;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static net.itarray.automotion.validation.Constants.TARGET_AUTOMOTION_HTML;
+import static net.itarray.automotion.validation.Constants.TARGET_AUTOMOTION_JSON;
+
+/**
+ * Building the html report from 100 up to 10000 result files, one in ten failed, and building the index over
+ * as many reports. Run with the gc profiler (the default of the benchmarks profile) for the allocation rate;
+ * sample time gives the latency percentiles.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReportBenchmark {
+
+    private static final String PREFIX = "benchmark-";
+
+    @Param({"100", "1000", "10000"})
+    public int results;
+
+    private final List<String> jsonFiles = new ArrayList<>();
+    private final List<File> reportStubs = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void writeResults() throws IOException {
+        for (int i = 0; i < results; i++) {
+            File file = new File(TARGET_AUTOMOTION_JSON + PREFIX + i + ".json");
+            file.getParentFile().mkdirs();
+            Files.write(file.toPath(), SyntheticResults.result(i, i % 10 == 0).toJSONString().getBytes(StandardCharsets.UTF_8));
+            jsonFiles.add(file.getName());
+
+            File stub = new File(TARGET_AUTOMOTION_HTML + PREFIX + i + ".html");
+            stub.getParentFile().mkdirs();
+            Files.write(stub.toPath(), "<html></html>".getBytes(StandardCharsets.UTF_8));
+            reportStubs.add(stub);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteReports() {
+        for (String status : new String[]{"success", "failure"}) {
+            File[] reports = new File(TARGET_AUTOMOTION_HTML + status).listFiles((dir, name) -> name.startsWith(PREFIX));
+            if (reports != null) {
+                for (File report : reports) {
+                    FileUtils.deleteQuietly(report);
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteResults() {
+        for (String jsonFile : jsonFiles) {
+            FileUtils.deleteQuietly(new File(TARGET_AUTOMOTION_JSON + jsonFile));
+        }
+        reportStubs.forEach(FileUtils::deleteQuietly);
+    }
+
+    @Benchmark
+    public void htmlReport() {
+        // the builder consumes the list
+        new HtmlReportBuilder().buildReport(PREFIX + "report", new ArrayList<>(jsonFiles));
+    }
+
+    @Benchmark
+    public void shardedHtmlReport() {
+        new HtmlReportBuilder().withShards(100).buildReport(PREFIX + "sharded", new ArrayList<>(jsonFiles));
+    }
+
+    @Benchmark
+    public void finalReport() {
+        new FinalReportBuilder().execute();
+    }
+}
@@ -0,0 +1,140 @@
+package net.itarray.automotion.benchmarks;
+
+import net.itarray.automotion.internal.DrawableScreenshot;
+import net.itarray.automotion.internal.DrawingConfiguration;
+import net.itarray.automotion.internal.FinalReportBuilder;
+import net.itarray.automotion.internal.HtmlReportBuilder;
+import net.itarray.automotion.internal.ResultsLog;
+import net.itarray.automotion.internal.SimpleTransform;
+import net.itarray.automotion.internal.UIElement;
+import net.itarray.automotion.internal.geometry.Rectangle;
+import net.itarray.automotion.internal.geometry.Vector;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import static net.itarray.automotion.validation.Constants.TARGET_AUTOMOTION;
+import static net.itarray.automotion.validation.Constants.TARGET_AUTOMOTION_HTML;
+import static net.itarray.automotion.validation.Constants.TARGET_AUTOMOTION_IMG;
+
+/**
+ * Runs the whole reporting pipeline of a synthetic test run end to end, once per number of results: writing the
+ * results, encoding the screenshots and drawings of the failed ones, building the html report and the index.
+ * Prints per stage the duration, the throughput, latency percentiles per item, the allocated bytes and the bytes
+ * written to disk, to size CI disks and timeouts.
+ * <p>
+ * Usage: ReportPipelineRun [number of results ...] (default 100 1000 10000). Deletes its files after each run.
+ */
+public class ReportPipelineRun {
+
+    private static final double FAILURE_RATIO = 0.02;
+
+    private final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws IOException {
+        int[] sizes = args.length == 0 ? new int[]{100, 1000, 10000} : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+        ReportPipelineRun run = new ReportPipelineRun();
+        // warm up the jit, the output is not representative
+        run.run(100, false);
+        System.out.println(String.format("%8s %-12s %7s %10s %12s %10s %10s %10s %10s %10s",
+                "results", "stage", "items", "total ms", "items/s", "p50 ms", "p90 ms", "p99 ms", "alloc MB", "disk MB"));
+        for (int size : sizes) {
+            run.run(size, true);
+        }
+    }
+
+    private void run(int results, boolean print) throws IOException {
+        ResultsLog log = new ResultsLog();
+        int failures = Math.max(1, (int) (results * FAILURE_RATIO));
+        File screenshot = SyntheticResults.writeScreenshot(new File(TARGET_AUTOMOTION_IMG + "pipeline-screenshot.png"), 1);
+
+        Stage json = stage("json", results, i -> {
+            log.append(SyntheticResults.result(i, i % (results / failures) == 0));
+            if (i == results - 1) {
+                log.sync();
+            }
+        });
+        Stage images = stage("images", failures, i -> drawFailure(screenshot, i));
+        Stage report = stage("report", 1, i -> new HtmlReportBuilder().buildReport("pipeline", log));
+        Stage index = stage("index", 1, i -> new FinalReportBuilder().execute());
+
+        if (print) {
+            for (Stage stage : new Stage[]{json, images, report, index}) {
+                stage.print(results);
+            }
+        }
+        deleteFilesStartingWith(TARGET_AUTOMOTION_IMG, "pipeline");
+        deleteFilesStartingWith(TARGET_AUTOMOTION_HTML + "success", "pipeline");
+        deleteFilesStartingWith(TARGET_AUTOMOTION_HTML + "failure", "pipeline");
+    }
+
+    private static void deleteFilesStartingWith(String directory, String prefix) {
+        File[] files = new File(directory).listFiles((dir, name) -> name.startsWith(prefix));
+        if (files != null) {
+            for (File file : files) {
+                FileUtils.deleteQuietly(file);
+            }
+        }
+    }
+
+    private static void drawFailure(File screenshot, int index) {
+        DrawableScreenshot drawable = new DrawableScreenshot(
+                new Vector(SyntheticResults.SCREEN_WIDTH, SyntheticResults.SCREEN_HEIGHT),
+                new SimpleTransform(0, 1), new DrawingConfiguration(), "pipeline" + index, screenshot);
+        drawable.drawRoot(UIElement.asElement(new Rectangle(20, 100, 250, 200), "root"));
+        drawable.draw(UIElement.asElement(new Rectangle(270, 100, 500, 200), "element"));
+        drawable.saveDrawing();
+    }
+
+    private Stage stage(String name, int items, IntConsumer item) {
+        long diskBefore = diskUsage();
+        long allocatedBefore = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        long[] latencies = new long[items];
+        long start = System.nanoTime();
+        for (int i = 0; i < items; i++) {
+            long itemStart = System.nanoTime();
+            item.accept(i);
+            latencies[i] = System.nanoTime() - itemStart;
+        }
+        long total = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocatedBefore;
+        return new Stage(name, latencies, total, allocated, diskUsage() - diskBefore);
+    }
+
+    private static long diskUsage() {
+        File root = new File(TARGET_AUTOMOTION);
+        return root.exists() ? FileUtils.sizeOfDirectory(root) : 0;
+    }
+
+    private static class Stage {
+        private final String name;
+        private final long[] latencies;
+        private final long totalNanos;
+        private final long allocatedBytes;
+        private final long diskBytes;
+
+        private Stage(String name, long[] latencies, long totalNanos, long allocatedBytes, long diskBytes) {
+            this.name = name;
+            this.latencies = latencies.clone();
+            Arrays.sort(this.latencies);
+            this.totalNanos = totalNanos;
+            this.allocatedBytes = allocatedBytes;
+            this.diskBytes = diskBytes;
+        }
+
+        private double percentile(double percentile) {
+            int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1e6;
+        }
+
+        private void print(int results) {
+            System.out.println(String.format("%8d %-12s %7d %10.1f %12.1f %10.3f %10.3f %10.3f %10.1f %10.1f",
+                    results, name, latencies.length, totalNanos / 1e6, latencies.length / (totalNanos / 1e9),
+                    percentile(50), percentile(90), percentile(99), allocatedBytes / 1e6, diskBytes / 1e6));
+        }
+    }
+}
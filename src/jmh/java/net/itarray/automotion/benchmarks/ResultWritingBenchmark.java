@@ -0,0 +1,66 @@
+package net.itarray.automotion.benchmarks;
+
+import net.itarray.automotion.internal.ResultsLog;
+import net.itarray.automotion.validation.ResponsiveUIValidator;
+import org.json.simple.JSONObject;
+import org.openjdk.jmh.annotations.*;
+import org.openqa.selenium.WebElement;
+
+import java.util.concurrent.TimeUnit;
+
+import static rectangles.DummyDriverFacade.createWebDriver;
+import static rectangles.DummyWebElement.createElement;
+
+/**
+ * Writing validation results: appending a result to the results log, and a whole passing validation with its
+ * result, which is what writeResults costs every validation of a test run.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ResultWritingBenchmark {
+
+    private ResultsLog log;
+    private JSONObject passed;
+    private JSONObject failed;
+    private ResponsiveUIValidator validator;
+    private WebElement element;
+    private WebElement rightNeighbour;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        log = new ResultsLog();
+        passed = SyntheticResults.result(1, false);
+        failed = SyntheticResults.result(2, true);
+        validator = new ResponsiveUIValidator(createWebDriver());
+        element = createElement(10, 10, 50, 50);
+        rightNeighbour = createElement(60, 10, 100, 50);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        log.delete();
+        validator.getResults().delete();
+    }
+
+    @Benchmark
+    public void appendPassedResult() {
+        log.append(passed);
+    }
+
+    @Benchmark
+    public void appendFailedResult() {
+        log.append(failed);
+    }
+
+    @Benchmark
+    public boolean validationWithResult() {
+        return validator.snapshot()
+                .findElement(element, "element")
+                .isLeftOf(rightNeighbour)
+                .validate();
+    }
+}
@@ -0,0 +1,56 @@
+package net.itarray.automotion.benchmarks;
+
+import net.itarray.automotion.internal.geometry.Scalar;
+import net.itarray.automotion.internal.geometry.Vector;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static net.itarray.automotion.internal.geometry.Scalar.scalar;
+
+/**
+ * Arithmetic on the fraction based {@link Scalar} and {@link Vector}, which every geometric assertion is built on.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScalarBenchmark {
+
+    private Scalar left;
+    private Scalar right;
+    private Scalar percentage;
+    private Vector origin;
+    private Vector corner;
+
+    @Setup
+    public void setUp() {
+        left = scalar(1280);
+        right = scalar(37);
+        percentage = scalar(33).by(scalar(100));
+        origin = new Vector(12, 345);
+        corner = new Vector(678, 910);
+    }
+
+    @Benchmark
+    public Scalar plusAndMinus() {
+        return left.plus(right).minus(right.plus(1));
+    }
+
+    @Benchmark
+    public Scalar timesAndBy() {
+        return left.times(percentage).by(right);
+    }
+
+    @Benchmark
+    public boolean comparison() {
+        return left.minus(right).abs().isLessOrEqualTo(right);
+    }
+
+    @Benchmark
+    public Scalar vectorDistance() {
+        return corner.minus(origin).norm();
+    }
+}
@@ -0,0 +1,80 @@
+package net.itarray.automotion.benchmarks;
+
+import net.itarray.automotion.internal.DrawableScreenshot;
+import net.itarray.automotion.internal.DrawingConfiguration;
+import net.itarray.automotion.internal.SimpleTransform;
+import net.itarray.automotion.internal.UIElement;
+import net.itarray.automotion.internal.geometry.Rectangle;
+import net.itarray.automotion.internal.geometry.Vector;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static net.itarray.automotion.validation.Constants.TARGET_AUTOMOTION_IMG;
+
+/**
+ * Encoding screenshots of 1x, 2x and 3x device pixel ratio: writing the screenshot itself, as the driver facade
+ * does, and saving the drawings of a failed validation with its thumbnail.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ScreenshotEncodingBenchmark {
+
+    @Param({"1", "2", "3"})
+    public int scale;
+
+    private BufferedImage image;
+    private File screenshot;
+    private File encoded;
+    private DrawableScreenshot drawableScreenshot;
+
+    @Setup(Level.Trial)
+    public void createScreenshot() throws IOException {
+        image = SyntheticResults.screenshot(scale);
+        screenshot = SyntheticResults.writeScreenshot(new File(TARGET_AUTOMOTION_IMG + "benchmark-screenshot-" + scale + ".png"), scale);
+        encoded = new File(TARGET_AUTOMOTION_IMG + "benchmark-encoded-" + scale + ".png");
+    }
+
+    @Setup(Level.Invocation)
+    public void drawFailures() {
+        Vector extend = new Vector(image.getWidth(), image.getHeight());
+        drawableScreenshot = new DrawableScreenshot(extend, new SimpleTransform(0, scale), new DrawingConfiguration(), "benchmark", screenshot);
+        drawableScreenshot.drawRoot(UIElement.asElement(new Rectangle(20, 100, 250, 200), "root"));
+        for (int i = 0; i < 10; i++) {
+            drawableScreenshot.draw(UIElement.asElement(new Rectangle(20 + 25 * i, 300, 40 + 25 * i, 340), "element " + i));
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteDrawings() {
+        FileUtils.deleteQuietly(drawableScreenshot.getDrawingsOutput());
+        if (drawableScreenshot.getThumbnailOutput() != null) {
+            FileUtils.deleteQuietly(drawableScreenshot.getThumbnailOutput());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteScreenshot() {
+        FileUtils.deleteQuietly(screenshot);
+        FileUtils.deleteQuietly(encoded);
+    }
+
+    @Benchmark
+    public boolean encodeScreenshot() throws IOException {
+        return ImageIO.write(image, "PNG", encoded);
+    }
+
+    @Benchmark
+    public void saveDrawing() {
+        drawableScreenshot.saveDrawing();
+    }
+}
@@ -0,0 +1,92 @@
+package net.itarray.automotion.benchmarks;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import static net.itarray.automotion.validation.Constants.*;
+
+/**
+ * Results and screenshots shaped like the ones of a real test run, generated locally and reproducibly.
+ */
+final class SyntheticResults {
+
+    static final int SCREEN_WIDTH = 1280;
+    static final int SCREEN_HEIGHT = 800;
+
+    private SyntheticResults() {
+    }
+
+    /**
+     * @param failed failed results have three failure messages and refer to a screenshot
+     */
+    @SuppressWarnings("unchecked")
+    static JSONObject result(int index, boolean failed) {
+        JSONObject result = new JSONObject();
+        JSONArray details = new JSONArray();
+        if (failed) {
+            for (int i = 0; i < 3; i++) {
+                JSONObject message = new JSONObject();
+                message.put(MESSAGE, String.format("Element #%d \"button %d\" is not left aligned with element #%d. Offset is %dpx", i, index, i + 1, i + 3));
+                JSONObject reason = new JSONObject();
+                reason.put(REASON, message);
+                details.add(reason);
+            }
+        }
+        JSONObject timings = new JSONObject();
+        JSONObject geometry = new JSONObject();
+        geometry.put(TIMING_NANOS, 1200000L + index);
+        geometry.put(TIMING_COUNT, 12L);
+        timings.put("geometry", geometry);
+
+        result.put(ERROR_KEY, failed);
+        result.put(DETAILS, details);
+        result.put(SCENARIO, String.format("Scenario %d - resolution: 1280x800 - zoom: 100%%", index));
+        result.put(ROOT_ELEMENT, new JSONObject());
+        result.put(TIME_EXECUTION, "15 milliseconds");
+        result.put(ELEMENT_NAME, "button " + index);
+        result.put(SCREENSHOT, failed ? "screenshot-" + index + ".png" : "");
+        result.put(DRAWINGS, failed ? "screenshot-" + index + "-draw.png" : "");
+        result.put(THUMBNAIL, "");
+        result.put(TIMINGS, timings);
+        return result;
+    }
+
+    /**
+     * A page like image: header, navigation and a grid of cards, so that it compresses like a real screenshot.
+     */
+    static BufferedImage screenshot(int scale) {
+        int width = SCREEN_WIDTH * scale;
+        int height = SCREEN_HEIGHT * scale;
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        Random random = new Random(42);
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, width, height);
+        graphics.setColor(new Color(40, 60, 90));
+        graphics.fillRect(0, 0, width, 80 * scale);
+        graphics.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 14 * scale));
+        for (int y = 100 * scale; y < height; y += 180 * scale) {
+            for (int x = 20 * scale; x < width; x += 250 * scale) {
+                graphics.setColor(new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256)));
+                graphics.fillRect(x, y, 230 * scale, 100 * scale);
+                graphics.setColor(Color.DARK_GRAY);
+                graphics.drawString("Product " + random.nextInt(1000) + " from " + random.nextInt(100) + " EUR", x, y + 130 * scale);
+            }
+        }
+        graphics.dispose();
+        return image;
+    }
+
+    static File writeScreenshot(File file, int scale) throws IOException {
+        file.getParentFile().mkdirs();
+        ImageIO.write(screenshot(scale), "png", file);
+        return file;
+    }
+}
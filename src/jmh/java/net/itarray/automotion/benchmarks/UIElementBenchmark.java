@@ -0,0 +1,80 @@
+package net.itarray.automotion.benchmarks;
+
+import net.itarray.automotion.internal.UIElement;
+import net.itarray.automotion.internal.geometry.Rectangle;
+import net.itarray.automotion.internal.geometry.Scalar;
+import net.itarray.automotion.tests.properties.TestContext;
+import net.itarray.automotion.validation.properties.Condition;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static net.itarray.automotion.internal.geometry.Scalar.scalar;
+
+/**
+ * The relation checks of single element validations, with and without tolerance.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UIElementBenchmark {
+
+    @Param({"0", "5"})
+    public int tolerance;
+
+    private UIElement element;
+    private UIElement rightNeighbour;
+    private UIElement container;
+    private UIElement page;
+    private Condition<Scalar> gap;
+    private TestContext context;
+
+    @Setup
+    public void setUp() {
+        element = UIElement.asElement(new Rectangle(10, 10, 50, 50), "element");
+        rightNeighbour = UIElement.asElement(new Rectangle(60, 12, 100, 50), "right neighbour");
+        container = UIElement.asElement(new Rectangle(0, 0, 200, 150), "container");
+        page = UIElement.asElement(new Rectangle(0, 0, 200, 150), "page");
+        gap = Condition.between(5).and(15);
+        context = new TestContext().withTolerance(scalar(tolerance));
+    }
+
+    @Benchmark
+    public int isLeftOf() {
+        element.validateIsLeftOf(rightNeighbour, gap, context);
+        return context.errorCount();
+    }
+
+    @Benchmark
+    public int topAligned() {
+        element.validateTopAlignedWith(rightNeighbour, context);
+        return context.errorCount();
+    }
+
+    @Benchmark
+    public int sameSize() {
+        element.validateSameSize(rightNeighbour, context);
+        return context.errorCount();
+    }
+
+    @Benchmark
+    public int notOverlapping() {
+        element.validateNotOverlappingWithElement(rightNeighbour, context);
+        return context.errorCount();
+    }
+
+    @Benchmark
+    public int insideOfContainer() {
+        element.validateInsideOfContainer(container, context);
+        return context.errorCount();
+    }
+
+    @Benchmark
+    public int leftOffset() {
+        element.validateLeftOffset(gap, page, context);
+        return context.errorCount();
+    }
+}
@@ -0,0 +1,62 @@
+package net.itarray.automotion.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stops transitions, animations and the blinking caret with a stylesheet injected into the page, so that the
+ * geometry and the screenshots of a snapshot do not depend on the moment they are taken. Running animations
+ * jump to their end state. Injecting the stylesheet again replaces it, and a navigation removes it.
+ */
+public final class AnimationFreeze {
+
+    private final static Logger LOG = LoggerFactory.getLogger(AnimationFreeze.class);
+
+    static final String STYLE_ID = "automotion-freeze";
+
+    static final String FREEZE_SCRIPT = "var style = document.getElementById('" + STYLE_ID + "');" +
+            " if (!style) {" +
+            "  style = document.createElement('style');" +
+            "  style.id = '" + STYLE_ID + "';" +
+            "  (document.head || document.documentElement).appendChild(style);" +
+            " }" +
+            " style.textContent = '*, *::before, *::after {" +
+            " transition: none !important; transition-delay: 0s !important; transition-duration: 0s !important;" +
+            " animation: none !important; animation-delay: 0s !important; animation-duration: 0s !important;" +
+            " caret-color: transparent !important; scroll-behavior: auto !important; }';" +
+            " if (document.getAnimations) {" +
+            "  document.getAnimations().forEach(function (animation) {" +
+            "   try { animation.finish(); } catch (e) { animation.cancel(); }" +
+            "  });" +
+            " }";
+
+    static final String UNFREEZE_SCRIPT = "var style = document.getElementById('" + STYLE_ID + "');" +
+            " if (style) { style.parentNode.removeChild(style); }";
+
+    private AnimationFreeze() {
+    }
+
+    /**
+     * @return true if the stylesheet was injected
+     */
+    public static boolean freeze(DriverFacade driver) {
+        return run(driver, FREEZE_SCRIPT, "freeze");
+    }
+
+    public static void unfreeze(DriverFacade driver) {
+        run(driver, UNFREEZE_SCRIPT, "unfreeze");
+    }
+
+    private static boolean run(DriverFacade driver, String script, String action) {
+        if (driver.isAppiumContext() && !driver.isAppiumWebContext()) {
+            return false;
+        }
+        try {
+            driver.executeScript(script, new Object[0]);
+            return true;
+        } catch (RuntimeException e) {
+            LOG.warn("Cannot " + action + " the animations of the page: " + e.getMessage());
+            return false;
+        }
+    }
+}
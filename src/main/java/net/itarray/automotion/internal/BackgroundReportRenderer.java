@@ -0,0 +1,142 @@
+package net.itarray.automotion.internal;
+
+import org.json.simple.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static net.itarray.automotion.validation.Constants.TARGET_AUTOMOTION_FRAGMENTS;
+
+/**
+ * Renders each result into a report fragment on a background thread as soon as it is reported, so that
+ * generating the report at the end of the suite only has to add the header and the charts around the
+ * fragment. Results and report assembly are handled in the order they are submitted by a single thread.
+ */
+public class BackgroundReportRenderer implements Closeable {
+
+    private final static Logger LOG = LoggerFactory.getLogger(BackgroundReportRenderer.class);
+
+    private final ExecutorService renderer = Executors.newSingleThreadExecutor(ParallelResultReader.daemonThreads("automotion-report-renderer"));
+    private final HtmlReportBuilder reportBuilder;
+
+    // only accessed by the renderer thread
+    private File fragment;
+    private Writer fragmentWriter;
+    private HtmlReportWriter reportWriter;
+    private Exception failure;
+
+    public BackgroundReportRenderer(HtmlReportBuilder reportBuilder) {
+        this.reportBuilder = reportBuilder;
+    }
+
+    /**
+     * Queues the result for rendering and returns immediately.
+     */
+    public void render(JSONObject result) {
+        renderer.execute(() -> {
+            if (failure != null) {
+                return;
+            }
+            try {
+                if (reportWriter == null) {
+                    openFragment();
+                }
+                reportWriter.writeScenario(result);
+            } catch (IOException | RuntimeException e) {
+                failure = e;
+            }
+        });
+    }
+
+    /**
+     * Waits until all queued results are rendered and writes the report. Results rendered afterwards go
+     * into the next report.
+     *
+     * @return false if there was nothing to report
+     */
+    public boolean assemble(String reportName) {
+        return await(cutOff(reportName), reportName);
+    }
+
+    /**
+     * Queues writing the report of all results queued so far and returns immediately. Results queued afterwards
+     * go into the next report.
+     *
+     * @return the report, see {@link #await(Future, String)}
+     */
+    public Future<Boolean> cutOff(String reportName) {
+        return renderer.submit(() -> assembleRendered(reportName));
+    }
+
+    /**
+     * Waits until the report is written.
+     *
+     * @return false if there was nothing to report
+     */
+    public static boolean await(Future<Boolean> report, String reportName) {
+        try {
+            return report.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while generating report " + reportName, e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Cannot generate report " + reportName, e.getCause());
+        }
+    }
+
+    private boolean assembleRendered(String reportName) throws IOException {
+        if (failure != null) {
+            Exception cause = failure;
+            discardFragment();
+            throw new IOException("Cannot render report fragment", cause);
+        }
+        if (reportWriter == null) {
+            return false;
+        }
+        try {
+            fragmentWriter.close();
+            reportBuilder.assembleReport(reportName, reportWriter, fragment);
+        } finally {
+            discardFragment();
+        }
+        return true;
+    }
+
+    private void openFragment() throws IOException {
+        String fragmentName = HtmlReportBuilder.reportBaseName("fragment");
+        fragment = new File(TARGET_AUTOMOTION_FRAGMENTS + fragmentName + ".fragment");
+        fragment.getParentFile().mkdirs();
+        fragmentWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fragment), StandardCharsets.UTF_8));
+        reportWriter = reportBuilder.createReportWriter(fragmentWriter, fragmentName);
+    }
+
+    private void discardFragment() {
+        try {
+            if (fragmentWriter != null) {
+                fragmentWriter.close();
+            }
+            if (fragment != null) {
+                Files.deleteIfExists(fragment.toPath());
+            }
+        } catch (IOException e) {
+            LOG.warn("Cannot delete report fragment " + fragment + ": " + e.getMessage());
+        }
+        fragment = null;
+        fragmentWriter = null;
+        reportWriter = null;
+        failure = null;
+    }
+
+    @Override
+    public void close() {
+        renderer.execute(this::discardFragment);
+        renderer.shutdown();
+    }
+}
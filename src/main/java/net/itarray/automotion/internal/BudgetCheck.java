@@ -0,0 +1,87 @@
+package net.itarray.automotion.internal;
+
+import net.itarray.automotion.validation.Budget;
+import net.itarray.automotion.validation.CommandStats;
+import net.itarray.automotion.validation.Phase;
+import net.itarray.automotion.validation.PhaseTimings;
+
+import java.util.*;
+import java.util.function.ToLongFunction;
+
+/**
+ * Compares the measured cost of a validation or snapshot with its {@link Budget} and describes every overrun,
+ * naming the calls that contributed most.
+ */
+public class BudgetCheck {
+
+    static final int TOP_OFFENDERS = 3;
+
+    private final Budget budget;
+    private final String scope;
+    private final Map<Budget.Limit, String> overruns = new EnumMap<>(Budget.Limit.class);
+
+    /**
+     * @param scope names what the budget applies to in the messages, e.g. Validation of "header"
+     */
+    public BudgetCheck(Budget budget, String scope) {
+        this.budget = budget;
+        this.scope = scope;
+    }
+
+    public BudgetCheck commands(CommandStats commands) {
+        long count = commands.getTotalCount();
+        if (count > budget.getMaxCommands()) {
+            overruns.put(Budget.Limit.COMMANDS, String.format("%s sent %d WebDriver commands, budget is %d. Top commands: %s",
+                    scope, count, budget.getMaxCommands(), topCommands(commands, commands::getCount)));
+        }
+        return this;
+    }
+
+    public BudgetCheck screenshotBytes(long bytes) {
+        if (bytes > budget.getMaxScreenshotBytes()) {
+            overruns.put(Budget.Limit.SCREENSHOT_BYTES, String.format("%s took a screenshot of %d bytes, budget is %d",
+                    scope, bytes, budget.getMaxScreenshotBytes()));
+        }
+        return this;
+    }
+
+    public BudgetCheck millis(long millis, CommandStats commands, PhaseTimings timings) {
+        if (millis > budget.getMaxMillis()) {
+            String offenders = commands.isEmpty() ? topPhases(timings) : topCommands(commands, commands::getNanos);
+            overruns.put(Budget.Limit.TIME, String.format("%s took %d ms, budget is %d ms. Top calls: %s",
+                    scope, millis, budget.getMaxMillis(), offenders));
+        }
+        return this;
+    }
+
+    public Map<Budget.Limit, String> getOverruns() {
+        return overruns;
+    }
+
+    private static String topCommands(CommandStats commands, ToLongFunction<String> cost) {
+        List<String> names = new ArrayList<>(commands.getCommands());
+        names.sort(Comparator.comparingLong(cost).reversed());
+        StringBuilder result = new StringBuilder();
+        for (String command : names.subList(0, Math.min(TOP_OFFENDERS, names.size()))) {
+            if (result.length() > 0) {
+                result.append(", ");
+            }
+            result.append(String.format("%s %dx %d ms", command, commands.getCount(command), commands.getMillis(command)));
+        }
+        return result.toString();
+    }
+
+    private static String topPhases(PhaseTimings timings) {
+        List<Phase> phases = new ArrayList<>(Arrays.asList(Phase.values()));
+        phases.removeIf(phase -> timings.getCount(phase) == 0);
+        phases.sort(Comparator.<Phase>comparingLong(timings::getNanos).reversed());
+        StringBuilder result = new StringBuilder();
+        for (Phase phase : phases.subList(0, Math.min(TOP_OFFENDERS, phases.size()))) {
+            if (result.length() > 0) {
+                result.append(", ");
+            }
+            result.append(String.format("%s %dx %d ms", phase.getKey(), timings.getCount(phase), timings.getMillis(phase)));
+        }
+        return result.toString();
+    }
+}
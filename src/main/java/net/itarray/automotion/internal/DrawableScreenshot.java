@@ -19,6 +19,7 @@ public class DrawableScreenshot {
     private TransformedGraphics graphics;
     private File screenshotName;
     private File drawingsOutput;
+    private File thumbnailOutput;
     private BufferedImage drawings;
 
     public DrawableScreenshot(Vector extend, SimpleTransform transform, DrawingConfiguration drawingConfiguration, String rootElementReadableName, File screenshotName) {
@@ -67,6 +68,13 @@ public class DrawableScreenshot {
         graphics.drawHorizontalLine(y.intValue(), extend.getX().intValue());
     }
 
+    /**
+     * @return the preview of the screenshot with the drawings, or null if none was written
+     */
+    public File getThumbnailOutput() {
+        return thumbnailOutput;
+    }
+
     public void saveDrawing() {
         try {
             if (drawings != null && drawingsOutput != null) {
@@ -74,11 +82,26 @@ public class DrawableScreenshot {
             }
         } catch (NullPointerException | IOException ignored) {}
 
+        saveThumbnail();
+
         if (drawings != null) {
             drawings.getGraphics().dispose();
         }
     }
 
+    private void saveThumbnail() {
+        int thumbnailWidth = drawingConfiguration.getThumbnailWidth();
+        if (drawings == null || drawingsOutput == null || thumbnailWidth <= 0) {
+            return;
+        }
+        File output = new File(drawingsOutput.getPath().replaceAll("\\.png$", "-thumb.png"));
+        try {
+            if (Thumbnails.write(screenshotName, drawings, output, thumbnailWidth)) {
+                thumbnailOutput = output;
+            }
+        } catch (IOException | RuntimeException ignored) {}
+    }
+
     public void drawRoot(UIElement rootElement) {
         drawingConfiguration.setRootElementStyle(graphics);
         basicDraw(rootElement);
@@ -6,6 +6,17 @@ public class DrawingConfiguration {
     private Color rootColor = new Color(255, 0, 0, 255);
     private Color highlightedElementsColor = new Color(255, 0, 255, 255);
     private Color linesColor = Color.ORANGE;
+    private int thumbnailWidth = 480;
+
+    public DrawingConfiguration() {
+    }
+
+    public DrawingConfiguration(DrawingConfiguration other) {
+        this.rootColor = other.rootColor;
+        this.highlightedElementsColor = other.highlightedElementsColor;
+        this.linesColor = other.linesColor;
+        this.thumbnailWidth = other.thumbnailWidth;
+    }
 
     public void setRootColor(Color rootColor) {
         this.rootColor = rootColor;
@@ -19,6 +30,14 @@ public class DrawingConfiguration {
         this.linesColor = linesColor;
     }
 
+    public int getThumbnailWidth() {
+        return thumbnailWidth;
+    }
+
+    public void setThumbnailWidth(int thumbnailWidth) {
+        this.thumbnailWidth = thumbnailWidth;
+    }
+
     public void setHighlightedElementStyle(TransformedGraphics graphics) {
         graphics.setColor(highlightedElementsColor);
         graphics.setStroke(new BasicStroke(2));
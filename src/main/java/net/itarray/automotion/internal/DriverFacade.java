@@ -26,10 +26,34 @@ import static net.itarray.automotion.tools.environment.EnvironmentFactory.getApp
 import static net.itarray.automotion.tools.environment.EnvironmentFactory.isFirefox;
 
 public class DriverFacade {
+    // sends the commands, instrumented if there is an instrumentation
     private final WebDriver driver;
+    // the driver as passed in, used to find out what kind of driver it is
+    private final WebDriver implementation;
+    private final DriverInstrumentation instrumentation;
 
     public DriverFacade(WebDriver driver) {
-        this.driver = driver;
+        this(driver, null);
+    }
+
+    /**
+     * @param instrumentation counts and times all commands sent through this facade, may be null
+     */
+    public DriverFacade(WebDriver driver, DriverInstrumentation instrumentation) {
+        this.implementation = driver;
+        this.instrumentation = instrumentation;
+        this.driver = instrumentation == null || driver == null ? driver : instrumentation.instrument(driver);
+    }
+
+    /**
+     * @return a facade for the same driver sending its commands through the instrumentation
+     */
+    public DriverFacade instrumented(DriverInstrumentation instrumentation) {
+        return new DriverFacade(implementation, instrumentation);
+    }
+
+    public DriverInstrumentation getInstrumentation() {
+        return instrumentation;
     }
 
     public File takeScreenshot() {
@@ -85,47 +109,55 @@ public class DriverFacade {
     }
 
     public boolean isChromeDriver() {
-        return (driver instanceof ChromeDriver) || ((RemoteWebDriver) driver).getCapabilities().getBrowserName().toLowerCase().equals("chrome");
+        return (implementation instanceof ChromeDriver) || ((RemoteWebDriver) implementation).getCapabilities().getBrowserName().toLowerCase().equals("chrome");
     }
 
     public boolean isFirefoxDriver() {
-        return (driver instanceof FirefoxDriver) || ((RemoteWebDriver) driver).getCapabilities().getBrowserName().toLowerCase().equals("firefox");
+        return (implementation instanceof FirefoxDriver) || ((RemoteWebDriver) implementation).getCapabilities().getBrowserName().toLowerCase().equals("firefox");
     }
 
     public boolean isPhantomJSDriver() {
-        return (driver instanceof PhantomJSDriver);
+        return (implementation instanceof PhantomJSDriver);
     }
 
     public boolean isAppiumAndroidContext() {
-        return driver instanceof AndroidDriver;
+        return implementation instanceof AndroidDriver;
     }
 
     public boolean isAppiumIOSContext() {
-        return driver instanceof IOSDriver;
+        return implementation instanceof IOSDriver;
     }
 
     public boolean isAppiumContext() {
-        return driver instanceof AppiumDriver;
+        return implementation instanceof AppiumDriver;
     }
 
     public boolean isAppiumWebContext() {
-        if (!(driver instanceof AppiumDriver)) {
+        if (!(implementation instanceof AppiumDriver)) {
             return false;
         }
-        return ((AppiumDriver) driver).getContext().startsWith("WEB");
+        return ((AppiumDriver) implementation).getContext().startsWith("WEB");
     }
 
     public boolean isAppiumNativeMobileContext() {
-        if (!(driver instanceof AppiumDriver)) {
+        if (!(implementation instanceof AppiumDriver)) {
             return false;
         }
-        return ((AppiumDriver) driver).getContext().contains("NATIVE");
+        return ((AppiumDriver) implementation).getContext().contains("NATIVE");
     }
 
     public Object executeScript(String script) {
         return ((JavascriptExecutor) driver).executeScript(script);
     }
 
+    public Object executeScript(String script, Object... args) {
+        return ((JavascriptExecutor) driver).executeScript(script, args);
+    }
+
+    public Object executeAsyncScript(String script, Object... args) {
+        return ((JavascriptExecutor) driver).executeAsyncScript(script, args);
+    }
+
     public String getZoom() {
         if (!isAppiumContext()) {
             String zoom = (String) executeScript(getZoomScript());
@@ -200,7 +232,7 @@ public class DriverFacade {
 
     public Dimension getResolution() {
         if (isAppiumContext() && getApp() == null) {
-            String resolution = ((RemoteWebDriver) driver).getCapabilities().getCapability("deviceScreenSize").toString();
+            String resolution = ((RemoteWebDriver) implementation).getCapabilities().getCapability("deviceScreenSize").toString();
             int width = parseInt(resolution.split("x")[0]);
             int height = parseInt(resolution.split("x")[1]);
 
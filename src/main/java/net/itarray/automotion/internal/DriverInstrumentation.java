@@ -0,0 +1,332 @@
+package net.itarray.automotion.internal;
+
+import net.itarray.automotion.validation.CommandStats;
+import org.json.simple.JSONObject;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Counts and times every command sent to a {@link WebDriver}, its windows and the {@link WebElement}s it returns,
+ * by wrapping them into proxies. Commands are named by the kind of the receiver and the method, e.g.
+ * element.getRect or driver.executeScript. Commands sent while a validation is running on the same thread are
+ * additionally attributed to the validation (see {@link PhaseRecorder#getCommands()}).
+ * <p>
+ * With a trace file, every command is also written as one json line. The trace is complete after {@link #close()}.
+ */
+public class DriverInstrumentation implements Closeable {
+
+    private final static Logger LOG = LoggerFactory.getLogger(DriverInstrumentation.class);
+
+    // methods answered by the client without a round trip to the browser
+    private static final Set<String> LOCAL_METHODS = new HashSet<>(Arrays.asList(
+            "manage", "navigate", "switchTo", "window", "timeouts", "ime", "logs",
+            "getWrappedDriver", "getWrappedElement", "getId", "getSessionId", "getCapabilities",
+            "getCommandExecutor", "getErrorHandler", "getFileDetector", "setFileDetector", "setLogLevel",
+            "getKeyboard", "getMouse", "getCoordinates"));
+
+    private final CommandStats stats = new CommandStats();
+    private final File traceFile;
+    private Writer trace;
+
+    public DriverInstrumentation() {
+        this.traceFile = null;
+    }
+
+    public DriverInstrumentation(File traceFile) {
+        this.traceFile = traceFile;
+        traceFile.getAbsoluteFile().getParentFile().mkdirs();
+        try {
+            this.trace = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(traceFile), StandardCharsets.UTF_8));
+        } catch (FileNotFoundException e) {
+            throw new RuntimeException("Cannot create command trace " + traceFile, e);
+        }
+    }
+
+    /**
+     * @return the commands sent through all drivers and elements instrumented by this instance
+     */
+    public CommandStats getStats() {
+        return stats;
+    }
+
+    public File getTraceFile() {
+        return traceFile;
+    }
+
+    public WebDriver instrument(WebDriver driver) {
+        return (WebDriver) wrap(driver);
+    }
+
+    public WebElement instrument(WebElement element) {
+        return (WebElement) wrap(element);
+    }
+
+    /**
+     * Instruments the element with the instrumentation of the validation running on this thread, if there is one.
+     * Used for elements the caller found with a driver that is not instrumented.
+     */
+    public static WebElement instrumentForActiveValidation(WebElement element) {
+        PhaseRecorder recorder = PhaseRecorder.active();
+        if (recorder == null || recorder.getInstrumentation() == null) {
+            return element;
+        }
+        return recorder.getInstrumentation().instrument(element);
+    }
+
+    /**
+     * @return the object behind the proxy, or the object itself if it is not instrumented
+     */
+    public static Object unwrap(Object object) {
+        if (object instanceof Instrumented) {
+            return ((Instrumented) object).getInstrumentedTarget();
+        }
+        return object;
+    }
+
+    private Object wrap(Object result) {
+        if (result == null || result instanceof Instrumented) {
+            return result;
+        }
+        if (result instanceof WebElement) {
+            return proxy(result, "element");
+        }
+        if (result instanceof WebDriver) {
+            return proxy(result, "driver");
+        }
+        if (result instanceof WebDriver.Window) {
+            return proxy(result, "window");
+        }
+        if (result instanceof WebDriver.Options) {
+            return proxy(result, "options");
+        }
+        if (result instanceof WebDriver.Navigation) {
+            return proxy(result, "navigation");
+        }
+        if (result instanceof WebDriver.TargetLocator) {
+            return proxy(result, "switchTo");
+        }
+        if (result instanceof WebDriver.Timeouts) {
+            return proxy(result, "timeouts");
+        }
+        if (result instanceof List && containsElements((List<?>) result)) {
+            List<Object> wrapped = new ArrayList<>(((List<?>) result).size());
+            for (Object element : (List<?>) result) {
+                wrapped.add(wrap(element));
+            }
+            return wrapped;
+        }
+        return result;
+    }
+
+    private static boolean containsElements(List<?> list) {
+        for (Object element : list) {
+            if (element instanceof WebElement) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Object proxy(Object target, String kind) {
+        ClassLoader classLoader = Instrumented.class.getClassLoader();
+        Set<Class<?>> interfaces = new LinkedHashSet<>();
+        collectInterfaces(target.getClass(), classLoader, interfaces);
+        interfaces.add(Instrumented.class);
+        if (target instanceof WebElement) {
+            interfaces.add(WrapsElement.class);
+        }
+        try {
+            return Proxy.newProxyInstance(classLoader, interfaces.toArray(new Class<?>[interfaces.size()]), new CommandCounter(target, kind));
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Cannot instrument " + target.getClass().getName() + ": " + e.getMessage());
+            return target;
+        }
+    }
+
+    private static void collectInterfaces(Class<?> type, ClassLoader classLoader, Set<Class<?>> interfaces) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (Class<?> implemented : current.getInterfaces()) {
+                if (Modifier.isPublic(implemented.getModifiers()) && isVisible(implemented, classLoader)) {
+                    interfaces.add(implemented);
+                }
+                collectInterfaces(implemented, classLoader, interfaces);
+            }
+        }
+    }
+
+    private static boolean isVisible(Class<?> type, ClassLoader classLoader) {
+        try {
+            return Class.forName(type.getName(), false, classLoader) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static Object[] unwrapArguments(Object[] args) {
+        if (args == null) {
+            return null;
+        }
+        Object[] unwrapped = (Object[]) Array.newInstance(args.getClass().getComponentType(), args.length);
+        for (int i = 0; i < args.length; i++) {
+            unwrapped[i] = unwrapArgument(args[i]);
+        }
+        return unwrapped;
+    }
+
+    // script arguments may contain instrumented elements at any depth
+    private static Object unwrapArgument(Object arg) {
+        if (arg instanceof Object[]) {
+            return unwrapArguments((Object[]) arg);
+        }
+        if (arg instanceof List) {
+            List<Object> unwrapped = new ArrayList<>(((List<?>) arg).size());
+            for (Object element : (List<?>) arg) {
+                unwrapped.add(unwrapArgument(element));
+            }
+            return unwrapped;
+        }
+        if (arg instanceof Map) {
+            Map<Object, Object> unwrapped = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) arg).entrySet()) {
+                unwrapped.put(entry.getKey(), unwrapArgument(entry.getValue()));
+            }
+            return unwrapped;
+        }
+        return unwrap(arg);
+    }
+
+    private void record(String command, long nanos, boolean failed) {
+        stats.add(command, nanos);
+        PhaseRecorder recorder = PhaseRecorder.active();
+        if (recorder != null) {
+            recorder.getCommands().add(command, nanos);
+        }
+        if (trace != null) {
+            trace(command, nanos, failed, recorder == null ? null : recorder.getLabel());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized void trace(String command, long nanos, boolean failed, String validation) {
+        if (trace == null) {
+            return;
+        }
+        JSONObject line = new JSONObject();
+        line.put("time", System.currentTimeMillis());
+        line.put("thread", Thread.currentThread().getName());
+        line.put("command", command);
+        line.put("nanos", nanos);
+        if (validation != null) {
+            line.put("validation", validation);
+        }
+        if (failed) {
+            line.put("failed", true);
+        }
+        try {
+            trace.write(line.toJSONString());
+            trace.write('\n');
+        } catch (IOException e) {
+            LOG.warn("Cannot write command trace " + traceFile + ": " + e.getMessage());
+            closeTrace();
+        }
+    }
+
+    public synchronized void flush() {
+        if (trace != null) {
+            try {
+                trace.flush();
+            } catch (IOException e) {
+                LOG.warn("Cannot write command trace " + traceFile + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closeTrace();
+    }
+
+    private void closeTrace() {
+        if (trace != null) {
+            try {
+                trace.close();
+            } catch (IOException e) {
+                LOG.warn("Cannot close command trace " + traceFile + ": " + e.getMessage());
+            }
+            trace = null;
+        }
+    }
+
+    /**
+     * Implemented by all proxies of this class.
+     */
+    public interface Instrumented {
+        Object getInstrumentedTarget();
+    }
+
+    private class CommandCounter implements InvocationHandler {
+        private final Object target;
+        private final String kind;
+
+        private CommandCounter(Object target, String kind) {
+            this.target = target;
+            this.kind = kind;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Class<?> declaringClass = method.getDeclaringClass();
+            if (declaringClass == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return target.equals(unwrap(args[0]));
+                    case "hashCode":
+                        return target.hashCode();
+                    default:
+                        return target.toString();
+                }
+            }
+            if (declaringClass == Instrumented.class) {
+                return target;
+            }
+            if (declaringClass == WrapsElement.class && !(target instanceof WrapsElement)) {
+                return target;
+            }
+            Object[] targetArgs = unwrapArguments(args);
+            if (LOCAL_METHODS.contains(method.getName())) {
+                return wrap(call(method, targetArgs));
+            }
+            boolean failed = true;
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = call(method, targetArgs);
+                failed = false;
+            } finally {
+                record(kind + "." + method.getName(), System.nanoTime() - start, failed);
+            }
+            return wrap(result);
+        }
+
+        private Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
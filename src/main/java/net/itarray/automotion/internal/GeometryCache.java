@@ -0,0 +1,158 @@
+package net.itarray.automotion.internal;
+
+import net.itarray.automotion.internal.geometry.Rectangle;
+import net.itarray.automotion.validation.Phase;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * The geometry of elements, captured with one script for all of them instead of asking every element for its
+ * location and size. While the cache is active on a thread, {@link UIElement#asElement(WebElement)} takes the
+ * rectangles from it. Elements that are not in the cache yet are fetched one by one and remembered, so that the
+ * next {@link #capture(DriverFacade)} includes them.
+ */
+public class GeometryCache {
+
+    private final static Logger LOG = LoggerFactory.getLogger(GeometryCache.class);
+
+    private static final ThreadLocal<GeometryCache> ACTIVE = new ThreadLocal<>();
+
+    // page coordinates, like WebElement.getLocation()
+    static final String CAPTURE_SCRIPT = "return Array.prototype.map.call(arguments[0], function (element) {" +
+            " var rect = element.getBoundingClientRect();" +
+            " return [rect.left + window.pageXOffset, rect.top + window.pageYOffset, rect.width, rect.height];" +
+            " });";
+
+    private final Set<WebElement> elements = new LinkedHashSet<>();
+    private final Map<WebElement, Rectangle> rectangles = new HashMap<>();
+    private int captures;
+    private int misses;
+
+    /**
+     * @return the rectangle of the element from the cache active on this thread, or from the element itself
+     */
+    public static Rectangle rectangle(WebElement element) {
+        GeometryCache cache = ACTIVE.get();
+        Rectangle rectangle = cache == null ? Rectangle.rectangle(element) : cache.lookup(element);
+        Revalidation.read(element, rectangle);
+        return rectangle;
+    }
+
+    private Rectangle lookup(WebElement element) {
+        WebElement target = (WebElement) DriverInstrumentation.unwrap(element);
+        Rectangle rectangle = rectangles.get(target);
+        if (rectangle == null && target instanceof LocatedElement && !elements.contains(target)) {
+            // located with its geometry, captured again only if it was included explicitly
+            rectangle = ((LocatedElement) target).getRectangle();
+            rectangles.put(target, rectangle);
+            return rectangle;
+        }
+        if (rectangle == null) {
+            misses++;
+            rectangle = target instanceof LocatedElement ? ((LocatedElement) target).fetchRectangle() : Rectangle.rectangle(element);
+            elements.add(target);
+            rectangles.put(target, rectangle);
+        }
+        return rectangle;
+    }
+
+    /**
+     * Adds elements to the next capture.
+     */
+    public void include(Collection<? extends WebElement> elements) {
+        for (WebElement element : elements) {
+            this.elements.add((WebElement) DriverInstrumentation.unwrap(element));
+        }
+    }
+
+    /**
+     * Replaces the cached rectangles by the current geometry of all elements seen so far, in one round trip.
+     * If the page replaced located elements, they look up their matches again and the capture is tried once more.
+     * If the capture fails, e.g. because an element is not attached anymore, the cache starts over empty.
+     */
+    public void capture(DriverFacade driver) {
+        rectangles.clear();
+        if (elements.isEmpty()) {
+            return;
+        }
+        List<WebElement> captured = new ArrayList<>(elements);
+        try {
+            List<?> rows = (List<?>) captureRows(driver, captured);
+            for (int i = 0; i < captured.size(); i++) {
+                List<?> row = (List<?>) rows.get(i);
+                int x = ((Number) row.get(0)).intValue();
+                int y = ((Number) row.get(1)).intValue();
+                int width = ((Number) row.get(2)).intValue();
+                int height = ((Number) row.get(3)).intValue();
+                rectangles.put(captured.get(i), new Rectangle(x, y, x + width, y + height));
+            }
+            captures++;
+        } catch (WebDriverException | ClassCastException | IndexOutOfBoundsException e) {
+            LOG.warn("Cannot capture the geometry of " + captured.size() + " elements, fetching them one by one: " + e.getMessage());
+            rectangles.clear();
+            // the geometry located elements were located with is outdated, they are fetched instead
+            elements.removeIf(element -> !(element instanceof LocatedElement));
+        }
+    }
+
+    private Object captureRows(DriverFacade driver, List<WebElement> captured) {
+        try {
+            return PhaseRecorder.time(Phase.GEOMETRY, () -> driver.executeScript(CAPTURE_SCRIPT, captured));
+        } catch (StaleElementReferenceException e) {
+            if (!LocatedElement.forgetMatches(captured)) {
+                throw e;
+            }
+            return PhaseRecorder.time(Phase.GEOMETRY, () -> driver.executeScript(CAPTURE_SCRIPT, captured));
+        }
+    }
+
+    /**
+     * Runs the action with this cache active.
+     */
+    public <T> T activated(Supplier<T> action) {
+        GeometryCache previous = ACTIVE.get();
+        ACTIVE.set(this);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                ACTIVE.remove();
+            } else {
+                ACTIVE.set(previous);
+            }
+        }
+    }
+
+    /**
+     * @return the number of elements included in the next capture
+     */
+    public int size() {
+        return elements.size();
+    }
+
+    /**
+     * @return the number of successful captures
+     */
+    public int getCaptures() {
+        return captures;
+    }
+
+    /**
+     * @return the number of rectangles fetched from the elements because they were not captured
+     */
+    public int getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,576 @@
+package net.itarray.automotion.internal;
+
+import com.webfirmframework.wffweb.tag.html.*;
+import com.webfirmframework.wffweb.tag.html.attribute.core.AbstractAttribute;
+import com.webfirmframework.wffweb.tag.html.attribute.Alt;
+import com.webfirmframework.wffweb.tag.html.attribute.Src;
+import com.webfirmframework.wffweb.tag.html.attribute.event.mouse.OnClick;
+import com.webfirmframework.wffweb.tag.html.attribute.global.ClassAttribute;
+import com.webfirmframework.wffweb.tag.html.attribute.global.Id;
+import com.webfirmframework.wffweb.tag.html.attribute.global.Style;
+import com.webfirmframework.wffweb.tag.html.html5.attribute.global.DataAttribute;
+import com.webfirmframework.wffweb.tag.html.images.Img;
+import com.webfirmframework.wffweb.tag.html.lists.Li;
+import com.webfirmframework.wffweb.tag.html.lists.Ol;
+import com.webfirmframework.wffweb.tag.html.metainfo.Head;
+import com.webfirmframework.wffweb.tag.html.programming.Script;
+import com.webfirmframework.wffweb.tag.html.stylesandsemantics.Div;
+import com.webfirmframework.wffweb.tag.html.stylesandsemantics.Span;
+import com.webfirmframework.wffweb.tag.html.stylesandsemantics.StyleTag;
+import com.webfirmframework.wffweb.tag.html.tables.*;
+import com.webfirmframework.wffweb.tag.htmlwff.NoTag;
+import net.itarray.automotion.validation.Phase;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static net.itarray.automotion.validation.Constants.*;
+
+/**
+ * Writes the html report piece by piece: the header, one block per scenario as soon as its result is known
+ * and finally the charts. Only the markup of a single scenario is held in memory at any time.
+ */
+public class HtmlReportWriter {
+
+    protected Writer writer;
+    private int failuresCounter = 0;
+    private int successCounter = 0;
+    private int counter = 0;
+    private final StringBuilder barDuration = new StringBuilder();
+    private final StringBuilder barScenariosNames = new StringBuilder();
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private final long[] phaseCounts = new long[Phase.values().length];
+    private int timedScenarios = 0;
+    private final Map<String, long[]> commands = new TreeMap<>();
+
+    public HtmlReportWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Continues writing to another writer. Used to write the scenarios into a fragment first and the
+     * header, the fragment and the footer into the report afterwards.
+     */
+    void redirectTo(Writer writer) {
+        this.writer = writer;
+    }
+
+    public int getFailuresCounter() {
+        return failuresCounter;
+    }
+
+    public int getSuccessCounter() {
+        return successCounter;
+    }
+
+    public void writeHeader() throws IOException {
+        writer.write("<!DOCTYPE html>\n<html style=\"background-color:#fff;\">");
+        writer.write(buildHead().toHtmlString());
+        writer.write("<body><div class=\"container-fluid\">");
+        writer.write(buildTitleRow().toHtmlString());
+        writer.write(buildChartsRow().toHtmlString());
+    }
+
+    public void writeScenario(JSONObject jsonObject) throws IOException {
+        boolean isFailed = (Boolean) jsonObject.get(ERROR_KEY);
+
+        counter++;
+        if (isFailed) {
+            failuresCounter++;
+        } else {
+            successCounter++;
+        }
+
+        if (barDuration.length() > 0) {
+            barDuration.append(", ");
+            barScenariosNames.append(", ");
+        }
+        barDuration.append(((String) jsonObject.get(TIME_EXECUTION)).split(" ")[0]);
+        barScenariosNames.append(String.format("'%d. %s'", counter, jsonObject.get(SCENARIO)));
+        addTimings((JSONObject) jsonObject.get(TIMINGS));
+        addCommands((JSONObject) jsonObject.get(COMMANDS));
+
+        writeScenarioBlock(jsonObject, isFailed, counter);
+    }
+
+    protected void writeScenarioBlock(JSONObject jsonObject, boolean isFailed, int index) throws IOException {
+        writer.write(buildScenario(jsonObject, isFailed).toHtmlString());
+    }
+
+    private void addTimings(JSONObject timings) {
+        if (timings == null) {
+            return;
+        }
+        timedScenarios++;
+        for (Phase phase : Phase.values()) {
+            JSONObject phaseTimings = (JSONObject) timings.get(phase.getKey());
+            if (phaseTimings != null) {
+                phaseNanos[phase.ordinal()] += ((Number) phaseTimings.get(TIMING_NANOS)).longValue();
+                phaseCounts[phase.ordinal()] += ((Number) phaseTimings.get(TIMING_COUNT)).longValue();
+            }
+        }
+    }
+
+    private void addCommands(JSONObject commandsJson) {
+        if (commandsJson == null) {
+            return;
+        }
+        for (Object command : commandsJson.keySet()) {
+            JSONObject commandJson = (JSONObject) commandsJson.get(command);
+            long[] total = commands.computeIfAbsent((String) command, key -> new long[2]);
+            total[0] += ((Number) commandJson.get(TIMING_NANOS)).longValue();
+            total[1] += ((Number) commandJson.get(TIMING_COUNT)).longValue();
+        }
+    }
+
+    public void writeFooter() throws IOException {
+        if (timedScenarios > 0) {
+            writer.write(buildTimingsRow().toHtmlString());
+        }
+        if (!commands.isEmpty()) {
+            writer.write(buildCommandsRow().toHtmlString());
+        }
+        writer.write(buildModal().toHtmlString());
+        writer.write(script("" +
+                "var data = [{\n" +
+                "  values: [" + successCounter + ", " + failuresCounter + "],\n" +
+                "  labels: ['Passed', 'Failed'],\n" +
+                "  type: 'pie',\n" +
+                "  marker: {colors: ['rgb(60,179,113)', 'rgb(255,99,71)']},\n" +
+                "  hole: .4\n" +
+                "}];\n" +
+                "\n" +
+                "var layout = {\n" +
+                "  title: 'Stats',\n" +
+                "  height: 400,\n" +
+                "  width: 500,\n" +
+                "};\n" +
+                "\n" +
+                "Plotly.newPlot('plot', data, layout);"));
+        writer.write(script(new StringBuilder()
+                .append("var data = [\n")
+                .append("  {\n")
+                .append("    x: [").append(barScenariosNames).append("],\n")
+                .append("    y: [").append(barDuration).append("],\n")
+                .append("    type: 'bar'\n")
+                .append("  }\n")
+                .append("];\n")
+                .append("var layout = {\n")
+                .append("  title: 'Duration, ms',\n")
+                .append("  height: 400\n")
+                .append("};\n")
+                .append("\n")
+                .append("\n")
+                .append("Plotly.newPlot('bar', data, layout);")
+                .toString()));
+        writer.write(script("var acc = document.getElementsByClassName(\"accordion\");\n" +
+                "var i;\n" +
+                "\n" +
+                "for (i = 0; i < acc.length; i++) {\n" +
+                "    acc[i].addEventListener(\"click\", function() {\n" +
+                "        this.classList.toggle(\"active\");\n" +
+                "        var panel = this.nextElementSibling;\n" +
+                "        if (panel.style.display === \"block\") {\n" +
+                "            panel.style.display = \"none\";\n" +
+                "        } else {\n" +
+                "            panel.style.display = \"block\";\n" +
+                "        }\n" +
+                "    });\n" +
+                "}"));
+        writer.write(script("function showModal(imageId) {" +
+                "var modal = document.getElementById('myModal');\n" +
+                "\n" +
+                "// Get the image and insert it inside the modal - use its \"alt\" text as a caption\n" +
+                "var img = document.getElementById(imageId);\n" +
+                "var modalImg = document.getElementById(\"img01\");\n" +
+                "var captionText = document.getElementById(\"caption\");\n" +
+                "var overlayImg = document.getElementById(\"img02\");\n" +
+                "modal.style.display = \"block\";\n" +
+                "// Thumbnails keep the full size screenshot and drawings in data attributes\n" +
+                "modalImg.src = img.getAttribute(\"data-screenshot\") || img.src;\n" +
+                "var drawings = img.getAttribute(\"data-drawings\");\n" +
+                "overlayImg.style.display = drawings ? \"block\" : \"none\";\n" +
+                "overlayImg.src = drawings || \"\";\n" +
+                "captionText.innerHTML = img.alt;\n" +
+                "\n" +
+                "// Get the <span> element that closes the modal\n" +
+                "var span = document.getElementsByClassName(\"close\")[0];\n" +
+                "\n" +
+                "// When the user clicks on <span> (x), close the modal\n" +
+                "span.onclick = function() { \n" +
+                "  modal.style.display = \"none\";\n" +
+                "}}"));
+        writeAdditionalScripts();
+        writer.write("</div></body></html>");
+        writer.flush();
+    }
+
+    protected void writeAdditionalScripts() throws IOException {
+    }
+
+    protected String script(String content) {
+        return new Script(null) {{
+            new NoTag(this, content);
+        }}.toHtmlString();
+    }
+
+    private Head buildHead() {
+        return new Head(null) {{
+            new TitleTag(this) {{
+                new NoTag(this, "Automotion report");
+            }};
+            new NoTag(this, "<meta name=\"viewport\" content=\"width=device-width, initial-scale=1\">");
+            new NoTag(this, "<meta name=\"viewport\" content=\"width=device-width, initial-scale=1, maximum-scale=1, user-scalable=no\">");
+
+            new NoTag(this, "<script src=\"https://ajax.googleapis.com/ajax/libs/jquery/3.2.1/jquery.min.js\"></script>");
+            new NoTag(this, "<link rel=\"stylesheet\" href=\"https://maxcdn.bootstrapcdn.com/bootstrap/3.3.7/css/bootstrap.min.css\" integrity=\"sha384-BVYiiSIFeK1dGmJRAkycuHAHRg32OmUcww7on3RYdg4Va+PmSTsz/K68vbdEjh4u\" crossorigin=\"anonymous\">");
+            new NoTag(this, "<link rel=\"stylesheet\" href=\"https://maxcdn.bootstrapcdn.com/bootstrap/3.3.7/css/bootstrap-theme.min.css\" integrity=\"sha384-rHyoN1iRsVXV4nD0JutlnGaslCJuC7uwjduW9SVrLvRYooPp2bWYgmgJQIXwl/Sp\" crossorigin=\"anonymous\">");
+            new NoTag(this, "<script src=\"https://maxcdn.bootstrapcdn.com/bootstrap/3.3.7/js/bootstrap.min.js\" integrity=\"sha384-Tc5IQib027qvyjSMfHjOMaLkfuWVxZxUPnCJA7l2mCWNIpG9mGCD8wGNIcPD7Txa\" crossorigin=\"anonymous\"></script>");
+
+            new Script(this, new Src("https://cdn.plot.ly/plotly-latest.min.js"));
+            new Script(this, new Src("https://cdnjs.cloudflare.com/ajax/libs/numeric/1.2.6/numeric.min.js"));
+
+            new StyleTag(this) {{
+                new NoTag(this, ".accordion {\n" +
+                        "    background-color: #eee;\n" +
+                        "    color: #444;\n" +
+                        "    cursor: pointer;\n" +
+                        "    padding: 18px;\n" +
+                        "    width: 100%;\n" +
+                        "    border: none;\n" +
+                        "    text-align: left;\n" +
+                        "    outline: none;\n" +
+                        "    font-size: 15px;\n" +
+                        "    transition: 0.4s;\n" +
+                        "}\n" +
+                        "\n" +
+                        ".active, .accordion:hover {\n" +
+                        "    background-color: #ccc; \n" +
+                        "}\n" +
+                        "\n" +
+                        ".panel {\n" +
+                        "    padding: 0 18px;\n" +
+                        "    display: none;\n" +
+                        "    background-color: white;\n" +
+                        "}");
+            }};
+            new StyleTag(this) {{
+                new NoTag(this, "/* Style the Image Used to Trigger the Modal */\n" +
+                        "#myImg {\n" +
+                        "    border-radius: 5px;\n" +
+                        "    cursor: pointer;\n" +
+                        "    transition: 0.3s;\n" +
+                        "}\n" +
+                        "\n" +
+                        "#myImg:hover {opacity: 0.7;}\n" +
+                        "\n" +
+                        "/* The Modal (background) */\n" +
+                        ".modal {\n" +
+                        "    display: none; /* Hidden by default */\n" +
+                        "    position: fixed; /* Stay in place */\n" +
+                        "    z-index: 1; /* Sit on top */\n" +
+                        "    padding-top: 10px; /* Location of the box */\n" +
+                        "    left: 0;\n" +
+                        "    top: 0;\n" +
+                        "    width: 100%; /* Full width */\n" +
+                        "    height: 100%; /* Full height */\n" +
+                        "    overflow: auto; /* Enable scroll if needed */\n" +
+                        "    background-color: rgb(0,0,0); /* Fallback color */\n" +
+                        "    background-color: rgba(0,0,0,0.9); /* Black w/ opacity */\n" +
+                        "}\n" +
+                        "\n" +
+                        "/* Modal Content (Image) */\n" +
+                        ".modal-content {\n" +
+                        "    margin: auto;\n" +
+                        "    display: block;\n" +
+                        "height: 98%;\n" +
+                        "    width: auto;\n" +
+                        "}\n" +
+                        "\n" +
+                        "/* Caption of Modal Image (Image Text) - Same Width as the Image */\n" +
+                        "#caption {\n" +
+                        "    margin: auto;\n" +
+                        "    display: block;\n" +
+                        "height: 50px;\n" +
+                        "    width: auto;\n" +
+                        "    text-align: center;\n" +
+                        "    color: #ccc;\n" +
+                        "    padding: 10px 0;\n" +
+                        "}\n" +
+                        "\n" +
+                        "/* Add Animation - Zoom in the Modal */\n" +
+                        ".modal-content, #caption { \n" +
+                        "    animation-name: zoom;\n" +
+                        "    animation-duration: 0.6s;\n" +
+                        "}\n" +
+                        "\n" +
+                        "@keyframes zoom {\n" +
+                        "    from {transform:scale(0)} \n" +
+                        "    to {transform:scale(1)}\n" +
+                        "}\n" +
+                        "\n" +
+                        "/* The Close Button */\n" +
+                        ".close {\n" +
+                        "    position: absolute;\n" +
+                        "    top: 15px;\n" +
+                        "    right: 35px;\n" +
+                        "    color: #f1f1f1;\n" +
+                        "    font-size: 40px;\n" +
+                        "    font-weight: bold;\n" +
+                        "    transition: 0.3s;\n" +
+                        "}\n" +
+                        "\n" +
+                        ".close:hover,\n" +
+                        ".close:focus {\n" +
+                        "    color: #bbb;\n" +
+                        "    text-decoration: none;\n" +
+                        "    cursor: pointer;\n" +
+                        "}\n" +
+                        "\n" +
+                        "/* 100% Image Width on Smaller Screens */\n" +
+                        "@media only screen and (max-width: 700px){\n" +
+                        "    .modal-content {\n" +
+                        "        width: 100%;\n" +
+                        "    }\n" +
+                        "}");
+            }};
+        }};
+    }
+
+    private Div buildTitleRow() {
+        return new Div(null,
+                new ClassAttribute("row")) {{
+            new Div(this,
+                    new Style("background-color: rgb(0,191,255); color: white; padding: 10px; height: 90px")) {{
+                new H1(this, new Style("font-size:22px; font-weight: 200;"),
+                        new ClassAttribute("col-md-10")) {{
+                    new NoTag(this, String.format("Results from: %s", new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date())));
+                }};
+            }};
+        }};
+    }
+
+    private Div buildChartsRow() {
+        return new Div(null,
+                new ClassAttribute("row")) {{
+            new Div(this,
+                    new ClassAttribute("col-xs-12 col-sm-6 col-md-4"),
+                    new Id("plot")) {{
+            }};
+
+            new Div(this,
+                    new ClassAttribute("col-xs-12 col-md-8"),
+                    new Id("bar")) {{
+            }};
+        }};
+    }
+
+    private Div buildTimingsRow() {
+        return new Div(null,
+                new ClassAttribute("row"),
+                new Style("margin-top: 20px;")) {{
+            new H2(this,
+                    new Style("color: rgb(0,139,139); font-size:18px; font-weight: 300;")) {{
+                new NoTag(this, String.format("Time per phase (%d validations)", timedScenarios));
+            }};
+            new Table(this,
+                    new ClassAttribute("table table-condensed")) {{
+                new THead(this) {{
+                    new Tr(this) {{
+                        new Th(this) {{ new NoTag(this, "Phase"); }};
+                        new Th(this) {{ new NoTag(this, "Total ms"); }};
+                        new Th(this) {{ new NoTag(this, "Count"); }};
+                        new Th(this) {{ new NoTag(this, "ms per validation"); }};
+                    }};
+                }};
+                new TBody(this) {{
+                    for (Phase phase : Phase.values()) {
+                        if (phaseCounts[phase.ordinal()] == 0) {
+                            continue;
+                        }
+                        double millis = phaseNanos[phase.ordinal()] / 1e6;
+                        new Tr(this) {{
+                            new Td(this) {{ new NoTag(this, phase.getKey()); }};
+                            new Td(this) {{ new NoTag(this, String.format("%.1f", millis)); }};
+                            new Td(this) {{ new NoTag(this, String.valueOf(phaseCounts[phase.ordinal()])); }};
+                            new Td(this) {{ new NoTag(this, String.format("%.1f", millis / timedScenarios)); }};
+                        }};
+                    }
+                }};
+            }};
+        }};
+    }
+
+    private Div buildCommandsRow() {
+        return new Div(null,
+                new ClassAttribute("row"),
+                new Style("margin-top: 20px;")) {{
+            new H2(this,
+                    new Style("color: rgb(0,139,139); font-size:18px; font-weight: 300;")) {{
+                new NoTag(this, "WebDriver commands");
+            }};
+            new Table(this,
+                    new ClassAttribute("table table-condensed")) {{
+                new THead(this) {{
+                    new Tr(this) {{
+                        new Th(this) {{ new NoTag(this, "Command"); }};
+                        new Th(this) {{ new NoTag(this, "Total ms"); }};
+                        new Th(this) {{ new NoTag(this, "Count"); }};
+                        new Th(this) {{ new NoTag(this, "ms per command"); }};
+                    }};
+                }};
+                new TBody(this) {{
+                    for (Map.Entry<String, long[]> command : commands.entrySet()) {
+                        double millis = command.getValue()[0] / 1e6;
+                        long count = command.getValue()[1];
+                        new Tr(this) {{
+                            new Td(this) {{ new NoTag(this, command.getKey()); }};
+                            new Td(this) {{ new NoTag(this, String.format("%.1f", millis)); }};
+                            new Td(this) {{ new NoTag(this, String.valueOf(count)); }};
+                            new Td(this) {{ new NoTag(this, String.format("%.2f", millis / count)); }};
+                        }};
+                    }
+                }};
+            }};
+        }};
+    }
+
+    protected Div buildScenarioTitle(Div row, JSONObject jsonObject, boolean isFailed, AbstractAttribute... attributes) {
+        String className = isFailed ? "failed" : "passed";
+        String bgColor = "background: rgba(0,250,154, 0.3)";
+        if (isFailed) {
+            bgColor = "background: rgba(240,128,128, 0.3)";
+        }
+        AbstractAttribute[] allAttributes = Arrays.copyOf(attributes, attributes.length + 2);
+        allAttributes[attributes.length] = new Style("margin-top:2px;" + bgColor);
+        allAttributes[attributes.length + 1] = new ClassAttribute("accordion " + className);
+        return new Div(row, allAttributes) {{
+            new H1(this,
+                    new Style("color: rgb(47,79,79); font-size:24px; font-size:18px; font-weight: 300; text-decoration: underline;")) {{
+                new NoTag(this, String.format("Scenario: \"%s\"", jsonObject.get(SCENARIO)));
+            }};
+        }};
+    }
+
+    private Div buildScenario(JSONObject jsonObject, boolean isFailed) {
+        JSONArray details = (JSONArray) jsonObject.get(DETAILS);
+        Object screenshotDrawingOverlay = jsonObject.get(DRAWINGS);
+        return new Div(null,
+                new ClassAttribute("row")) {{
+            buildScenarioTitle(this, jsonObject, isFailed);
+
+            new Div(this,
+                    new ClassAttribute("panel")) {{
+                new H2(this,
+                        new Style("color: rgb(0,139,139); font-size:18px; font-weight: 300;")) {{
+                    new NoTag(this, String.format("Element: \"%s\"", jsonObject.get(ELEMENT_NAME)));
+                }};
+                if (isFailed) {
+                    new H3(this,
+                            new Style("color: rgb(255,69,0); font-size:18px; font-weight: 300;")) {{
+                        new NoTag(this, "Failures:");
+                    }};
+                }
+                new Ol(this) {{
+                    for (Object detail : details) {
+                        JSONObject det = (JSONObject) detail;
+                        JSONObject reason = (JSONObject) det.get(REASON);
+                        String numE = (String) reason.get(MESSAGE);
+
+                        new Li(this,
+                                new Style("color: rgb(105,105,105); font-size:14px; font-weight: 400;")) {{
+                            new NoTag(this, numE);
+                        }};
+                    }
+                }};
+                JSONArray warnings = (JSONArray) jsonObject.get(WARNINGS);
+                if (warnings != null) {
+                    new H3(this,
+                            new Style("color: rgb(255,140,0); font-size:18px; font-weight: 300;")) {{
+                        new NoTag(this, "Budget warnings:");
+                    }};
+                    new Ol(this) {{
+                        for (Object warning : warnings) {
+                            new Li(this,
+                                    new Style("color: rgb(105,105,105); font-size:14px; font-weight: 400;")) {{
+                                new NoTag(this, (String) warning);
+                            }};
+                        }
+                    }};
+                }
+                new H4(this,
+                        new Style("color: rgb(105,105,105); font-size:14px; font-weight: 300;")) {{
+                    new NoTag(this, String.format("Time execution: %s", jsonObject.get(TIME_EXECUTION)));
+                }};
+
+                new P(this) {{
+                    new Div(this,
+                            new Style("position:relative; left: 0; top:0; width: 96%; margin-left:2%")) {{
+
+                        if (isFailed && hasThumbnail(jsonObject)) {
+                            new Img(this,
+                                    new Id(screenshotDrawingOverlay.toString()),
+                                    new Style("cursor: pointer;"),
+                                    new Src(String.format("../../img/%s", jsonObject.get(THUMBNAIL))),
+                                    new DataAttribute("screenshot", String.format("../../img/%s", jsonObject.get(SCREENSHOT))),
+                                    new DataAttribute("drawings", String.format("../../img/%s", screenshotDrawingOverlay.toString())),
+                                    new OnClick("showModal('" + screenshotDrawingOverlay.toString() + "')"),
+                                    new Alt("screenshot-overlay"));
+                        } else if (isFailed) {
+                            new Img(this,
+                                    new Style("position:relative; left: 0; top:0"),
+                                    new Src(String.format("../../img/%s", jsonObject.get(SCREENSHOT))),
+                                    new Alt("screenshot"));
+                            new Img(this,
+                                    new Id(screenshotDrawingOverlay.toString()),
+                                    new Style("position:absolute; left: 0; top:0;"),
+                                    new Src(String.format("../../img/%s", screenshotDrawingOverlay.toString())),
+                                    new OnClick("showModal('" + screenshotDrawingOverlay.toString() + "')"),
+                                    new Alt("screenshot-overlay"));
+                        }
+                    }};
+                }};
+            }};
+        }};
+    }
+
+    private static boolean hasThumbnail(JSONObject jsonObject) {
+        Object thumbnail = jsonObject.get(THUMBNAIL);
+        return thumbnail != null && !thumbnail.toString().isEmpty();
+    }
+
+    private Div buildModal() {
+        return new Div(null,
+                new ClassAttribute("modal"),
+                new Id("myModal")) {{
+
+            new Span(this,
+                    new ClassAttribute("close")) {{
+                new NoTag(this, "&times;");
+            }};
+
+            new Div(this,
+                    new Style("position: relative; width: fit-content;"),
+                    new ClassAttribute("modal-content")) {{
+                new Img(this,
+                        new Id("img01"),
+                        new Style("display: block; height: 100%; width: auto;"));
+                new Img(this,
+                        new Id("img02"),
+                        new Style("position: absolute; left: 0; top: 0; height: 100%; width: auto;"));
+            }};
+
+            new Div(this,
+                    new Id("caption")) {{
+                new NoTag(this, "");
+            }};
+        }};
+    }
+}
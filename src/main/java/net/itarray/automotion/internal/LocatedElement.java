@@ -0,0 +1,354 @@
+package net.itarray.automotion.internal;
+
+import net.itarray.automotion.validation.Phase;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * An element matched by a selector, with its geometry, its name details and the requested css values fetched
+ * together with all other matches in one script. Validations read them without round trips. The WebElement
+ * itself is only looked up again by the selector when it is needed, e.g. to click it or to pass it to a script, and
+ * once more if the page replaced it since.
+ * <p>
+ * Elements located by the same selector with the same index are equal, wherever they are now, so that a
+ * {@link net.itarray.automotion.validation.UISnapshot#revalidate(String) revalidation} recognizes them after they moved.
+ */
+public class LocatedElement implements WebElement, WrapsElement {
+
+    static final String LOCATE_SCRIPT = "var mode = arguments[0], query = arguments[1], properties = arguments[2], elements;" +
+            " if (mode === 'xpath') {" +
+            "  var found = document.evaluate(query, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);" +
+            "  elements = [];" +
+            "  for (var i = 0; i < found.snapshotLength; i++) { elements.push(found.snapshotItem(i)); }" +
+            " } else if (mode === 'elements') {" +
+            "  elements = arguments[3];" +
+            " } else {" +
+            "  elements = document.querySelectorAll(query);" +
+            " }" +
+            " return Array.prototype.map.call(elements, function (element) {" +
+            "  var rect = element.getBoundingClientRect(), css = {};" +
+            "  if (properties.length) {" +
+            "   var style = window.getComputedStyle(element);" +
+            "   for (var j = 0; j < properties.length; j++) { css[properties[j]] = style.getPropertyValue(properties[j]); }" +
+            "  }" +
+            "  return [rect.left + window.pageXOffset, rect.top + window.pageYOffset, rect.width, rect.height," +
+            "   element.tagName.toLowerCase(), element.getAttribute('id'), element.getAttribute('class'), element.innerText, css];" +
+            " });";
+
+    private final Matches matches;
+    private final int index;
+    private final Point location;
+    private final Dimension size;
+    private final List<String> nameDetails;
+    private final Map<String, String> cssValues;
+
+    private LocatedElement(Matches matches, int index, List<?> row) {
+        this.matches = matches;
+        this.index = index;
+        this.location = new Point(((Number) row.get(0)).intValue(), ((Number) row.get(1)).intValue());
+        this.size = new Dimension(((Number) row.get(2)).intValue(), ((Number) row.get(3)).intValue());
+        this.nameDetails = Collections.unmodifiableList(Arrays.asList(string(row.get(4)), string(row.get(5)), string(row.get(6)), string(row.get(7))));
+        Map<String, String> cssValues = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> value : ((Map<?, ?>) row.get(8)).entrySet()) {
+            cssValues.put(String.valueOf(value.getKey()), String.valueOf(value.getValue()));
+        }
+        this.cssValues = Collections.unmodifiableMap(cssValues);
+    }
+
+    /**
+     * Finds all matches of the selector with one script. Css, id, class name, tag name, name and xpath
+     * selectors are resolved in the page; other selectors find the elements first, which takes one more round
+     * trip.
+     *
+     * @param cssProperties the css properties to fetch with the matches
+     */
+    public static List<WebElement> locate(DriverFacade driver, By selector, List<String> cssProperties) {
+        return PhaseRecorder.time(Phase.GEOMETRY, () -> {
+            Matches matches = new Matches(driver, selector);
+            String[] query = query(selector);
+            Object result;
+            if (query == null) {
+                matches.resolved = driver.getDriver().findElements(selector);
+                result = driver.executeScript(LOCATE_SCRIPT, "elements", "", cssProperties, matches.resolved);
+            } else {
+                result = driver.executeScript(LOCATE_SCRIPT, query[0], query[1], cssProperties);
+            }
+            List<?> rows = (List<?>) result;
+            List<WebElement> located = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                located.add(new LocatedElement(matches, i, (List<?>) rows.get(i)));
+            }
+            return Collections.unmodifiableList(located);
+        });
+    }
+
+    /**
+     * @return the mode and the query of the script, or null if the selector cannot be resolved in the page
+     */
+    static String[] query(By selector) {
+        String description = selector.toString();
+        int separator = description.indexOf(": ");
+        if (separator < 0) {
+            return null;
+        }
+        String value = description.substring(separator + 2);
+        switch (description.substring(0, separator)) {
+            case "By.cssSelector":
+                return new String[]{"css", value};
+            case "By.tagName":
+                return new String[]{"css", value};
+            case "By.id":
+                return new String[]{"css", "[id=\"" + quoted(value) + "\"]"};
+            case "By.name":
+                return new String[]{"css", "[name=\"" + quoted(value) + "\"]"};
+            case "By.className":
+                return new String[]{"css", "[class~=\"" + quoted(value) + "\"]"};
+            case "By.xpath":
+                return new String[]{"xpath", value};
+            default:
+                return null;
+        }
+    }
+
+    private static String quoted(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static String string(Object value) {
+        return value == null ? null : String.valueOf(value);
+    }
+
+    public net.itarray.automotion.internal.geometry.Rectangle getRectangle() {
+        return net.itarray.automotion.internal.geometry.Rectangle.rectangle(this);
+    }
+
+    /**
+     * @return the tag, id, class and text of the element
+     */
+    public List<String> getNameDetails() {
+        return nameDetails;
+    }
+
+    public boolean hasCssValue(String propertyName) {
+        return cssValues.containsKey(propertyName);
+    }
+
+    public By getSelector() {
+        return matches.selector;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return the element, found by the selector on first use
+     */
+    @Override
+    public WebElement getWrappedElement() {
+        return matches.resolve(index);
+    }
+
+    /**
+     * Runs the action on the element, looking up all matches of the selector again if the page replaced it.
+     */
+    private <T> T onElement(Function<WebElement, T> action) {
+        try {
+            return action.apply(getWrappedElement());
+        } catch (StaleElementReferenceException e) {
+            matches.forget();
+            return action.apply(getWrappedElement());
+        }
+    }
+
+    /**
+     * Makes the located elements among the elements look up their matches again, e.g. after a script failed
+     * because the page replaced some of them.
+     *
+     * @return false if none of the elements was located
+     */
+    static boolean forgetMatches(Collection<? extends WebElement> elements) {
+        boolean located = false;
+        for (WebElement element : elements) {
+            if (element instanceof LocatedElement) {
+                ((LocatedElement) element).matches.forget();
+                located = true;
+            }
+        }
+        return located;
+    }
+
+    /**
+     * @return the current geometry of the element, instead of the one it was located with
+     */
+    net.itarray.automotion.internal.geometry.Rectangle fetchRectangle() {
+        return onElement(net.itarray.automotion.internal.geometry.Rectangle::rectangle);
+    }
+
+    @Override
+    public Point getLocation() {
+        return location;
+    }
+
+    @Override
+    public Dimension getSize() {
+        return size;
+    }
+
+    @Override
+    public org.openqa.selenium.Rectangle getRect() {
+        return new org.openqa.selenium.Rectangle(location, size);
+    }
+
+    @Override
+    public String getTagName() {
+        return nameDetails.get(0);
+    }
+
+    @Override
+    public String getAttribute(String name) {
+        if ("id".equals(name)) {
+            return nameDetails.get(1);
+        }
+        if ("class".equals(name)) {
+            return nameDetails.get(2);
+        }
+        return onElement(element -> element.getAttribute(name));
+    }
+
+    @Override
+    public String getText() {
+        return nameDetails.get(3);
+    }
+
+    @Override
+    public String getCssValue(String propertyName) {
+        String value = cssValues.get(propertyName);
+        return value != null ? value : onElement(element -> element.getCssValue(propertyName));
+    }
+
+    @Override
+    public void click() {
+        onElement(element -> {
+            element.click();
+            return null;
+        });
+    }
+
+    @Override
+    public void submit() {
+        onElement(element -> {
+            element.submit();
+            return null;
+        });
+    }
+
+    @Override
+    public void sendKeys(CharSequence... keysToSend) {
+        onElement(element -> {
+            element.sendKeys(keysToSend);
+            return null;
+        });
+    }
+
+    @Override
+    public void clear() {
+        onElement(element -> {
+            element.clear();
+            return null;
+        });
+    }
+
+    @Override
+    public boolean isSelected() {
+        return onElement(WebElement::isSelected);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return onElement(WebElement::isEnabled);
+    }
+
+    @Override
+    public boolean isDisplayed() {
+        return onElement(WebElement::isDisplayed);
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return onElement(element -> element.findElements(by));
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return onElement(element -> element.findElement(by));
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) throws WebDriverException {
+        return onElement(element -> element.getScreenshotAs(target));
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof LocatedElement)) {
+            return false;
+        }
+        LocatedElement located = (LocatedElement) other;
+        return index == located.index && matches.selector.equals(located.matches.selector);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * matches.selector.hashCode() + index;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + matches.selector + "] #" + index;
+    }
+
+    /**
+     * The matches of one selector, looked up again all at once when the first of them is needed.
+     */
+    private static class Matches {
+        private final DriverFacade driver;
+        private final By selector;
+        private List<WebElement> resolved;
+
+        private Matches(DriverFacade driver, By selector) {
+            this.driver = driver;
+            this.selector = selector;
+        }
+
+        private synchronized WebElement resolve(int index) {
+            if (resolved == null) {
+                resolved = driver.getDriver().findElements(selector);
+            }
+            if (index >= resolved.size()) {
+                throw new NoSuchElementException("Cannot find match " + index + " of " + selector + " anymore, it has " + resolved.size() + " matches now");
+            }
+            return resolved.get(index);
+        }
+
+        private synchronized void forget() {
+            resolved = null;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package net.itarray.automotion.internal;
+
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parses json results on a bounded pool of worker threads and hands them to the consumer in their
+ * original order. At most {@code 2 * parallelism} results are in flight, so memory use does not
+ * depend on the number of results. Consumed result files are deleted in the background.
+ */
+public class ParallelResultReader implements Closeable {
+
+    private final static Logger LOG = LoggerFactory.getLogger(ParallelResultReader.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ExecutorService parsers;
+    private final ExecutorService deleter;
+    private final int window;
+
+    public ParallelResultReader() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelResultReader(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism needs to be greater than zero, parallelism supplied was " + parallelism);
+        }
+        this.parsers = Executors.newFixedThreadPool(parallelism, daemonThreads("automotion-result-parser"));
+        this.deleter = Executors.newSingleThreadExecutor(daemonThreads("automotion-result-deleter"));
+        this.window = 2 * parallelism;
+    }
+
+    public void read(List<File> files, ResultConsumer consumer) throws IOException, ParseException {
+        Deque<Future<JSONObject>> inFlight = new ArrayDeque<>(window);
+        Deque<File> inFlightFiles = new ArrayDeque<>(window);
+        for (File file : files) {
+            if (inFlight.size() == window) {
+                deliver(inFlight.removeFirst(), inFlightFiles.removeFirst(), consumer);
+            }
+            inFlight.addLast(parsers.submit(() -> parse(file)));
+            inFlightFiles.addLast(file);
+        }
+        while (!inFlight.isEmpty()) {
+            deliver(inFlight.removeFirst(), inFlightFiles.removeFirst(), consumer);
+        }
+    }
+
+    /**
+     * Reads one json result per line sequentially and parses the lines in parallel.
+     */
+    public void readLines(BufferedReader reader, ResultConsumer consumer) throws IOException, ParseException {
+        readLines(reader, Integer.MAX_VALUE, consumer);
+    }
+
+    /**
+     * Reads at most {@code maxResults} json results, one per line, and ignores whatever follows.
+     */
+    public void readLines(BufferedReader reader, int maxResults, ResultConsumer consumer) throws IOException, ParseException {
+        Deque<Future<JSONObject>> inFlight = new ArrayDeque<>(window);
+        int count = 0;
+        String line;
+        while (count < maxResults && (line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            if (inFlight.size() == window) {
+                consumer.accept(await(inFlight.removeFirst()));
+            }
+            String json = line;
+            count++;
+            inFlight.addLast(parsers.submit(() -> (JSONObject) new JSONParser().parse(json)));
+        }
+        while (!inFlight.isEmpty()) {
+            consumer.accept(await(inFlight.removeFirst()));
+        }
+    }
+
+    private void deliver(Future<JSONObject> result, File file, ResultConsumer consumer) throws IOException, ParseException {
+        consumer.accept(await(result));
+        deleter.execute(() -> delete(file));
+    }
+
+    private static JSONObject parse(File file) throws IOException, ParseException {
+        try (Reader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            return (JSONObject) new JSONParser().parse(reader);
+        }
+    }
+
+    private static JSONObject await(Future<JSONObject> result) throws IOException, ParseException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while parsing results");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof ParseException) {
+                throw (ParseException) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    private static void delete(File file) {
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            LOG.warn("Cannot delete json result " + file + ", deleting it on exit: " + e.getMessage());
+            file.deleteOnExit();
+        }
+    }
+
+    /**
+     * Waits for pending deletions and stops the worker threads.
+     */
+    @Override
+    public void close() {
+        parsers.shutdownNow();
+        deleter.shutdown();
+        try {
+            deleter.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static ThreadFactory daemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public interface ResultConsumer {
+        void accept(JSONObject result) throws IOException;
+    }
+}
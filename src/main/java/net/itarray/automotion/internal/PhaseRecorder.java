@@ -0,0 +1,130 @@
+package net.itarray.automotion.internal;
+
+import net.itarray.automotion.validation.CommandStats;
+import net.itarray.automotion.validation.Phase;
+import net.itarray.automotion.validation.PhaseTimings;
+
+import java.util.function.Supplier;
+
+/**
+ * Records the time spent per {@link Phase} into the timings of one validation. While the recorder runs a phase
+ * it is active on the current thread, so that code further down (element geometry, css values, screenshots)
+ * can time itself with {@link #time(Phase, Supplier)} without knowing the validation. The time of nested
+ * phases is subtracted from the enclosing phase. WebDriver commands sent through an instrumented driver while
+ * the recorder is active are added to its {@link CommandStats}.
+ */
+public class PhaseRecorder {
+
+    private static final ThreadLocal<PhaseRecorder> ACTIVE = new ThreadLocal<>();
+
+    private final PhaseTimings timings;
+    private final CommandStats commands;
+    private final DriverInstrumentation instrumentation;
+    private final String label;
+    private Frame current;
+
+    public PhaseRecorder(PhaseTimings timings) {
+        this(timings, new CommandStats(), null, null);
+    }
+
+    /**
+     * @param instrumentation the instrumentation of the validated driver, or null if it is not instrumented
+     * @param label           names the recorder in the command trace
+     */
+    public PhaseRecorder(PhaseTimings timings, CommandStats commands, DriverInstrumentation instrumentation, String label) {
+        this.timings = timings;
+        this.commands = commands;
+        this.instrumentation = instrumentation;
+        this.label = label;
+    }
+
+    public PhaseTimings getTimings() {
+        return timings;
+    }
+
+    public CommandStats getCommands() {
+        return commands;
+    }
+
+    public DriverInstrumentation getInstrumentation() {
+        return instrumentation;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @return the recorder active on this thread, or null
+     */
+    public static PhaseRecorder active() {
+        return ACTIVE.get();
+    }
+
+    /**
+     * Times the action for the recorder active on this thread, if there is one.
+     */
+    public static <T> T time(Phase phase, Supplier<T> action) {
+        PhaseRecorder recorder = ACTIVE.get();
+        if (recorder == null) {
+            return action.get();
+        }
+        return recorder.record(phase, action);
+    }
+
+    public static void time(Phase phase, Runnable action) {
+        time(phase, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public <T> T record(Phase phase, Supplier<T> action) {
+        Frame frame = new Frame(current);
+        current = frame;
+        long start = System.nanoTime();
+        try {
+            return activated(action);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            current = frame.parent;
+            timings.add(phase, elapsed - frame.nested);
+            if (current != null) {
+                current.nested += elapsed;
+            }
+        }
+    }
+
+    public void record(Phase phase, Runnable action) {
+        record(phase, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the action with this recorder active, without timing it.
+     */
+    public <T> T activated(Supplier<T> action) {
+        PhaseRecorder previous = ACTIVE.get();
+        ACTIVE.set(this);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                ACTIVE.remove();
+            } else {
+                ACTIVE.set(previous);
+            }
+        }
+    }
+
+    private static class Frame {
+        private final Frame parent;
+        private long nested;
+
+        private Frame(Frame parent) {
+            this.parent = parent;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package net.itarray.automotion.internal;
+
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Fetches what the checks of a {@link net.itarray.automotion.validation.ValidationPlan} read with a constant number
+ * of round trips, or what a {@link net.itarray.automotion.validation.Spec} reads from given elements. The elements
+ * are known before any check runs: one script hides the scrollbars and fetches the tag, id, class, text and the
+ * requested css values of all elements, one more their geometry, and the page size is fetched once. The checks then
+ * run once and are evaluated from these results; anything else they read is fetched as usual. Located elements
+ * bring all of this with them and are not fetched again.
+ */
+public class QueryPlan {
+
+    private final static Logger LOG = LoggerFactory.getLogger(QueryPlan.class);
+
+    private static final ThreadLocal<QueryPlan> ACTIVE = new ThreadLocal<>();
+
+    static final String DETAILS_SCRIPT = "var elements = arguments[0], properties = arguments[2];" +
+            " if (arguments[1]) { document.documentElement.style.overflow = 'hidden'; }" +
+            " return Array.prototype.map.call(elements, function (element) {" +
+            "  var css = {};" +
+            "  if (properties.length) {" +
+            "   var style = window.getComputedStyle(element);" +
+            "   for (var j = 0; j < properties.length; j++) { css[properties[j]] = style.getPropertyValue(properties[j]); }" +
+            "  }" +
+            "  return [element.tagName.toLowerCase(), element.getAttribute('id'), element.getAttribute('class'), element.innerText, css];" +
+            " });";
+
+    private final Set<WebElement> elements = new LinkedHashSet<>();
+    private final GeometryCache geometry = new GeometryCache();
+    private final Map<WebElement, List<String>> names = new HashMap<>();
+    private final List<String> cssProperties;
+    private final Map<WebElement, Map<String, String>> cssValues = new HashMap<>();
+    private Dimension pageSize;
+
+    /**
+     * @param elements the elements the checks validate
+     */
+    public QueryPlan(Collection<? extends WebElement> elements) {
+        this(elements, Collections.emptyList());
+    }
+
+    /**
+     * @param elements      the elements the checks validate
+     * @param cssProperties the css properties fetched with the names of the elements
+     */
+    public QueryPlan(Collection<? extends WebElement> elements, List<String> cssProperties) {
+        for (WebElement element : elements) {
+            WebElement target = (WebElement) DriverInstrumentation.unwrap(element);
+            if (!(target instanceof LocatedElement)) {
+                this.elements.add(target);
+            }
+        }
+        this.cssProperties = new ArrayList<>(cssProperties);
+        geometry.include(this.elements);
+    }
+
+    /**
+     * Fetches everything and runs the action once, reading from the fetched results.
+     */
+    public <T> T run(DriverFacade driver, Supplier<T> action) {
+        fetch(driver);
+        QueryPlan previous = ACTIVE.get();
+        ACTIVE.set(this);
+        try {
+            return geometry.activated(action);
+        } finally {
+            if (previous == null) {
+                ACTIVE.remove();
+            } else {
+                ACTIVE.set(previous);
+            }
+        }
+    }
+
+    static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+
+    /**
+     * Hides the scrollbars of the page, unless a plan already hid them.
+     */
+    static void hideOverflow(DriverFacade driver) {
+        if (ACTIVE.get() == null) {
+            try {
+                driver.executeScript("document.documentElement.style.overflow = 'hidden'");
+            } catch (Exception e) {}
+        }
+    }
+
+    static Dimension pageSize(DriverFacade driver) {
+        QueryPlan plan = ACTIVE.get();
+        return plan == null ? driver.retrievePageSize() : plan.pageSize;
+    }
+
+    /**
+     * @return the tag, id, class and text of the element, or null if they were not fetched
+     */
+    static List<String> nameDetails(WebElement element) {
+        WebElement target = (WebElement) DriverInstrumentation.unwrap(element);
+        if (target instanceof LocatedElement) {
+            return ((LocatedElement) target).getNameDetails();
+        }
+        QueryPlan plan = ACTIVE.get();
+        return plan == null ? null : plan.names.get(target);
+    }
+
+    /**
+     * @return the fetched value of the css property of the element, or null if it was not fetched
+     */
+    static String cssValue(WebElement element, String propertyName) {
+        QueryPlan plan = ACTIVE.get();
+        Map<String, String> values = plan == null ? null : plan.cssValues.get((WebElement) DriverInstrumentation.unwrap(element));
+        return values == null ? null : values.get(propertyName);
+    }
+
+    private void fetch(DriverFacade driver) {
+        pageSize = driver.retrievePageSize();
+        if (!elements.isEmpty()) {
+            fetchNames(driver);
+            geometry.capture(driver);
+        } else if (!driver.isAppiumContext()) {
+            // the checks do not hide the scrollbars while a plan is active
+            try {
+                driver.executeScript("document.documentElement.style.overflow = 'hidden'");
+            } catch (Exception e) {}
+        }
+    }
+
+    private void fetchNames(DriverFacade driver) {
+        List<WebElement> named = new ArrayList<>(elements);
+        try {
+            List<?> rows = (List<?>) driver.executeScript(DETAILS_SCRIPT, named, !driver.isAppiumContext(), cssProperties);
+            for (int i = 0; i < named.size(); i++) {
+                List<?> row = (List<?>) rows.get(i);
+                List<String> name = new ArrayList<>();
+                for (Object detail : row.subList(0, 4)) {
+                    name.add(detail == null ? null : String.valueOf(detail));
+                }
+                names.put(named.get(i), name);
+                if (row.size() > 4) {
+                    Map<String, String> values = new HashMap<>();
+                    for (Map.Entry<?, ?> value : ((Map<?, ?>) row.get(4)).entrySet()) {
+                        values.put(String.valueOf(value.getKey()), String.valueOf(value.getValue()));
+                    }
+                    cssValues.put(named.get(i), values);
+                }
+            }
+        } catch (WebDriverException | ClassCastException | IndexOutOfBoundsException | NullPointerException e) {
+            LOG.warn("Cannot fetch the names of " + named.size() + " elements, fetching them one by one: " + e.getMessage());
+            names.clear();
+            cssValues.clear();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package net.itarray.automotion.internal;
+
+import org.apache.commons.io.FileUtils;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.ParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static net.itarray.automotion.validation.Constants.TARGET_AUTOMOTION_PARTITIONS;
+
+/**
+ * Combines the committed results of all {@link ResultPartition}s into one report. The results are streamed
+ * partition by partition into the report, so they are never all in memory. Merged partitions are deleted.
+ * Run the merge once all JVMs writing partitions have finished, e.g. from an exec step after the tests:
+ * <pre>
+ * java -cp ... net.itarray.automotion.internal.ReportMerger "merged result"
+ * </pre>
+ */
+public class ReportMerger {
+
+    private final static Logger LOG = LoggerFactory.getLogger(ReportMerger.class);
+
+    private final File root;
+    private int scenariosPerShard = 0;
+
+    public ReportMerger() {
+        this(new File(TARGET_AUTOMOTION_PARTITIONS));
+    }
+
+    public ReportMerger(File root) {
+        this.root = root;
+    }
+
+    /**
+     * @see HtmlReportBuilder#withShards(int)
+     */
+    public ReportMerger withShards(int scenariosPerShard) {
+        if (scenariosPerShard < 1) {
+            throw new IllegalArgumentException("scenariosPerShard needs to be greater than zero, scenariosPerShard supplied was " + scenariosPerShard);
+        }
+        this.scenariosPerShard = scenariosPerShard;
+        return this;
+    }
+
+    /**
+     * Writes one report with the results of all partitions.
+     *
+     * @return the number of merged results
+     */
+    public int merge(String reportName) {
+        int[] merged = new int[1];
+        try {
+            ResultPartition.locked(root, () -> merged[0] = mergeLocked(reportName));
+        } catch (IOException | ParseException e) {
+            throw new RuntimeException("Cannot merge result partitions in " + root, e);
+        }
+        return merged[0];
+    }
+
+    private int mergeLocked(String reportName) throws IOException, ParseException {
+        List<Partition> partitions = committedPartitions();
+        int total = 0;
+        for (Partition partition : partitions) {
+            total += partition.count;
+        }
+        if (total > 0) {
+            HtmlReportBuilder reportBuilder = new HtmlReportBuilder();
+            if (scenariosPerShard > 0) {
+                reportBuilder.withShards(scenariosPerShard);
+            }
+            reportBuilder.writeReport(reportName, consumer -> {
+                try (ParallelResultReader reader = new ParallelResultReader()) {
+                    for (Partition partition : partitions) {
+                        try (BufferedReader lines = Files.newBufferedReader(partition.results.toPath(), StandardCharsets.UTF_8)) {
+                            reader.readLines(lines, partition.count, consumer);
+                        }
+                    }
+                }
+            });
+        }
+        for (Partition partition : partitions) {
+            try {
+                FileUtils.deleteDirectory(partition.directory);
+            } catch (IOException e) {
+                LOG.warn("Cannot delete merged partition " + partition.directory + ": " + e.getMessage());
+            }
+        }
+        return total;
+    }
+
+    private List<Partition> committedPartitions() throws IOException, ParseException {
+        List<Partition> partitions = new ArrayList<>();
+        File[] directories = root.listFiles(File::isDirectory);
+        if (directories == null) {
+            return partitions;
+        }
+        for (File directory : directories) {
+            JSONObject manifest = ResultPartition.readManifest(directory);
+            if (manifest == null) {
+                // nothing committed yet
+                continue;
+            }
+            File results = new File(directory, (String) manifest.get("results"));
+            if (!results.isFile()) {
+                LOG.warn("Skipping partition " + directory + ", its results " + results.getName() + " are missing");
+                continue;
+            }
+            partitions.add(new Partition(directory, results,
+                    ((Number) manifest.get("count")).intValue(),
+                    ((Number) manifest.get("created")).longValue()));
+        }
+        partitions.sort(Comparator.comparingLong((Partition partition) -> partition.created)
+                .thenComparing(partition -> partition.directory.getName()));
+        return partitions;
+    }
+
+    public static void main(String[] args) {
+        String reportName = args.length > 0 ? args[0] : "result";
+        ReportMerger merger = new ReportMerger();
+        if (args.length > 1) {
+            merger.withShards(Integer.parseInt(args[1]));
+        }
+        merger.merge(reportName);
+    }
+
+    private static class Partition {
+        private final File directory;
+        private final File results;
+        private final int count;
+        private final long created;
+
+        private Partition(File directory, File results, int count, long created) {
+            this.directory = directory;
+            this.results = results;
+            this.count = count;
+            this.created = created;
+        }
+    }
+}
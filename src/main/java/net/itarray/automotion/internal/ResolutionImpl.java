@@ -51,6 +51,10 @@ public class ResolutionImpl implements Resolution {
         return new ResolutionImpl(new Dimension(width, height));
     }
 
+    public Dimension getExtend() {
+        return extend;
+    }
+
     @Override
     public void applyTo(DriverFacade driver) {
         driver.setResolution(extend);
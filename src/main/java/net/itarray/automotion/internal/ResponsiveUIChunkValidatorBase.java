@@ -17,6 +17,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.function.IntPredicate;
 import java.util.stream.Collectors;
 
 import static net.itarray.automotion.internal.UIElement.*;
@@ -36,11 +37,11 @@ public class ResponsiveUIChunkValidatorBase extends ResponsiveUIValidatorBase im
                 try {
                     //((JavascriptExecutor) getDriver().getDriver()).executeScript("arguments[0].scrollIntoView();", webElements.get(0));
                     //((JavascriptExecutor) getDriver().getDriver()).executeScript("javascript:window.scrollBy(0,250);");
-                    ((JavascriptExecutor) getDriver().getDriver()).executeScript("document.documentElement.style.overflow = 'hidden'");
+                    QueryPlan.hideOverflow(getDriver());
                 } catch (Exception e) {}
             }
         }
-        rootElements = asElements(webElements);
+        rootElements = fetch(() -> asElements(webElements));
         doSnapshot();
     }
 
@@ -69,7 +70,7 @@ public class ResponsiveUIChunkValidatorBase extends ResponsiveUIValidatorBase im
 
     @Override
     public ResponsiveUIChunkValidatorBase changeMetricsUnitsTo(Units units) {
-        getReport().changeMetricsUnitsTo(units);
+        setUnits(units);
         return this;
     }
 
@@ -81,7 +82,7 @@ public class ResponsiveUIChunkValidatorBase extends ResponsiveUIValidatorBase im
      */
     @Override
     public ResponsiveUIChunkValidatorBase alignedAsGrid(int horizontalGridSize) {
-        validateGridAlignment(rootElements, horizontalGridSize, 0);
+        evaluate("alignedAsGrid", () -> validateGridAlignment(rootElements, horizontalGridSize, 0), horizontalGridSize);
         return this;
     }
 
@@ -94,13 +95,13 @@ public class ResponsiveUIChunkValidatorBase extends ResponsiveUIValidatorBase im
      */
     @Override
     public ResponsiveUIChunkValidatorBase alignedAsGrid(int horizontalGridSize, int verticalGridSize) {
-        validateGridAlignment(rootElements, horizontalGridSize, verticalGridSize);
+        evaluate("alignedAsGrid", () -> validateGridAlignment(rootElements, horizontalGridSize, verticalGridSize), horizontalGridSize, verticalGridSize);
         return this;
     }
 
     @Override
     public ChunkUIElementValidator areAlignedAsGridCells() {
-        validateAlignedAsGridCells(rootElements);
+        evaluate("areAlignedAsGridCells", () -> validateAlignedAsGridCells(rootElements));
         return this;
     }
 
@@ -126,7 +127,7 @@ public class ResponsiveUIChunkValidatorBase extends ResponsiveUIValidatorBase im
      */
     @Override
     public ResponsiveUIChunkValidatorBase doNotOverlap() {
-        validateElementsAreNotOverlapped(rootElements);
+        evaluateIncrementally("doNotOverlap", changed -> validateElementsAreNotOverlapped(rootElements, changed));
         return this;
     }
 
@@ -137,7 +138,7 @@ public class ResponsiveUIChunkValidatorBase extends ResponsiveUIValidatorBase im
      */
     @Override
     public ResponsiveUIChunkValidatorBase haveEqualSize() {
-        validateSameSize(asNumberedList(rootElements));
+        evaluate("haveEqualSize", () -> validateSameSize(asNumberedList(rootElements)));
         return this;
     }
 
@@ -148,7 +149,7 @@ public class ResponsiveUIChunkValidatorBase extends ResponsiveUIValidatorBase im
      */
     @Override
     public ResponsiveUIChunkValidatorBase haveEqualWidth() {
-        validateSameWidth(asNumberedList(rootElements));
+        evaluate("haveEqualWidth", () -> validateSameWidth(asNumberedList(rootElements)));
         return this;
     }
 
@@ -159,7 +160,7 @@ public class ResponsiveUIChunkValidatorBase extends ResponsiveUIValidatorBase im
      */
     @Override
     public ResponsiveUIChunkValidatorBase haveEqualHeight() {
-        validateSameHeight(asNumberedList(rootElements));
+        evaluate("haveEqualHeight", () -> validateSameHeight(asNumberedList(rootElements)));
         return this;
     }
 
@@ -170,7 +171,7 @@ public class ResponsiveUIChunkValidatorBase extends ResponsiveUIValidatorBase im
      */
     @Override
     public ResponsiveUIChunkValidatorBase haveDifferentSizes() {
-        validateHaveDifferentSizes(rootElements);
+        evaluate("haveDifferentSizes", () -> validateHaveDifferentSizes(rootElements));
         return this;
     }
 
@@ -181,7 +182,7 @@ public class ResponsiveUIChunkValidatorBase extends ResponsiveUIValidatorBase im
      */
     @Override
     public ResponsiveUIChunkValidatorBase haveDifferentWidths() {
-        validateHaveDifferentWidths(rootElements);
+        evaluate("haveDifferentWidths", () -> validateHaveDifferentWidths(rootElements));
         return this;
     }
 
@@ -192,7 +193,7 @@ public class ResponsiveUIChunkValidatorBase extends ResponsiveUIValidatorBase im
      */
     @Override
     public ResponsiveUIChunkValidatorBase haveDifferentHeights() {
-        validateNotSameHeight(rootElements);
+        evaluate("haveDifferentHeights", () -> validateNotSameHeight(rootElements));
         return this;
     }
 
@@ -203,7 +204,7 @@ public class ResponsiveUIChunkValidatorBase extends ResponsiveUIValidatorBase im
      */
     @Override
     public ResponsiveUIChunkValidatorBase areRightAligned() {
-        validateRightAlignedWithChunk(asNumberedList(rootElements));
+        evaluate("areRightAligned", () -> validateRightAlignedWithChunk(asNumberedList(rootElements)));
         return this;
     }
 
@@ -214,7 +215,7 @@ public class ResponsiveUIChunkValidatorBase extends ResponsiveUIValidatorBase im
      */
     @Override
     public ResponsiveUIChunkValidatorBase areLeftAligned() {
-        validateLeftAlignedWithChunk(asNumberedList(rootElements));
+        evaluate("areLeftAligned", () -> validateLeftAlignedWithChunk(asNumberedList(rootElements)));
         return this;
     }
 
@@ -225,7 +226,7 @@ public class ResponsiveUIChunkValidatorBase extends ResponsiveUIValidatorBase im
      */
     @Override
     public ResponsiveUIChunkValidatorBase areTopAligned() {
-        validateTopAlignedWithChunk(asNumberedList(rootElements));
+        evaluate("areTopAligned", () -> validateTopAlignedWithChunk(asNumberedList(rootElements)));
         return this;
     }
 
@@ -236,7 +237,7 @@ public class ResponsiveUIChunkValidatorBase extends ResponsiveUIValidatorBase im
      */
     @Override
     public ResponsiveUIChunkValidatorBase areBottomAligned() {
-        validateBottomAlignedWithChunk(asNumberedList(rootElements));
+        evaluate("areBottomAligned", () -> validateBottomAlignedWithChunk(asNumberedList(rootElements)));
         return this;
     }
 
@@ -247,7 +248,7 @@ public class ResponsiveUIChunkValidatorBase extends ResponsiveUIValidatorBase im
      */
     @Override
     public ResponsiveUIChunkValidatorBase areCenteredOnPageVertically() {
-        validateCenteredOnPageVertically(rootElements);
+        evaluate("areCenteredOnPageVertically", () -> validateCenteredOnPageVertically(rootElements));
         return this;
     }
 
@@ -258,7 +259,7 @@ public class ResponsiveUIChunkValidatorBase extends ResponsiveUIValidatorBase im
      */
     @Override
     public ResponsiveUIChunkValidatorBase areCenteredOnPageHorizontally() {
-        validateCenteredOnPageHorizontally(rootElements);
+        evaluate("areCenteredOnPageHorizontally", () -> validateCenteredOnPageHorizontally(rootElements));
         return this;
     }
 
@@ -271,15 +272,22 @@ public class ResponsiveUIChunkValidatorBase extends ResponsiveUIValidatorBase im
      */
     @Override
     public ResponsiveUIChunkValidatorBase areInsideOf(WebElement containerElement, String readableContainerName) {
-        validateInsideOfContainer(asElement(containerElement, readableContainerName), rootElements);
+        evaluate("areInsideOf", () -> validateInsideOfContainer(asElement(containerElement, readableContainerName), rootElements), containerElement, readableContainerName);
         return this;
     }
 
-    private void validateElementsAreNotOverlapped(List<UIElement> elements) {
+    /**
+     * Checks the pairs with at least one changed element; pairs of unchanged elements did not overlap before.
+     */
+    private void validateElementsAreNotOverlapped(List<UIElement> elements, IntPredicate changed) {
         Context context = getContext();
         for (int firstIndex = 0; firstIndex < elements.size(); firstIndex++) {
             UIElement first = elements.get(firstIndex);
+            boolean firstChanged = changed.test(firstIndex);
             for (int secondIndex = firstIndex+1; secondIndex < elements.size(); secondIndex++) {
+                if (!firstChanged && !changed.test(secondIndex)) {
+                    continue;
+                }
                 UIElement second = elements.get(secondIndex);
                 if (!first.validateNotOverlappingWithElement(second, context)) {
                     break;
@@ -496,6 +504,11 @@ public class ResponsiveUIChunkValidatorBase extends ResponsiveUIValidatorBase im
         return "Root Element";
     }
 
+    @Override
+    protected int getValidatedElementCount() {
+        return rootElements.size();
+    }
+
     @Override
     protected void storeRootDetails(JSONObject rootDetails) {
     }
@@ -3,22 +3,38 @@ package net.itarray.automotion.internal;
 import net.itarray.automotion.internal.geometry.Rectangle;
 import net.itarray.automotion.internal.geometry.Scalar;
 import net.itarray.automotion.internal.geometry.Vector;
+import net.itarray.automotion.internal.jfr.FlightRecorderEvents;
 import net.itarray.automotion.internal.properties.Context;
-import net.itarray.automotion.tools.helpers.Helper;
+import net.itarray.automotion.validation.Budget;
+import net.itarray.automotion.validation.CommandStats;
+import net.itarray.automotion.validation.Phase;
+import net.itarray.automotion.validation.PhaseTimings;
 import net.itarray.automotion.validation.ResponsiveUIValidator;
 import net.itarray.automotion.validation.UISnapshot;
 import net.itarray.automotion.validation.Units;
+import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.openqa.selenium.Dimension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.awt.*;
-import java.io.*;
-import java.nio.charset.StandardCharsets;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
 
 import static net.itarray.automotion.validation.Constants.*;
 
 public abstract class ResponsiveUIValidatorBase {
 
+    private final static Logger LOG = LoggerFactory.getLogger(ResponsiveUIValidatorBase.class);
+
     protected final UIElement page;
     protected final UISnapshot snapshot;
     private final Errors errors;
@@ -26,25 +42,32 @@ public abstract class ResponsiveUIValidatorBase {
     private final DriverFacade driver;
     private final double zoomFactor;
     private DrawableScreenshot drawableScreenshot;
-    private Scalar tolerance;
+    private final List<String> warnings = new ArrayList<>();
+    private ValidationSettings settings;
     private boolean rootElementDrawn;
+    private final PhaseRecorder recorder;
+    // the rectangles of the validated elements, see Revalidation
+    private final List<Revalidation.Operand> roots = new ArrayList<>();
+    private String validatorKey;
+    private int assertionCount;
 
     protected ResponsiveUIValidatorBase(UISnapshot snapshot) {
         this.snapshot = snapshot;
         this.driver = snapshot.getResponsiveUIValidator().getDriver();
+        this.recorder = new PhaseRecorder(new PhaseTimings(), new CommandStats(), driver.getInstrumentation(), snapshot.getName());
         this.errors = new Errors();
         this.zoomFactor = snapshot.getZoomFactor();
-        Dimension dimension = this.driver.retrievePageSize();
+        Dimension dimension = recorder.record(Phase.GEOMETRY, () -> QueryPlan.pageSize(this.driver));
         this.page = UIElement.asElement(new net.itarray.automotion.internal.geometry.Rectangle(0, 0, dimension.getWidth(), dimension.getHeight()), "page");
         this.startTime = System.currentTimeMillis();
-        tolerance = snapshot.getResponsiveUIValidator().getTolerance();
+        this.settings = snapshot.getResponsiveUIValidator().getSettings();
     }
 
 
     public DrawableScreenshot getDrawableScreenshot() {
         if (drawableScreenshot == null && this.errors.hasMessages()) {
             File screenshotName = snapshot.takeScreenshot();
-            Vector extend = driver.getExtend(screenshotName);
+            Vector extend = PhaseRecorder.time(Phase.IMAGE_DECODE, () -> driver.getExtend(screenshotName));
             this.drawableScreenshot = new DrawableScreenshot(extend, getTransform(), getDrawingConfiguration(), getNameOfToBeValidated(), screenshotName);
         }
         if (isWithReport() && !rootElementDrawn && this.errors.hasMessages()) {
@@ -66,7 +89,7 @@ public abstract class ResponsiveUIValidatorBase {
     }
 
     public Units getUnits() {
-        return getReport().getUnits();
+        return settings.getUnits();
     }
 
     /**
@@ -75,6 +98,7 @@ public abstract class ResponsiveUIValidatorBase {
     @Deprecated()
     protected ResponsiveUIValidatorBase setUnits(Units units) {
         snapshot.getResponsiveUIValidator().changeMetricsUnitsTo(units);
+        settings = settings.withUnits(units);
         return this;
     }
 
@@ -83,26 +107,114 @@ public abstract class ResponsiveUIValidatorBase {
     }
 
     public boolean isWithReport() {
-        return getReport().isWithReport();
+        return settings.isWithReport();
     }
 
     public ResponsiveUIValidatorBase drawMap() {
         getReport().drawMap();
+        settings = settings.withReport(true);
         return this;
     }
 
     public ResponsiveUIValidatorBase dontDrawMap() {
         getReport().dontDrawMap();
+        settings = settings.withReport(false);
         return this;
     }
 
     public boolean validate() {
 
         //if (errors.hasMessages()) {
-        compileValidationReport();
+        recorder.activated(() -> {
+            compileValidationReport();
+            return null;
+        });
         //}
 
-        return !errors.hasMessages();
+        boolean valid = !errors.hasMessages();
+        snapshot.getTimings().addAll(getTimings());
+        snapshot.getCommands().addAll(getCommands());
+        getReport().fireValidated(snapshot, getNameOfToBeValidated(), valid, getTimings(), getCommands());
+        return valid;
+    }
+
+    /**
+     * @return the time spent per phase of this validation so far
+     */
+    public PhaseTimings getTimings() {
+        return recorder.getTimings();
+    }
+
+    /**
+     * @return the WebDriver commands sent by this validation so far, if the driver is instrumented
+     */
+    public CommandStats getCommands() {
+        return recorder.getCommands();
+    }
+
+    /**
+     * Runs the evaluation of one assertion, e.g. isLeftOf, and records its duration. The evaluation is skipped if
+     * the snapshot carries the result of the assertion forward from a previous snapshot.
+     *
+     * @param arguments the arguments of the assertion, e.g. its condition and the compared elements, so that it is
+     *                  only carried forward if they did not change
+     */
+    protected void evaluate(String assertion, Runnable evaluation, Object... arguments) {
+        evaluate(assertion, changed -> evaluation.run(), false, arguments);
+    }
+
+    /**
+     * Like {@link #evaluate(String, Runnable, Object...)} for assertions over the validated elements that can be evaluated for
+     * the elements that moved since a previous snapshot only.
+     *
+     * @param evaluation gets whether the validated element at an index needs to be evaluated
+     */
+    protected void evaluateIncrementally(String assertion, Consumer<IntPredicate> evaluation, Object... arguments) {
+        evaluate(assertion, evaluation, true, arguments);
+    }
+
+    private void evaluate(String assertion, Consumer<IntPredicate> evaluation, boolean incremental, Object[] arguments) {
+        Revalidation revalidation = snapshot.getRevalidation();
+        if (validatorKey == null) {
+            validatorKey = revalidation.validatorKey(getNameOfToBeValidated());
+        }
+        String key = validatorKey + "/" + (++assertionCount) + " " + assertion;
+        String context = page.getRectangle() + " " + getUnits() + " " + settings.getTolerance();
+        List<Object> canonicalArguments = Revalidation.arguments(arguments);
+        Revalidation.Plan plan = revalidation.plan(key, assertion, roots, canonicalArguments, context);
+        if (plan.isCarriedForward()) {
+            revalidation.carryForward(key, plan);
+            return;
+        }
+        boolean incrementally = incremental && plan.isIncremental();
+        IntPredicate changed = incrementally ? plan::isChanged : index -> true;
+        List<Revalidation.Operand> reads = new ArrayList<>();
+        FlightRecorderEvents.AssertionSpan span = FlightRecorderEvents.beginAssertion(snapshot.getName(), getNameOfToBeValidated(), assertion);
+        long fetchedBefore = getTimings().getCount(Phase.GEOMETRY);
+        int errorsBefore = errors.getMessages().size();
+        recorder.record(Phase.EVALUATION, () -> revalidation.withGeometry(() -> Revalidation.recording(reads, () -> {
+            evaluation.accept(changed);
+            return null;
+        })));
+        // the elements compared with the validated ones are fetched during the evaluation
+        int fetched = (int) (getTimings().getCount(Phase.GEOMETRY) - fetchedBefore);
+        boolean failed = errors.getMessages().size() > errorsBefore;
+        span.commit(getValidatedElementCount() + fetched, failed);
+        revalidation.evaluated(key, plan, roots, reads, canonicalArguments, context, !failed, incrementally);
+    }
+
+    /**
+     * @return the number of elements validated by this validator
+     */
+    protected int getValidatedElementCount() {
+        return 1;
+    }
+
+    /**
+     * Runs code fetching element geometry outside of an assertion, e.g. in a constructor.
+     */
+    protected <T> T fetch(Supplier<T> fetch) {
+        return recorder.activated(() -> snapshot.getRevalidation().withGeometry(() -> Revalidation.recording(roots, fetch)));
     }
 
     protected boolean isPixels() {
@@ -123,7 +235,7 @@ public abstract class ResponsiveUIValidatorBase {
 
             @Override
             public Scalar getTolerance() {
-                return tolerance;
+                return settings.getTolerance();
             }
 
             @Override
@@ -136,7 +248,7 @@ public abstract class ResponsiveUIValidatorBase {
                 DrawableScreenshot drawableScreenshot = getDrawableScreenshot();
                 if (drawableScreenshot != null) {
                     if (isWithReport()) {
-                        getDrawableScreenshot().draw(element);
+                        PhaseRecorder.time(Phase.OVERLAY_DRAW, () -> getDrawableScreenshot().draw(element));
                     }
                 }
             }
@@ -146,7 +258,7 @@ public abstract class ResponsiveUIValidatorBase {
                 DrawableScreenshot drawableScreenshot = getDrawableScreenshot();
                 if (drawableScreenshot != null) {
                     if (isWithReport()) {
-                        getDrawableScreenshot().drawRoot(element);
+                        PhaseRecorder.time(Phase.OVERLAY_DRAW, () -> getDrawableScreenshot().drawRoot(element));
                     }
                 }
             }
@@ -156,7 +268,7 @@ public abstract class ResponsiveUIValidatorBase {
                 DrawableScreenshot drawableScreenshot = getDrawableScreenshot();
                 if (drawableScreenshot != null) {
                     if (isWithReport()) {
-                        getDrawableScreenshot().drawHorizontalLine(onLine.getY());
+                        PhaseRecorder.time(Phase.OVERLAY_DRAW, () -> getDrawableScreenshot().drawHorizontalLine(onLine.getY()));
                     }
                 }
             }
@@ -166,7 +278,7 @@ public abstract class ResponsiveUIValidatorBase {
                 DrawableScreenshot drawableScreenshot = getDrawableScreenshot();
                 if (drawableScreenshot != null) {
                     if (isWithReport()) {
-                        getDrawableScreenshot().drawVerticalLine(onLine.getX());
+                        PhaseRecorder.time(Phase.OVERLAY_DRAW, () -> getDrawableScreenshot().drawVerticalLine(onLine.getX()));
                     }
                 }
             }
@@ -182,19 +294,74 @@ public abstract class ResponsiveUIValidatorBase {
     protected abstract String getNameOfToBeValidated();
 
     private void compileValidationReport() {
+        checkBudgets(false);
         DrawableScreenshot drawableScreenshot = getDrawableScreenshot();
+        checkBudgets(true);
 
         if (drawableScreenshot != null) {
             if (isWithReport()) {
-                getDrawableScreenshot().saveDrawing();
+                recorder.record(Phase.PNG_ENCODE, () -> getDrawableScreenshot().saveDrawing());
             }
         }
 
         if (isWithReport()) {
-            writeResults(getDrawableScreenshot());
+            recorder.record(Phase.JSON_WRITE, () -> writeResults(getDrawableScreenshot()));
+        }
+    }
+
+    /**
+     * Checks commands and time before the screenshot is taken, so that failing budgets get a screenshot, and the
+     * screenshot size afterwards.
+     */
+    private void checkBudgets(boolean screenshotTaken) {
+        Budget budget = settings.getBudget();
+        Budget snapshotBudget = snapshot.getBudget();
+        if (budget.isUnlimited() && snapshotBudget.isUnlimited()) {
+            return;
+        }
+        String elementName = getNameOfToBeValidated();
+        BudgetCheck validationCheck = new BudgetCheck(budget, String.format("Validation of \"%s\"", elementName));
+        BudgetCheck snapshotCheck = new BudgetCheck(snapshotBudget, String.format("Snapshot \"%s\"", snapshot.getName()));
+        if (screenshotTaken) {
+            validationCheck.screenshotBytes(drawableScreenshot == null ? 0 : snapshot.getScreenshotBytes());
+            snapshotCheck.screenshotBytes(snapshot.getScreenshotBytes());
+        } else {
+            CommandStats snapshotCommands = new CommandStats();
+            snapshotCommands.addAll(snapshot.getCommands());
+            snapshotCommands.addAll(getCommands());
+            PhaseTimings snapshotTimings = new PhaseTimings();
+            snapshotTimings.addAll(snapshot.getTimings());
+            snapshotTimings.addAll(getTimings());
+            long now = System.currentTimeMillis();
+            validationCheck.commands(getCommands()).millis(now - startTime, getCommands(), getTimings());
+            snapshotCheck.commands(snapshotCommands).millis(now - snapshot.getCreationTime(), snapshotCommands, snapshotTimings);
+        }
+        reportOverruns(budget, validationCheck.getOverruns().values());
+        for (Map.Entry<Budget.Limit, String> overrun : snapshotCheck.getOverruns().entrySet()) {
+            if (snapshot.claimOverrun(overrun.getKey())) {
+                reportOverruns(snapshotBudget, Collections.singleton(overrun.getValue()));
+            }
+        }
+    }
+
+    private void reportOverruns(Budget budget, Collection<String> overruns) {
+        for (String overrun : overruns) {
+            if (budget.isFailing()) {
+                errors.add(overrun);
+            } else {
+                LOG.warn(overrun);
+                warnings.add(overrun);
+            }
         }
     }
 
+    /**
+     * @return the budget overruns of this validation that did not fail it
+     */
+    public List<String> getWarnings() {
+        return Collections.unmodifiableList(warnings);
+    }
+
     private SimpleTransform getTransform() {
         return new SimpleTransform(getYOffset(), getScaleFactor());
     }
@@ -202,11 +369,11 @@ public abstract class ResponsiveUIValidatorBase {
     private double getScaleFactor() {
         double factor;
         if (getDriver().isAppiumContext()) {
-            factor = getReport().getRetinaScaleFactor();
+            factor = settings.getScaleFactor();
         } else {
             factor = zoomFactor;
             if (getDriver().isChromeDriver()) {
-                factor = factor * getReport().getRetinaScaleFactor();
+                factor = factor * settings.getScaleFactor();
             }
         }
 
@@ -214,9 +381,9 @@ public abstract class ResponsiveUIValidatorBase {
     }
 
     private int getYOffset() {
-        if (getDriver().isAppiumContext() && getDriver().isAppiumWebContext() && getReport().isMobileTopBarOffsetState()) {
+        if (getDriver().isAppiumContext() && getDriver().isAppiumWebContext() && settings.isMobileTopBarOffsetState()) {
             if (getDriver().isAppiumAndroidContext() || getDriver().isAppiumIOSContext()) {
-                return (int) getReport().getMobileTopBarOffsetState();
+                return (int) settings.getMobileTopBarOffset();
             }
         }
         return 0;
@@ -229,6 +396,11 @@ public abstract class ResponsiveUIValidatorBase {
 
         jsonResults.put(ERROR_KEY, errors.hasMessages());
         jsonResults.put(DETAILS, errors.getMessages());
+        if (!warnings.isEmpty()) {
+            JSONArray warningsJson = new JSONArray();
+            warningsJson.addAll(warnings);
+            jsonResults.put(WARNINGS, warningsJson);
+        }
 
         JSONObject rootDetails = new JSONObject();
         storeRootDetails(rootDetails);
@@ -239,21 +411,37 @@ public abstract class ResponsiveUIValidatorBase {
         jsonResults.put(ELEMENT_NAME, getNameOfToBeValidated());
         jsonResults.put(SCREENSHOT, drawableScreenshot != null ? drawableScreenshot.getScreenshotName().getName() : "");
         jsonResults.put(DRAWINGS, drawableScreenshot != null ? drawableScreenshot.getDrawingsOutput().getName() : "");
+        jsonResults.put(THUMBNAIL, drawableScreenshot != null && drawableScreenshot.getThumbnailOutput() != null ? drawableScreenshot.getThumbnailOutput().getName() : "");
+        jsonResults.put(TIMINGS, timingsAsJson(getTimings()));
+        if (!getCommands().isEmpty()) {
+            jsonResults.put(COMMANDS, commandsAsJson(getCommands()));
+        }
+
+        getReport().getResultRegistry().append(jsonResults);
+    }
 
-        long ms = System.currentTimeMillis();
-        String uuid = Helper.getGeneratedStringWithLength(7);
-        String jsonFileName = getNameOfToBeValidated().replace(" ", "") + "-automotion" + ms + uuid + ".json";
-        File jsonFile = new File(TARGET_AUTOMOTION_JSON + jsonFileName);
-        jsonFile.getParentFile().mkdirs();
-        try (OutputStreamWriter outputStreamWriter =
-                     new OutputStreamWriter(new FileOutputStream(jsonFile), StandardCharsets.UTF_8);
-             Writer writer = new BufferedWriter(outputStreamWriter)) {
-            writer.write(jsonResults.toJSONString());
-        } catch (IOException ex) {
-            throw new RuntimeException("Cannot create json report: " + jsonFile, ex);
+    private static JSONObject timingsAsJson(PhaseTimings timings) {
+        JSONObject json = new JSONObject();
+        for (Phase phase : Phase.values()) {
+            if (timings.getCount(phase) > 0) {
+                JSONObject phaseJson = new JSONObject();
+                phaseJson.put(TIMING_NANOS, timings.getNanos(phase));
+                phaseJson.put(TIMING_COUNT, timings.getCount(phase));
+                json.put(phase.getKey(), phaseJson);
+            }
         }
+        return json;
+    }
 
-        addJsonFile(jsonFileName);
+    private static JSONObject commandsAsJson(CommandStats commands) {
+        JSONObject json = new JSONObject();
+        for (String command : commands.getCommands()) {
+            JSONObject commandJson = new JSONObject();
+            commandJson.put(TIMING_NANOS, commands.getNanos(command));
+            commandJson.put(TIMING_COUNT, commands.getCount(command));
+            json.put(command, commandJson);
+        }
+        return json;
     }
 
     public void addJsonFile(String jsonFileName) {
@@ -270,6 +458,7 @@ public abstract class ResponsiveUIValidatorBase {
     @Deprecated()
     public void setTopBarMobileOffset(boolean state) {
         getReport().setTopBarMobileOffset(state);
+        settings = settings.withMobileTopBarOffset(state);
     }
 
     /**
@@ -278,6 +467,7 @@ public abstract class ResponsiveUIValidatorBase {
     @Deprecated()
     public void setColorForRootElement(Color color) {
         getReport().setColorForRootElement(color);
+        settings = settings.withRootColor(color);
     }
 
     /**
@@ -286,6 +476,7 @@ public abstract class ResponsiveUIValidatorBase {
     @Deprecated()
     public void setColorForHighlightedElements(Color color) {
         getReport().setColorForHighlightedElements(color);
+        settings = settings.withHighlightedElementsColor(color);
     }
 
     /**
@@ -294,10 +485,11 @@ public abstract class ResponsiveUIValidatorBase {
     @Deprecated()
     public void setLinesColor(Color color) {
         getReport().setLinesColor(color);
+        settings = settings.withLinesColor(color);
     }
 
     public DrawingConfiguration getDrawingConfiguration() {
-        return getReport().getDrawingConfiguration();
+        return settings.getDrawingConfiguration();
     }
 
 }
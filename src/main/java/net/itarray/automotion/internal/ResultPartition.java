@@ -0,0 +1,138 @@
+package net.itarray.automotion.internal;
+
+import net.itarray.automotion.tools.helpers.Helper;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import static net.itarray.automotion.validation.Constants.TARGET_AUTOMOTION_PARTITIONS;
+
+/**
+ * The results of one JVM when several JVMs (e.g. surefire forks) validate in parallel. Each partition has
+ * its own directory with a results log and a manifest; the manifest only counts the results that were
+ * synced to disk, so a merge never reads a partially written result. Manifests are written and partitions
+ * are merged under an exclusive lock on a file shared by all JVMs.
+ */
+public class ResultPartition {
+
+    /**
+     * System property naming the partition, e.g. {@code fork-${surefire.forkNumber}}. A unique suffix is
+     * always appended so that partitions of earlier runs are never reused.
+     */
+    public static final String PARTITION_PROPERTY = "automotion.partition";
+
+    /**
+     * System property that turns on partitioned results for all validators, e.g. in the surefire configuration.
+     */
+    public static final String ENABLED_PROPERTY = "automotion.partitioned";
+
+    static final String MANIFEST = "manifest.json";
+    private static final String LOCK_FILE = "partitions.lock";
+
+    private static ResultPartition current;
+
+    private final File root;
+    private final String name;
+    private final File directory;
+    private final ResultsLog results;
+    private final long created;
+
+    public ResultPartition(File root, String prefix) {
+        this.root = root;
+        this.name = prefix + "-" + System.currentTimeMillis() + Helper.getGeneratedStringWithLength(7);
+        this.directory = new File(root, name);
+        this.results = new ResultsLog(directory);
+        this.created = System.currentTimeMillis();
+    }
+
+    /**
+     * The partition of this JVM in the default partitions directory, shared by all validators of the JVM.
+     */
+    public static synchronized ResultPartition current() {
+        if (current == null) {
+            current = new ResultPartition(new File(TARGET_AUTOMOTION_PARTITIONS), System.getProperty(PARTITION_PROPERTY, "jvm"));
+        }
+        return current;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public ResultsLog getResults() {
+        return results;
+    }
+
+    /**
+     * Syncs the results log and publishes the synced results in the manifest, so they are picked up
+     * by the next merge.
+     */
+    public void commit() {
+        int count = results.sync();
+        File file = results.getFile();
+        if (file == null) {
+            return;
+        }
+        JSONObject manifest = new JSONObject();
+        manifest.put("partition", name);
+        manifest.put("process", ManagementFactory.getRuntimeMXBean().getName());
+        manifest.put("created", created);
+        manifest.put("updated", System.currentTimeMillis());
+        manifest.put("results", file.getName());
+        manifest.put("count", count);
+        try {
+            locked(root, () -> writeManifest(manifest));
+        } catch (IOException | ParseException ex) {
+            throw new RuntimeException("Cannot write manifest of partition " + directory, ex);
+        }
+    }
+
+    private void writeManifest(JSONObject manifest) throws IOException {
+        directory.mkdirs();
+        File temporary = new File(directory, MANIFEST + ".part");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(temporary), StandardCharsets.UTF_8)) {
+            writer.write(manifest.toJSONString());
+        }
+        Files.move(temporary.toPath(), new File(directory, MANIFEST).toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static JSONObject readManifest(File partitionDirectory) throws IOException, ParseException {
+        File manifest = new File(partitionDirectory, MANIFEST);
+        if (!manifest.isFile()) {
+            return null;
+        }
+        try (Reader reader = new InputStreamReader(new FileInputStream(manifest), StandardCharsets.UTF_8)) {
+            return (JSONObject) new JSONParser().parse(reader);
+        }
+    }
+
+    /**
+     * Runs the action while holding the exclusive lock of the partitions directory. The lock is held by at
+     * most one thread of one JVM at a time.
+     */
+    static synchronized void locked(File root, LockedAction action) throws IOException, ParseException {
+        root.mkdirs();
+        try (FileChannel channel = FileChannel.open(new File(root, LOCK_FILE).toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            action.run();
+        }
+    }
+
+    interface LockedAction {
+        void run() throws IOException, ParseException;
+    }
+}
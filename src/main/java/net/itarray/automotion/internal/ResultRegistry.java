@@ -0,0 +1,152 @@
+package net.itarray.automotion.internal;
+
+import org.json.simple.JSONObject;
+import org.json.simple.parser.ParseException;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The results of a {@link net.itarray.automotion.validation.ResponsiveUIValidator} and all of its sessions.
+ * Validations append to the current log concurrently; reporting detaches the results appended so far. A result
+ * is appended to the log and queued for rendering in the background as one step, so that the report rendered
+ * in the background holds exactly the detached results.
+ */
+public class ResultRegistry {
+
+    private final AtomicReference<ResultsLog> log = new AtomicReference<>(new ResultsLog());
+    // appends share the read lock, detaching takes the write lock
+    private final ReadWriteLock cutOff = new ReentrantReadWriteLock();
+    private volatile ResultPartition partition;
+    private volatile BackgroundReportRenderer renderer;
+
+    public ResultsLog getLog() {
+        return log.get();
+    }
+
+    public void append(JSONObject result) {
+        cutOff.readLock().lock();
+        try {
+            log.get().append(result);
+            BackgroundReportRenderer renderer = this.renderer;
+            if (renderer != null) {
+                renderer.render(result);
+            }
+        } finally {
+            cutOff.readLock().unlock();
+        }
+    }
+
+    /**
+     * @see ResultsLog#appendFile(File)
+     */
+    public void appendFile(File jsonFile) {
+        cutOff.readLock().lock();
+        try {
+            JSONObject result = log.get().appendFile(jsonFile);
+            BackgroundReportRenderer renderer = this.renderer;
+            if (result != null && renderer != null) {
+                renderer.render(result);
+            }
+        } finally {
+            cutOff.readLock().unlock();
+        }
+    }
+
+    public BackgroundReportRenderer getRenderer() {
+        return renderer;
+    }
+
+    /**
+     * Renders the results appended so far and all results appended from now on in the background.
+     */
+    public void renderInBackground(BackgroundReportRenderer renderer) {
+        BackgroundReportRenderer previous;
+        cutOff.writeLock().lock();
+        try {
+            ResultsLog current = log.get();
+            if (!current.isEmpty()) {
+                try {
+                    current.read(renderer::render);
+                } catch (IOException | ParseException ex) {
+                    throw new RuntimeException("Cannot read json results " + current.getFile(), ex);
+                }
+            }
+            previous = this.renderer;
+            this.renderer = renderer;
+        } finally {
+            cutOff.writeLock().unlock();
+        }
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    public ResultPartition getPartition() {
+        return partition;
+    }
+
+    public void usePartition(ResultPartition partition) {
+        ResultsLog previous = log.getAndSet(partition.getResults());
+        previous.appendAllTo(partition.getResults());
+        this.partition = partition;
+    }
+
+    /**
+     * Takes all results appended so far. Results appended afterwards go into a new file.
+     */
+    public ResultsLog detach() {
+        cutOff.writeLock().lock();
+        try {
+            return log.get().detach();
+        } finally {
+            cutOff.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Takes all results appended so far and, if they are rendered in the background, queues the report of exactly
+     * these results. Results appended afterwards go into a new file and into the next report.
+     *
+     * @param reportName the name of the report rendered in the background
+     */
+    public Detached detach(String reportName) {
+        cutOff.writeLock().lock();
+        try {
+            ResultsLog detached = log.get().detach();
+            BackgroundReportRenderer renderer = this.renderer;
+            return new Detached(detached, renderer == null ? null : renderer.cutOff(reportName));
+        } finally {
+            cutOff.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The results taken by {@link #detach(String)} and the report rendered from them in the background.
+     */
+    public static class Detached {
+        private final ResultsLog log;
+        private final Future<Boolean> rendered;
+
+        private Detached(ResultsLog log, Future<Boolean> rendered) {
+            this.log = log;
+            this.rendered = rendered;
+        }
+
+        public ResultsLog getLog() {
+            return log;
+        }
+
+        /**
+         * @return the report rendered in the background, see {@link BackgroundReportRenderer#cutOff(String)}, or null
+         * if the results are not rendered in the background
+         */
+        public Future<Boolean> getRendered() {
+            return rendered;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package net.itarray.automotion.internal;
+
+import net.itarray.automotion.tools.helpers.Helper;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static net.itarray.automotion.validation.Constants.TARGET_AUTOMOTION_JSON;
+
+/**
+ * Append-only log of validation results, one json object per line (NDJSON), in a single file per run.
+ * All results go through one buffered channel which is forced to disk by {@link #sync()}.
+ * After {@link #delete()} the next {@link #append(JSONObject)} starts a new file.
+ * <p>
+ * Appending does not lock: results are serialized by the calling thread and queued, and the queue is written
+ * to the file by whichever thread finds it long enough, or by {@link #sync()}.
+ */
+public class ResultsLog {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int DRAIN_THRESHOLD = 64;
+
+    private final File directory;
+    private final Queue<String> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private File file;
+    private FileChannel channel;
+    private Writer writer;
+    private int written;
+
+    public ResultsLog() {
+        this(new File(TARGET_AUTOMOTION_JSON));
+    }
+
+    public ResultsLog(File directory) {
+        this.directory = directory;
+    }
+
+    public void append(JSONObject result) {
+        pending.add(result.toJSONString());
+        size.incrementAndGet();
+        if (pendingCount.incrementAndGet() >= DRAIN_THRESHOLD && draining.compareAndSet(false, true)) {
+            try {
+                synchronized (this) {
+                    drain();
+                }
+            } finally {
+                draining.set(false);
+            }
+        }
+    }
+
+    private void drain() {
+        String line;
+        while ((line = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            try {
+                open();
+                writer.write(line);
+                writer.write('\n');
+                written++;
+            } catch (IOException ex) {
+                throw new RuntimeException("Cannot write json result to " + file, ex);
+            }
+        }
+    }
+
+    /**
+     * Appends the content of a legacy single result json file and deletes it.
+     *
+     * @return the appended result or null if there is no such file
+     */
+    public JSONObject appendFile(File jsonFile) {
+        if (!jsonFile.isFile()) {
+            return null;
+        }
+        JSONObject result;
+        try (Reader reader = new BufferedReader(new InputStreamReader(new FileInputStream(jsonFile), StandardCharsets.UTF_8))) {
+            result = (JSONObject) new JSONParser().parse(reader);
+        } catch (IOException | ParseException ex) {
+            throw new RuntimeException("Cannot read json result " + jsonFile, ex);
+        }
+        append(result);
+        jsonFile.delete();
+        return result;
+    }
+
+    public boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public synchronized File getFile() {
+        drain();
+        return file;
+    }
+
+    /**
+     * Flushes all buffered results and forces them to the storage device.
+     *
+     * @return the number of results on the storage device
+     */
+    public synchronized int sync() {
+        drain();
+        if (writer == null) {
+            return written;
+        }
+        try {
+            writer.flush();
+            channel.force(false);
+        } catch (IOException ex) {
+            throw new RuntimeException("Cannot sync json results " + file, ex);
+        }
+        return written;
+    }
+
+    /**
+     * Reads all results sequentially in the order they were appended.
+     */
+    public synchronized void read(ParallelResultReader.ResultConsumer consumer) throws IOException, ParseException {
+        sync();
+        if (file == null) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8);
+             ParallelResultReader parser = new ParallelResultReader()) {
+            parser.readLines(reader, consumer);
+        }
+    }
+
+    /**
+     * Moves all results of this log to the end of the other log.
+     */
+    public synchronized void appendAllTo(ResultsLog other) {
+        if (other == this || isEmpty()) {
+            return;
+        }
+        try {
+            read(other::append);
+        } catch (IOException | ParseException ex) {
+            throw new RuntimeException("Cannot read json results " + file, ex);
+        }
+        delete();
+    }
+
+    /**
+     * Moves all results appended so far into a new log and continues with an empty file, so results appended
+     * concurrently are never lost while the detached results are reported.
+     */
+    public synchronized ResultsLog detach() {
+        drain();
+        close();
+        ResultsLog detached = new ResultsLog(directory);
+        detached.file = file;
+        detached.written = written;
+        detached.size.set(written);
+        size.addAndGet(-written);
+        file = null;
+        written = 0;
+        return detached;
+    }
+
+    public synchronized void delete() {
+        drain();
+        close();
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file.toPath());
+            } catch (IOException ex) {
+                file.deleteOnExit();
+            }
+        }
+        file = null;
+        size.addAndGet(-written);
+        written = 0;
+    }
+
+    public synchronized void close() {
+        drain();
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException ex) {
+            throw new RuntimeException("Cannot close json results " + file, ex);
+        } finally {
+            writer = null;
+            channel = null;
+        }
+    }
+
+    private void open() throws IOException {
+        if (writer != null) {
+            return;
+        }
+        if (file == null) {
+            directory.mkdirs();
+            file = new File(directory, "results-" + System.currentTimeMillis() + Helper.getGeneratedStringWithLength(7) + ".ndjson");
+        }
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), -1), BUFFER_SIZE);
+    }
+}
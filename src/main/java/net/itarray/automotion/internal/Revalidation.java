@@ -0,0 +1,261 @@
+package net.itarray.automotion.internal;
+
+import net.itarray.automotion.internal.geometry.Rectangle;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * The assertions of a snapshot together with the geometry they read, so that a later snapshot of the same page
+ * can carry their results forward. An assertion that passed before is not evaluated again if none of the
+ * rectangles it read moved; a chunk assertion that supports it is only evaluated for the elements that moved.
+ * Failed assertions are always evaluated again, so that their messages and drawings are reported, and so are
+ * assertions whose arguments, e.g. the condition or the compared elements, differ from the previous snapshot.
+ * <p>
+ * Assertions are matched by the name of the validated element, the assertion and their order, so the later
+ * snapshot needs to run the same validations in the same order.
+ */
+public class Revalidation {
+
+    private static final ThreadLocal<List<Operand>> READS = new ThreadLocal<>();
+
+    // these read css values and not the geometry
+    private static final Set<String> NOT_GEOMETRIC = new LinkedHashSet<>(Arrays.asList("hasCssValue", "doesNotHaveCssValue"));
+
+    private final Revalidation previous;
+    private final GeometryCache geometry;
+    private final Map<String, Record> records = new HashMap<>();
+    private final Map<String, Integer> validatorCounts = new HashMap<>();
+    private int carriedForward;
+    private int evaluatedIncrementally;
+
+    public Revalidation() {
+        this.previous = null;
+        this.geometry = null;
+    }
+
+    /**
+     * Captures the geometry of all elements read by the previous snapshot in one round trip.
+     */
+    public Revalidation(Revalidation previous, DriverFacade driver) {
+        this.previous = previous;
+        this.geometry = new GeometryCache();
+        geometry.include(previous.getElements());
+        geometry.capture(driver);
+    }
+
+    static void read(WebElement element, Rectangle rectangle) {
+        List<Operand> reads = READS.get();
+        if (reads != null) {
+            reads.add(new Operand((WebElement) DriverInstrumentation.unwrap(element), rectangle));
+        }
+    }
+
+    /**
+     * Runs the action and collects the rectangles it read.
+     */
+    static <T> T recording(List<Operand> reads, Supplier<T> action) {
+        List<Operand> outer = READS.get();
+        READS.set(reads);
+        try {
+            return action.get();
+        } finally {
+            if (outer == null) {
+                READS.remove();
+            } else {
+                outer.addAll(reads);
+                READS.set(outer);
+            }
+        }
+    }
+
+    /**
+     * Runs the action with the geometry captured for this snapshot, if any, unless a {@link QueryPlan} fetches it.
+     */
+    <T> T withGeometry(Supplier<T> action) {
+        return geometry == null || QueryPlan.isActive() ? action.get() : geometry.activated(action);
+    }
+
+    /**
+     * @return a key for a validator of the element, numbered if the snapshot validates the element more than once
+     */
+    synchronized String validatorKey(String elementName) {
+        int count = validatorCounts.merge(elementName, 1, Integer::sum);
+        return count == 1 ? elementName : elementName + " #" + count;
+    }
+
+    /**
+     * @return the arguments of an assertion in a form that can be compared with a later snapshot: compared elements
+     * by identity, conditions, expressions and paddings by their description and collections element by element
+     */
+    static List<Object> arguments(Object... arguments) {
+        List<Object> canonical = new ArrayList<>();
+        for (Object argument : arguments) {
+            if (argument == null) {
+                canonical.add(null);
+            } else if (argument instanceof WebElement) {
+                canonical.add(DriverInstrumentation.unwrap(argument));
+            } else if (argument instanceof Collection) {
+                canonical.add(arguments(((Collection<?>) argument).toArray()));
+            } else if (argument instanceof Object[]) {
+                canonical.add(arguments((Object[]) argument));
+            } else {
+                canonical.add(argument.toString());
+            }
+        }
+        return canonical;
+    }
+
+    /**
+     * Decides how to evaluate an assertion from what the previous snapshot recorded for it.
+     *
+     * @param roots     the rectangles of the validated elements, in their order
+     * @param arguments the arguments of the assertion, see {@link #arguments(Object...)}
+     * @param context   everything besides the geometry the assertion depends on, e.g. page size and units
+     */
+    Plan plan(String key, String assertion, List<Operand> roots, List<Object> arguments, String context) {
+        Record record = previous == null ? null : previous.get(key);
+        if (record == null || !record.passed || NOT_GEOMETRIC.contains(assertion)
+                || !record.arguments.equals(arguments) || !record.context.equals(context)
+                || record.roots.size() != roots.size()) {
+            return Plan.EVALUATE;
+        }
+        BitSet changed = new BitSet(roots.size());
+        for (int i = 0; i < roots.size(); i++) {
+            Operand before = record.roots.get(i);
+            Operand now = roots.get(i);
+            if (!before.element.equals(now.element)) {
+                return Plan.EVALUATE;
+            }
+            if (!before.rectangle.equals(now.rectangle)) {
+                changed.set(i);
+            }
+        }
+        for (Operand operand : record.operands) {
+            // captured for this snapshot, so the lookup does not need a round trip
+            Rectangle now = withGeometry(() -> GeometryCache.rectangle(operand.element));
+            if (!operand.rectangle.equals(now)) {
+                return Plan.EVALUATE;
+            }
+        }
+        return new Plan(changed, record);
+    }
+
+    synchronized void carryForward(String key, Plan plan) {
+        records.put(key, plan.record);
+        carriedForward++;
+    }
+
+    /**
+     * Records an evaluated assertion. An incremental evaluation keeps the unchanged operands of the previous one.
+     */
+    synchronized void evaluated(String key, Plan plan, List<Operand> roots, List<Operand> reads, List<Object> arguments, String context, boolean passed, boolean incrementally) {
+        List<Operand> operands = reads;
+        if (incrementally) {
+            operands = new ArrayList<>(plan.record.operands);
+            operands.addAll(reads);
+            evaluatedIncrementally++;
+        }
+        records.put(key, new Record(roots, operands, arguments, context, passed));
+    }
+
+    private synchronized Record get(String key) {
+        return records.get(key);
+    }
+
+    private synchronized Set<WebElement> getElements() {
+        Set<WebElement> elements = new LinkedHashSet<>();
+        for (Record record : records.values()) {
+            for (Operand operand : record.roots) {
+                elements.add(operand.element);
+            }
+            for (Operand operand : record.operands) {
+                elements.add(operand.element);
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * @return the number of assertions not evaluated because their geometry did not change
+     */
+    public synchronized int getCarriedForward() {
+        return carriedForward;
+    }
+
+    /**
+     * @return the number of assertions evaluated for the elements that moved only
+     */
+    public synchronized int getEvaluatedIncrementally() {
+        return evaluatedIncrementally;
+    }
+
+    static class Operand {
+        private final WebElement element;
+        private final Rectangle rectangle;
+
+        Operand(WebElement element, Rectangle rectangle) {
+            this.element = element;
+            this.rectangle = rectangle;
+        }
+    }
+
+    static class Record {
+        private final List<Operand> roots;
+        private final List<Operand> operands;
+        private final List<Object> arguments;
+        private final String context;
+        private final boolean passed;
+
+        Record(List<Operand> roots, List<Operand> operands, List<Object> arguments, String context, boolean passed) {
+            this.roots = Collections.unmodifiableList(new ArrayList<>(roots));
+            this.operands = Collections.unmodifiableList(new ArrayList<>(operands));
+            this.arguments = Collections.unmodifiableList(new ArrayList<>(arguments));
+            this.context = context;
+            this.passed = passed;
+        }
+    }
+
+    static class Plan {
+        private static final Plan EVALUATE = new Plan(null, null);
+
+        private final BitSet changed;
+        private final Record record;
+
+        private Plan(BitSet changed, Record record) {
+            this.changed = changed;
+            this.record = record;
+        }
+
+        /**
+         * @return true if the assertion passed before and nothing it read moved
+         */
+        boolean isCarriedForward() {
+            return record != null && changed.isEmpty();
+        }
+
+        /**
+         * @return true if the assertion passed before and only validated elements moved
+         */
+        boolean isIncremental() {
+            return record != null && !changed.isEmpty();
+        }
+
+        /**
+         * @return whether the validated element at the index moved, true for all elements without a previous record
+         */
+        boolean isChanged(int index) {
+            return changed == null || changed.get(index);
+        }
+    }
+}
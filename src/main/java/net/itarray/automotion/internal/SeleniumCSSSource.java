@@ -1,5 +1,6 @@
 package net.itarray.automotion.internal;
 
+import net.itarray.automotion.validation.Phase;
 import org.openqa.selenium.WebElement;
 
 public class SeleniumCSSSource extends CSSSource{
@@ -12,6 +13,10 @@ public class SeleniumCSSSource extends CSSSource{
 
     @Override
     public String getCssValue(String propertyName) {
-        return webElement.getCssValue(propertyName);
+        String planned = QueryPlan.cssValue(webElement, propertyName);
+        if (planned != null) {
+            return planned;
+        }
+        return PhaseRecorder.time(Phase.CSS, () -> webElement.getCssValue(propertyName));
     }
 }
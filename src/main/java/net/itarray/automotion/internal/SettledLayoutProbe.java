@@ -0,0 +1,95 @@
+package net.itarray.automotion.internal;
+
+import net.itarray.automotion.validation.ReadinessProbe;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Waits until nothing changed the layout for a quiet period. The first poll installs observers in the page that
+ * remember the time of the last change: a ResizeObserver on the document, a MutationObserver on the whole DOM
+ * and listeners for started and ended transitions and animations. Each poll is one round trip that waits in the
+ * browser until the page is loaded, its fonts and images are loaded and the quiet period has passed, or at most
+ * {@link #POLL_MILLIS}. The observers survive the polls and are installed again after a navigation.
+ */
+public class SettledLayoutProbe implements ReadinessProbe {
+
+    private final static Logger LOG = LoggerFactory.getLogger(SettledLayoutProbe.class);
+
+    static final long POLL_MILLIS = 500;
+
+    static final String SETTLED = "settled";
+
+    static final String POLL_SCRIPT = "var quiet = arguments[0], limit = arguments[1], done = arguments[arguments.length - 1];" +
+            " var state = window.__automotionLayout;" +
+            " if (!state) {" +
+            "  state = window.__automotionLayout = { changed: performance.now() };" +
+            "  var changed = function () { state.changed = performance.now(); };" +
+            "  if (window.ResizeObserver) {" +
+            "   var resizes = new ResizeObserver(changed);" +
+            "   resizes.observe(document.documentElement);" +
+            "   if (document.body) { resizes.observe(document.body); }" +
+            "  }" +
+            "  if (window.MutationObserver) {" +
+            "   new MutationObserver(changed).observe(document.documentElement, { attributes: true, childList: true, characterData: true, subtree: true });" +
+            "  }" +
+            "  ['transitionrun', 'transitionend', 'transitioncancel', 'animationstart', 'animationend', 'animationcancel', 'load', 'resize']" +
+            "   .forEach(function (type) { window.addEventListener(type, changed, true); });" +
+            " }" +
+            " var start = performance.now();" +
+            " function pending() {" +
+            "  if (document.readyState !== 'complete') { return 'loading'; }" +
+            "  if (document.fonts && document.fonts.status !== 'loaded') { return 'fonts'; }" +
+            "  for (var i = 0; i < document.images.length; i++) {" +
+            "   if (!document.images[i].complete) { return 'images'; }" +
+            "  }" +
+            "  var since = performance.now() - state.changed;" +
+            "  return since >= quiet ? null : 'changed ' + Math.round(since) + ' ms ago';" +
+            " }" +
+            " function check() {" +
+            "  var reason = pending();" +
+            "  if (reason === null) { done('" + SETTLED + "'); return; }" +
+            "  var left = limit - (performance.now() - start);" +
+            "  if (left <= 0) { done(reason); return; }" +
+            "  setTimeout(check, Math.min(left, Math.max(16, quiet - (performance.now() - state.changed))));" +
+            " }" +
+            " check();";
+
+    private final long quietMillis;
+    private final long timeoutMillis;
+
+    public SettledLayoutProbe(long quietMillis, long timeoutMillis) {
+        if (quietMillis <= 0) {
+            throw new IllegalArgumentException("quietMillis needs to be greater than zero, quietMillis supplied was " + quietMillis);
+        }
+        if (timeoutMillis <= 0) {
+            throw new IllegalArgumentException("timeoutMillis needs to be greater than zero, timeoutMillis supplied was " + timeoutMillis);
+        }
+        this.quietMillis = quietMillis;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public void awaitReady(DriverFacade driver) {
+        if (driver.isAppiumContext() && !driver.isAppiumWebContext()) {
+            return;
+        }
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        try {
+            while (true) {
+                long left = deadline - System.currentTimeMillis();
+                long limit = Math.max(1, Math.min(POLL_MILLIS, left));
+                String state = String.valueOf(driver.executeAsyncScript(POLL_SCRIPT, quietMillis, limit));
+                if (SETTLED.equals(state)) {
+                    return;
+                }
+                if (System.currentTimeMillis() >= deadline) {
+                    LOG.warn("Layout did not settle within " + timeoutMillis + " ms, waiting for " + state);
+                    return;
+                }
+            }
+        } catch (WebDriverException e) {
+            LOG.warn("Cannot probe the layout, validating without waiting: " + e.getMessage());
+        }
+    }
+}
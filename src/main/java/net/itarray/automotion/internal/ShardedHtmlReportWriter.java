@@ -0,0 +1,211 @@
+package net.itarray.automotion.internal;
+
+import com.webfirmframework.wffweb.tag.html.attribute.global.ClassAttribute;
+import com.webfirmframework.wffweb.tag.html.html5.attribute.global.DataAttribute;
+import com.webfirmframework.wffweb.tag.html.stylesandsemantics.Div;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+import static net.itarray.automotion.validation.Constants.*;
+
+/**
+ * Writes an index page holding one summary row per scenario. The scenario details are written to
+ * separate shard scripts which the page loads only when a row is expanded. Shards are plain scripts
+ * (not json fetched with xhr) so that the report also works when opened from the file system.
+ */
+public class ShardedHtmlReportWriter extends HtmlReportWriter {
+
+    private final File shardDirectory;
+    private final String shardPath;
+    private final int scenariosPerShard;
+    private Writer shardWriter;
+    private int shard = 0;
+    private int inShard = 0;
+
+    /**
+     * @param shardDirectory    folder the shard scripts are written to
+     * @param shardPath         path of the shard folder relative to the index page
+     * @param scenariosPerShard maximum number of scenarios per shard
+     */
+    public ShardedHtmlReportWriter(Writer writer, File shardDirectory, String shardPath, int scenariosPerShard) {
+        super(writer);
+        if (scenariosPerShard < 1) {
+            throw new IllegalArgumentException("scenariosPerShard needs to be greater than zero, scenariosPerShard supplied was " + scenariosPerShard);
+        }
+        this.shardDirectory = shardDirectory;
+        this.shardPath = shardPath.endsWith("/") ? shardPath : shardPath + "/";
+        this.scenariosPerShard = scenariosPerShard;
+    }
+
+    @Override
+    protected void writeScenarioBlock(JSONObject jsonObject, boolean isFailed, int index) throws IOException {
+        if (shardWriter == null || inShard == scenariosPerShard) {
+            openNextShard();
+        }
+        int position = inShard++;
+        writer.write(new Div(null,
+                new ClassAttribute("row")) {{
+            buildScenarioTitle(this, jsonObject, isFailed,
+                    new DataAttribute("shard", String.valueOf(shard)),
+                    new DataAttribute("position", String.valueOf(position)));
+            new Div(this,
+                    new ClassAttribute("panel"));
+        }}.toHtmlString());
+
+        if (position > 0) {
+            shardWriter.write(",\n");
+        }
+        shardWriter.write(details(jsonObject, isFailed).toJSONString());
+    }
+
+    @Override
+    public void writeFooter() throws IOException {
+        closeShard();
+        super.writeFooter();
+    }
+
+    @Override
+    protected void writeAdditionalScripts() throws IOException {
+        writer.write(script("var shardPath = '" + shardPath + "';\n" +
+                "var loadedShards = {};\n" +
+                "var pendingShards = {};\n" +
+                "\n" +
+                "function automotionShard(shard, scenarios) {\n" +
+                "    loadedShards[shard] = scenarios;\n" +
+                "    (pendingShards[shard] || []).forEach(function(callback) { callback(scenarios); });\n" +
+                "    delete pendingShards[shard];\n" +
+                "}\n" +
+                "\n" +
+                "function loadShard(shard, callback) {\n" +
+                "    if (loadedShards[shard]) {\n" +
+                "        callback(loadedShards[shard]);\n" +
+                "        return;\n" +
+                "    }\n" +
+                "    if (!pendingShards[shard]) {\n" +
+                "        pendingShards[shard] = [];\n" +
+                "        var script = document.createElement('script');\n" +
+                "        script.src = shardPath + 'shard-' + shard + '.js';\n" +
+                "        document.head.appendChild(script);\n" +
+                "    }\n" +
+                "    pendingShards[shard].push(callback);\n" +
+                "}\n" +
+                "\n" +
+                "function addText(parent, tag, style, text) {\n" +
+                "    var element = document.createElement(tag);\n" +
+                "    element.style.cssText = style;\n" +
+                "    element.textContent = text;\n" +
+                "    parent.appendChild(element);\n" +
+                "    return element;\n" +
+                "}\n" +
+                "\n" +
+                "function addImage(parent, id, style, src, alt) {\n" +
+                "    var img = document.createElement('img');\n" +
+                "    if (id) { img.id = id; }\n" +
+                "    img.style.cssText = style;\n" +
+                "    img.loading = 'lazy';\n" +
+                "    img.src = src;\n" +
+                "    img.alt = alt;\n" +
+                "    parent.appendChild(img);\n" +
+                "    return img;\n" +
+                "}\n" +
+                "\n" +
+                "function renderDetails(panel, scenario) {\n" +
+                "    addText(panel, 'h2', 'color: rgb(0,139,139); font-size:18px; font-weight: 300;', 'Element: \"' + scenario.elementName + '\"');\n" +
+                "    if (scenario.error) {\n" +
+                "        addText(panel, 'h3', 'color: rgb(255,69,0); font-size:18px; font-weight: 300;', 'Failures:');\n" +
+                "    }\n" +
+                "    var list = document.createElement('ol');\n" +
+                "    scenario.messages.forEach(function(message) {\n" +
+                "        addText(list, 'li', 'color: rgb(105,105,105); font-size:14px; font-weight: 400;', message);\n" +
+                "    });\n" +
+                "    panel.appendChild(list);\n" +
+                "    if (scenario.warnings) {\n" +
+                "        addText(panel, 'h3', 'color: rgb(255,140,0); font-size:18px; font-weight: 300;', 'Budget warnings:');\n" +
+                "        var warnings = document.createElement('ol');\n" +
+                "        scenario.warnings.forEach(function(warning) {\n" +
+                "            addText(warnings, 'li', 'color: rgb(105,105,105); font-size:14px; font-weight: 400;', warning);\n" +
+                "        });\n" +
+                "        panel.appendChild(warnings);\n" +
+                "    }\n" +
+                "    addText(panel, 'h4', 'color: rgb(105,105,105); font-size:14px; font-weight: 300;', 'Time execution: ' + scenario.timeExecution);\n" +
+                "    if (scenario.error) {\n" +
+                "        var images = document.createElement('div');\n" +
+                "        images.style.cssText = 'position:relative; left: 0; top:0; width: 96%; margin-left:2%';\n" +
+                "        var overlay;\n" +
+                "        if (scenario.thumbnail) {\n" +
+                "            overlay = addImage(images, scenario.drawings, 'cursor: pointer;', '../../img/' + scenario.thumbnail, 'screenshot-overlay');\n" +
+                "            overlay.setAttribute('data-screenshot', '../../img/' + scenario.screenshot);\n" +
+                "            overlay.setAttribute('data-drawings', '../../img/' + scenario.drawings);\n" +
+                "        } else {\n" +
+                "            addImage(images, null, 'position:relative; left: 0; top:0', '../../img/' + scenario.screenshot, 'screenshot');\n" +
+                "            overlay = addImage(images, scenario.drawings, 'position:absolute; left: 0; top:0;', '../../img/' + scenario.drawings, 'screenshot-overlay');\n" +
+                "        }\n" +
+                "        overlay.onclick = function() { showModal(scenario.drawings); };\n" +
+                "        var paragraph = document.createElement('p');\n" +
+                "        paragraph.appendChild(images);\n" +
+                "        panel.appendChild(paragraph);\n" +
+                "    }\n" +
+                "}\n" +
+                "\n" +
+                "var rows = document.querySelectorAll('.accordion[data-shard]');\n" +
+                "for (var r = 0; r < rows.length; r++) {\n" +
+                "    rows[r].addEventListener('click', function() {\n" +
+                "        var panel = this.nextElementSibling;\n" +
+                "        if (panel.hasChildNodes()) {\n" +
+                "            return;\n" +
+                "        }\n" +
+                "        var position = parseInt(this.getAttribute('data-position'));\n" +
+                "        loadShard(parseInt(this.getAttribute('data-shard')), function(scenarios) {\n" +
+                "            if (!panel.hasChildNodes()) {\n" +
+                "                renderDetails(panel, scenarios[position]);\n" +
+                "            }\n" +
+                "        });\n" +
+                "    });\n" +
+                "}"));
+    }
+
+    private JSONObject details(JSONObject jsonObject, boolean isFailed) {
+        JSONArray messages = new JSONArray();
+        for (Object detail : (JSONArray) jsonObject.get(DETAILS)) {
+            JSONObject reason = (JSONObject) ((JSONObject) detail).get(REASON);
+            messages.add(reason.get(MESSAGE));
+        }
+        JSONObject details = new JSONObject();
+        details.put(ERROR_KEY, isFailed);
+        details.put(ELEMENT_NAME, jsonObject.get(ELEMENT_NAME));
+        details.put("messages", messages);
+        if (jsonObject.get(WARNINGS) != null) {
+            details.put(WARNINGS, jsonObject.get(WARNINGS));
+        }
+        details.put(TIME_EXECUTION, jsonObject.get(TIME_EXECUTION));
+        details.put(SCREENSHOT, jsonObject.get(SCREENSHOT));
+        details.put(DRAWINGS, jsonObject.get(DRAWINGS));
+        details.put(THUMBNAIL, jsonObject.get(THUMBNAIL));
+        return details;
+    }
+
+    private void openNextShard() throws IOException {
+        closeShard();
+        shard++;
+        inShard = 0;
+        shardDirectory.mkdirs();
+        File file = new File(shardDirectory, "shard-" + shard + ".js");
+        shardWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+        shardWriter.write("automotionShard(" + shard + ", [\n");
+    }
+
+    private void closeShard() throws IOException {
+        if (shardWriter == null) {
+            return;
+        }
+        try {
+            shardWriter.write("\n]);\n");
+        } finally {
+            shardWriter.close();
+            shardWriter = null;
+        }
+    }
+}
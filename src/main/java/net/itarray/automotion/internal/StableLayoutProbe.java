@@ -0,0 +1,60 @@
+package net.itarray.automotion.internal;
+
+import net.itarray.automotion.validation.ReadinessProbe;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Polls the size of the viewport and the document until it is the same twice in a row. Each poll waits for two
+ * animation frames in the browser, so that a resize has been laid out, or 100 ms in a background tab where
+ * animation frames are throttled.
+ */
+public class StableLayoutProbe implements ReadinessProbe {
+
+    private final static Logger LOG = LoggerFactory.getLogger(StableLayoutProbe.class);
+
+    static final String POLL_SCRIPT = "var done = arguments[arguments.length - 1];" +
+            " var finished = false;" +
+            " function finish() {" +
+            "  if (finished) { return; }" +
+            "  finished = true;" +
+            "  var root = document.documentElement;" +
+            "  done([document.readyState, window.innerWidth, window.innerHeight, root.scrollWidth, root.scrollHeight].join(','));" +
+            " }" +
+            " setTimeout(finish, 100);" +
+            " requestAnimationFrame(function () { requestAnimationFrame(finish); });";
+
+    private final long timeoutMillis;
+
+    public StableLayoutProbe(long timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            throw new IllegalArgumentException("timeoutMillis needs to be greater than zero, timeoutMillis supplied was " + timeoutMillis);
+        }
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public void awaitReady(DriverFacade driver) {
+        if (driver.isAppiumContext() && !driver.isAppiumWebContext()) {
+            return;
+        }
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        String previous = null;
+        try {
+            while (true) {
+                String layout = String.valueOf(driver.executeAsyncScript(POLL_SCRIPT));
+                if (layout.startsWith("complete,") && layout.equals(previous)) {
+                    return;
+                }
+                if (System.currentTimeMillis() > deadline) {
+                    LOG.warn("Layout did not settle within " + timeoutMillis + " ms, last layout was " + layout);
+                    return;
+                }
+                previous = layout;
+            }
+        } catch (WebDriverException e) {
+            LOG.warn("Cannot probe the layout, validating without waiting: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package net.itarray.automotion.internal;
+
+import net.itarray.automotion.validation.Phase;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Small preview images for the report: the drawings are composited onto the screenshot and the result is
+ * scaled down by averaging the source pixels covered by each target pixel.
+ */
+public class Thumbnails {
+
+    private Thumbnails() {
+    }
+
+    /**
+     * Writes a png thumbnail of the screenshot with the drawings on top.
+     *
+     * @return false if the screenshot could not be read
+     */
+    public static boolean write(File screenshot, BufferedImage drawings, File output, int maxWidth) throws IOException {
+        if (!screenshot.isFile()) {
+            return false;
+        }
+        BufferedImage image;
+        try {
+            image = PhaseRecorder.time(Phase.IMAGE_DECODE, () -> read(screenshot));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (image == null) {
+            return false;
+        }
+        ImageIO.write(scale(composite(image, drawings), maxWidth), "png", output);
+        return true;
+    }
+
+    private static BufferedImage read(File file) {
+        try {
+            return ImageIO.read(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static BufferedImage composite(BufferedImage screenshot, BufferedImage drawings) {
+        BufferedImage result = new BufferedImage(screenshot.getWidth(), screenshot.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = result.createGraphics();
+        try {
+            graphics.drawImage(screenshot, 0, 0, null);
+            if (drawings != null) {
+                graphics.drawImage(drawings, 0, 0, null);
+            }
+        } finally {
+            graphics.dispose();
+        }
+        return result;
+    }
+
+    /**
+     * Scales the image down to the given width keeping the aspect ratio. Images that are not wider are
+     * returned as they are.
+     */
+    public static BufferedImage scale(BufferedImage image, int maxWidth) {
+        int sourceWidth = image.getWidth();
+        int sourceHeight = image.getHeight();
+        if (sourceWidth <= maxWidth) {
+            return image;
+        }
+        int targetWidth = maxWidth;
+        int targetHeight = Math.max(1, (int) Math.round((double) sourceHeight * targetWidth / sourceWidth));
+
+        int[] source = rgbPixels(image);
+        BufferedImage result = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        int[] target = ((DataBufferInt) result.getRaster().getDataBuffer()).getData();
+
+        for (int y = 0; y < targetHeight; y++) {
+            int top = (int) ((long) y * sourceHeight / targetHeight);
+            int bottom = Math.max(top + 1, (int) ((long) (y + 1) * sourceHeight / targetHeight));
+            for (int x = 0; x < targetWidth; x++) {
+                int left = (int) ((long) x * sourceWidth / targetWidth);
+                int right = Math.max(left + 1, (int) ((long) (x + 1) * sourceWidth / targetWidth));
+                long red = 0;
+                long green = 0;
+                long blue = 0;
+                for (int sy = top; sy < bottom; sy++) {
+                    int row = sy * sourceWidth;
+                    for (int sx = left; sx < right; sx++) {
+                        int rgb = source[row + sx];
+                        red += (rgb >> 16) & 0xff;
+                        green += (rgb >> 8) & 0xff;
+                        blue += rgb & 0xff;
+                    }
+                }
+                int count = (bottom - top) * (right - left);
+                target[y * targetWidth + x] = (int) (red / count) << 16 | (int) (green / count) << 8 | (int) (blue / count);
+            }
+        }
+        return result;
+    }
+
+    private static int[] rgbPixels(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        }
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+}
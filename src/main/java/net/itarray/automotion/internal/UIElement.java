@@ -11,6 +11,7 @@ import net.itarray.automotion.internal.properties.Context;
 import net.itarray.automotion.internal.properties.SuccessorConditionedExpressionDescription;
 import net.itarray.automotion.tools.general.SystemHelper;
 import net.itarray.automotion.tools.helpers.TextFinder;
+import net.itarray.automotion.validation.Phase;
 import net.itarray.automotion.validation.properties.Condition;
 import net.itarray.automotion.internal.properties.ElementPropertyExpression;
 import net.itarray.automotion.validation.properties.Expression;
@@ -49,11 +50,13 @@ public class UIElement {
     }
 
     public static UIElement asElement(WebElement webElement) {
-        return new UIElement(defaultName(webElement), Rectangle.rectangle(webElement), new SeleniumCSSSource(webElement), true);
+        WebElement element = DriverInstrumentation.instrumentForActiveValidation(webElement);
+        return PhaseRecorder.time(Phase.GEOMETRY, () -> new UIElement(defaultName(element), GeometryCache.rectangle(element), new SeleniumCSSSource(element), true));
     }
 
     public static UIElement asElement(WebElement webElement, String name) {
-        return new UIElement(name, Rectangle.rectangle(webElement), new SeleniumCSSSource(webElement), true);
+        WebElement element = DriverInstrumentation.instrumentForActiveValidation(webElement);
+        return PhaseRecorder.time(Phase.GEOMETRY, () -> new UIElement(name, GeometryCache.rectangle(element), new SeleniumCSSSource(element), true));
     }
 
     public static UIElement asElement(Rectangle rectangle, String name) {
@@ -74,6 +77,20 @@ public class UIElement {
     }
 
     private static String defaultName(WebElement webElement) {
+        List<String> details = QueryPlan.nameDetails(webElement);
+        if (details != null) {
+            Rectangle rectangle = GeometryCache.rectangle(webElement);
+            Vector extend = rectangle.getCorner().minus(rectangle.getOrigin());
+            return String.format("with properties: tag=[%s], id=[%s], class=[%s], text=[%s], coord=[%s,%s], size=[%s,%s]",
+                    details.get(0),
+                    details.get(1),
+                    details.get(2),
+                    getShortenedText(details.get(3)),
+                    rectangle.getOrigin().getX(),
+                    rectangle.getOrigin().getY(),
+                    extend.getX(),
+                    extend.getY());
+        }
         Point location = webElement.getLocation();
         Dimension size = webElement.getSize();
         return String.format("with properties: tag=[%s], id=[%s], class=[%s], text=[%s], coord=[%s,%s], size=[%s,%s]",
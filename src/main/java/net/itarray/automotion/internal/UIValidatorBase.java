@@ -39,10 +39,10 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
             try {
                 //((JavascriptExecutor) getDriver().getDriver()).executeScript("arguments[0].scrollIntoView();", webElement);
                 //((JavascriptExecutor) getDriver().getDriver()).executeScript("javascript:window.scrollBy(0,250);");
-                ((JavascriptExecutor) getDriver().getDriver()).executeScript("document.documentElement.style.overflow = 'hidden'");
+                QueryPlan.hideOverflow(getDriver());
             } catch (Exception e) {}
         }
-        this.rootElement = asElement(webElement, readableNameOfElement);
+        this.rootElement = fetch(() -> asElement(webElement, readableNameOfElement));
         doSnapshot();
     }
 
@@ -65,12 +65,12 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
      * @return UIValidator
      */
     public UIValidatorBase changeMetricsUnitsTo(Units units) {
-        getReport().changeMetricsUnitsTo(units);
+        setUnits(units);
         return this;
     }
 
     public UIValidatorBase changeMetricsUnitsTo(util.validator.ResponsiveUIValidator.Units units) {
-        getReport().changeMetricsUnitsTo(units.asNewUnits());
+        setUnits(units.asNewUnits());
         return this;
     }
 
@@ -86,7 +86,7 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
     }
 
     public UIValidatorBase isRightOf(WebElement element, Condition<Scalar> distanceCondition) {
-        rootElement.validateIsRightOf(asElement(element), distanceCondition, getContext());
+        evaluate("isRightOf", () -> rootElement.validateIsRightOf(asElement(element), distanceCondition, getContext()), element, distanceCondition);
         return this;
     }
 
@@ -102,7 +102,7 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
     }
 
     public UIValidatorBase isLeftOf(WebElement element, Condition<Scalar> distanceCondition) {
-        rootElement.validateIsLeftOf(asElement(element), distanceCondition, getContext());
+        evaluate("isLeftOf", () -> rootElement.validateIsLeftOf(asElement(element), distanceCondition, getContext()), element, distanceCondition);
         return this;
     }
 
@@ -126,7 +126,7 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
     }
 
     public UIValidatorBase isBelow(WebElement element, Condition<Scalar> distanceCondition) {
-        rootElement.validateIsBelow(asElement(element), distanceCondition, getContext());
+        evaluate("isBelow", () -> rootElement.validateIsBelow(asElement(element), distanceCondition, getContext()), element, distanceCondition);
         return this;
     }
 
@@ -142,7 +142,7 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
     }
 
     public UIValidatorBase isAbove(WebElement element, Condition<Scalar> distanceCondition) {
-        rootElement.validateIsAbove(asElement(element), distanceCondition, getContext());
+        evaluate("isAbove", () -> rootElement.validateIsAbove(asElement(element), distanceCondition, getContext()), element, distanceCondition);
         return this;
     }
 
@@ -155,7 +155,7 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
      */
     @Override
     public UIValidatorBase isNotOverlapping(WebElement element, String readableName) {
-        rootElement.validateNotOverlappingWithElement(asElement(element, readableName), getContext());
+        evaluate("isNotOverlapping", () -> rootElement.validateNotOverlappingWithElement(asElement(element, readableName), getContext()), element, readableName);
         return this;
     }
 
@@ -168,7 +168,7 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
      */
     @Override
     public UIValidatorBase isOverlapping(WebElement element, String readableName) {
-        rootElement.validateOverlappingWithElement(asElement(element, readableName), getContext());
+        evaluate("isOverlapping", () -> rootElement.validateOverlappingWithElement(asElement(element, readableName), getContext()), element, readableName);
         return this;
     }
 
@@ -180,9 +180,11 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
      */
     @Override
     public UIValidatorBase isNotOverlapping(List<WebElement> elements) {
-        for (WebElement element : elements) {
-            rootElement.validateNotOverlappingWithElement(asElement(element), getContext());
-        }
+        evaluate("isNotOverlapping", () -> {
+            for (WebElement element : elements) {
+                rootElement.validateNotOverlappingWithElement(asElement(element), getContext());
+            }
+        }, elements);
         return this;
     }
 
@@ -195,9 +197,11 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
      */
     @Override
     public UIValidatorBase isLeftAlignedWith(WebElement element, String readableName) {
-        Context context = getContext();
-        rootElement.validateLeftAlignedWith(asElement(element, readableName), context);
-        context.drawVerticalLine(rootElement.getOrigin());
+        evaluate("isLeftAlignedWith", () -> {
+            Context context = getContext();
+            rootElement.validateLeftAlignedWith(asElement(element, readableName), context);
+            context.drawVerticalLine(rootElement.getOrigin());
+        }, element, readableName);
         return this;
     }
 
@@ -209,11 +213,13 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
      */
     @Override
     public UIValidatorBase isLeftAlignedWith(List<WebElement> webElements) {
-        Context context = getContext();
-        for (UIElement element : asElements(webElements)) {
-            rootElement.validateLeftAlignedWith(element, context);
-        }
-        context.drawVerticalLine(rootElement.getOrigin());
+        evaluate("isLeftAlignedWith", () -> {
+            Context context = getContext();
+            for (UIElement element : asElements(webElements)) {
+                rootElement.validateLeftAlignedWith(element, context);
+            }
+            context.drawVerticalLine(rootElement.getOrigin());
+        }, webElements);
         return this;
     }
 
@@ -226,9 +232,11 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
      */
     @Override
     public UIValidatorBase isRightAlignedWith(WebElement element, String readableName) {
-        Context context = getContext();
-        rootElement.validateRightAlignedWith(asElement(element, readableName), context);
-        context.drawVerticalLine(rootElement.getCorner());
+        evaluate("isRightAlignedWith", () -> {
+            Context context = getContext();
+            rootElement.validateRightAlignedWith(asElement(element, readableName), context);
+            context.drawVerticalLine(rootElement.getCorner());
+        }, element, readableName);
         return this;
     }
 
@@ -240,11 +248,13 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
      */
     @Override
     public UIValidatorBase isRightAlignedWith(List<WebElement> elements) {
-        Context context = getContext();
-        for (WebElement element : elements) {
-            rootElement.validateRightAlignedWith(asElement(element), context);
-        }
-        context.drawVerticalLine(rootElement.getCorner());
+        evaluate("isRightAlignedWith", () -> {
+            Context context = getContext();
+            for (WebElement element : elements) {
+                rootElement.validateRightAlignedWith(asElement(element), context);
+            }
+            context.drawVerticalLine(rootElement.getCorner());
+        }, elements);
         return this;
     }
 
@@ -257,9 +267,11 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
      */
     @Override
     public UIValidatorBase isTopAlignedWith(WebElement element, String readableName) {
-        Context context = getContext();
-        rootElement.validateTopAlignedWith(asElement(element, readableName), context);
-        context.drawHorizontalLine(rootElement.getOrigin());
+        evaluate("isTopAlignedWith", () -> {
+            Context context = getContext();
+            rootElement.validateTopAlignedWith(asElement(element, readableName), context);
+            context.drawHorizontalLine(rootElement.getOrigin());
+        }, element, readableName);
         return this;
     }
 
@@ -271,11 +283,13 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
      */
     @Override
     public UIValidatorBase isTopAlignedWith(List<WebElement> elements) {
-        Context context = getContext();
-        for (WebElement element : elements) {
-            rootElement.validateTopAlignedWith(asElement(element), context);
-        }
-        context.drawHorizontalLine(rootElement.getOrigin());
+        evaluate("isTopAlignedWith", () -> {
+            Context context = getContext();
+            for (WebElement element : elements) {
+                rootElement.validateTopAlignedWith(asElement(element), context);
+            }
+            context.drawHorizontalLine(rootElement.getOrigin());
+        }, elements);
         return this;
     }
 
@@ -288,9 +302,11 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
      */
     @Override
     public UIValidatorBase isBottomAlignedWith(WebElement element, String readableName) {
-        Context context = getContext();
-        rootElement.validateBottomAlignedWith(asElement(element, readableName), context);
-        context.drawHorizontalLine(rootElement.getCorner());
+        evaluate("isBottomAlignedWith", () -> {
+            Context context = getContext();
+            rootElement.validateBottomAlignedWith(asElement(element, readableName), context);
+            context.drawHorizontalLine(rootElement.getCorner());
+        }, element, readableName);
         return this;
     }
 
@@ -302,11 +318,13 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
      */
     @Override
     public UIValidatorBase isBottomAlignedWith(List<WebElement> elements) {
-        Context context = getContext();
-        for (WebElement element : elements) {
-            rootElement.validateBottomAlignedWith(asElement(element), context);
-        }
-        context.drawHorizontalLine(rootElement.getCorner());
+        evaluate("isBottomAlignedWith", () -> {
+            Context context = getContext();
+            for (WebElement element : elements) {
+                rootElement.validateBottomAlignedWith(asElement(element), context);
+            }
+            context.drawHorizontalLine(rootElement.getCorner());
+        }, elements);
         return this;
     }
 
@@ -319,7 +337,7 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
      */
     @Override
     public UIValidatorBase hasEqualWidthAs(WebElement element, String readableName) {
-        rootElement.validateSameWidth(asElement(element, readableName), getContext());
+        evaluate("hasEqualWidthAs", () -> rootElement.validateSameWidth(asElement(element, readableName), getContext()), element, readableName);
         return this;
     }
 
@@ -331,14 +349,16 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
      */
     @Override
     public UIValidatorBase hasEqualWidthAs(List<WebElement> elements) {
-        for (WebElement element : elements) {
-            rootElement.validateSameWidth(asElement(element), getContext());
-        }
+        evaluate("hasEqualWidthAs", () -> {
+            for (WebElement element : elements) {
+                rootElement.validateSameWidth(asElement(element), getContext());
+            }
+        }, elements);
         return this;
     }
 
     public UIValidatorBase hasWidth(Condition<Scalar> condition) {
-        rootElement.validateWidth(condition, getContext());
+        evaluate("hasWidth", () -> rootElement.validateWidth(condition, getContext()), condition);
         return this;
     }
 
@@ -351,7 +371,7 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
      */
     @Override
     public UIValidatorBase hasEqualHeightAs(WebElement element, String readableName) {
-        rootElement.validateSameHeight(asElement(element, readableName), getContext());
+        evaluate("hasEqualHeightAs", () -> rootElement.validateSameHeight(asElement(element, readableName), getContext()), element, readableName);
         return this;
     }
 
@@ -363,14 +383,16 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
      */
     @Override
     public UIValidatorBase hasEqualHeightAs(List<WebElement> elements) {
-        for (WebElement element : elements) {
-            rootElement.validateSameHeight(asElement(element), getContext());
-        }
+        evaluate("hasEqualHeightAs", () -> {
+            for (WebElement element : elements) {
+                rootElement.validateSameHeight(asElement(element), getContext());
+            }
+        }, elements);
         return this;
     }
 
     public UIValidatorBase hasHeight(Condition<Scalar> condition) {
-        rootElement.validateHeight(condition, getContext());
+        evaluate("hasHeight", () -> rootElement.validateHeight(condition, getContext()), condition);
         return this;
     }
 
@@ -383,7 +405,7 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
      */
     @Override
     public UIValidatorBase hasEqualSizeAs(WebElement element, String readableName) {
-        rootElement.validateSameSize(asElement(element, readableName), getContext());
+        evaluate("hasEqualSizeAs", () -> rootElement.validateSameSize(asElement(element, readableName), getContext()), element, readableName);
         return this;
     }
 
@@ -395,9 +417,11 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
      */
     @Override
     public UIValidatorBase hasEqualSizeAs(List<WebElement> elements) {
-        for (WebElement element : elements) {
-            rootElement.validateSameSize(asElement(element), getContext());
-        }
+        evaluate("hasEqualSizeAs", () -> {
+            for (WebElement element : elements) {
+                rootElement.validateSameSize(asElement(element), getContext());
+            }
+        }, elements);
         return this;
     }
 
@@ -410,7 +434,7 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
      */
     @Override
     public UIValidatorBase hasDifferentSizeAs(WebElement element, String readableName) {
-        validateNotSameSize(asElement(element, readableName));
+        evaluate("hasDifferentSizeAs", () -> validateNotSameSize(asElement(element, readableName)), element, readableName);
         return this;
     }
 
@@ -422,9 +446,11 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
      */
     @Override
     public UIValidatorBase hasDifferentSizeAs(List<WebElement> elements) {
-        for (WebElement element : elements) {
-            validateNotSameSize(asElement(element));
-        }
+        evaluate("hasDifferentSizeAs", () -> {
+            for (WebElement element : elements) {
+                validateNotSameSize(asElement(element));
+            }
+        }, elements);
         return this;
     }
 
@@ -439,9 +465,11 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
      */
     @Override
     public UIValidatorBase minOffset(int top, int right, int bottom, int left) {
-        if (isNotSwitchedOff(top, right, bottom, left)) {
-            validateMinOffsetNew(top, right, bottom, left);
-        }
+        evaluate("minOffset", () -> {
+            if (isNotSwitchedOff(top, right, bottom, left)) {
+                validateMinOffsetNew(top, right, bottom, left);
+            }
+        }, top, right, bottom, left);
         return this;
     }
 
@@ -464,22 +492,22 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
     }
 
     public UIElementValidator hasLeftOffsetToPage(Condition<Scalar> condition) {
-        rootElement.validateLeftOffset(condition, page, getContext());
+        evaluate("hasLeftOffsetToPage", () -> rootElement.validateLeftOffset(condition, page, getContext()), condition);
         return this;
     }
 
     public UIElementValidator hasRightOffsetToPage(Condition<Scalar> condition) {
-        rootElement.validateRightOffset(condition, page, getContext());
+        evaluate("hasRightOffsetToPage", () -> rootElement.validateRightOffset(condition, page, getContext()), condition);
         return this;
     }
 
     public UIElementValidator hasTopOffsetToPage(Condition<Scalar> condition) {
-        rootElement.validateTopOffset(condition, page, getContext());
+        evaluate("hasTopOffsetToPage", () -> rootElement.validateTopOffset(condition, page, getContext()), condition);
         return this;
     }
 
     public UIElementValidator hasBottomOffsetToPage(Condition<Scalar> condition) {
-        rootElement.validateBottomOffset(condition, page, getContext());
+        evaluate("hasBottomOffsetToPage", () -> rootElement.validateBottomOffset(condition, page, getContext()), condition);
         return this;
     }
 
@@ -494,9 +522,11 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
      */
     @Override
     public UIValidatorBase maxOffset(int top, int right, int bottom, int left) {
-        if (isNotSwitchedOff(top, right, bottom, left)) {
-            validateMaxOffsetNew(top, right, bottom, left);
-        }
+        evaluate("maxOffset", () -> {
+            if (isNotSwitchedOff(top, right, bottom, left)) {
+                validateMaxOffsetNew(top, right, bottom, left);
+            }
+        }, top, right, bottom, left);
         return this;
     }
 
@@ -516,7 +546,7 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
      */
     @Override
     public UIValidatorBase hasCssValue(String cssProperty, String... args) {
-        rootElement.validateHasCssValue(cssProperty, args, getContext());
+        evaluate("hasCssValue", () -> rootElement.validateHasCssValue(cssProperty, args, getContext()), cssProperty, args);
         return this;
     }
 
@@ -529,7 +559,7 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
      */
     @Override
     public UIValidatorBase doesNotHaveCssValue(String cssProperty, String... args) {
-        rootElement.validateDoesNotHaveCssValue(cssProperty, args, getContext());
+        evaluate("doesNotHaveCssValue", () -> rootElement.validateDoesNotHaveCssValue(cssProperty, args, getContext()), cssProperty, args);
         return this;
     }
 
@@ -540,7 +570,7 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
      */
     @Override
     public UIValidatorBase isCenteredOnPageHorizontally() {
-        rootElement.validateCenteredOnVertically(page, getContext());
+        evaluate("isCenteredOnPageHorizontally", () -> rootElement.validateCenteredOnVertically(page, getContext()));
         return this;
     }
 
@@ -551,7 +581,7 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
      */
     @Override
     public UIValidatorBase isCenteredOnPageVertically() {
-        rootElement.validateCenteredOnHorizontally(page, getContext());
+        evaluate("isCenteredOnPageVertically", () -> rootElement.validateCenteredOnHorizontally(page, getContext()));
         return this;
     }
 
@@ -564,18 +594,20 @@ public class UIValidatorBase extends ResponsiveUIValidatorBase implements UIElem
      */
     @Override
     public UIValidatorBase isInsideOf(WebElement containerElement, String readableContainerName) {
-        rootElement.validateInsideOfContainer(asElement(containerElement, readableContainerName), getContext());
+        evaluate("isInsideOf", () -> rootElement.validateInsideOfContainer(asElement(containerElement, readableContainerName), getContext()), containerElement, readableContainerName);
         return this;
     }
 
     @Override
     public UIValidatorBase isInsideOf(WebElement containerElement, String readableContainerName, Padding padding) {
-        Scalar top = percentOrPixels(padding.getTop()).evaluateIn(getContext(), Direction.UP);
-        Scalar left = percentOrPixels(padding.getLeft()).evaluateIn(getContext(), Direction.LEFT);
-        Scalar right = percentOrPixels(padding.getRight()).evaluateIn(getContext(), Direction.RIGHT);
-        Scalar bottom = percentOrPixels(padding.getBottom()).evaluateIn(getContext(), Direction.DOWN);
-
-        rootElement.validateInsideOfContainer(asElement(containerElement, readableContainerName), getContext(), top, left, right, bottom);
+        evaluate("isInsideOf", () -> {
+            Scalar top = percentOrPixels(padding.getTop()).evaluateIn(getContext(), Direction.UP);
+            Scalar left = percentOrPixels(padding.getLeft()).evaluateIn(getContext(), Direction.LEFT);
+            Scalar right = percentOrPixels(padding.getRight()).evaluateIn(getContext(), Direction.RIGHT);
+            Scalar bottom = percentOrPixels(padding.getBottom()).evaluateIn(getContext(), Direction.DOWN);
+
+            rootElement.validateInsideOfContainer(asElement(containerElement, readableContainerName), getContext(), top, left, right, bottom);
+        }, containerElement, readableContainerName, padding);
         return this;
     }
 
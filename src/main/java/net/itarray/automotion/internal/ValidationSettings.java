@@ -0,0 +1,209 @@
+package net.itarray.automotion.internal;
+
+import net.itarray.automotion.internal.geometry.Scalar;
+import net.itarray.automotion.validation.Budget;
+import net.itarray.automotion.validation.ReadinessProbe;
+import net.itarray.automotion.validation.Units;
+
+import java.awt.*;
+import java.util.function.Consumer;
+
+import static net.itarray.automotion.internal.geometry.Scalar.scalar;
+
+/**
+ * Immutable settings of a {@link net.itarray.automotion.validation.ResponsiveUIValidator}. Every change creates
+ * a new instance, so a validation keeps the settings it started with while other threads change them.
+ */
+public final class ValidationSettings {
+
+    private final boolean withReport;
+    private final Units units;
+    private final Scalar tolerance;
+    private final boolean mobileTopBarOffsetState;
+    private final double mobileTopBarOffset;
+    private final double scaleFactor;
+    private final DrawingConfiguration drawingConfiguration;
+    private final Budget budget;
+    private final ReadinessProbe readinessProbe;
+    private final boolean frozenAnimations;
+    private final int scenariosPerShard;
+
+    public ValidationSettings() {
+        this(new Builder());
+    }
+
+    private ValidationSettings(Builder builder) {
+        this.withReport = builder.withReport;
+        this.units = builder.units;
+        this.tolerance = builder.tolerance;
+        this.mobileTopBarOffsetState = builder.mobileTopBarOffsetState;
+        this.mobileTopBarOffset = builder.mobileTopBarOffset;
+        this.scaleFactor = builder.scaleFactor;
+        this.drawingConfiguration = builder.drawingConfiguration;
+        this.budget = builder.budget;
+        this.readinessProbe = builder.readinessProbe;
+        this.frozenAnimations = builder.frozenAnimations;
+        this.scenariosPerShard = builder.scenariosPerShard;
+    }
+
+    public boolean isWithReport() {
+        return withReport;
+    }
+
+    public Units getUnits() {
+        return units;
+    }
+
+    public Scalar getTolerance() {
+        return tolerance;
+    }
+
+    public boolean isMobileTopBarOffsetState() {
+        return mobileTopBarOffsetState;
+    }
+
+    public double getMobileTopBarOffset() {
+        return mobileTopBarOffset;
+    }
+
+    public double getScaleFactor() {
+        return scaleFactor;
+    }
+
+    /**
+     * @return a copy of the drawing configuration, changing it does not change the settings
+     */
+    public DrawingConfiguration getDrawingConfiguration() {
+        return new DrawingConfiguration(drawingConfiguration);
+    }
+
+    public Budget getBudget() {
+        return budget;
+    }
+
+    public ReadinessProbe getReadinessProbe() {
+        return readinessProbe;
+    }
+
+    public boolean isFrozenAnimations() {
+        return frozenAnimations;
+    }
+
+    /**
+     * @return the number of scenarios per details file of a sharded report, or 0 if the report is not sharded
+     */
+    public int getScenariosPerShard() {
+        return scenariosPerShard;
+    }
+
+    public ValidationSettings withReport(boolean withReport) {
+        return change(builder -> builder.withReport = withReport);
+    }
+
+    public ValidationSettings withUnits(Units units) {
+        return change(builder -> builder.units = units);
+    }
+
+    public ValidationSettings withTolerance(Scalar tolerance) {
+        return change(builder -> builder.tolerance = tolerance);
+    }
+
+    public ValidationSettings withMobileTopBarOffset(boolean state) {
+        return change(builder -> builder.mobileTopBarOffsetState = state);
+    }
+
+    public ValidationSettings withMobileTopBarOffset(boolean state, double offset) {
+        return change(builder -> {
+            builder.mobileTopBarOffsetState = state;
+            builder.mobileTopBarOffset = offset;
+        });
+    }
+
+    public ValidationSettings withScaleFactor(double scaleFactor) {
+        return change(builder -> builder.scaleFactor = scaleFactor);
+    }
+
+    public ValidationSettings withBudget(Budget budget) {
+        return change(builder -> builder.budget = budget);
+    }
+
+    public ValidationSettings withReadinessProbe(ReadinessProbe readinessProbe) {
+        return change(builder -> builder.readinessProbe = readinessProbe);
+    }
+
+    public ValidationSettings withFrozenAnimations(boolean frozenAnimations) {
+        return change(builder -> builder.frozenAnimations = frozenAnimations);
+    }
+
+    public ValidationSettings withScenariosPerShard(int scenariosPerShard) {
+        return change(builder -> builder.scenariosPerShard = scenariosPerShard);
+    }
+
+    public ValidationSettings withRootColor(Color color) {
+        DrawingConfiguration configuration = new DrawingConfiguration(drawingConfiguration);
+        configuration.setRootColor(color);
+        return withDrawingConfiguration(configuration);
+    }
+
+    public ValidationSettings withHighlightedElementsColor(Color color) {
+        DrawingConfiguration configuration = new DrawingConfiguration(drawingConfiguration);
+        configuration.setHighlightedElementsColor(color);
+        return withDrawingConfiguration(configuration);
+    }
+
+    public ValidationSettings withLinesColor(Color color) {
+        DrawingConfiguration configuration = new DrawingConfiguration(drawingConfiguration);
+        configuration.setLinesColor(color);
+        return withDrawingConfiguration(configuration);
+    }
+
+    public ValidationSettings withThumbnailWidth(int thumbnailWidth) {
+        DrawingConfiguration configuration = new DrawingConfiguration(drawingConfiguration);
+        configuration.setThumbnailWidth(thumbnailWidth);
+        return withDrawingConfiguration(configuration);
+    }
+
+    private ValidationSettings withDrawingConfiguration(DrawingConfiguration drawingConfiguration) {
+        return change(builder -> builder.drawingConfiguration = drawingConfiguration);
+    }
+
+    private ValidationSettings change(Consumer<Builder> change) {
+        Builder builder = new Builder(this);
+        change.accept(builder);
+        return new ValidationSettings(builder);
+    }
+
+    /**
+     * The settings while a copy is changed.
+     */
+    private static class Builder {
+        private boolean withReport = true;
+        private Units units = Units.PX;
+        private Scalar tolerance = scalar(0);
+        private boolean mobileTopBarOffsetState = false;
+        private double mobileTopBarOffset = 20;
+        private double scaleFactor = 1;
+        private DrawingConfiguration drawingConfiguration = new DrawingConfiguration();
+        private Budget budget = Budget.unlimited();
+        private ReadinessProbe readinessProbe = ReadinessProbe.none();
+        private boolean frozenAnimations = false;
+        private int scenariosPerShard = 0;
+
+        private Builder() {
+        }
+
+        private Builder(ValidationSettings settings) {
+            withReport = settings.withReport;
+            units = settings.units;
+            tolerance = settings.tolerance;
+            mobileTopBarOffsetState = settings.mobileTopBarOffsetState;
+            mobileTopBarOffset = settings.mobileTopBarOffset;
+            scaleFactor = settings.scaleFactor;
+            drawingConfiguration = settings.drawingConfiguration;
+            budget = settings.budget;
+            readinessProbe = settings.readinessProbe;
+            frozenAnimations = settings.frozenAnimations;
+            scenariosPerShard = settings.scenariosPerShard;
+        }
+    }
+}
@@ -10,6 +10,10 @@ public class ZoomImpl implements Zoom {
         this.percentage = percentage;
     }
 
+    public int getPercentage() {
+        return percentage;
+    }
+
     @Override
     public void applyTo(DriverFacade driver) {
         driver.setZoom(percentage);
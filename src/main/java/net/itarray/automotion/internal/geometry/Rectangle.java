@@ -58,6 +58,20 @@ public class Rectangle {
         return contains(RIGHT, other) && contains(DOWN, other);
     }
 
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof Rectangle)) {
+            return false;
+        }
+        Rectangle other = (Rectangle) object;
+        return origin.equals(other.origin) && corner.equals(other.corner);
+    }
+
+    @Override
+    public int hashCode() {
+        return origin.hashCode() * 31 ^ corner.hashCode();
+    }
+
     @Override
     public String toString() {
         Vector extend = corner.minus(origin);
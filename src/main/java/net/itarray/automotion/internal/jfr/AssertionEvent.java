@@ -0,0 +1,49 @@
+package net.itarray.automotion.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("net.itarray.automotion.Assertion")
+@Label("Assertion")
+@Description("Evaluation of one assertion, e.g. isLeftOf")
+@Category("Automotion")
+class AssertionEvent extends Event implements FlightRecorderEvents.AssertionSpan {
+
+    @Label("Snapshot")
+    String snapshot;
+
+    @Label("Element")
+    String element;
+
+    @Label("Assertion")
+    String assertion;
+
+    @Label("Elements")
+    @Description("Number of elements the assertion looked at")
+    int elements;
+
+    @Label("Failed")
+    boolean failed;
+
+    static FlightRecorderEvents.AssertionSpan begin(String snapshot, String element, String assertion) {
+        AssertionEvent event = new AssertionEvent();
+        if (!event.isEnabled()) {
+            return FlightRecorderEvents.AssertionSpan.NONE;
+        }
+        event.snapshot = snapshot;
+        event.element = element;
+        event.assertion = assertion;
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void commit(int elements, boolean failed) {
+        this.elements = elements;
+        this.failed = failed;
+        commit();
+    }
+}
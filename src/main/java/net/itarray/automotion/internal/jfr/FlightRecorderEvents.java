@@ -0,0 +1,102 @@
+package net.itarray.automotion.internal.jfr;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Emits the lifecycle of validations as Java Flight Recorder events, so that a flight recording shows the work
+ * of Automotion next to GC, I/O and thread activity. The events are in the category Automotion and named
+ * net.itarray.automotion.Snapshot, .Validator, .Assertion, .Screenshot and .Report.
+ * <p>
+ * Every begin method returns a span to commit when the work is done. Without a recording of the event, or on a
+ * JVM without jdk.jfr, the span is a shared no-op, so the cost of a disabled event is a flag check.
+ */
+public final class FlightRecorderEvents {
+
+    private final static Logger LOG = LoggerFactory.getLogger(FlightRecorderEvents.class);
+
+    private static final boolean AVAILABLE = isFlightRecorderAvailable();
+
+    public interface Span {
+        Span NONE = () -> {
+        };
+
+        void commit();
+    }
+
+    public interface AssertionSpan {
+        AssertionSpan NONE = (elements, failed) -> {
+        };
+
+        /**
+         * @param elements the number of elements the assertion looked at
+         * @param failed   whether the assertion added failures
+         */
+        void commit(int elements, boolean failed);
+    }
+
+    public interface ScreenshotSpan {
+        ScreenshotSpan NONE = bytes -> {
+        };
+
+        void commit(long bytes);
+    }
+
+    public interface ReportSpan {
+        ReportSpan NONE = (scenarios, bytes) -> {
+        };
+
+        void commit(int scenarios, long bytes);
+    }
+
+    private FlightRecorderEvents() {
+    }
+
+    public static Span beginSnapshot(String snapshot) {
+        if (!AVAILABLE) {
+            return Span.NONE;
+        }
+        return SnapshotEvent.begin(snapshot);
+    }
+
+    /**
+     * @param elements the number of validated elements, 1 for a single element
+     */
+    public static Span beginValidator(String snapshot, String element, int elements) {
+        if (!AVAILABLE) {
+            return Span.NONE;
+        }
+        return ValidatorEvent.begin(snapshot, element, elements);
+    }
+
+    public static AssertionSpan beginAssertion(String snapshot, String element, String assertion) {
+        if (!AVAILABLE) {
+            return AssertionSpan.NONE;
+        }
+        return AssertionEvent.begin(snapshot, element, assertion);
+    }
+
+    public static ScreenshotSpan beginScreenshot(String snapshot) {
+        if (!AVAILABLE) {
+            return ScreenshotSpan.NONE;
+        }
+        return ScreenshotEvent.begin(snapshot);
+    }
+
+    public static ReportSpan beginReport(String report) {
+        if (!AVAILABLE) {
+            return ReportSpan.NONE;
+        }
+        return ReportEvent.begin(report);
+    }
+
+    private static boolean isFlightRecorderAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, FlightRecorderEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            LOG.debug("Java Flight Recorder is not available, no events are emitted");
+            return false;
+        }
+    }
+}
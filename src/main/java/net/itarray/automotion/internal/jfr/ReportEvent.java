@@ -0,0 +1,42 @@
+package net.itarray.automotion.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("net.itarray.automotion.Report")
+@Label("Report")
+@Description("Generation of an html report")
+@Category("Automotion")
+class ReportEvent extends Event implements FlightRecorderEvents.ReportSpan {
+
+    @Label("Report")
+    String report;
+
+    @Label("Scenarios")
+    int scenarios;
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    static FlightRecorderEvents.ReportSpan begin(String report) {
+        ReportEvent event = new ReportEvent();
+        if (!event.isEnabled()) {
+            return FlightRecorderEvents.ReportSpan.NONE;
+        }
+        event.report = report;
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void commit(int scenarios, long bytes) {
+        this.scenarios = scenarios;
+        this.bytes = bytes;
+        commit();
+    }
+}
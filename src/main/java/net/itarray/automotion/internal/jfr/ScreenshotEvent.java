@@ -0,0 +1,38 @@
+package net.itarray.automotion.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("net.itarray.automotion.Screenshot")
+@Label("Screenshot")
+@Description("Capture of the screenshot of a snapshot")
+@Category("Automotion")
+class ScreenshotEvent extends Event implements FlightRecorderEvents.ScreenshotSpan {
+
+    @Label("Snapshot")
+    String snapshot;
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    static FlightRecorderEvents.ScreenshotSpan begin(String snapshot) {
+        ScreenshotEvent event = new ScreenshotEvent();
+        if (!event.isEnabled()) {
+            return FlightRecorderEvents.ScreenshotSpan.NONE;
+        }
+        event.snapshot = snapshot;
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void commit(long bytes) {
+        this.bytes = bytes;
+        commit();
+    }
+}
@@ -0,0 +1,27 @@
+package net.itarray.automotion.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("net.itarray.automotion.Snapshot")
+@Label("Snapshot")
+@Description("Creation of a snapshot, including setting its resolution and zoom")
+@Category("Automotion")
+class SnapshotEvent extends Event implements FlightRecorderEvents.Span {
+
+    @Label("Snapshot")
+    String snapshot;
+
+    static FlightRecorderEvents.Span begin(String snapshot) {
+        SnapshotEvent event = new SnapshotEvent();
+        if (!event.isEnabled()) {
+            return FlightRecorderEvents.Span.NONE;
+        }
+        event.snapshot = snapshot;
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,35 @@
+package net.itarray.automotion.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("net.itarray.automotion.Validator")
+@Label("Validator")
+@Description("Construction of a validator, including fetching the geometry of its elements")
+@Category("Automotion")
+class ValidatorEvent extends Event implements FlightRecorderEvents.Span {
+
+    @Label("Snapshot")
+    String snapshot;
+
+    @Label("Element")
+    String element;
+
+    @Label("Elements")
+    int elements;
+
+    static FlightRecorderEvents.Span begin(String snapshot, String element, int elements) {
+        ValidatorEvent event = new ValidatorEvent();
+        if (!event.isEnabled()) {
+            return FlightRecorderEvents.Span.NONE;
+        }
+        event.snapshot = snapshot;
+        event.element = element;
+        event.elements = elements;
+        event.begin();
+        return event;
+    }
+}
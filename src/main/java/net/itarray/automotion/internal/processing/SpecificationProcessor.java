@@ -0,0 +1,356 @@
+package net.itarray.automotion.internal.processing;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates the plan of every specification annotated with {@code @Chunks} at build time, as a class
+ * {@code <Specification>_Specification} next to it, and lists the generated classes in
+ * {@code META-INF/services} for the {@code SpecificationRegistry}. Unknown chunks, elements without 4
+ * coordinates, parameters that are no int literals or do not match the method and methods that are not
+ * validations of a {@code ChunkUIElementValidator} are compile errors. Private specifications cannot be
+ * referenced by generated code, their plans are compiled by reflection on first use.
+ * <p>
+ * The processor reads the annotations by name only, so that it compiles before the rest of the library. It is not
+ * registered for discovery, builds name it with {@code -processor} or {@code <annotationProcessors>}.
+ */
+@SupportedAnnotationTypes(SpecificationProcessor.CHUNKS)
+public class SpecificationProcessor extends AbstractProcessor {
+
+    static final String PACKAGE = "net.itarray.automotion.validation";
+    static final String CHUNKS = PACKAGE + ".Chunks";
+    static final String VALID = PACKAGE + ".Valid";
+    static final String NOT_VALID = PACKAGE + ".NotValid";
+    static final String VALIDATOR = PACKAGE + ".ChunkUIElementValidator";
+    static final String REGISTRY = "META-INF/services/" + PACKAGE + ".CompiledSpecification";
+    static final String SUFFIX = "_Specification";
+
+    private final Set<String> generated = new TreeSet<>();
+    private final List<Element> originating = new ArrayList<>();
+
+    private Elements elements;
+    private Types types;
+    private Messager messager;
+    private Filer filer;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        elements = processingEnv.getElementUtils();
+        types = processingEnv.getTypeUtils();
+        messager = processingEnv.getMessager();
+        filer = processingEnv.getFiler();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        if (round.processingOver()) {
+            writeRegistry();
+            return false;
+        }
+        TypeElement chunks = elements.getTypeElement(CHUNKS);
+        if (chunks == null) {
+            return false;
+        }
+        for (TypeElement type : ElementFilter.typesIn(round.getElementsAnnotatedWith(chunks))) {
+            if (isReferenceable(type)) {
+                generate(type);
+            } else {
+                messager.printMessage(Diagnostic.Kind.WARNING, "Cannot generate the plan of " + type + ", it is private or local. Its plan is compiled on first use.", type);
+            }
+        }
+        return false;
+    }
+
+    private boolean isReferenceable(TypeElement type) {
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            TypeElement enclosing = (TypeElement) element;
+            if (enclosing.getModifiers().contains(Modifier.PRIVATE)
+                    || enclosing.getNestingKind() == NestingKind.LOCAL
+                    || enclosing.getNestingKind() == NestingKind.ANONYMOUS) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type) {
+        TypeElement validator = elements.getTypeElement(VALIDATOR);
+        if (validator == null) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Cannot generate the plan of " + type + ", " + VALIDATOR + " is not on the class path", type);
+            return;
+        }
+        StringBuilder plan = new StringBuilder();
+        Set<String> chunkIds = new LinkedHashSet<>();
+        boolean valid = appendChunks(plan, type, chunkIds);
+
+        List<ExecutableElement> methods = new ArrayList<>(ElementFilter.methodsIn(elements.getAllMembers(type)));
+        methods.sort(Comparator.comparing(this::signature));
+        for (ExecutableElement method : methods) {
+            for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+                String name = nameOf(annotation);
+                if (name.equals(VALID) || name.equals(NOT_VALID)) {
+                    valid &= appendChecks(plan, type, validator, method, annotation, name.equals(VALID), chunkIds);
+                }
+            }
+        }
+        if (valid) {
+            write(type, plan);
+        }
+    }
+
+    private boolean appendChunks(StringBuilder plan, TypeElement type, Set<String> chunkIds) {
+        boolean valid = true;
+        AnnotationMirror chunks = find(elements.getAllAnnotationMirrors(type), CHUNKS);
+        for (AnnotationValue chunkValue : list(value(chunks, "value"))) {
+            AnnotationMirror chunk = (AnnotationMirror) chunkValue.getValue();
+            String id = (String) value(chunk, "id").getValue();
+            if (!chunkIds.add(id)) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "duplicate chunk " + id, type, chunk);
+                valid = false;
+            }
+            plan.append("\n            .chunk(").append(elements.getConstantExpression(id));
+            for (AnnotationValue elementValue : list(value(chunk, "elements"))) {
+                AnnotationMirror element = (AnnotationMirror) elementValue.getValue();
+                List<AnnotationValue> coordinates = list(value(element, "value"));
+                if (coordinates.size() != 4) {
+                    messager.printMessage(Diagnostic.Kind.ERROR, "elements of chunk " + id + " need 4 coordinates, coordinates supplied were " + coordinates, type, element);
+                    valid = false;
+                }
+                plan.append(", new int[]{");
+                for (int i = 0; i < coordinates.size(); i++) {
+                    plan.append(i == 0 ? "" : ", ").append(coordinates.get(i).getValue());
+                }
+                plan.append('}');
+            }
+            plan.append(')');
+        }
+        return valid;
+    }
+
+    private boolean appendChecks(StringBuilder plan, TypeElement type, TypeElement validator, ExecutableElement method, AnnotationMirror annotation, boolean isValid, Set<String> chunkIds) {
+        Element reported = method.getEnclosingElement().equals(type) ? method : type;
+        String methodName = method.getSimpleName().toString();
+        TypeMirror declaring = types.erasure(method.getEnclosingElement().asType());
+        if (!types.isAssignable(types.erasure(validator.asType()), declaring)) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Cannot compile " + methodName + ", it is not a method of " + validator.getSimpleName(), reported, annotation);
+            return false;
+        }
+        List<? extends VariableElement> parameters = method.getParameters();
+        for (VariableElement parameter : parameters) {
+            if (parameter.asType().getKind() != TypeKind.INT && !types.isSameType(parameter.asType(), elements.getTypeElement(Integer.class.getName()).asType())) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "Cannot compile " + methodName + ", scenarios support int parameters only", reported, annotation);
+                return false;
+            }
+        }
+
+        boolean valid = true;
+        for (AnnotationValue scenarioValue : list(value(annotation, "value"))) {
+            AnnotationMirror scenario = (AnnotationMirror) scenarioValue.getValue();
+            String chunk = (String) value(scenario, "chunk").getValue();
+            boolean oneOrMore = (Boolean) value(scenario, "oneOrMore").getValue();
+            if (!chunkIds.contains(chunk)) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "no such chunk " + chunk + " in scenario of " + methodName, reported, annotation);
+                valid = false;
+                continue;
+            }
+            for (AnnotationValue paramsValue : list(value(scenario, "params"))) {
+                String params = (String) paramsValue.getValue();
+                String arguments = arguments(params, parameters);
+                if (arguments == null) {
+                    messager.printMessage(Diagnostic.Kind.ERROR, "Cannot compile " + methodName + "(" + params.trim() + "), it needs " + parameters.size() + " int parameters", reported, annotation);
+                    valid = false;
+                    continue;
+                }
+                plan.append("\n            .check(")
+                        .append(elements.getConstantExpression(methodName)).append(", ")
+                        .append(elements.getConstantExpression(params)).append(", ")
+                        .append(isValid).append(", ")
+                        .append(elements.getConstantExpression(chunk)).append(", ")
+                        .append(oneOrMore).append(", ")
+                        .append("validator -> validator.").append(methodName).append('(').append(arguments).append("))");
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * @return the arguments of the call, boxed ones cast to select the annotated method, or null if the
+     * parameters do not match
+     */
+    private String arguments(String params, List<? extends VariableElement> parameters) {
+        String trimmed = params.trim();
+        String[] split = trimmed.isEmpty() ? new String[0] : trimmed.split(",");
+        if (split.length != parameters.size()) {
+            return null;
+        }
+        StringBuilder arguments = new StringBuilder();
+        for (int i = 0; i < split.length; i++) {
+            int argument;
+            try {
+                argument = Integer.parseInt(split[i].trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            arguments.append(i == 0 ? "" : ", ");
+            if (parameters.get(i).asType().getKind() != TypeKind.INT) {
+                arguments.append("(Integer) ");
+            }
+            arguments.append(argument);
+        }
+        return arguments.toString();
+    }
+
+    private void write(TypeElement type, StringBuilder plan) {
+        PackageElement packageElement = elements.getPackageOf(type);
+        String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+        String simpleName = binaryName(type).substring(packageName.isEmpty() ? 0 : packageName.length() + 1).replace('$', '_') + SUFFIX;
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        try {
+            JavaFileObject file = filer.createSourceFile(qualifiedName, type);
+            try (Writer writer = file.openWriter()) {
+                if (!packageName.isEmpty()) {
+                    writer.write("package " + packageName + ";\n\n");
+                }
+                writer.write("/**\n" +
+                        " * The plan of {@link " + type.getQualifiedName() + "}, generated by " + getClass().getSimpleName() + ".\n" +
+                        " */\n" +
+                        "public final class " + simpleName + " implements " + PACKAGE + ".CompiledSpecification {\n" +
+                        "\n" +
+                        "    private static final " + PACKAGE + ".ValidationPlan PLAN = " + PACKAGE + ".ValidationPlan.builder()" + plan + "\n" +
+                        "            .build();\n" +
+                        "\n" +
+                        "    @Override\n" +
+                        "    public Class<?> getSpecificationType() {\n" +
+                        "        return " + type.getQualifiedName() + ".class;\n" +
+                        "    }\n" +
+                        "\n" +
+                        "    @Override\n" +
+                        "    public " + PACKAGE + ".ValidationPlan getPlan() {\n" +
+                        "        return PLAN;\n" +
+                        "    }\n" +
+                        "}\n");
+            }
+            generated.add(qualifiedName);
+            originating.add(type);
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Cannot write the plan of " + type + ": " + e.getMessage(), type);
+        }
+    }
+
+    /**
+     * Adds the generated specifications to the ones listed by a previous, incremental compilation.
+     */
+    private void writeRegistry() {
+        if (generated.isEmpty()) {
+            return;
+        }
+        Set<String> listed = new TreeSet<>(generated);
+        try {
+            FileObject existing = filer.getResource(StandardLocation.CLASS_OUTPUT, "", REGISTRY);
+            try (BufferedReader reader = new BufferedReader(existing.openReader(true))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.trim().isEmpty()) {
+                        listed.add(line.trim());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // nothing listed yet
+        }
+        try {
+            FileObject registry = filer.createResource(StandardLocation.CLASS_OUTPUT, "", REGISTRY, originating.toArray(new Element[0]));
+            try (Writer writer = registry.openWriter()) {
+                for (String name : listed) {
+                    writer.write(name + "\n");
+                }
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Cannot write " + REGISTRY + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return the name and the erased parameter types of the method, the order of the checks of a specification
+     */
+    private String signature(ExecutableElement method) {
+        StringBuilder signature = new StringBuilder(method.getSimpleName()).append('(');
+        List<? extends VariableElement> parameters = method.getParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            signature.append(i == 0 ? "" : ",").append(types.erasure(parameters.get(i).asType()));
+        }
+        return signature.append(')').toString();
+    }
+
+    private String binaryName(TypeElement type) {
+        return elements.getBinaryName(type).toString();
+    }
+
+    private static String nameOf(AnnotationMirror annotation) {
+        return ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString();
+    }
+
+    private static AnnotationMirror find(List<? extends AnnotationMirror> annotations, String name) {
+        for (AnnotationMirror annotation : annotations) {
+            if (nameOf(annotation).equals(name)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    private AnnotationValue value(AnnotationMirror annotation, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : elements.getElementValuesWithDefaults(annotation).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue();
+            }
+        }
+        throw new IllegalArgumentException("no value " + name + " in " + annotation);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<AnnotationValue> list(AnnotationValue value) {
+        Object list = value.getValue();
+        return list instanceof List ? (List<AnnotationValue>) list : Collections.singletonList(value);
+    }
+}
@@ -10,7 +10,6 @@ import java.util.function.BiPredicate;
 
 import static java.lang.String.format;
 import static net.itarray.automotion.internal.geometry.Scalar.scalar;
-import static org.apache.commons.lang3.text.WordUtils.uncapitalize;
 
 
 public class BinaryScalarConditionWithFixedOperand implements Condition<Scalar> {
@@ -39,7 +38,7 @@ public class BinaryScalarConditionWithFixedOperand implements Condition<Scalar>
 
     @Override
     public String toString() {
-        return format("%s(%s)", uncapitalize(getClass().getSimpleName()), fixedOperand);
+        return format(toStringFormat, fixedOperand);
     }
 
 
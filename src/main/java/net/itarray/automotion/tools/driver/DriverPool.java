@@ -0,0 +1,346 @@
+package net.itarray.automotion.tools.driver;
+
+import net.itarray.automotion.internal.DriverFacade;
+import net.itarray.automotion.internal.ParallelResultReader;
+import net.itarray.automotion.internal.ResolutionImpl;
+import net.itarray.automotion.validation.properties.Resolution;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A fixed number of driver sessions shared by several threads. Sessions are started on demand, up to the size
+ * of the pool, or all at once in parallel with {@link #warmUp()}. They are checked before every lease; a session
+ * that fails the health check is quit and replaced. Returned sessions are reset before they are leased again and
+ * evicted after a maximum number of uses, if configured.
+ * The most recently returned session is leased first, so that a thread tends to get the session it used last.
+ *
+ * @see net.itarray.automotion.validation.FanOut
+ */
+public class DriverPool implements Closeable {
+
+    private final static Logger LOG = LoggerFactory.getLogger(DriverPool.class);
+
+    private final String name;
+    private final Supplier<WebDriver> factory;
+    private final int size;
+    private final Semaphore leases;
+    private final BlockingDeque<WebDriver> idle = new LinkedBlockingDeque<>();
+    private final Set<WebDriver> sessions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger started = new AtomicInteger();
+    private final AtomicInteger replaced = new AtomicInteger();
+    private final AtomicInteger evicted = new AtomicInteger();
+    private final Map<WebDriver, Integer> uses = new ConcurrentHashMap<>();
+    private final Map<WebDriver, Resolution> startResolutions = new ConcurrentHashMap<>();
+    private volatile Predicate<WebDriver> healthCheck = DriverPool::isResponding;
+    private volatile Consumer<WebDriver> reset = driver -> {
+    };
+    private volatile boolean clean;
+    private volatile int maxUses;
+
+    static final String CLEAR_STORAGE_SCRIPT = "try { window.localStorage.clear(); } catch (e) {}" +
+            " try { window.sessionStorage.clear(); } catch (e) {}";
+
+    /**
+     * @param name    names the pool in logs and reports, e.g. the browser
+     * @param factory starts a new session
+     * @param size    the maximum number of sessions
+     */
+    public DriverPool(String name, Supplier<WebDriver> factory, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size needs to be greater than zero, size supplied was " + size);
+        }
+        this.name = name;
+        this.factory = factory;
+        this.size = size;
+        this.leases = new Semaphore(size, true);
+    }
+
+    /**
+     * A pool of sessions for the browser configured in the environment, see {@link WebDriverFactory}.
+     */
+    public static DriverPool fromEnvironment(String name, int size) {
+        return new DriverPool(name, () -> new WebDriverFactory().getDriver(), size);
+    }
+
+    /**
+     * @param healthCheck true if a session can be used, by default the session needs to answer for its window handle
+     */
+    public DriverPool withHealthCheck(Predicate<WebDriver> healthCheck) {
+        this.healthCheck = healthCheck;
+        return this;
+    }
+
+    /**
+     * @param reset runs on every returned session before it is leased again; a session whose reset fails is replaced
+     */
+    public DriverPool withReset(Consumer<WebDriver> reset) {
+        this.reset = reset;
+        this.clean = false;
+        return this;
+    }
+
+    /**
+     * Resets every returned session before it is leased again: deletes its cookies, clears the local and session
+     * storage of the page and restores the window size the session was started with. The page is not reloaded.
+     */
+    public DriverPool withCleanSessions() {
+        this.reset = this::clean;
+        this.clean = true;
+        return this;
+    }
+
+    /**
+     * @param maxUses the number of leases after which a session is quit and replaced by a new one on demand
+     */
+    public DriverPool withMaxUses(int maxUses) {
+        if (maxUses < 1) {
+            throw new IllegalArgumentException("maxUses needs to be greater than zero, maxUses supplied was " + maxUses);
+        }
+        this.maxUses = maxUses;
+        return this;
+    }
+
+    /**
+     * Starts sessions in parallel until the pool holds {@link #getSize()} of them, e.g. at the start of a suite,
+     * so that the first leases do not wait for browsers to start. Every session started holds a lease until it is
+     * idle, so that concurrent leases and warm-ups never start more sessions than the size of the pool.
+     * Sessions that fail to start are started on demand later.
+     *
+     * @return the number of sessions started
+     */
+    public int warmUp() {
+        int missing = 0;
+        while (sessions.size() + missing < size && leases.tryAcquire()) {
+            missing++;
+        }
+        if (missing == 0) {
+            return 0;
+        }
+        AtomicBoolean abandoned = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(missing, ParallelResultReader.daemonThreads("automotion-warm-up-" + name));
+        try {
+            List<Future<?>> futures = new ArrayList<>(missing);
+            for (int i = 0; i < missing; i++) {
+                futures.add(executor.submit(() -> warm(abandoned)));
+            }
+            int warmed = 0;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                    warmed++;
+                } catch (ExecutionException e) {
+                    LOG.warn("Cannot warm up a session of " + name + ": " + e.getCause().getMessage());
+                }
+            }
+            return warmed;
+        } catch (InterruptedException e) {
+            // sessions that still start are quit instead of left running
+            abandoned.set(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while warming up the sessions of " + name, e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Waits until a session is available. Every leased session needs to be given back with {@link #release(WebDriver)}
+     * or {@link #discard(WebDriver)}.
+     */
+    public WebDriver lease() {
+        try {
+            leases.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a session of " + name, e);
+        }
+        try {
+            WebDriver driver;
+            while ((driver = idle.pollFirst()) != null) {
+                if (healthCheck.test(driver)) {
+                    return used(driver);
+                }
+                LOG.warn("Session of " + name + " failed the health check, replacing it");
+                replaced.incrementAndGet();
+                quit(driver);
+            }
+            return used(start());
+        } catch (RuntimeException e) {
+            leases.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Gives a healthy session back to the pool, which resets it or evicts it after its last use.
+     */
+    public void release(WebDriver driver) {
+        try {
+            if (maxUses > 0 && uses.getOrDefault(driver, 0) >= maxUses) {
+                evicted.incrementAndGet();
+                quit(driver);
+                return;
+            }
+            try {
+                reset.accept(driver);
+            } catch (RuntimeException e) {
+                LOG.warn("Cannot reset session of " + name + ", replacing it: " + e.getMessage());
+                replaced.incrementAndGet();
+                quit(driver);
+                return;
+            }
+            idle.offerFirst(driver);
+        } finally {
+            leases.release();
+        }
+    }
+
+    /**
+     * Gives back a broken session, which is quit and replaced by a new one on demand.
+     */
+    public void discard(WebDriver driver) {
+        replaced.incrementAndGet();
+        quit(driver);
+        leases.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the number of sessions started so far, including replacements
+     */
+    public int getStarted() {
+        return started.get();
+    }
+
+    /**
+     * @return the number of sessions replaced because they were broken
+     */
+    public int getReplaced() {
+        return replaced.get();
+    }
+
+    /**
+     * @return the number of sessions quit because they reached the maximum number of uses
+     */
+    public int getEvicted() {
+        return evicted.get();
+    }
+
+    /**
+     * @return the number of sessions waiting to be leased
+     */
+    public int getIdle() {
+        return idle.size();
+    }
+
+    /**
+     * @return false if the pool quit the session, e.g. because it was evicted or failed its reset
+     */
+    public boolean holds(WebDriver driver) {
+        return sessions.contains(driver);
+    }
+
+    /**
+     * Quits all sessions, also the leased ones.
+     */
+    @Override
+    public void close() {
+        idle.clear();
+        for (WebDriver driver : sessions) {
+            quit(driver);
+        }
+    }
+
+    private WebDriver start() {
+        WebDriver driver = factory.get();
+        if (driver == null) {
+            throw new RuntimeException("Cannot start a session of " + name);
+        }
+        started.incrementAndGet();
+        sessions.add(driver);
+        if (clean) {
+            try {
+                startResolutions.put(driver, ResolutionImpl.of(driver.manage().window().getSize()));
+            } catch (RuntimeException e) {
+                LOG.warn("Cannot get the window size of a session of " + name + ", it is not restored: " + e.getMessage());
+            }
+        }
+        return driver;
+    }
+
+    private void warm(AtomicBoolean abandoned) {
+        try {
+            WebDriver driver = start();
+            if (abandoned.get()) {
+                quit(driver);
+            } else {
+                idle.offerLast(driver);
+            }
+        } finally {
+            leases.release();
+        }
+    }
+
+    private WebDriver used(WebDriver driver) {
+        uses.merge(driver, 1, Integer::sum);
+        return driver;
+    }
+
+    private void clean(WebDriver driver) {
+        driver.manage().deleteAllCookies();
+        if (driver instanceof JavascriptExecutor) {
+            ((JavascriptExecutor) driver).executeScript(CLEAR_STORAGE_SCRIPT);
+        }
+        Resolution resolution = startResolutions.get(driver);
+        if (resolution != null) {
+            resolution.applyTo(new DriverFacade(driver));
+        }
+    }
+
+    private void quit(WebDriver driver) {
+        sessions.remove(driver);
+        uses.remove(driver);
+        startResolutions.remove(driver);
+        try {
+            driver.quit();
+        } catch (RuntimeException e) {
+            LOG.warn("Cannot quit session of " + name + ": " + e.getMessage());
+        }
+    }
+
+    private static boolean isResponding(WebDriver driver) {
+        try {
+            return driver.getWindowHandle() != null;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+}
@@ -28,10 +28,6 @@ public class WebDriverFactory {
     private final Logger LOG = LoggerFactory.getLogger(WebDriverFactory.class);
 
     private String remoteUrlPath;
-    private AppiumDriver appiumDriver;
-    private WebDriver driver;
-    private WebDriver webDriver;
-    private RemoteWebDriver remoteWebDriver;
     private DesiredCapabilities capabilities;
 
     public WebDriverFactory() {
@@ -72,7 +68,11 @@ public class WebDriverFactory {
         }
     }
 
+    /**
+     * Starts a new session, also from several threads at once.
+     */
     public WebDriver getDriver() {
+        WebDriver driver = null;
         if (isMobile()) {
             driver = getMobileDriver();
             LOG.info("Start Mobile driver");
@@ -90,11 +90,33 @@ public class WebDriverFactory {
         return driver;
     }
 
+    /**
+     * A pool of sessions started by {@link #getDriver()}, which are cleaned between leases, see
+     * {@link DriverPool#withCleanSessions()}. Start the sessions in parallel with {@link DriverPool#warmUp()} at the
+     * start of a suite, so that no test waits for a browser to start.
+     * <pre>
+     * DriverPool pool = new WebDriverFactory().getDriverPool(4).withMaxUses(50);
+     * pool.warmUp();
+     * WebDriver driver = pool.lease();
+     * try {
+     *     ...
+     * } finally {
+     *     pool.release(driver);
+     * }
+     * </pre>
+     *
+     * @param size the maximum number of sessions
+     */
+    public DriverPool getDriverPool(int size) {
+        return new DriverPool(String.valueOf(getBrowserName()), this::getDriver, size).withCleanSessions();
+    }
+
     public void updateCapabilities(Map<String, Object> mapCapabilities) {
         CapabilitiesFactory.updateCapabilities(capabilities, mapCapabilities);
     }
 
     private AppiumDriver getMobileDriver() {
+        AppiumDriver appiumDriver = null;
         if (isAndroid()) {
             try {
                 appiumDriver = new AndroidDriver(new URL(getRemoteUrlPath()), capabilities);
@@ -113,6 +135,7 @@ public class WebDriverFactory {
     }
 
     private WebDriver getLocalWebDriver() {
+        WebDriver webDriver = null;
         if (isFirefox()) {
             setGeckoDriver();
             webDriver = new FirefoxDriver();
@@ -144,6 +167,7 @@ public class WebDriverFactory {
     }
 
     private RemoteWebDriver getRemoteWebDriver() {
+        RemoteWebDriver remoteWebDriver = null;
         try {
             remoteWebDriver = new RemoteWebDriver(new URL(remoteUrlPath), capabilities);
         } catch (MalformedURLException e) {
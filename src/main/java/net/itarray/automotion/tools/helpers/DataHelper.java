@@ -2,18 +2,24 @@ package net.itarray.automotion.tools.helpers;
 
 import java.util.HashMap;
 
+/**
+ * Collects data in one map for all threads, so that data put on one thread, e.g. in a set up, is seen by the
+ * tests running on others.
+ */
 public class DataHelper {
 
     private static HashMap<String, Object> map = new HashMap<String, Object>();
 
     public DataHelper(HashMap<String, Object> map) {
-        this.map = map;
+        synchronized (DataHelper.class) {
+            DataHelper.map = map;
+        }
     }
 
     /**
      * If the value is equal to {skip} then it will be skipped from adding
      */
-    public static HashMap<String, Object> putIntoMap(String key, Object value) {
+    public static synchronized HashMap<String, Object> putIntoMap(String key, Object value) {
         if (!value.equals("{skip}")) {
             map.put(key, value);
         }
@@ -8,7 +8,7 @@ import static java.lang.String.join;
 
 public class TextFinder {
 
-    private static double DERIVATION = 0.3;
+    private static volatile double DERIVATION = 0.3;
 
     /**
      * Smart Text finder that allows to fins piece of corrupted text
@@ -18,6 +18,7 @@ public class TextFinder {
      * @return
      */
     public static boolean textIsFound(String pattern, String text) {
+        double derivation = DERIVATION;
         pattern = pattern.toLowerCase();
         text = text.toLowerCase();
 
@@ -76,7 +77,7 @@ public class TextFinder {
                     } else {
                         countInLine = 1;
                     }
-                    if (countInLine >= patternJoined.length() * (1 - DERIVATION)) {
+                    if (countInLine >= patternJoined.length() * (1 - derivation)) {
                         found = true;
                         break;
                     }
@@ -89,7 +90,7 @@ public class TextFinder {
     }
 
     /**
-     * Set derivation for text searching
+     * Set derivation for text searching, for the searches of all threads
      *
      * @param derivation
      */
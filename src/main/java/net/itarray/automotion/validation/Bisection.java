@@ -0,0 +1,163 @@
+package net.itarray.automotion.validation;
+
+import net.itarray.automotion.internal.DriverFacade;
+import net.itarray.automotion.internal.ResolutionImpl;
+import net.itarray.automotion.internal.ZoomUnknown;
+import net.itarray.automotion.validation.properties.Resolution;
+import net.itarray.automotion.validation.properties.Zoom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Finds the exact widths at which the validations of a spec change their outcome, by binary search over the
+ * window width instead of a linear scan. The spec runs at both ends of the range and then only in the middle of
+ * intervals whose ends differ for at least one validation, so all validations flipping in the same interval
+ * share the captures: a range of n pixels takes about log2(n) captures per distinct breakpoint.
+ * <p>
+ * A validation that flips an even number of times within an interval has the same outcome at both ends and is
+ * not found; narrow the range in that case. The validations at the probed widths are not reported, only the
+ * {@link BisectionResult}.
+ * <pre>
+ * BisectionResult result = validator.bisection()
+ *         .between(320, 1280)
+ *         .run("Home page", snapshot -&gt; snapshot.findElement(menu, "menu").isLeftOf(content).validate());
+ * </pre>
+ *
+ * @see ResponsiveUIValidator#bisection()
+ */
+public class Bisection {
+
+    private final static Logger LOG = LoggerFactory.getLogger(Bisection.class);
+
+    private final ResponsiveUIValidator validator;
+    private int minWidth;
+    private int maxWidth;
+    private int height;
+    private Zoom zoom = new ZoomUnknown();
+    private ReadinessProbe readinessProbe = ReadinessProbe.stableLayout();
+
+    Bisection(ResponsiveUIValidator validator) {
+        this.validator = validator;
+    }
+
+    /**
+     * @param minWidth the smallest window width, greater than zero
+     * @param maxWidth the largest window width, greater than minWidth
+     */
+    public Bisection between(int minWidth, int maxWidth) {
+        if (minWidth <= 0) {
+            throw new IllegalArgumentException("minWidth needs to be greater than zero, minWidth supplied was " + minWidth);
+        }
+        if (maxWidth <= minWidth) {
+            throw new IllegalArgumentException("maxWidth needs to be greater than minWidth " + minWidth + ", maxWidth supplied was " + maxWidth);
+        }
+        this.minWidth = minWidth;
+        this.maxWidth = maxWidth;
+        return this;
+    }
+
+    /**
+     * @param height the window height at all widths, by default the current height
+     */
+    public Bisection withHeight(int height) {
+        if (height <= 0) {
+            throw new IllegalArgumentException("height needs to be greater than zero, height supplied was " + height);
+        }
+        this.height = height;
+        return this;
+    }
+
+    public Bisection withZoom(Zoom zoom) {
+        this.zoom = zoom;
+        return this;
+    }
+
+    /**
+     * @param readinessProbe waits for the page after each resize, by default {@link ReadinessProbe#stableLayout()}
+     */
+    public Bisection withReadinessProbe(ReadinessProbe readinessProbe) {
+        this.readinessProbe = readinessProbe;
+        return this;
+    }
+
+    public BisectionResult run(String name, Spec spec) {
+        if (maxWidth == 0) {
+            throw new IllegalStateException("The range of widths is missing, see between(minWidth, maxWidth)");
+        }
+        DriverFacade driver = validator.getDriver();
+        int windowHeight = height > 0 ? height : driver.getResolution().getHeight();
+        Zoom appliedZoom = zoom.queryIfUnknown(driver);
+        // the probed widths are not part of the report
+        ResponsiveUIValidator session = validator.session(driver);
+        session.dontDrawMap();
+        try (BreakpointRunner runner = new BreakpointRunner(session, readinessProbe)) {
+            Search search = new Search(width -> {
+                Resolution resolution = ResolutionImpl.of(width, windowHeight);
+                runner.settle(resolution, appliedZoom);
+                return runner.validate(name, spec, resolution, appliedZoom);
+            });
+            Set<String> validations = new LinkedHashSet<>(search.outcomes(minWidth).keySet());
+            validations.addAll(search.outcomes(maxWidth).keySet());
+            search.bisect(minWidth, maxWidth, search.differing(minWidth, maxWidth, validations));
+            search.flips.sort(Comparator.comparingInt(BisectionResult.Flip::getWidth));
+            BisectionResult result = new BisectionResult(name, minWidth, maxWidth, search.flips, search.outcomes.size());
+            LOG.info(result.toString());
+            return result;
+        }
+    }
+
+    private interface Capture {
+        Map<String, Boolean> outcomes(int width);
+    }
+
+    private static class Search {
+        private final Capture capture;
+        private final Map<Integer, Map<String, Boolean>> outcomes = new HashMap<>();
+        private final List<BisectionResult.Flip> flips = new ArrayList<>();
+
+        private Search(Capture capture) {
+            this.capture = capture;
+        }
+
+        private Map<String, Boolean> outcomes(int width) {
+            return outcomes.computeIfAbsent(width, capture::outcomes);
+        }
+
+        private Set<String> differing(int lower, int upper, Set<String> validations) {
+            Set<String> differing = new LinkedHashSet<>();
+            for (String validation : validations) {
+                if (!Objects.equals(outcomes(lower).get(validation), outcomes(upper).get(validation))) {
+                    differing.add(validation);
+                }
+            }
+            return differing;
+        }
+
+        /**
+         * Narrows the interval down for the validations whose outcome differs at its ends.
+         */
+        private void bisect(int lower, int upper, Set<String> validations) {
+            if (validations.isEmpty()) {
+                return;
+            }
+            if (upper - lower == 1) {
+                for (String validation : validations) {
+                    flips.add(new BisectionResult.Flip(validation, upper, outcomes(lower).get(validation), outcomes(upper).get(validation)));
+                }
+                return;
+            }
+            int middle = (lower + upper) >>> 1;
+            bisect(lower, middle, differing(lower, middle, validations));
+            bisect(middle, upper, differing(middle, upper, validations));
+        }
+    }
+}
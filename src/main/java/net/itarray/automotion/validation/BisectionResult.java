@@ -0,0 +1,115 @@
+package net.itarray.automotion.validation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The widths at which the validations of a spec change their outcome, found by a {@link Bisection}.
+ */
+public class BisectionResult {
+
+    /**
+     * A validation that has one outcome up to {@link #getWidth()} - 1 and another from {@link #getWidth()} on.
+     */
+    public static class Flip {
+        private final String validation;
+        private final int width;
+        private final Boolean validBelow;
+        private final Boolean validFrom;
+
+        Flip(String validation, int width, Boolean validBelow, Boolean validFrom) {
+            this.validation = validation;
+            this.width = width;
+            this.validBelow = validBelow;
+            this.validFrom = validFrom;
+        }
+
+        /**
+         * @return the name of the validated element, numbered if the spec validates it more than once
+         */
+        public String getValidation() {
+            return validation;
+        }
+
+        /**
+         * @return the smallest width with the new outcome
+         */
+        public int getWidth() {
+            return width;
+        }
+
+        /**
+         * @return the outcome one pixel below the width, null if the spec did not run the validation there
+         */
+        public Boolean isValidBelow() {
+            return validBelow;
+        }
+
+        /**
+         * @return the outcome at the width, null if the spec did not run the validation there
+         */
+        public Boolean isValidFrom() {
+            return validFrom;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("\"%s\" is %s from %dpx on, %s below", validation, describe(validFrom), width, describe(validBelow));
+        }
+
+        private static String describe(Boolean valid) {
+            return valid == null ? "not validated" : valid ? "valid" : "invalid";
+        }
+    }
+
+    private final String name;
+    private final int minWidth;
+    private final int maxWidth;
+    private final List<Flip> flips;
+    private final int captures;
+
+    BisectionResult(String name, int minWidth, int maxWidth, List<Flip> flips, int captures) {
+        this.name = name;
+        this.minWidth = minWidth;
+        this.maxWidth = maxWidth;
+        this.flips = Collections.unmodifiableList(new ArrayList<>(flips));
+        this.captures = captures;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMinWidth() {
+        return minWidth;
+    }
+
+    public int getMaxWidth() {
+        return maxWidth;
+    }
+
+    /**
+     * @return the changes of outcome ordered by width
+     */
+    public List<Flip> getFlips() {
+        return flips;
+    }
+
+    /**
+     * @return the number of widths the spec ran at
+     */
+    public int getCaptures() {
+        return captures;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder(String.format("Bisection \"%s\" between %dpx and %dpx in %d captures",
+                name, minWidth, maxWidth, captures));
+        for (Flip flip : flips) {
+            result.append(System.lineSeparator()).append("  ").append(flip);
+        }
+        return result.toString();
+    }
+}
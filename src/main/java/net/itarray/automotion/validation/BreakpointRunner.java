@@ -0,0 +1,115 @@
+package net.itarray.automotion.validation;
+
+import net.itarray.automotion.internal.AnimationFreeze;
+import net.itarray.automotion.internal.DriverFacade;
+import net.itarray.automotion.internal.GeometryCache;
+import net.itarray.automotion.internal.jfr.FlightRecorderEvents;
+import net.itarray.automotion.validation.properties.Resolution;
+import net.itarray.automotion.validation.properties.Zoom;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runs a spec at one breakpoint after the other with the driver of a validator: changes the resolution and zoom
+ * only if they differ from the previous breakpoint, waits for the page, captures the geometry of the known
+ * elements in one round trip and collects the outcome of every validation of the spec. If the validator freezes
+ * animations, they stay frozen until the runner is closed.
+ */
+class BreakpointRunner implements AutoCloseable {
+
+    private final ResponsiveUIValidator validator;
+    private final ReadinessProbe readinessProbe;
+    private final GeometryCache geometry = new GeometryCache();
+    private final Outcomes outcomes = new Outcomes();
+    private Resolution appliedResolution;
+    private Zoom appliedZoom;
+    private boolean frozen;
+
+    BreakpointRunner(ResponsiveUIValidator validator, ReadinessProbe readinessProbe) {
+        this.validator = validator;
+        this.readinessProbe = readinessProbe;
+        validator.addValidationListener(outcomes);
+    }
+
+    /**
+     * Applies the resolution and zoom if they changed and waits until the page is ready.
+     */
+    void settle(Resolution resolution, Zoom zoom) {
+        DriverFacade driver = validator.getDriver();
+        boolean resolutionChanged = !resolution.equals(appliedResolution);
+        boolean zoomChanged = !zoom.equals(appliedZoom);
+        if (!driver.isAppiumContext() && (resolutionChanged || zoomChanged)) {
+            if (validator.isFrozenAnimations()) {
+                // injected again, in case the spec navigated
+                frozen |= AnimationFreeze.freeze(driver);
+            }
+            if (resolutionChanged) {
+                resolution.applyTo(driver);
+            }
+            if (zoomChanged) {
+                zoom.applyTo(driver);
+            }
+            readinessProbe.awaitReady(driver);
+        }
+        appliedResolution = resolution;
+        appliedZoom = zoom;
+    }
+
+    /**
+     * Runs the spec in a new snapshot at the settled breakpoint.
+     *
+     * @return per validation of the spec whether it passed, keyed by the name of the validated element; repeated
+     * names are numbered, e.g. "header #2"
+     */
+    Map<String, Boolean> validate(String name, Spec spec, Resolution resolution, Zoom zoom) {
+        geometry.capture(validator.getDriver());
+        FlightRecorderEvents.Span span = FlightRecorderEvents.beginSnapshot(name);
+        UISnapshot snapshot = new UISnapshot(validator, name, resolution, zoom, false);
+        span.commit();
+        outcomes.watch(snapshot);
+        geometry.activated(() -> {
+            spec.validate(snapshot);
+            return null;
+        });
+        return outcomes.get();
+    }
+
+    GeometryCache getGeometry() {
+        return geometry;
+    }
+
+    @Override
+    public void close() {
+        validator.removeValidationListener(outcomes);
+        if (frozen) {
+            AnimationFreeze.unfreeze(validator.getDriver());
+        }
+    }
+
+    private static class Outcomes implements ValidationListener {
+        private UISnapshot snapshot;
+        private Map<String, Boolean> outcomes;
+
+        private void watch(UISnapshot snapshot) {
+            this.snapshot = snapshot;
+            this.outcomes = new LinkedHashMap<>();
+        }
+
+        private Map<String, Boolean> get() {
+            return outcomes;
+        }
+
+        @Override
+        public void validated(UISnapshot snapshot, String elementName, boolean valid, PhaseTimings timings) {
+            if (snapshot != this.snapshot) {
+                return;
+            }
+            String key = elementName;
+            for (int i = 2; outcomes.containsKey(key); i++) {
+                key = elementName + " #" + i;
+            }
+            outcomes.put(key, valid);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package net.itarray.automotion.validation;
+
+/**
+ * Limits for the cost of a validation or a snapshot: the number of WebDriver commands, the size of the screenshot
+ * and the wall time. An overrun is reported as a warning in the result or, for a failing budget, as a failure.
+ * Counting commands needs an instrumented driver, see
+ * {@link ResponsiveUIValidator#ResponsiveUIValidator(org.openqa.selenium.WebDriver, net.itarray.automotion.internal.DriverInstrumentation)}.
+ * <p>
+ * Budgets are immutable, every change creates a new instance.
+ *
+ * @see ResponsiveUIValidator#withBudget(Budget)
+ * @see UISnapshot#withBudget(Budget)
+ */
+public final class Budget {
+
+    public enum Limit {
+        COMMANDS, SCREENSHOT_BYTES, TIME
+    }
+
+    private static final Budget UNLIMITED = new Budget(Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, false);
+
+    private final long maxCommands;
+    private final long maxScreenshotBytes;
+    private final long maxMillis;
+    private final boolean failing;
+
+    private Budget(long maxCommands, long maxScreenshotBytes, long maxMillis, boolean failing) {
+        this.maxCommands = maxCommands;
+        this.maxScreenshotBytes = maxScreenshotBytes;
+        this.maxMillis = maxMillis;
+        this.failing = failing;
+    }
+
+    public static Budget unlimited() {
+        return UNLIMITED;
+    }
+
+    public Budget withMaxCommands(long maxCommands) {
+        checkPositive("maxCommands", maxCommands);
+        return new Budget(maxCommands, maxScreenshotBytes, maxMillis, failing);
+    }
+
+    public Budget withMaxScreenshotBytes(long maxScreenshotBytes) {
+        checkPositive("maxScreenshotBytes", maxScreenshotBytes);
+        return new Budget(maxCommands, maxScreenshotBytes, maxMillis, failing);
+    }
+
+    public Budget withMaxMillis(long maxMillis) {
+        checkPositive("maxMillis", maxMillis);
+        return new Budget(maxCommands, maxScreenshotBytes, maxMillis, failing);
+    }
+
+    /**
+     * Overruns fail the validation.
+     */
+    public Budget failing() {
+        return new Budget(maxCommands, maxScreenshotBytes, maxMillis, true);
+    }
+
+    /**
+     * Overruns are reported as warnings only. This is the default.
+     */
+    public Budget warning() {
+        return new Budget(maxCommands, maxScreenshotBytes, maxMillis, false);
+    }
+
+    public long getMaxCommands() {
+        return maxCommands;
+    }
+
+    public long getMaxScreenshotBytes() {
+        return maxScreenshotBytes;
+    }
+
+    public long getMaxMillis() {
+        return maxMillis;
+    }
+
+    public boolean isFailing() {
+        return failing;
+    }
+
+    public boolean isUnlimited() {
+        return maxCommands == Long.MAX_VALUE && maxScreenshotBytes == Long.MAX_VALUE && maxMillis == Long.MAX_VALUE;
+    }
+
+    private static void checkPositive(String name, long value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(String.format("%s needs to be greater than zero, %s supplied was %d", name, name, value));
+        }
+    }
+}
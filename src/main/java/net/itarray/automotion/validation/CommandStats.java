@@ -0,0 +1,93 @@
+package net.itarray.automotion.validation;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulated number and duration of the WebDriver commands, e.g. element.getRect or driver.executeScript,
+ * sent by one validation or by all users of an instrumented driver. Safe to update from several threads.
+ *
+ * @see net.itarray.automotion.internal.DriverInstrumentation
+ */
+public class CommandStats {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public void add(String command, long nanos) {
+        add(command, 1, nanos);
+    }
+
+    public void addAll(CommandStats other) {
+        for (Map.Entry<String, Entry> entry : other.entries.entrySet()) {
+            add(entry.getKey(), entry.getValue().count.sum(), entry.getValue().nanos.sum());
+        }
+    }
+
+    private void add(String command, long count, long nanos) {
+        Entry entry = entries.computeIfAbsent(command, key -> new Entry());
+        entry.count.add(count);
+        entry.nanos.add(nanos);
+    }
+
+    /**
+     * @return the names of all commands sent so far, in alphabetical order
+     */
+    public Set<String> getCommands() {
+        return new TreeSet<>(entries.keySet());
+    }
+
+    public long getCount(String command) {
+        Entry entry = entries.get(command);
+        return entry == null ? 0 : entry.count.sum();
+    }
+
+    public long getNanos(String command) {
+        Entry entry = entries.get(command);
+        return entry == null ? 0 : entry.nanos.sum();
+    }
+
+    public long getMillis(String command) {
+        return TimeUnit.NANOSECONDS.toMillis(getNanos(command));
+    }
+
+    public long getTotalCount() {
+        long total = 0;
+        for (Entry entry : entries.values()) {
+            total += entry.count.sum();
+        }
+        return total;
+    }
+
+    public long getTotalNanos() {
+        long total = 0;
+        for (Entry entry : entries.values()) {
+            total += entry.nanos.sum();
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        for (String command : getCommands()) {
+            if (result.length() > 0) {
+                result.append(", ");
+            }
+            result.append(String.format("%s: %d ms (%d)", command, getMillis(command), getCount(command)));
+        }
+        return result.toString();
+    }
+
+    private static class Entry {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+    }
+}
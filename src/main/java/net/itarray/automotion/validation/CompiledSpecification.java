@@ -0,0 +1,15 @@
+package net.itarray.automotion.validation;
+
+/**
+ * The plan of an annotated specification, generated at build time by the annotation processor of the library
+ * as {@code <Specification>_Specification} and listed for {@link SpecificationRegistry}.
+ */
+public interface CompiledSpecification {
+
+    /**
+     * @return the type annotated with {@link Chunks}
+     */
+    Class<?> getSpecificationType();
+
+    ValidationPlan getPlan();
+}
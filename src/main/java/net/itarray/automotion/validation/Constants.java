@@ -14,12 +14,21 @@ public class Constants {
     public static final String ELEMENT = "element";
     public static final String SCREENSHOT = "screenshot";
     public static final String DRAWINGS = "drawings";
+    public static final String THUMBNAIL = "thumbnail";
     public static final String ELEMENT_NAME = "elementName";
     public static final String ROOT_ELEMENT = "rootElement";
     public static final String SCENARIO = "scenario";
     public static final String TIME_EXECUTION = "timeExecution";
+    public static final String TIMINGS = "timings";
+    public static final String TIMING_NANOS = "nanos";
+    public static final String TIMING_COUNT = "count";
+    public static final String COMMANDS = "commands";
+    public static final String WARNINGS = "warnings";
     public static final String TARGET_AUTOMOTION = "target" + File.separator + "automotion" + File.separator;
     public static final String TARGET_AUTOMOTION_JSON = TARGET_AUTOMOTION + "json" + File.separator;
     public static final String TARGET_AUTOMOTION_IMG = TARGET_AUTOMOTION + "img" + File.separator;
     public static final String TARGET_AUTOMOTION_HTML = TARGET_AUTOMOTION + "html" + File.separator;
+    public static final String TARGET_AUTOMOTION_SHARDS = TARGET_AUTOMOTION + "shards" + File.separator;
+    public static final String TARGET_AUTOMOTION_FRAGMENTS = TARGET_AUTOMOTION + "fragments" + File.separator;
+    public static final String TARGET_AUTOMOTION_PARTITIONS = TARGET_AUTOMOTION + "partitions" + File.separator;
 }
@@ -0,0 +1,217 @@
+package net.itarray.automotion.validation;
+
+import net.itarray.automotion.internal.ParallelResultReader;
+import net.itarray.automotion.internal.ResolutionUnknown;
+import net.itarray.automotion.internal.ZoomUnknown;
+import net.itarray.automotion.tools.driver.DriverPool;
+import net.itarray.automotion.validation.properties.Resolution;
+import net.itarray.automotion.validation.properties.Zoom;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs the specs of several pages at several resolutions and zooms in several browsers in parallel, one job per
+ * combination. Each browser is a {@link DriverPool}; its jobs run on as many threads as the pool has sessions.
+ * Every job validates in its own {@link ResponsiveUIValidator#session(WebDriver) session} of the validator, so all
+ * results go into one report generated with {@link ResponsiveUIValidator#generateReport(String)}.
+ * <p>
+ * The jobs of a page are queued next to each other and a session keeps the page it loaded last, so that the
+ * page is only loaded again when the session switches pages.
+ * <pre>
+ * FanOutResult result = validator.fanOut()
+ *         .on(new DriverPool("chrome", chrome, 4))
+ *         .on(new DriverPool("firefox", firefox, 4))
+ *         .page("Home", "https://example.com", homeSpec)
+ *         .at(resolution(1280, 800))
+ *         .at(resolution(375, 667))
+ *         .run();
+ * </pre>
+ *
+ * @see ResponsiveUIValidator#fanOut()
+ */
+public class FanOut {
+
+    private final static Logger LOG = LoggerFactory.getLogger(FanOut.class);
+
+    private final ResponsiveUIValidator validator;
+    private final List<DriverPool> pools = new ArrayList<>();
+    private final List<Page> pages = new ArrayList<>();
+    private final List<Breakpoint> breakpoints = new ArrayList<>();
+    private ReadinessProbe readinessProbe = ReadinessProbe.stableLayout();
+    // the page each session loaded last
+    private final Map<WebDriver, String> loadedPages = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    FanOut(ResponsiveUIValidator validator) {
+        this.validator = validator;
+    }
+
+    /**
+     * Adds a browser. The pool stays open after the run, so it can be used for further runs.
+     */
+    public FanOut on(DriverPool pool) {
+        pools.add(pool);
+        return this;
+    }
+
+    /**
+     * @param name names the snapshots of the page, together with the browser
+     * @param url  the page is loaded from
+     */
+    public FanOut page(String name, String url, Spec spec) {
+        pages.add(new Page(name, url, spec));
+        return this;
+    }
+
+    public FanOut at(Resolution resolution) {
+        return at(resolution, new ZoomUnknown());
+    }
+
+    public FanOut at(Resolution resolution, Zoom zoom) {
+        breakpoints.add(new Breakpoint(resolution, zoom));
+        return this;
+    }
+
+    /**
+     * @param readinessProbe waits for the page after it was loaded, resized or zoomed, by default
+     *                       {@link ReadinessProbe#stableLayout()}
+     */
+    public FanOut withReadinessProbe(ReadinessProbe readinessProbe) {
+        this.readinessProbe = readinessProbe;
+        return this;
+    }
+
+    /**
+     * Runs all jobs and waits until they are finished. Without breakpoints every page is validated once at the
+     * resolution and zoom the session has.
+     */
+    public FanOutResult run() {
+        List<Breakpoint> jobBreakpoints = breakpoints.isEmpty()
+                ? Collections.singletonList(new Breakpoint(new ResolutionUnknown(), new ZoomUnknown()))
+                : breakpoints;
+        Set<UISnapshot> invalid = ConcurrentHashMap.newKeySet();
+        ValidationListener listener = (snapshot, elementName, valid, timings) -> {
+            if (!valid) {
+                invalid.add(snapshot);
+            }
+        };
+        long start = System.nanoTime();
+        List<ExecutorService> executors = new ArrayList<>();
+        List<Future<FanOutResult.Job>> futures = new ArrayList<>();
+        validator.addValidationListener(listener);
+        try {
+            for (DriverPool pool : pools) {
+                ExecutorService executor = Executors.newFixedThreadPool(pool.getSize(), ParallelResultReader.daemonThreads("automotion-fan-out-" + pool.getName()));
+                executors.add(executor);
+                for (Page page : pages) {
+                    for (Breakpoint breakpoint : jobBreakpoints) {
+                        futures.add(executor.submit(() -> runJob(pool, page, breakpoint, invalid)));
+                    }
+                }
+            }
+            List<FanOutResult.Job> jobs = new ArrayList<>(futures.size());
+            for (Future<FanOutResult.Job> future : futures) {
+                jobs.add(future.get());
+            }
+            List<FanOutResult.Pool> poolResults = new ArrayList<>(pools.size());
+            for (DriverPool pool : pools) {
+                poolResults.add(new FanOutResult.Pool(pool));
+            }
+            return new FanOutResult(jobs, poolResults, System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the fan-out jobs", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Cannot run fan-out job", e.getCause());
+        } finally {
+            validator.removeValidationListener(listener);
+            for (ExecutorService executor : executors) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private FanOutResult.Job runJob(DriverPool pool, Page page, Breakpoint breakpoint, Set<UISnapshot> invalid) {
+        long start = System.nanoTime();
+        WebDriver driver;
+        try {
+            driver = pool.lease();
+        } catch (RuntimeException e) {
+            LOG.warn("Cannot run " + page.name + " in " + pool.getName() + ": " + e.getMessage());
+            return new FanOutResult.Job(page.name, pool.getName(), breakpoint.resolution, breakpoint.zoom, false, e.getMessage(),
+                    System.nanoTime() - start, 0, 0);
+        }
+        long leased = System.nanoTime();
+        long settled = leased;
+        boolean broken = false;
+        try {
+            if (!page.url.equals(loadedPages.get(driver))) {
+                loadedPages.remove(driver);
+                driver.get(page.url);
+                loadedPages.put(driver, page.url);
+            }
+            ResponsiveUIValidator session = validator.session(driver);
+            try (UISnapshot snapshot = session.snapshot(page.name + " - " + pool.getName(), breakpoint.resolution, breakpoint.zoom)) {
+                readinessProbe.awaitReady(session.getDriver());
+                settled = System.nanoTime();
+                page.spec.validate(snapshot);
+                return new FanOutResult.Job(page.name, pool.getName(), snapshot.getResolution(), snapshot.getZoom(), !invalid.contains(snapshot), null,
+                        leased - start, settled - leased, System.nanoTime() - settled);
+            }
+        } catch (RuntimeException e) {
+            broken = e instanceof WebDriverException;
+            LOG.warn("Cannot run " + page.name + " in " + pool.getName() + " at " + breakpoint.resolution + ": " + e.getMessage());
+            return new FanOutResult.Job(page.name, pool.getName(), breakpoint.resolution, breakpoint.zoom, false, e.getMessage(),
+                    leased - start, settled - leased, System.nanoTime() - settled);
+        } finally {
+            if (broken) {
+                pool.discard(driver);
+            } else {
+                pool.release(driver);
+            }
+            forgetQuitSessions();
+        }
+    }
+
+    /**
+     * Forgets the pages of the sessions the pools quit, e.g. because they were evicted or failed a health check.
+     */
+    private void forgetQuitSessions() {
+        loadedPages.keySet().removeIf(session -> pools.stream().noneMatch(pool -> pool.holds(session)));
+    }
+
+    private static class Page {
+        private final String name;
+        private final String url;
+        private final Spec spec;
+
+        private Page(String name, String url, Spec spec) {
+            this.name = name;
+            this.url = url;
+            this.spec = spec;
+        }
+    }
+
+    private static class Breakpoint {
+        private final Resolution resolution;
+        private final Zoom zoom;
+
+        private Breakpoint(Resolution resolution, Zoom zoom) {
+            this.resolution = resolution;
+            this.zoom = zoom;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package net.itarray.automotion.validation;
+
+import net.itarray.automotion.tools.driver.DriverPool;
+import net.itarray.automotion.validation.properties.Resolution;
+import net.itarray.automotion.validation.properties.Zoom;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The outcome of a {@link FanOut}: per job whether its validations passed and where its time went, and per
+ * driver pool how many sessions it needed.
+ */
+public class FanOutResult {
+
+    public static class Job {
+        private final String page;
+        private final String browser;
+        private final Resolution resolution;
+        private final Zoom zoom;
+        private final boolean valid;
+        private final String error;
+        private final long leaseNanos;
+        private final long settleNanos;
+        private final long validationNanos;
+
+        Job(String page, String browser, Resolution resolution, Zoom zoom, boolean valid, String error,
+            long leaseNanos, long settleNanos, long validationNanos) {
+            this.page = page;
+            this.browser = browser;
+            this.resolution = resolution;
+            this.zoom = zoom;
+            this.valid = valid;
+            this.error = error;
+            this.leaseNanos = leaseNanos;
+            this.settleNanos = settleNanos;
+            this.validationNanos = validationNanos;
+        }
+
+        public String getPage() {
+            return page;
+        }
+
+        public String getBrowser() {
+            return browser;
+        }
+
+        public Resolution getResolution() {
+            return resolution;
+        }
+
+        public Zoom getZoom() {
+            return zoom;
+        }
+
+        /**
+         * @return true if the job ran and all its validations passed
+         */
+        public boolean isValid() {
+            return valid;
+        }
+
+        /**
+         * @return the reason the job could not run to the end, or null
+         */
+        public String getError() {
+            return error;
+        }
+
+        /**
+         * @return the time waiting for a session of the pool
+         */
+        public long getLeaseNanos() {
+            return leaseNanos;
+        }
+
+        /**
+         * @return the time loading the page, resizing, zooming and waiting for the page to be ready
+         */
+        public long getSettleNanos() {
+            return settleNanos;
+        }
+
+        /**
+         * @return the time running the spec
+         */
+        public long getValidationNanos() {
+            return validationNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s %s %s: %s, lease %d ms, settle %d ms, validation %d ms", page, browser, resolution, zoom,
+                    error != null ? "error " + error : valid ? "valid" : "invalid",
+                    TimeUnit.NANOSECONDS.toMillis(leaseNanos), TimeUnit.NANOSECONDS.toMillis(settleNanos),
+                    TimeUnit.NANOSECONDS.toMillis(validationNanos));
+        }
+    }
+
+    public static class Pool {
+        private final String name;
+        private final int size;
+        private final int started;
+        private final int replaced;
+
+        Pool(DriverPool pool) {
+            this.name = pool.getName();
+            this.size = pool.getSize();
+            this.started = pool.getStarted();
+            this.replaced = pool.getReplaced();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getStarted() {
+            return started;
+        }
+
+        public int getReplaced() {
+            return replaced;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d sessions, %d started, %d replaced", name, size, started, replaced);
+        }
+    }
+
+    private final List<Job> jobs;
+    private final List<Pool> pools;
+    private final long nanos;
+
+    FanOutResult(List<Job> jobs, List<Pool> pools, long nanos) {
+        this.jobs = Collections.unmodifiableList(new ArrayList<>(jobs));
+        this.pools = Collections.unmodifiableList(new ArrayList<>(pools));
+        this.nanos = nanos;
+    }
+
+    /**
+     * @return the jobs per pool, in the order they were queued
+     */
+    public List<Job> getJobs() {
+        return jobs;
+    }
+
+    public List<Pool> getPools() {
+        return pools;
+    }
+
+    /**
+     * @return the wall time of the whole fan-out
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    public boolean isValid() {
+        return jobs.stream().allMatch(Job::isValid);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder(String.format("Fan-out of %d jobs: %s in %d ms", jobs.size(),
+                isValid() ? "valid" : "invalid", TimeUnit.NANOSECONDS.toMillis(nanos)));
+        for (Pool pool : pools) {
+            result.append(System.lineSeparator()).append("  ").append(pool);
+        }
+        for (Job job : jobs) {
+            result.append(System.lineSeparator()).append("  ").append(job);
+        }
+        return result.toString();
+    }
+}
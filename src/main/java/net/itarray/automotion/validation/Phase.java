@@ -0,0 +1,29 @@
+package net.itarray.automotion.validation;
+
+/**
+ * The phases a validation spends its time in. Nested phases are not counted twice: the time a screenshot
+ * takes while an expression is evaluated only counts for {@link #SCREENSHOT}.
+ */
+public enum Phase {
+    GEOMETRY("geometry"),
+    CSS("css"),
+    EVALUATION("evaluation"),
+    SCREENSHOT("screenshot"),
+    IMAGE_DECODE("imageDecode"),
+    OVERLAY_DRAW("overlayDraw"),
+    PNG_ENCODE("pngEncode"),
+    JSON_WRITE("jsonWrite");
+
+    private final String key;
+
+    Phase(String key) {
+        this.key = key;
+    }
+
+    /**
+     * @return the key of the phase in the json results
+     */
+    public String getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,59 @@
+package net.itarray.automotion.validation;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Accumulated duration and number of occurrences per {@link Phase}. Safe to update from several threads.
+ */
+public class PhaseTimings {
+
+    private final AtomicLongArray nanos = new AtomicLongArray(Phase.values().length);
+    private final AtomicLongArray counts = new AtomicLongArray(Phase.values().length);
+
+    public void add(Phase phase, long nanos) {
+        this.nanos.addAndGet(phase.ordinal(), nanos);
+        this.counts.incrementAndGet(phase.ordinal());
+    }
+
+    public void addAll(PhaseTimings other) {
+        for (Phase phase : Phase.values()) {
+            nanos.addAndGet(phase.ordinal(), other.getNanos(phase));
+            counts.addAndGet(phase.ordinal(), other.getCount(phase));
+        }
+    }
+
+    public long getNanos(Phase phase) {
+        return nanos.get(phase.ordinal());
+    }
+
+    public long getMillis(Phase phase) {
+        return TimeUnit.NANOSECONDS.toMillis(getNanos(phase));
+    }
+
+    public long getCount(Phase phase) {
+        return counts.get(phase.ordinal());
+    }
+
+    public long getTotalNanos() {
+        long total = 0;
+        for (Phase phase : Phase.values()) {
+            total += getNanos(phase);
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        for (Phase phase : Phase.values()) {
+            if (getCount(phase) > 0) {
+                if (result.length() > 0) {
+                    result.append(", ");
+                }
+                result.append(String.format("%s: %d ms (%d)", phase.getKey(), getMillis(phase), getCount(phase)));
+            }
+        }
+        return result.toString();
+    }
+}
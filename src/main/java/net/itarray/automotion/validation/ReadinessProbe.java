@@ -0,0 +1,59 @@
+package net.itarray.automotion.validation;
+
+import net.itarray.automotion.internal.DriverFacade;
+import net.itarray.automotion.internal.SettledLayoutProbe;
+import net.itarray.automotion.internal.StableLayoutProbe;
+
+/**
+ * Waits until a page is ready to be validated, e.g. after its resolution or zoom changed, instead of sleeping
+ * for a fixed time.
+ *
+ * @see ResponsiveUIValidator#withReadinessProbe(ReadinessProbe)
+ * @see Sweep#withReadinessProbe(ReadinessProbe)
+ */
+@FunctionalInterface
+public interface ReadinessProbe {
+
+    long DEFAULT_TIMEOUT_MILLIS = 5000;
+
+    long DEFAULT_QUIET_MILLIS = 100;
+
+    /**
+     * Returns when the page is ready or the probe gave up waiting.
+     */
+    void awaitReady(DriverFacade driver);
+
+    static ReadinessProbe none() {
+        return driver -> {
+        };
+    }
+
+    /**
+     * Ready when the document is loaded and its size is the same in two consecutive polls, each a round trip
+     * waiting for two animation frames.
+     */
+    static ReadinessProbe stableLayout() {
+        return stableLayout(DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    static ReadinessProbe stableLayout(long timeoutMillis) {
+        return new StableLayoutProbe(timeoutMillis);
+    }
+
+    /**
+     * Ready when the document, its fonts and images are loaded and neither a resize, a change of the DOM nor a
+     * transition or animation changed the layout for the quiet period. Each poll is one round trip that waits in
+     * the browser, so the probe returns as soon as the page is settled.
+     */
+    static ReadinessProbe layoutSettled() {
+        return layoutSettled(DEFAULT_QUIET_MILLIS);
+    }
+
+    static ReadinessProbe layoutSettled(long quietMillis) {
+        return layoutSettled(quietMillis, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    static ReadinessProbe layoutSettled(long quietMillis, long timeoutMillis) {
+        return new SettledLayoutProbe(quietMillis, timeoutMillis);
+    }
+}
@@ -2,37 +2,95 @@ package net.itarray.automotion.validation;
 
 import net.itarray.automotion.internal.*;
 import net.itarray.automotion.internal.geometry.Scalar;
+import net.itarray.automotion.internal.jfr.FlightRecorderEvents;
 import net.itarray.automotion.validation.properties.Resolution;
 import net.itarray.automotion.validation.properties.Zoom;
 import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.awt.*;
-import java.util.ArrayList;
+import java.io.File;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 
 import static net.itarray.automotion.internal.geometry.Scalar.scalar;
 
 public class ResponsiveUIValidator {
 
-    protected final DriverFacade driver;
+    private final static Logger LOG = LoggerFactory.getLogger(ResponsiveUIValidator.class);
 
-    private boolean withReport = true;
-    private final List<String> jsonFiles = new ArrayList<>();
-    private net.itarray.automotion.validation.Units units = net.itarray.automotion.validation.Units.PX;
+    protected final DriverFacade driver;
 
-    private boolean mobileTopBarOffsetState = false;
-    private double mobileTopBarOffset = 20;
-    private final DrawingConfiguration drawingConfiguration = new DrawingConfiguration();
-    private double scaleFactor = 1;
-    private Scalar tolerance = scalar(0);
+    private final AtomicReference<ValidationSettings> settings;
+    private final ResultRegistry results;
+    private final List<ValidationListener> listeners;
 
     public ResponsiveUIValidator(WebDriver driver) {
         this(new DriverFacade(driver));
         drawMap();
     }
 
+    /**
+     * Counts and times all commands the validations send to the driver, see {@link #getCommandStats()}.
+     *
+     * @param instrumentation collects the commands, e.g. into a trace file
+     */
+    public ResponsiveUIValidator(WebDriver driver, DriverInstrumentation instrumentation) {
+        this(new DriverFacade(driver, instrumentation));
+        drawMap();
+    }
+
     public ResponsiveUIValidator(DriverFacade driver) {
+        this(driver, new ValidationSettings(), new ResultRegistry(), new CopyOnWriteArrayList<>());
+        if (Boolean.getBoolean(ResultPartition.ENABLED_PROPERTY)) {
+            withPartitionedResults();
+        }
+    }
+
+    private ResponsiveUIValidator(DriverFacade driver, ValidationSettings settings, ResultRegistry results, List<ValidationListener> listeners) {
         this.driver = driver;
+        this.settings = new AtomicReference<>(settings);
+        this.results = results;
+        this.listeners = listeners;
+    }
+
+    /**
+     * Start a session for another driver, e.g. one per test thread. The session starts with a copy of the current
+     * settings, which it can change without affecting other sessions, and reports into the results of this validator.
+     *
+     * @param driver the driver used by the session
+     * @return the session
+     */
+    public ResponsiveUIValidator session(WebDriver driver) {
+        return session(new DriverFacade(driver, this.driver.getInstrumentation()));
+    }
+
+    public ResponsiveUIValidator session(DriverFacade driver) {
+        return new ResponsiveUIValidator(driver, getSettings(), results, listeners);
+    }
+
+    /**
+     * @return the commands sent through the driver of this validator and the drivers of its sessions, or null if
+     * the driver is not instrumented
+     */
+    public CommandStats getCommandStats() {
+        DriverInstrumentation instrumentation = driver.getInstrumentation();
+        return instrumentation == null ? null : instrumentation.getStats();
+    }
+
+    /**
+     * The settings at the time of the call. Validations use the settings they started with.
+     */
+    public ValidationSettings getSettings() {
+        return settings.get();
+    }
+
+    private void changeSettings(UnaryOperator<ValidationSettings> change) {
+        settings.updateAndGet(change);
     }
 
     public UISnapshot snapshot(String name) {
@@ -44,7 +102,10 @@ public class ResponsiveUIValidator {
     }
 
     public UISnapshot snapshot(String name, Resolution resolution, Zoom zoom) {
-        return new UISnapshot(this, name, resolution, zoom);
+        FlightRecorderEvents.Span span = FlightRecorderEvents.beginSnapshot(name);
+        UISnapshot snapshot = new UISnapshot(this, name, resolution, zoom);
+        span.commit();
+        return snapshot;
     }
 
     public UISnapshot snapshot(String name, Zoom zoom) {
@@ -63,6 +124,34 @@ public class ResponsiveUIValidator {
         return snapshot("Default");
     }
 
+    /**
+     * Start a sweep running the same spec at several resolutions and zooms with the driver of this validator
+     *
+     * @return the sweep, without breakpoints yet
+     */
+    public Sweep sweep() {
+        return new Sweep(this);
+    }
+
+    /**
+     * Start a fan-out running specs of several pages at several resolutions in several browsers in parallel, each
+     * job in a session of this validator
+     *
+     * @return the fan-out, without browsers, pages and breakpoints yet
+     */
+    public FanOut fanOut() {
+        return new FanOut(this);
+    }
+
+    /**
+     * Start a bisection finding the widths at which the validations of a spec change their outcome
+     *
+     * @return the bisection, without a range of widths yet
+     */
+    public Bisection bisection() {
+        return new Bisection(this);
+    }
+
     /**
      * @deprecated As of release 2.0, replaced by {@link ResponsiveUIValidator#snapshot(String)}
      */
@@ -80,20 +169,34 @@ public class ResponsiveUIValidator {
     }
 
     public boolean isWithReport() {
-        return withReport;
+        return getSettings().isWithReport();
     }
 
     public void drawMap() {
-        withReport = true;
+        changeSettings(settings -> settings.withReport(true));
     }
 
     public void dontDrawMap() {
-        withReport = false;
+        changeSettings(settings -> settings.withReport(false));
     }
 
+    /**
+     * Adds the result of a single json file to the results log of this validator
+     *
+     * @param jsonFileName name of the file in the json results folder
+     */
     public void addJsonFile(String jsonFileName) {
-        jsonFiles.add(jsonFileName);
+        results.appendFile(new File(Constants.TARGET_AUTOMOTION_JSON + jsonFileName));
     }
+
+    public ResultsLog getResults() {
+        return results.getLog();
+    }
+
+    public ResultRegistry getResultRegistry() {
+        return results;
+    }
+
     /**
      * Call method to generate HTML report
      */
@@ -107,13 +210,108 @@ public class ResponsiveUIValidator {
      * @param name
      */
     public void generateReport(String name) {
-        if (isWithReport() && !jsonFiles.isEmpty()) {
-            new HtmlReportBuilder().buildReport(name, jsonFiles);
+        ResultPartition partition = results.getPartition();
+        if (partition != null) {
+            partition.commit();
+            return;
+        }
+        if (!isWithReport() || results.getLog().isEmpty()) {
+            return;
+        }
+        ResultRegistry.Detached detached = results.detach(name);
+        if (detached.getRendered() != null && assembleRendered(detached.getRendered(), name)) {
+            detached.getLog().delete();
+            return;
+        }
+        createReportBuilder().buildReport(name, detached.getLog());
+    }
+
+    /**
+     * @return false if the report has to be built from the results instead
+     */
+    private boolean assembleRendered(Future<Boolean> rendered, String name) {
+        try {
+            return BackgroundReportRenderer.await(rendered, name);
+        } catch (RuntimeException e) {
+            LOG.warn("Cannot assemble report " + name + " rendered in the background, building it from the results: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private HtmlReportBuilder createReportBuilder() {
+        HtmlReportBuilder reportBuilder = new HtmlReportBuilder();
+        int scenariosPerShard = getSettings().getScenariosPerShard();
+        if (scenariosPerShard > 0) {
+            reportBuilder.withShards(scenariosPerShard);
+        }
+        return reportBuilder;
+    }
+
+    /**
+     * Render the report in the background while the tests are running: each result is rendered as soon as its
+     * validation finished and {@link #generateReport()} only puts the rendered results together.
+     * Call it after {@link #withShardedReport(int)} to render a sharded report.
+     *
+     * @return this
+     */
+    public ResponsiveUIValidator withBackgroundReport() {
+        results.renderInBackground(new BackgroundReportRenderer(createReportBuilder()));
+        return this;
+    }
+
+    /**
+     * Generate a sharded HTML report: the report page only lists the scenarios and their details are
+     * loaded on demand from separate files, which keeps large reports responsive in the browser
+     *
+     * @param scenariosPerShard number of scenarios stored per details file
+     * @return this
+     */
+    public ResponsiveUIValidator withShardedReport(int scenariosPerShard) {
+        if (scenariosPerShard < 1) {
+            throw new IllegalArgumentException("scenariosPerShard needs to be greater than zero, scenariosPerShard supplied was " + scenariosPerShard);
+        }
+        changeSettings(settings -> settings.withScenariosPerShard(scenariosPerShard));
+        return this;
+    }
+
+    /**
+     * Write the results into the partition of this JVM instead of generating a report per JVM. Use it when tests
+     * run in several JVMs at once (e.g. surefire forks); {@link #generateReport()} then only commits the results
+     * and a single {@link ReportMerger} run after all JVMs finished combines the partitions into one report.
+     * Can also be turned on with the system property automotion.partitioned=true
+     *
+     * @return this
+     */
+    public ResponsiveUIValidator withPartitionedResults() {
+        return withPartitionedResults(ResultPartition.current());
+    }
+
+    public ResponsiveUIValidator withPartitionedResults(ResultPartition partition) {
+        results.usePartition(partition);
+        return this;
+    }
+
+    /**
+     * Add a listener that gets the time spent per phase of every validation of this validator and its sessions
+     *
+     * @param listener
+     */
+    public void addValidationListener(ValidationListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeValidationListener(ValidationListener listener) {
+        listeners.remove(listener);
+    }
+
+    public void fireValidated(UISnapshot snapshot, String elementName, boolean valid, PhaseTimings timings, CommandStats commands) {
+        for (ValidationListener listener : listeners) {
+            listener.validated(snapshot, elementName, valid, timings, commands);
         }
     }
 
     public net.itarray.automotion.validation.Units getUnits() {
-        return units;
+        return getSettings().getUnits();
     }
 
     /**
@@ -121,7 +319,7 @@ public class ResponsiveUIValidator {
      */
     @Deprecated
     public ResponsiveUIValidator changeMetricsUnitsTo(net.itarray.automotion.validation.Units units) {
-        this.units = units;
+        changeSettings(settings -> settings.withUnits(units));
         return this;
     }
 
@@ -139,7 +337,7 @@ public class ResponsiveUIValidator {
      * @param state
      */
     public void setTopBarMobileOffset(boolean state) {
-        mobileTopBarOffsetState = state;
+        changeSettings(settings -> settings.withMobileTopBarOffset(state));
     }
 
     /**
@@ -149,8 +347,7 @@ public class ResponsiveUIValidator {
      * @param offset
      */
     public void setTopBarMobileOffset(boolean state, double offset) {
-        mobileTopBarOffsetState = state;
-        mobileTopBarOffset = offset;
+        changeSettings(settings -> settings.withMobileTopBarOffset(state, offset));
     }
 
     /**
@@ -159,7 +356,7 @@ public class ResponsiveUIValidator {
      * @param factor
      */
     public void setRetinaScaleFactor(double factor) {
-        scaleFactor = factor;
+        changeSettings(settings -> settings.withScaleFactor(factor));
     }
 
     /**
@@ -185,15 +382,15 @@ public class ResponsiveUIValidator {
      *
      */
     public double getRetinaScaleFactor() {
-        return scaleFactor;
+        return getSettings().getScaleFactor();
     }
 
     public boolean isMobileTopBarOffsetState() {
-        return mobileTopBarOffsetState;
+        return getSettings().isMobileTopBarOffsetState();
     }
 
     public double getMobileTopBarOffsetState() {
-        return mobileTopBarOffset;
+        return getSettings().getMobileTopBarOffset();
     }
 
     /**
@@ -202,7 +399,7 @@ public class ResponsiveUIValidator {
      * @param color
      */
     public void setColorForRootElement(Color color) {
-        drawingConfiguration.setRootColor(color);
+        changeSettings(settings -> settings.withRootColor(color));
     }
 
     /**
@@ -211,7 +408,7 @@ public class ResponsiveUIValidator {
      * @param color
      */
     public void setColorForHighlightedElements(Color color) {
-        drawingConfiguration.setHighlightedElementsColor(color);
+        changeSettings(settings -> settings.withHighlightedElementsColor(color));
     }
 
     /**
@@ -220,7 +417,65 @@ public class ResponsiveUIValidator {
      * @param color
      */
     public void setLinesColor(Color color) {
-        drawingConfiguration.setLinesColor(color);
+        changeSettings(settings -> settings.withLinesColor(color));
+    }
+
+    /**
+     * Set the width of the preview images shown in the report. The full size images are only opened on click.
+     * Use 0 to show the full size images directly. By default is 480
+     *
+     * @param px
+     */
+    public void setThumbnailWidth(int px) {
+        changeSettings(settings -> settings.withThumbnailWidth(px));
+    }
+
+    /**
+     * Limit the cost of every single validation, e.g. to detect a spec change that adds hundreds of WebDriver
+     * commands. Use {@link UISnapshot#withBudget(Budget)} to limit all validations of a snapshot together.
+     *
+     * @param budget the budget per validation
+     * @return this validator
+     */
+    public ResponsiveUIValidator withBudget(Budget budget) {
+        changeSettings(settings -> settings.withBudget(budget));
+        return this;
+    }
+
+    public Budget getBudget() {
+        return getSettings().getBudget();
+    }
+
+    /**
+     * Wait for the page before every snapshot, after its resolution and zoom are applied, and before every
+     * {@link UISnapshot#revalidate(String) revalidation}, e.g. with {@link ReadinessProbe#layoutSettled()} instead
+     * of sleeping after a navigation or interaction.
+     *
+     * @param readinessProbe the probe, by default {@link ReadinessProbe#none()}
+     * @return this validator
+     */
+    public ResponsiveUIValidator withReadinessProbe(ReadinessProbe readinessProbe) {
+        changeSettings(settings -> settings.withReadinessProbe(readinessProbe));
+        return this;
+    }
+
+    public ReadinessProbe getReadinessProbe() {
+        return getSettings().getReadinessProbe();
+    }
+
+    /**
+     * Stop transitions, animations and the blinking caret while a snapshot is validated, with a stylesheet injected
+     * before its resolution and zoom are applied and removed by {@link UISnapshot#close()}.
+     *
+     * @return this validator
+     */
+    public ResponsiveUIValidator withFrozenAnimations() {
+        changeSettings(settings -> settings.withFrozenAnimations(true));
+        return this;
+    }
+
+    public boolean isFrozenAnimations() {
+        return getSettings().isFrozenAnimations();
     }
 
     /**
@@ -233,16 +488,19 @@ public class ResponsiveUIValidator {
         if (tolerance < 0) {
             throw new IllegalArgumentException("tolerance needs to be greater or equal to zero, tolerance supplied was " + tolerance);
         }
-        this.tolerance = scalar(tolerance);
+        changeSettings(settings -> settings.withTolerance(scalar(tolerance)));
         return this;
     }
 
     public Scalar getTolerance() {
-        return tolerance;
+        return getSettings().getTolerance();
     }
 
+    /**
+     * @return a copy of the drawing configuration, use {@link #setColorForRootElement(Color)} and the other setters to change it
+     */
     public DrawingConfiguration getDrawingConfiguration() {
-        return drawingConfiguration;
+        return getSettings().getDrawingConfiguration();
     }
 
     public DriverFacade getDriver() {
@@ -0,0 +1,14 @@
+package net.itarray.automotion.validation;
+
+/**
+ * The validations of a page, run once per snapshot, e.g. at several resolutions by a {@link Sweep}.
+ */
+@FunctionalInterface
+public interface Spec {
+
+    /**
+     * Validates the elements of the page in the snapshot, e.g.
+     * {@code snapshot.findElement(header, "header").isAbove(content).validate()}
+     */
+    void validate(UISnapshot snapshot);
+}
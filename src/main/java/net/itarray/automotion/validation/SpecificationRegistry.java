@@ -0,0 +1,50 @@
+package net.itarray.automotion.validation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The plans of the annotated specifications. The specifications generated at build time are loaded once from
+ * {@code META-INF/services}; the plan of a specification compiled without the annotation processor is compiled
+ * by reflection on first use.
+ */
+public final class SpecificationRegistry {
+
+    private final static Logger LOG = LoggerFactory.getLogger(SpecificationRegistry.class);
+
+    private static final Map<Class<?>, ValidationPlan> GENERATED = load();
+
+    private static final Map<Class<?>, ValidationPlan> COMPILED = new ConcurrentHashMap<>();
+
+    private SpecificationRegistry() {
+    }
+
+    public static ValidationPlan plan(Class<?> specification) {
+        ValidationPlan plan = GENERATED.get(specification);
+        return plan != null ? plan : COMPILED.computeIfAbsent(specification, ValidationPlan::compile);
+    }
+
+    /**
+     * @return true if the plan of the specification was generated at build time
+     */
+    public static boolean isGenerated(Class<?> specification) {
+        return GENERATED.containsKey(specification);
+    }
+
+    private static Map<Class<?>, ValidationPlan> load() {
+        Map<Class<?>, ValidationPlan> plans = new ConcurrentHashMap<>();
+        try {
+            for (CompiledSpecification specification : ServiceLoader.load(CompiledSpecification.class)) {
+                plans.put(specification.getSpecificationType(), specification.getPlan());
+            }
+        } catch (ServiceConfigurationError e) {
+            LOG.warn("Cannot load the generated specifications, compiling them on first use: " + e.getMessage());
+        }
+        return plans;
+    }
+}
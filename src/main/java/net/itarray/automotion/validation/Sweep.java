@@ -0,0 +1,113 @@
+package net.itarray.automotion.validation;
+
+import net.itarray.automotion.internal.DriverFacade;
+import net.itarray.automotion.internal.ResolutionImpl;
+import net.itarray.automotion.internal.ZoomImpl;
+import net.itarray.automotion.internal.ZoomUnknown;
+import net.itarray.automotion.validation.properties.Resolution;
+import net.itarray.automotion.validation.properties.Zoom;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Runs one {@link Spec} at several resolutions and zooms with the driver of a validator. The breakpoints are
+ * ordered by zoom and then by decreasing width, so that the window shrinks monotonically and is only resized
+ * when the resolution changes. After a change the sweep waits for its {@link ReadinessProbe} instead of
+ * sleeping, and captures the geometry of all elements the spec validated so far in one round trip.
+ * <p>
+ * All breakpoints report into the results of the validator, so {@link ResponsiveUIValidator#generateReport(String)}
+ * puts them into one report.
+ * <pre>
+ * SweepResult result = validator.sweep()
+ *         .at(resolution(1280, 800))
+ *         .at(resolution(768, 1024))
+ *         .at(resolution(375, 667))
+ *         .run("Home page", snapshot -&gt; snapshot.findElement(header, "header").isAbove(content).validate());
+ * </pre>
+ *
+ * @see ResponsiveUIValidator#sweep()
+ */
+public class Sweep {
+
+    private final ResponsiveUIValidator validator;
+    private final List<Step> steps = new ArrayList<>();
+    private ReadinessProbe readinessProbe = ReadinessProbe.stableLayout();
+
+    Sweep(ResponsiveUIValidator validator) {
+        this.validator = validator;
+    }
+
+    public Sweep at(Resolution resolution) {
+        return at(resolution, new ZoomUnknown());
+    }
+
+    public Sweep at(Resolution resolution, Zoom zoom) {
+        steps.add(new Step(resolution, zoom));
+        return this;
+    }
+
+    /**
+     * @param readinessProbe waits for the page after each change of resolution or zoom, by default
+     *                       {@link ReadinessProbe#stableLayout()}
+     */
+    public Sweep withReadinessProbe(ReadinessProbe readinessProbe) {
+        this.readinessProbe = readinessProbe;
+        return this;
+    }
+
+    /**
+     * Runs the spec at every breakpoint, in snapshots of the given name.
+     */
+    public SweepResult run(String name, Spec spec) {
+        List<SweepResult.Breakpoint> breakpoints = new ArrayList<>();
+        try (BreakpointRunner runner = new BreakpointRunner(validator, readinessProbe)) {
+            for (Step step : ordered(validator.getDriver())) {
+                long start = System.nanoTime();
+                runner.settle(step.resolution, step.zoom);
+                long settled = System.nanoTime();
+                boolean valid = !runner.validate(name, spec, step.resolution, step.zoom).containsValue(false);
+                breakpoints.add(new SweepResult.Breakpoint(step.resolution, step.zoom, valid, settled - start, System.nanoTime() - start));
+            }
+            return new SweepResult(name, breakpoints, runner.getGeometry().getCaptures(), runner.getGeometry().getMisses());
+        }
+    }
+
+    /**
+     * Resolves unknown resolutions and zooms to the current ones and orders the steps by zoom and decreasing width
+     * and height. Steps of other kinds of resolutions and zooms keep their order at the end.
+     */
+    private List<Step> ordered(DriverFacade driver) {
+        List<Step> ordered = new ArrayList<>(steps.size());
+        for (Step step : steps) {
+            ordered.add(new Step(step.resolution.queryIfUnknown(driver), step.zoom.queryIfUnknown(driver)));
+        }
+        ordered.sort(Comparator.<Step>comparingInt(step -> zoomPercentage(step.zoom))
+                .thenComparingInt(step -> -extend(step.resolution, true))
+                .thenComparingInt(step -> -extend(step.resolution, false)));
+        return ordered;
+    }
+
+    private static int zoomPercentage(Zoom zoom) {
+        return zoom instanceof ZoomImpl ? ((ZoomImpl) zoom).getPercentage() : Integer.MAX_VALUE;
+    }
+
+    private static int extend(Resolution resolution, boolean width) {
+        if (!(resolution instanceof ResolutionImpl)) {
+            return Integer.MIN_VALUE + 1;
+        }
+        ResolutionImpl known = (ResolutionImpl) resolution;
+        return width ? known.getExtend().getWidth() : known.getExtend().getHeight();
+    }
+
+    private static class Step {
+        private final Resolution resolution;
+        private final Zoom zoom;
+
+        private Step(Resolution resolution, Zoom zoom) {
+            this.resolution = resolution;
+            this.zoom = zoom;
+        }
+    }
+}
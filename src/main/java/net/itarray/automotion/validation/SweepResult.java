@@ -0,0 +1,114 @@
+package net.itarray.automotion.validation;
+
+import net.itarray.automotion.validation.properties.Resolution;
+import net.itarray.automotion.validation.properties.Zoom;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The outcome of a {@link Sweep}: per breakpoint, in the order they ran, whether all validations passed and
+ * where the time went.
+ */
+public class SweepResult {
+
+    public static class Breakpoint {
+        private final Resolution resolution;
+        private final Zoom zoom;
+        private final boolean valid;
+        private final long settleNanos;
+        private final long nanos;
+
+        Breakpoint(Resolution resolution, Zoom zoom, boolean valid, long settleNanos, long nanos) {
+            this.resolution = resolution;
+            this.zoom = zoom;
+            this.valid = valid;
+            this.settleNanos = settleNanos;
+            this.nanos = nanos;
+        }
+
+        public Resolution getResolution() {
+            return resolution;
+        }
+
+        public Zoom getZoom() {
+            return zoom;
+        }
+
+        public boolean isValid() {
+            return valid;
+        }
+
+        /**
+         * @return the time spent resizing, zooming and waiting for the page to be ready
+         */
+        public long getSettleNanos() {
+            return settleNanos;
+        }
+
+        /**
+         * @return the time of the breakpoint including settling, capturing the geometry and validating
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s: %s in %d ms (settled in %d ms)", resolution, zoom, valid ? "valid" : "invalid",
+                    TimeUnit.NANOSECONDS.toMillis(nanos), TimeUnit.NANOSECONDS.toMillis(settleNanos));
+        }
+    }
+
+    private final String name;
+    private final List<Breakpoint> breakpoints;
+    private final int geometryCaptures;
+    private final int geometryMisses;
+
+    SweepResult(String name, List<Breakpoint> breakpoints, int geometryCaptures, int geometryMisses) {
+        this.name = name;
+        this.breakpoints = Collections.unmodifiableList(new ArrayList<>(breakpoints));
+        this.geometryCaptures = geometryCaptures;
+        this.geometryMisses = geometryMisses;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Breakpoint> getBreakpoints() {
+        return breakpoints;
+    }
+
+    /**
+     * @return true if all validations at all breakpoints passed
+     */
+    public boolean isValid() {
+        return breakpoints.stream().allMatch(Breakpoint::isValid);
+    }
+
+    /**
+     * @return the number of breakpoints at which the geometry of all known elements was captured in one round trip
+     */
+    public int getGeometryCaptures() {
+        return geometryCaptures;
+    }
+
+    /**
+     * @return the number of element rectangles fetched one by one, because the elements were not known yet
+     */
+    public int getGeometryMisses() {
+        return geometryMisses;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder(String.format("Sweep \"%s\": %s", name, isValid() ? "valid" : "invalid"));
+        for (Breakpoint breakpoint : breakpoints) {
+            result.append(System.lineSeparator()).append("  ").append(breakpoint);
+        }
+        return result.toString();
+    }
+}
@@ -1,31 +1,81 @@
 package net.itarray.automotion.validation;
 
+import net.itarray.automotion.internal.AnimationFreeze;
 import net.itarray.automotion.internal.DrawableScreenshot;
+import net.itarray.automotion.internal.LocatedElement;
+import net.itarray.automotion.internal.PhaseRecorder;
+import net.itarray.automotion.internal.QueryPlan;
 import net.itarray.automotion.internal.ResponsiveUIChunkValidatorBase;
+import net.itarray.automotion.internal.Revalidation;
 import net.itarray.automotion.internal.UIValidatorBase;
+import net.itarray.automotion.internal.jfr.FlightRecorderEvents;
 import net.itarray.automotion.validation.properties.Resolution;
 import net.itarray.automotion.validation.properties.Zoom;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.WebElement;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
-public class UISnapshot {
+/**
+ * The validations of a page at one resolution and zoom. Close the snapshot after its validations if the validator
+ * {@link ResponsiveUIValidator#withFrozenAnimations() freezes animations}, so that the page animates again.
+ */
+public class UISnapshot implements AutoCloseable {
 
     private final ResponsiveUIValidator responsiveUIValidator;
     private final String name;
     private final Resolution resolution;
     private final Zoom zoom;
     private File screenshotName;
+    private final PhaseTimings timings = new PhaseTimings();
+    private final CommandStats commands = new CommandStats();
+    private final long creationTime = System.currentTimeMillis();
+    private final Set<Budget.Limit> reportedOverruns = EnumSet.noneOf(Budget.Limit.class);
+    private volatile Budget budget = Budget.unlimited();
+    private final Revalidation revalidation;
+    private final Map<List<Object>, List<WebElement>> located = new HashMap<>();
+    private boolean frozen;
 
     public UISnapshot(ResponsiveUIValidator responsiveUIValidator, String name, Resolution resolution, Zoom zoom) {
+        this(responsiveUIValidator, name, resolution, zoom, true);
+    }
+
+    /**
+     * @param apply false if the resolution and zoom are already applied to the driver and the page is ready
+     */
+    UISnapshot(ResponsiveUIValidator responsiveUIValidator, String name, Resolution resolution, Zoom zoom, boolean apply) {
+        this(responsiveUIValidator, name, resolution, zoom, apply, new Revalidation());
+    }
+
+    private UISnapshot(ResponsiveUIValidator responsiveUIValidator, String name, Resolution resolution, Zoom zoom, boolean apply, Revalidation revalidation) {
         this.responsiveUIValidator = responsiveUIValidator;
+        this.revalidation = revalidation;
         this.name = name;
         this.resolution = resolution.queryIfUnknown(responsiveUIValidator.driver);
         this.zoom = zoom.queryIfUnknown(responsiveUIValidator.driver);
-        if (!responsiveUIValidator.getDriver().isAppiumContext()) {
-            resolution.applyTo(responsiveUIValidator.driver);
-            zoom.applyTo(responsiveUIValidator.driver);
+        if (apply) {
+            frozen = freezeAnimations();
+            try {
+                if (!responsiveUIValidator.getDriver().isAppiumContext()) {
+                    resolution.applyTo(responsiveUIValidator.driver);
+                    zoom.applyTo(responsiveUIValidator.driver);
+                }
+                responsiveUIValidator.getReadinessProbe().awaitReady(responsiveUIValidator.getDriver());
+            } catch (RuntimeException e) {
+                // nobody can close a snapshot that was not created
+                close();
+                throw e;
+            }
         }
     }
 
@@ -37,6 +87,14 @@ public class UISnapshot {
         return zoom.getFactor(responsiveUIValidator.getDriver());
     }
 
+    public Resolution getResolution() {
+        return resolution;
+    }
+
+    public Zoom getZoom() {
+        return zoom;
+    }
+
     public String getDescription() {
         return String.format("%s - resolution: %s - zoom: %s", name, resolution, zoom);
     }
@@ -46,24 +104,253 @@ public class UISnapshot {
     }
 
     public UIElementValidator findElement(WebElement webElement, String readableNameOfElement) {
-        return new UIValidatorBase(this, webElement, readableNameOfElement);
+        FlightRecorderEvents.Span span = FlightRecorderEvents.beginValidator(name, readableNameOfElement, 1);
+        UIValidatorBase validator = new UIValidatorBase(this, webElement, readableNameOfElement);
+        span.commit();
+        return validator;
+    }
+
+    /**
+     * @param selector matches the element, the first match if there are more
+     * @throws NoSuchElementException if nothing matches
+     */
+    public UIElementValidator findElement(By selector, String readableNameOfElement) {
+        List<WebElement> matches = locate(selector);
+        if (matches.isEmpty()) {
+            throw new NoSuchElementException("Cannot find " + readableNameOfElement + " by " + selector);
+        }
+        return findElement(matches.get(0), readableNameOfElement);
     }
 
     public ChunkUIElementValidator findElements(List<WebElement> webElements) {
         return findOneOrMoreElements(webElements);
     }
 
+    public ChunkUIElementValidator findElements(By selector) {
+        return findOneOrMoreElements(locate(selector));
+    }
+
+    public ChunkUIElementValidator findOneOrMoreElements(By selector) {
+        return findOneOrMoreElements(locate(selector));
+    }
+
+    public ChunkUIElementValidator findZeroOrMoreElements(By selector) {
+        return findZeroOrMoreElements(locate(selector));
+    }
+
+    /**
+     * Finds all matches of the selector with their geometry, names and css values in one script, instead of
+     * locating the elements and measuring them in separate round trips. The matches are WebElements that look
+     * themselves up again only when they are needed, e.g. to click them. The matches of a selector are located
+     * once per snapshot, {@link #revalidate(String) revalidate} the snapshot after the page changed.
+     * <pre>
+     * List&lt;WebElement&gt; cards = snapshot.locate(By.cssSelector(".card"), "color");
+     * snapshot.findElements(cards).doNotOverlap().validate();
+     * snapshot.findElement(cards.get(0), "First card").hasCssValue("color", "rgb(0, 0, 0)").validate();
+     * </pre>
+     *
+     * @param cssProperties the css properties fetched with the matches
+     */
+    public synchronized List<WebElement> locate(By selector, String... cssProperties) {
+        List<String> properties = Arrays.asList(cssProperties);
+        for (Map.Entry<List<Object>, List<WebElement>> matches : located.entrySet()) {
+            // located with more css properties, e.g. by runPlanned
+            if (matches.getKey().get(0).equals(selector) && ((List<?>) matches.getKey().get(1)).containsAll(properties)) {
+                return matches.getValue();
+            }
+        }
+        return located.computeIfAbsent(Arrays.asList(selector, properties),
+                key -> LocatedElement.locate(responsiveUIValidator.getDriver(), selector, properties));
+    }
+
     public ChunkUIElementValidator findOneOrMoreElements(List<WebElement> webElements) {
-        return new ResponsiveUIChunkValidatorBase(this, webElements, false);
+        return findChunk(webElements, false);
     }
 
     public ChunkUIElementValidator findZeroOrMoreElements(List<WebElement> webElements) {
-        return new ResponsiveUIChunkValidatorBase(this, webElements, true);
+        return findChunk(webElements, true);
+    }
+
+    private ChunkUIElementValidator findChunk(List<WebElement> webElements, boolean allowEmpty) {
+        FlightRecorderEvents.Span span = FlightRecorderEvents.beginValidator(name, "Root Element", webElements.size());
+        ResponsiveUIChunkValidatorBase validator = new ResponsiveUIChunkValidatorBase(this, webElements, allowEmpty);
+        span.commit();
+        return validator;
+    }
+
+    /**
+     * Takes a snapshot of the page after a change that moved only some of its elements, e.g. after opening a
+     * dropdown, at the resolution and zoom of this snapshot. Once the {@link ResponsiveUIValidator#withReadinessProbe(ReadinessProbe)
+     * readiness probe} returns, the geometry of all elements this snapshot read is captured in one round trip. Assertions that passed in this snapshot and whose elements did not move are not
+     * evaluated again, but pass; {@link ChunkUIElementValidator#doNotOverlap()} only checks the elements that moved.
+     * The new snapshot needs to run the same validations in the same order as this one.
+     * <pre>
+     * UISnapshot closed = validator.snapshot("Menu closed");
+     * closed.findElement(header, "header").isAbove(content).validate();
+     * openMenu();
+     * UISnapshot open = closed.revalidate("Menu open");
+     * open.findElement(header, "header").isAbove(content).validate();
+     * </pre>
+     *
+     * If the animations are frozen, the new snapshot takes over the freeze and closing this one leaves them frozen.
+     *
+     * @param name the name of the new snapshot
+     * @return the new snapshot, which can be revalidated itself
+     */
+    public UISnapshot revalidate(String name) {
+        boolean frozen = freezeAnimations();
+        Revalidation next;
+        try {
+            responsiveUIValidator.getReadinessProbe().awaitReady(responsiveUIValidator.getDriver());
+            next = new Revalidation(revalidation, responsiveUIValidator.getDriver());
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                if (frozen && !this.frozen) {
+                    AnimationFreeze.unfreeze(responsiveUIValidator.getDriver());
+                }
+            }
+            throw e;
+        }
+        UISnapshot snapshot = new UISnapshot(responsiveUIValidator, name, resolution, zoom, false, next);
+        synchronized (this) {
+            // the stylesheet is shared, only the new snapshot removes it
+            snapshot.frozen = frozen || this.frozen;
+            this.frozen = false;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Runs the checks of the plan with a constant number of round trips, instead of some per validation. The
+     * elements of its chunks are known before any check runs, so their names and geometry are fetched in two batched
+     * scripts and the page size once. Every check then runs once and is evaluated from the results.
+     *
+     * @param factory creates the elements of the chunks
+     * @return the outcome of every check
+     */
+    public List<ValidationPlan.Outcome> runPlanned(ValidationPlan plan, ValidationPlan.ElementFactory factory) {
+        Map<String, List<WebElement>> chunks = plan.createChunks(factory);
+        Set<WebElement> elements = new LinkedHashSet<>();
+        for (Map.Entry<String, List<WebElement>> chunk : chunks.entrySet()) {
+            if (!plan.getChecks(chunk.getKey()).isEmpty()) {
+                elements.addAll(chunk.getValue());
+            }
+        }
+        return new QueryPlan(elements).run(responsiveUIValidator.getDriver(), () -> plan.execute(this, chunks));
+    }
+
+    /**
+     * Runs the spec once with a constant number of round trips for the elements it validates, instead of some per
+     * validation. The tag, id, class, text and the css properties of the elements are fetched in one batched script,
+     * their geometry in another and the page size once; the spec then reads them from the results.
+     * <pre>
+     * snapshot.runPlanned(s -&gt; {
+     *     s.findElements(cards).doNotOverlap().validate();
+     *     s.findElement(cards.get(0), "First card").hasCssValue("color", "rgb(0, 0, 0)").validate();
+     * }, cards, "color");
+     * </pre>
+     *
+     * @param elements      the elements the spec validates or compares with
+     * @param cssProperties the css properties the spec reads
+     */
+    public void runPlanned(Spec spec, Collection<? extends WebElement> elements, String... cssProperties) {
+        new QueryPlan(elements, Arrays.asList(cssProperties)).run(responsiveUIValidator.getDriver(), () -> {
+            spec.validate(this);
+            return null;
+        });
+    }
+
+    /**
+     * Like {@link #runPlanned(Spec, Collection, String...)} for the matches of selectors, each {@link #locate(By, String...)
+     * located} with one script together with the css properties. The spec finds them by the same selectors, e.g.
+     * with {@link #findElements(By)}, without locating them again.
+     *
+     * @param selectors     the selectors of the elements the spec validates or compares with
+     * @param cssProperties the css properties the spec reads
+     */
+    public void runPlanned(Spec spec, List<By> selectors, String... cssProperties) {
+        List<WebElement> elements = new ArrayList<>();
+        for (By selector : selectors) {
+            elements.addAll(locate(selector, cssProperties));
+        }
+        runPlanned(spec, elements, cssProperties);
+    }
+
+    private boolean freezeAnimations() {
+        return responsiveUIValidator.isFrozenAnimations() && AnimationFreeze.freeze(responsiveUIValidator.getDriver());
+    }
+
+    /**
+     * Removes the stylesheet freezing the animations, if this snapshot injected it.
+     */
+    @Override
+    public synchronized void close() {
+        if (frozen) {
+            frozen = false;
+            AnimationFreeze.unfreeze(responsiveUIValidator.getDriver());
+        }
+    }
+
+    /**
+     * @return which assertions this snapshot carried forward from the snapshot it revalidates
+     */
+    public Revalidation getRevalidation() {
+        return revalidation;
+    }
+
+    /**
+     * @return the time spent per phase by all validations of this snapshot
+     */
+    public PhaseTimings getTimings() {
+        return timings;
+    }
+
+    /**
+     * @return the WebDriver commands sent by all validations of this snapshot, if the driver is instrumented
+     */
+    public CommandStats getCommands() {
+        return commands;
+    }
+
+    /**
+     * Limits the cost of all validations of this snapshot together. Each overrun is reported once, by the
+     * validation that exceeded the budget.
+     *
+     * @param budget the budget
+     * @return this snapshot
+     */
+    public UISnapshot withBudget(Budget budget) {
+        this.budget = budget;
+        return this;
+    }
+
+    public Budget getBudget() {
+        return budget;
+    }
+
+    public long getCreationTime() {
+        return creationTime;
+    }
+
+    /**
+     * @return the size of the screenshot of this snapshot, 0 if none was taken
+     */
+    public synchronized long getScreenshotBytes() {
+        return screenshotName == null ? 0 : screenshotName.length();
+    }
+
+    /**
+     * @return true for the first call per limit, so that an overrun is reported only once
+     */
+    public synchronized boolean claimOverrun(Budget.Limit limit) {
+        return reportedOverruns.add(limit);
     }
 
-    public File takeScreenshot() {
+    public synchronized File takeScreenshot() {
         if (screenshotName == null) {
-            screenshotName = DrawableScreenshot.takeScreenshot(responsiveUIValidator.getDriver(), getName());
+            FlightRecorderEvents.ScreenshotSpan span = FlightRecorderEvents.beginScreenshot(name);
+            screenshotName = PhaseRecorder.time(Phase.SCREENSHOT, () -> DrawableScreenshot.takeScreenshot(responsiveUIValidator.getDriver(), getName()));
+            span.commit(screenshotName.length());
         }
         return screenshotName;
     }
@@ -0,0 +1,28 @@
+package net.itarray.automotion.validation;
+
+/**
+ * Gets notified about every finished validation, e.g. to collect where the time of a test run goes.
+ * Listeners are called on the thread that called validate().
+ *
+ * @see ResponsiveUIValidator#addValidationListener(ValidationListener)
+ */
+public interface ValidationListener {
+
+    /**
+     * @param snapshot    the snapshot the validation belongs to
+     * @param elementName the name of the validated element or elements
+     * @param valid       the result of the validation
+     * @param timings     the time spent per phase of this validation, including writing its result
+     */
+    void validated(UISnapshot snapshot, String elementName, boolean valid, PhaseTimings timings);
+
+    /**
+     * Called instead of {@link #validated(UISnapshot, String, boolean, PhaseTimings)} by validators that know
+     * the WebDriver commands of the validation. Calls the method without commands by default.
+     *
+     * @param commands the WebDriver commands sent by this validation, empty if the driver is not instrumented
+     */
+    default void validated(UISnapshot snapshot, String elementName, boolean valid, PhaseTimings timings, CommandStats commands) {
+        validated(snapshot, elementName, valid, timings);
+    }
+}
@@ -0,0 +1,350 @@
+package net.itarray.automotion.validation;
+
+import org.openqa.selenium.WebElement;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * An annotated specification compiled once into an immutable plan: the {@link Chunks chunks} of the specification
+ * with their elements deduplicated, and one check per {@link Scenario} of the {@link Valid} and {@link NotValid}
+ * annotations of its methods, with the method resolved and the parameters parsed. The plan runs against any
+ * snapshot without reflecting over the annotations again. The annotation processor of the library builds the
+ * plans of the specifications at build time, {@link SpecificationRegistry#plan(Class)} returns them.
+ * <pre>
+ * ValidationPlan plan = SpecificationRegistry.plan(ChunkUIElementValidator.class);
+ * for (ValidationPlan.Outcome outcome : plan.execute(snapshot, DummyWebElement::createElement)) {
+ *     assertThat(outcome.isAsExpected()).describedAs(outcome.getCheck().getName()).isTrue();
+ * }
+ * </pre>
+ */
+public final class ValidationPlan {
+
+    /**
+     * Creates the element of an {@link Element} annotation.
+     */
+    @FunctionalInterface
+    public interface ElementFactory {
+        WebElement create(int originX, int originY, int cornerX, int cornerY);
+    }
+
+    private final List<int[]> elements;
+    private final Map<String, int[]> chunks;
+    private final Map<String, List<Check>> checksByChunk;
+    private final List<Check> checks;
+
+    private ValidationPlan(List<int[]> elements, Map<String, int[]> chunks, List<Check> checks) {
+        this.elements = elements;
+        this.chunks = chunks;
+        this.checks = Collections.unmodifiableList(checks);
+        Map<String, List<Check>> checksByChunk = new LinkedHashMap<>();
+        for (Check check : checks) {
+            checksByChunk.computeIfAbsent(check.chunk, chunk -> new ArrayList<>()).add(check);
+        }
+        for (Map.Entry<String, List<Check>> entry : checksByChunk.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        this.checksByChunk = Collections.unmodifiableMap(checksByChunk);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Compiles the plan by reflection, see {@link SpecificationRegistry#plan(Class)} for the plan built at build time.
+     *
+     * @param specification a type annotated with {@link Chunks}, whose methods are validations of a
+     *                      {@link ChunkUIElementValidator} annotated with {@link Valid} and {@link NotValid}
+     */
+    public static ValidationPlan compile(Class<?> specification) {
+        Builder builder = builder();
+        Chunks definitions = specification.getAnnotation(Chunks.class);
+        for (Chunk definition : definitions == null ? new Chunk[0] : definitions.value()) {
+            int[][] coordinates = new int[definition.elements().length][];
+            for (int i = 0; i < coordinates.length; i++) {
+                coordinates[i] = definition.elements()[i].value();
+            }
+            builder.chunk(definition.id(), coordinates);
+        }
+
+        Method[] methods = specification.getMethods();
+        Arrays.sort(methods, Comparator.comparing(ValidationPlan::signature));
+        for (Method method : methods) {
+            Valid valid = method.getAnnotation(Valid.class);
+            if (valid != null) {
+                addChecks(builder, method, valid.value(), true);
+            }
+            NotValid notValid = method.getAnnotation(NotValid.class);
+            if (notValid != null) {
+                addChecks(builder, method, notValid.value(), false);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return the name and the parameter types of the method, the order of the checks of a specification
+     */
+    static String signature(Method method) {
+        StringBuilder signature = new StringBuilder(method.getName()).append('(');
+        Class<?>[] types = method.getParameterTypes();
+        for (int i = 0; i < types.length; i++) {
+            signature.append(i == 0 ? "" : ",").append(types[i].getTypeName());
+        }
+        return signature.append(')').toString();
+    }
+
+    private static void addChecks(Builder builder, Method method, Scenario[] scenarios, boolean valid) {
+        if (!method.getDeclaringClass().isAssignableFrom(ChunkUIElementValidator.class)) {
+            throw new IllegalArgumentException("Cannot compile " + method.getName() + ", it is not a method of " + ChunkUIElementValidator.class.getSimpleName());
+        }
+        for (Scenario scenario : scenarios) {
+            for (String parameters : scenario.params()) {
+                Object[] arguments = parseArguments(parameters);
+                builder.check(method.getName(), parameters, valid, scenario.chunk(), scenario.oneOrMore(), validator -> {
+                    try {
+                        method.invoke(validator, arguments);
+                    } catch (IllegalAccessException e) {
+                        throw new RuntimeException("Cannot run " + method.getName() + "(" + parameters.trim() + ")", e);
+                    } catch (InvocationTargetException e) {
+                        throw new RuntimeException("Cannot run " + method.getName() + "(" + parameters.trim() + ")", e.getCause());
+                    }
+                });
+            }
+        }
+    }
+
+    private static Object[] parseArguments(String parameters) {
+        String trimmed = parameters.trim();
+        if (trimmed.isEmpty()) {
+            return new Object[0];
+        }
+        String[] split = trimmed.split(",");
+        Object[] arguments = new Object[split.length];
+        for (int i = 0; i < split.length; i++) {
+            arguments[i] = Integer.parseInt(split[i].trim());
+        }
+        return arguments;
+    }
+
+    private static List<Integer> asList(int[] coordinates) {
+        List<Integer> list = new ArrayList<>(coordinates.length);
+        for (int coordinate : coordinates) {
+            list.add(coordinate);
+        }
+        return list;
+    }
+
+    /**
+     * @return the number of distinct elements of all chunks
+     */
+    public int getElementCount() {
+        return elements.size();
+    }
+
+    public List<Check> getChecks() {
+        return checks;
+    }
+
+    /**
+     * @return the checks of the chunk, in the order of {@link #getChecks()}
+     */
+    public List<Check> getChecks(String chunk) {
+        List<Check> checks = checksByChunk.get(chunk);
+        return checks == null ? Collections.emptyList() : checks;
+    }
+
+    /**
+     * Creates every distinct element once.
+     *
+     * @return the elements of every chunk by its id
+     */
+    public Map<String, List<WebElement>> createChunks(ElementFactory factory) {
+        List<WebElement> created = new ArrayList<>(elements.size());
+        for (int[] coordinates : elements) {
+            created.add(factory.create(coordinates[0], coordinates[1], coordinates[2], coordinates[3]));
+        }
+        Map<String, List<WebElement>> result = new LinkedHashMap<>();
+        for (Map.Entry<String, int[]> chunk : chunks.entrySet()) {
+            List<WebElement> chunkElements = new ArrayList<>(chunk.getValue().length);
+            for (int index : chunk.getValue()) {
+                chunkElements.add(created.get(index));
+            }
+            result.put(chunk.getKey(), Collections.unmodifiableList(chunkElements));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Runs every check in its own validation of the snapshot, chunk by chunk.
+     */
+    public List<Outcome> execute(UISnapshot snapshot, ElementFactory factory) {
+        return execute(snapshot, createChunks(factory));
+    }
+
+    List<Outcome> execute(UISnapshot snapshot, Map<String, List<WebElement>> chunkElements) {
+        List<Outcome> outcomes = new ArrayList<>(checks.size());
+        for (Map.Entry<String, List<Check>> entry : checksByChunk.entrySet()) {
+            for (Check check : entry.getValue()) {
+                ChunkUIElementValidator validator = check.apply(snapshot, chunkElements.get(entry.getKey()));
+                outcomes.add(new Outcome(check, validator.validate()));
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * Collects the chunks and checks of a plan, used by the specifications generated at build time.
+     */
+    public static final class Builder {
+        private final List<int[]> elements = new ArrayList<>();
+        private final Map<List<Integer>, Integer> elementIndices = new LinkedHashMap<>();
+        private final Map<String, int[]> chunks = new LinkedHashMap<>();
+        private final List<Check> checks = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * @param elements the origin x, origin y, corner x and corner y of each element of the chunk
+         */
+        public Builder chunk(String id, int[]... elements) {
+            int[] indices = new int[elements.length];
+            for (int i = 0; i < indices.length; i++) {
+                int[] coordinates = elements[i];
+                if (coordinates.length != 4) {
+                    throw new IllegalArgumentException("elements of chunk " + id + " need 4 coordinates, coordinates supplied were " + Arrays.toString(coordinates));
+                }
+                indices[i] = elementIndices.computeIfAbsent(asList(coordinates), key -> {
+                    this.elements.add(coordinates.clone());
+                    return this.elements.size() - 1;
+                });
+            }
+            chunks.put(id, indices);
+            return this;
+        }
+
+        /**
+         * @param validation runs the method with the parameters on the validator of the chunk
+         */
+        public Builder check(String method, String parameters, boolean valid, String chunk, boolean oneOrMore, Consumer<ChunkUIElementValidator> validation) {
+            if (!chunks.containsKey(chunk)) {
+                throw new IllegalArgumentException("no such chunk " + chunk + " in scenario of " + method);
+            }
+            checks.add(new Check(method, chunk, parameters.trim(), valid, oneOrMore, validation));
+            return this;
+        }
+
+        public ValidationPlan build() {
+            return new ValidationPlan(
+                    Collections.unmodifiableList(new ArrayList<>(elements)),
+                    Collections.unmodifiableMap(new LinkedHashMap<>(chunks)),
+                    new ArrayList<>(checks));
+        }
+    }
+
+    public static final class Check {
+        private final String method;
+        private final String chunk;
+        private final String parameters;
+        private final boolean valid;
+        private final boolean oneOrMore;
+        private final Consumer<ChunkUIElementValidator> validation;
+
+        private Check(String method, String chunk, String parameters, boolean valid, boolean oneOrMore, Consumer<ChunkUIElementValidator> validation) {
+            this.method = method;
+            this.chunk = chunk;
+            this.parameters = parameters;
+            this.valid = valid;
+            this.oneOrMore = oneOrMore;
+            this.validation = validation;
+        }
+
+        /**
+         * Finds the elements of the chunk in the snapshot and runs the validation of this check, without validating.
+         */
+        public ChunkUIElementValidator apply(UISnapshot snapshot, List<WebElement> chunkElements) {
+            ChunkUIElementValidator validator = oneOrMore ? snapshot.findElements(chunkElements) : snapshot.findZeroOrMoreElements(chunkElements);
+            applyTo(validator);
+            return validator;
+        }
+
+        /**
+         * Runs the validation of this check on the validator of its chunk, without validating.
+         */
+        public void applyTo(ChunkUIElementValidator validator) {
+            validation.accept(validator);
+        }
+
+        public String getMethodName() {
+            return method;
+        }
+
+        /**
+         * @return the parameters of the scenario, as written in the annotation
+         */
+        public String getParameters() {
+            return parameters;
+        }
+
+        public String getChunk() {
+            return chunk;
+        }
+
+        /**
+         * @return true for a {@link Valid} scenario, false for a {@link NotValid} one
+         */
+        public boolean isValid() {
+            return valid;
+        }
+
+        public boolean isOneOrMore() {
+            return oneOrMore;
+        }
+
+        public String getName() {
+            return String.format("%s(%s) is %svalid on %s chunk", method, parameters, valid ? "" : "not ", chunk);
+        }
+
+        @Override
+        public String toString() {
+            return getName();
+        }
+    }
+
+    public static final class Outcome {
+        private final Check check;
+        private final boolean valid;
+
+        private Outcome(Check check, boolean valid) {
+            this.check = check;
+            this.valid = valid;
+        }
+
+        public Check getCheck() {
+            return check;
+        }
+
+        public boolean isValid() {
+            return valid;
+        }
+
+        public boolean isAsExpected() {
+            return valid == check.isValid();
+        }
+
+        @Override
+        public String toString() {
+            return check.getName() + (isAsExpected() ? "" : ", but was " + (valid ? "valid" : "not valid"));
+        }
+    }
+}
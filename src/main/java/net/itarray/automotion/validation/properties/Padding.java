@@ -55,4 +55,9 @@ public class Padding {
     public void setLeft(int left) {
         this.left = left;
     }
+
+    @Override
+    public String toString() {
+        return String.format("padding[%s, %s, %s, %s]", top, right, bottom, left);
+    }
 }
@@ -0,0 +1,162 @@
+package net.itarray.automotion.tests.driver;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import net.itarray.automotion.tools.driver.DriverPool;
+import org.junit.After;
+import org.junit.Test;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+public class DriverPoolTest {
+
+    private final List<WebDriver> drivers = Collections.synchronizedList(new ArrayList<>());
+    private DriverPool pool;
+
+    @After
+    public void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    public void warmsUpAllSessionsInParallel() {
+        CountDownLatch starting = new CountDownLatch(3);
+        List<Boolean> startedTogether = Collections.synchronizedList(new ArrayList<>());
+        pool = new DriverPool("chrome", () -> {
+            starting.countDown();
+            try {
+                startedTogether.add(starting.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return startDriver();
+        }, 3);
+
+        assertThat(pool.warmUp()).isEqualTo(3);
+        pool.release(pool.lease());
+
+        assertThat(startedTogether).containsExactly(true, true, true);
+        assertThat(pool.getStarted()).isEqualTo(3);
+        assertThat(pool.getIdle()).isEqualTo(3);
+        assertThat(pool.warmUp()).isEqualTo(0);
+    }
+
+    @Test
+    public void warmsUpOnlyTheSessionsNotLeasedMeanwhile() throws Exception {
+        CountDownLatch leasing = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        pool = new DriverPool("chrome", () -> {
+            if (leasing.getCount() > 0) {
+                leasing.countDown();
+                Uninterruptibles.awaitUninterruptibly(started);
+            }
+            return startDriver();
+        }, 2);
+        Thread lease = new Thread(() -> pool.release(pool.lease()));
+        lease.start();
+        leasing.await();
+
+        assertThat(pool.warmUp()).isEqualTo(1);
+        started.countDown();
+        lease.join();
+
+        assertThat(pool.getStarted()).isEqualTo(2);
+        assertThat(pool.getIdle()).isEqualTo(2);
+    }
+
+    @Test
+    public void quitsSessionsStartedAfterAnInterruptedWarmUp() {
+        CountDownLatch started = new CountDownLatch(1);
+        pool = new DriverPool("chrome", () -> {
+            if (drivers.isEmpty()) {
+                Uninterruptibles.awaitUninterruptibly(started);
+            }
+            return startDriver();
+        }, 1);
+
+        Thread.currentThread().interrupt();
+        assertThatThrownBy(pool::warmUp).hasMessage("Interrupted while warming up the sessions of chrome");
+        assertThat(Thread.interrupted()).isTrue();
+        started.countDown();
+
+        // the lease waits until the abandoned session started
+        assertThat(pool.lease()).isNotSameAs(drivers.get(0));
+        verify(drivers.get(0)).quit();
+        assertThat(pool.getStarted()).isEqualTo(2);
+    }
+
+    @Test
+    public void evictsSessionsAfterTheirLastUse() {
+        pool = new DriverPool("chrome", this::startDriver, 1).withMaxUses(2);
+
+        for (int i = 0; i < 3; i++) {
+            pool.release(pool.lease());
+        }
+
+        assertThat(pool.getStarted()).isEqualTo(2);
+        assertThat(pool.getEvicted()).isEqualTo(1);
+        verify(drivers.get(0)).quit();
+        verify(drivers.get(1), never()).quit();
+        assertThatThrownBy(() -> pool.withMaxUses(0)).hasMessage("maxUses needs to be greater than zero, maxUses supplied was 0");
+    }
+
+    @Test
+    public void cleansReturnedSessions() {
+        pool = new DriverPool("chrome", this::startDriver, 1).withCleanSessions();
+
+        WebDriver driver = pool.lease();
+        driver.manage().window().setSize(new Dimension(375, 667));
+        pool.release(driver);
+
+        verify(driver.manage()).deleteAllCookies();
+        verify((JavascriptExecutor) driver).executeScript("try { window.localStorage.clear(); } catch (e) {} try { window.sessionStorage.clear(); } catch (e) {}");
+        assertThat(driver.manage().window().getSize()).isEqualTo(new Dimension(1024, 768));
+        assertThat(pool.lease()).isSameAs(driver);
+    }
+
+    @Test
+    public void replacesSessionsThatCannotBeReset() {
+        pool = new DriverPool("chrome", this::startDriver, 1).withReset(driver -> {
+            throw new IllegalStateException("reset failed");
+        });
+
+        WebDriver first = pool.lease();
+        pool.release(first);
+
+        assertThat(pool.lease()).isNotSameAs(first);
+        assertThat(pool.getReplaced()).isEqualTo(1);
+        verify(drivers.get(0)).quit();
+    }
+
+    private WebDriver startDriver() {
+        WebDriver driver = mock(WebDriver.class, withSettings().extraInterfaces(JavascriptExecutor.class));
+        WebDriver.Options options = mock(WebDriver.Options.class);
+        WebDriver.Window window = mock(WebDriver.Window.class);
+        Dimension[] size = {new Dimension(1024, 768)};
+        when(driver.getWindowHandle()).thenReturn("window");
+        when(driver.manage()).thenReturn(options);
+        when(options.window()).thenReturn(window);
+        when(window.getSize()).thenAnswer(invocation -> size[0]);
+        doAnswer(invocation -> size[0] = invocation.getArgument(0)).when(window).setSize(any());
+        drivers.add(driver);
+        return driver;
+    }
+}
@@ -0,0 +1,181 @@
+package net.itarray.automotion.tests.driver;
+
+import net.itarray.automotion.tools.driver.DriverPool;
+import net.itarray.automotion.validation.FanOutResult;
+import net.itarray.automotion.validation.ReadinessProbe;
+import net.itarray.automotion.validation.ResponsiveUIValidator;
+import net.itarray.automotion.validation.Spec;
+import org.junit.After;
+import org.junit.Test;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static net.itarray.automotion.validation.properties.Resolution.resolution;
+import static org.assertj.core.api.Assertions.assertThat;
+import static rectangles.DummyDriverFacade.createWebDriver;
+import static rectangles.DummyWebElement.createElement;
+
+public class FanOutTest {
+
+    private final ResponsiveUIValidator validator = new ResponsiveUIValidator(createWebDriver());
+    private final List<String> loaded = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger started = new AtomicInteger();
+    private final List<DriverPool> pools = new ArrayList<>();
+
+    private final WebElement left = createElement(10, 10, 20, 20);
+    private final WebElement right = createElement(30, 10, 40, 20);
+    private final Spec spec = snapshot -> snapshot.findElement(left, "left").isLeftOf(right).validate();
+
+    @After
+    public void tearDown() {
+        pools.forEach(DriverPool::close);
+        validator.getResults().delete();
+    }
+
+    @Test
+    public void runsEveryCombinationIntoOneReport() throws Exception {
+        validator.drawMap();
+
+        FanOutResult result = validator.fanOut()
+                .on(pool("chrome", 2, false))
+                .on(pool("firefox", 1, false))
+                .page("Home", "home", spec)
+                .page("Cart", "cart", spec)
+                .at(resolution(1280, 800))
+                .at(resolution(375, 667))
+                .withReadinessProbe(ReadinessProbe.none())
+                .run();
+
+        assertThat(result.isValid()).isTrue();
+        assertThat(result.getJobs()).hasSize(8);
+        assertThat(result.getJobs()).extracting(FanOutResult.Job::getBrowser).containsOnly("chrome", "firefox");
+        assertThat(result.getPools()).extracting(FanOutResult.Pool::getStarted).allMatch(count -> count <= 2);
+        List<Object> results = new ArrayList<>();
+        validator.getResults().read(results::add);
+        assertThat(results).hasSize(8);
+    }
+
+    @Test
+    public void loadsAPageOnlyWhenTheSessionSwitchesPages() {
+        validator.fanOut()
+                .on(pool("chrome", 1, false))
+                .page("Home", "home", spec)
+                .page("Cart", "cart", spec)
+                .at(resolution(1280, 800))
+                .at(resolution(768, 1024))
+                .at(resolution(375, 667))
+                .withReadinessProbe(ReadinessProbe.none())
+                .run();
+
+        assertThat(loaded).containsExactly("home", "cart");
+    }
+
+    @Test
+    public void replacesBrokenSessions() {
+        DriverPool pool = pool("chrome", 1, true);
+
+        FanOutResult result = validator.fanOut()
+                .on(pool)
+                .page("Home", "home", spec)
+                .at(resolution(1280, 800))
+                .at(resolution(375, 667))
+                .withReadinessProbe(ReadinessProbe.none())
+                .run();
+
+        assertThat(result.getJobs()).extracting(FanOutResult.Job::isValid).containsExactly(false, true);
+        assertThat(result.getJobs().get(0).getError()).contains("session lost");
+        assertThat(pool.getStarted()).isEqualTo(2);
+        assertThat(pool.getReplaced()).isEqualTo(1);
+    }
+
+    @Test
+    public void replacesSessionsFailingTheHealthCheck() {
+        DriverPool pool = pool("chrome", 1, false).withHealthCheck(driver -> false);
+
+        pool.release(pool.lease());
+        pool.release(pool.lease());
+
+        assertThat(pool.getStarted()).isEqualTo(2);
+        assertThat(pool.getReplaced()).isEqualTo(1);
+    }
+
+    private DriverPool pool(String browser, int size, boolean firstSessionBreaks) {
+        DriverPool pool = new DriverPool(browser, () -> createDriver(firstSessionBreaks && started.get() == 0), size);
+        pools.add(pool);
+        return pool;
+    }
+
+    private WebDriver createDriver(boolean broken) {
+        started.incrementAndGet();
+        Dimension[] size = {new Dimension(1024, 768)};
+        WebDriver.Window window = stub(WebDriver.Window.class, (method, args) -> {
+            if (method.equals("setSize")) {
+                size[0] = (Dimension) args[0];
+            }
+            return method.equals("getSize") ? size[0] : null;
+        });
+        WebDriver.Options options = stub(WebDriver.Options.class, (method, args) -> method.equals("window") ? window : null);
+        return (WebDriver) stub(new Class<?>[]{WebDriver.class, JavascriptExecutor.class}, (method, args) -> {
+            switch (method) {
+                case "get":
+                    if (broken) {
+                        throw new WebDriverException("session lost");
+                    }
+                    loaded.add((String) args[0]);
+                    return null;
+                case "getWindowHandle":
+                    return "window";
+                case "manage":
+                    return options;
+                case "executeScript":
+                    String script = (String) args[0];
+                    if (script.contains("style.zoom;")) {
+                        return "100%";
+                    }
+                    if (script.contains("innerWidth")) {
+                        return (long) size[0].getWidth();
+                    }
+                    if (script.contains("innerHeight")) {
+                        return (long) size[0].getHeight();
+                    }
+                    return null;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private interface Answer {
+        Object answer(String method, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Answer answer) {
+        return (T) stub(new Class<?>[]{type}, answer);
+    }
+
+    private static Object stub(Class<?>[] types, Answer answer) {
+        return Proxy.newProxyInstance(FanOutTest.class.getClassLoader(), types,
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return types[0].getSimpleName();
+                        default:
+                            return answer.answer(method.getName(), args);
+                    }
+                });
+    }
+}
@@ -0,0 +1,115 @@
+package net.itarray.automotion.tests.grid;
+
+import net.itarray.automotion.internal.processing.SpecificationProcessor;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URI;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SpecificationProcessorTest {
+
+    @Rule
+    public TemporaryFolder output = new TemporaryFolder();
+
+    private final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+    @Test
+    public void generatesASpecificationAndListsIt() throws Exception {
+        boolean compiled = compile("specs.Menu",
+                "package specs;\n" +
+                "import net.itarray.automotion.validation.*;\n" +
+                "@Chunks(@Chunk(id = \"row\", elements = {@Element({0, 0, 10, 10}), @Element({20, 0, 30, 10})}))\n" +
+                "public interface Menu {\n" +
+                "}\n");
+
+        assertThat(compiled).describedAs(errors().toString()).isTrue();
+        assertThat(new File(output.getRoot(), "specs/Menu_Specification.class")).exists();
+        assertThat(new File(output.getRoot(), "META-INF/services/net.itarray.automotion.validation.CompiledSpecification"))
+                .hasContent("specs.Menu_Specification");
+    }
+
+    @Test
+    public void reportsBrokenSpecificationsAtBuildTime() throws Exception {
+        boolean compiled = compile("specs.Broken",
+                "package specs;\n" +
+                "import net.itarray.automotion.validation.*;\n" +
+                "@Chunks(@Chunk(id = \"row\", elements = @Element({0, 0, 10})))\n" +
+                "public interface Broken {\n" +
+                "    @Valid(@Scenario(chunk = \"row\"))\n" +
+                "    void alignedAsGrid();\n" +
+                "}\n");
+
+        assertThat(compiled).isFalse();
+        assertThat(errors()).anySatisfy(error -> assertThat(error).contains("need 4 coordinates"));
+        assertThat(errors()).anySatisfy(error -> assertThat(error).contains("it is not a method of ChunkUIElementValidator"));
+    }
+
+    @Test
+    public void reportsUnknownChunksAndMismatchedParameters() throws Exception {
+        boolean compiled = compile("specs.Grid",
+                "package specs;\n" +
+                "import net.itarray.automotion.validation.*;\n" +
+                "@Chunks(@Chunk(id = \"row\"))\n" +
+                "public interface Grid extends ChunkUIElementValidator {\n" +
+                "}\n");
+
+        assertThat(compiled).isFalse();
+        // the scenarios of ChunkUIElementValidator use chunks Grid does not declare
+        assertThat(errors()).anySatisfy(error -> assertThat(error).contains("no such chunk three in scenario of alignedAsGrid"));
+    }
+
+    @Test
+    public void warnsAboutSpecificationsItCannotReference() throws Exception {
+        // like the private specification of ValidationPlanTest, which is compiled on first use
+        boolean compiled = compile("specs.Outer",
+                "package specs;\n" +
+                "import net.itarray.automotion.validation.*;\n" +
+                "public class Outer {\n" +
+                "    @Chunks(@Chunk(id = \"row\", elements = @Element({0, 0, 10, 10})))\n" +
+                "    private interface Hidden {\n" +
+                "    }\n" +
+                "}\n");
+
+        assertThat(compiled).describedAs(errors().toString()).isTrue();
+        assertThat(messages(Diagnostic.Kind.WARNING)).containsExactly("Cannot generate the plan of specs.Outer.Hidden, it is private or local. Its plan is compiled on first use.");
+        assertThat(new File(output.getRoot(), "META-INF/services/net.itarray.automotion.validation.CompiledSpecification")).doesNotExist();
+    }
+
+    private boolean compile(String name, String source) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///" + name.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        List<String> options = asList("-classpath", System.getProperty("java.class.path"), "-d", output.getRoot().getPath(),
+                "-processor", SpecificationProcessor.class.getName());
+        return compiler.getTask(null, null, diagnostics, options, null, singletonList(file)).call();
+    }
+
+    private List<String> errors() {
+        return messages(Diagnostic.Kind.ERROR);
+    }
+
+    private List<String> messages(Diagnostic.Kind kind) {
+        return diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == kind)
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,130 @@
+package net.itarray.automotion.tests.grid;
+
+import net.itarray.automotion.validation.Chunk;
+import net.itarray.automotion.validation.ChunkUIElementValidator;
+import net.itarray.automotion.validation.Chunks;
+import net.itarray.automotion.validation.Element;
+import net.itarray.automotion.validation.ResponsiveUIValidator;
+import net.itarray.automotion.validation.SpecificationRegistry;
+import net.itarray.automotion.validation.ValidationPlan;
+import org.junit.After;
+import org.junit.Test;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.WebElement;
+import rectangles.DummyDriverFacade;
+import rectangles.DummyWebElement;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ValidationPlanTest {
+
+    private final ValidationPlan plan = ValidationPlan.compile(ChunkUIElementValidator.class);
+
+    private ResponsiveUIValidator validator;
+
+    @After
+    public void tearDown() {
+        if (validator != null) {
+            validator.getResults().delete();
+        }
+    }
+
+    @Test
+    public void createsElementsSharedByChunksOnce() {
+        int declared = 0;
+        for (Chunk chunk : ChunkUIElementValidator.class.getAnnotation(Chunks.class).value()) {
+            declared += chunk.elements().length;
+        }
+
+        AtomicInteger created = new AtomicInteger();
+        Map<String, List<WebElement>> chunks = plan.createChunks((originX, originY, cornerX, cornerY) -> {
+            created.incrementAndGet();
+            return DummyWebElement.createElement(originX, originY, cornerX, cornerY);
+        });
+
+        assertThat(plan.getElementCount()).isLessThan(declared);
+        assertThat(created.get()).isEqualTo(plan.getElementCount());
+        // both chunks start with an element at (10, 20) - (30, 35)
+        assertThat(chunks.get("two_overlapping").get(0)).isSameAs(chunks.get("two_horizontally_overlapping").get(0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void hasTheChecksOfTheAnnotatedSpecificationTest() {
+        Map<String, List<WebElement>> chunks = plan.createChunks(DummyWebElement::createElement);
+        List<String> planned = plan.getChecks().stream()
+                .map(check -> describe(check.getName(), check.getMethodName(), AnnotatedSpecificationTest.parseArgs(check.getParameters()),
+                        chunks.get(check.getChunk()), check.isValid(), check.isOneOrMore()))
+                .collect(Collectors.toList());
+
+        List<String> annotated = AnnotatedSpecificationTest.data().stream()
+                .map(row -> describe((String) row[2], ((Method) row[0]).getName(), (Object[]) row[4],
+                        (List<WebElement>) row[1], (Boolean) row[3], (Boolean) row[5]))
+                .collect(Collectors.toList());
+
+        assertThat(planned).containsExactlyInAnyOrderElementsOf(annotated);
+    }
+
+    @Test
+    public void groupsTheChecksByChunk() {
+        assertThat(plan.getChecks("empty")).isNotEmpty().allSatisfy(check -> assertThat(check.getChunk()).isEqualTo("empty"));
+        assertThat(plan.getChecks("no such chunk")).isEmpty();
+    }
+
+    @Test
+    public void runsAgainstASnapshot() {
+        DummyDriverFacade driver = new DummyDriverFacade();
+        driver.setPageSize(new Dimension(2000, 1000));
+        validator = new ResponsiveUIValidator(driver);
+        validator.dontDrawMap();
+
+        List<ValidationPlan.Outcome> outcomes = plan.execute(validator.snapshot(), DummyWebElement::createElement);
+
+        assertThat(outcomes).hasSize(plan.getChecks().size());
+        assertThat(outcomes).allSatisfy(outcome -> assertThat(outcome.isAsExpected()).describedAs(outcome.toString()).isTrue());
+    }
+
+    @Test
+    public void rejectsScenariosOfUnknownChunks() {
+        assertThatThrownBy(() -> ValidationPlan.compile(OneChunk.class))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("no such chunk");
+    }
+
+    @Test
+    public void generatesThePlanAtBuildTime() {
+        ValidationPlan generated = SpecificationRegistry.plan(ChunkUIElementValidator.class);
+
+        assertThat(SpecificationRegistry.isGenerated(ChunkUIElementValidator.class)).isTrue();
+        assertThat(generated.getElementCount()).isEqualTo(plan.getElementCount());
+        assertThat(names(generated)).isEqualTo(names(plan));
+    }
+
+    @Test
+    public void compilesSpecificationsWithoutGeneratedPlanOnFirstUse() {
+        assertThat(SpecificationRegistry.isGenerated(OneChunk.class)).isFalse();
+        assertThatThrownBy(() -> SpecificationRegistry.plan(OneChunk.class)).hasMessageContaining("no such chunk");
+    }
+
+    private static String describe(String name, String method, Object[] arguments, List<WebElement> chunk, boolean valid, boolean oneOrMore) {
+        String elements = chunk.stream().map(element -> element.getLocation() + " " + element.getSize()).collect(Collectors.joining(", "));
+        return String.format("%s: %s%s on [%s], valid %s, one or more %s", name, method, Arrays.toString(arguments), elements, valid, oneOrMore);
+    }
+
+    private static List<String> names(ValidationPlan plan) {
+        return plan.getChecks().stream().map(ValidationPlan.Check::getName).collect(Collectors.toList());
+    }
+
+    // the tests are compiled without the processor, see the pom
+    @Chunks(@Chunk(id = "one", elements = @Element({10, 20, 40, 50})))
+    interface OneChunk extends ChunkUIElementValidator {
+    }
+}
@@ -0,0 +1,194 @@
+package net.itarray.automotion.tests.report;
+
+import net.itarray.automotion.internal.BackgroundReportRenderer;
+import net.itarray.automotion.internal.HtmlReportBuilder;
+import net.itarray.automotion.internal.HtmlReportWriter;
+import net.itarray.automotion.internal.ResultRegistry;
+import net.itarray.automotion.validation.ResponsiveUIValidator;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import rectangles.DummyDriverFacade;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.util.Arrays.asList;
+import static net.itarray.automotion.validation.Constants.TARGET_AUTOMOTION_HTML;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BackgroundReportRendererTest {
+
+    private BackgroundReportRenderer renderer;
+
+    @Before
+    public void setUp() {
+        renderer = new BackgroundReportRenderer(new HtmlReportBuilder());
+    }
+
+    @After
+    public void tearDown() {
+        renderer.close();
+    }
+
+    @Test
+    public void assemblesTheSameReportAsTheStreamingWriter() throws Exception {
+        List<JSONObject> results = asList(result("first", false), result("second", true), result("third", false));
+        for (JSONObject result : results) {
+            renderer.render(result);
+        }
+
+        String reportName = "background-" + System.nanoTime();
+        assertThat(renderer.assemble(reportName)).isTrue();
+
+        StringWriter expected = new StringWriter();
+        HtmlReportWriter writer = new HtmlReportWriter(expected);
+        writer.writeHeader();
+        for (JSONObject result : results) {
+            writer.writeScenario(result);
+        }
+        writer.writeFooter();
+        assertThat(withoutDate(new String(Files.readAllBytes(report("failure", reportName).toPath()), StandardCharsets.UTF_8)))
+                .isEqualTo(withoutDate(expected.toString()));
+    }
+
+    @Test
+    public void startsANewReportAfterAssembling() throws Exception {
+        renderer.render(result("first", false));
+        String firstName = "background-" + System.nanoTime();
+        renderer.assemble(firstName);
+
+        renderer.render(result("second", false));
+        String secondName = "background-" + System.nanoTime();
+        renderer.assemble(secondName);
+
+        String second = new String(Files.readAllBytes(report("success", secondName).toPath()), StandardCharsets.UTF_8);
+        assertThat(second).contains("second").doesNotContain("Scenario: \"first\"");
+    }
+
+    @Test
+    public void assemblesNothingWithoutResults() {
+        assertThat(renderer.assemble("empty")).isFalse();
+    }
+
+    @Test
+    public void rendersTheResultsAppendedBeforeItWasInstalled() throws Exception {
+        ResultRegistry results = new ResultRegistry();
+        results.append(result("first", false));
+        results.renderInBackground(renderer);
+        results.append(result("second", false));
+
+        String reportName = "background-" + System.nanoTime();
+        renderer.assemble(reportName);
+        results.detach().delete();
+
+        String report = new String(Files.readAllBytes(report("success", reportName).toPath()), StandardCharsets.UTF_8);
+        assertThat(report).contains("Scenario: \"first\"").contains("Scenario: \"second\"");
+    }
+
+    @Test
+    public void reportsExactlyTheDetachedResultsWhileOthersAreAppended() throws Exception {
+        ResultRegistry results = new ResultRegistry();
+        results.renderInBackground(renderer);
+        AtomicInteger appended = new AtomicInteger();
+        ExecutorService sessions = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 4; i++) {
+                sessions.execute(() -> {
+                    for (int result = appended.incrementAndGet(); result <= 400; result = appended.incrementAndGet()) {
+                        results.append(result("result " + result, false));
+                    }
+                });
+            }
+            for (int i = 0; i < 5; i++) {
+                Thread.sleep(5);
+                String reportName = "background-" + System.nanoTime();
+                ResultRegistry.Detached detached = results.detach(reportName);
+                boolean rendered = BackgroundReportRenderer.await(detached.getRendered(), reportName);
+                List<String> expected = new ArrayList<>();
+                detached.getLog().read(result -> expected.add("Scenario: \"" + result.get("scenario") + "\""));
+                detached.getLog().delete();
+                if (!rendered) {
+                    assertThat(expected).isEmpty();
+                    continue;
+                }
+
+                String report = new String(Files.readAllBytes(report("success", reportName).toPath()), StandardCharsets.UTF_8);
+                List<String> reported = new ArrayList<>();
+                Matcher scenario = Pattern.compile("Scenario: \"result \\d+\"").matcher(report);
+                while (scenario.find()) {
+                    reported.add(scenario.group());
+                }
+                assertThat(reported).containsExactlyInAnyOrderElementsOf(expected);
+            }
+        } finally {
+            sessions.shutdown();
+            sessions.awaitTermination(5, TimeUnit.SECONDS);
+            results.detach().delete();
+        }
+    }
+
+    @Test
+    public void buildsTheReportFromTheResultsIfAssemblingFails() throws Exception {
+        ResponsiveUIValidator validator = new ResponsiveUIValidator(new DummyDriverFacade());
+        validator.getResultRegistry().renderInBackground(new BackgroundReportRenderer(new HtmlReportBuilder()) {
+            @Override
+            public Future<Boolean> cutOff(String reportName) {
+                CompletableFuture<Boolean> report = new CompletableFuture<>();
+                report.completeExceptionally(new IOException("Cannot render report fragment"));
+                return report;
+            }
+        });
+        validator.getResultRegistry().append(result("first", true));
+
+        String reportName = "background-" + System.nanoTime();
+        validator.generateReport(reportName);
+
+        String report = new String(Files.readAllBytes(report("failure", reportName).toPath()), StandardCharsets.UTF_8);
+        assertThat(report).contains("Scenario: \"first\"");
+        assertThat(validator.getResults().isEmpty()).isTrue();
+    }
+
+    private String withoutDate(String report) {
+        return report.replaceFirst("Results from: [^<]*", "");
+    }
+
+    private File report(String status, String reportName) {
+        List<File> matches = new ArrayList<>();
+        File[] files = new File(TARGET_AUTOMOTION_HTML + status).listFiles();
+        for (File file : files) {
+            if (file.getName().startsWith(reportName + "-")) {
+                matches.add(file);
+            }
+        }
+        assertThat(matches).hasSize(1);
+        return matches.get(0);
+    }
+
+    private JSONObject result(String scenario, boolean failed) {
+        JSONObject result = new JSONObject();
+        result.put("error", failed);
+        result.put("details", new JSONArray());
+        result.put("scenario", scenario);
+        result.put("elementName", "element " + scenario);
+        result.put("timeExecution", "5 milliseconds");
+        result.put("screenshot", "");
+        result.put("drawings", "");
+        return result;
+    }
+}
@@ -0,0 +1,64 @@
+package net.itarray.automotion.tests.report;
+
+import net.itarray.automotion.internal.HtmlReportWriter;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Scanner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the report of fixed results with the checked-in report/expected.html. After an intended change of
+ * the markup, replace the expected report by target/report-actual.html.
+ */
+public class HtmlReportWriterTest {
+
+    @Test
+    public void writesTheExpectedMarkup() throws Exception {
+        StringWriter html = new StringWriter();
+        HtmlReportWriter writer = new HtmlReportWriter(html);
+
+        writer.writeHeader();
+        for (Object result : results()) {
+            writer.writeScenario((JSONObject) result);
+        }
+        writer.writeFooter();
+
+        String actual = maskTimestamp(html.toString());
+        String expected = resource("report/expected.html");
+        if (!actual.equals(expected)) {
+            Files.write(new File("target/report-actual.html").toPath(), actual.getBytes(StandardCharsets.UTF_8));
+        }
+        assertThat(actual).isEqualTo(expected);
+        assertThat(writer.getSuccessCounter()).isEqualTo(1);
+        assertThat(writer.getFailuresCounter()).isEqualTo(2);
+    }
+
+    private static String maskTimestamp(String html) {
+        return html.replaceAll("Results from: \\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}", "Results from: yyyy-MM-dd HH:mm:ss");
+    }
+
+    private static JSONArray results() throws Exception {
+        try (Reader reader = new InputStreamReader(HtmlReportWriterTest.class.getClassLoader().getResourceAsStream("report/results.json"), StandardCharsets.UTF_8)) {
+            return (JSONArray) new JSONParser().parse(reader);
+        }
+    }
+
+    private static String resource(String name) {
+        InputStream stream = HtmlReportWriterTest.class.getClassLoader().getResourceAsStream(name);
+        assertThat(stream).describedAs(name).isNotNull();
+        try (Scanner scanner = new Scanner(stream, StandardCharsets.UTF_8.name()).useDelimiter("\\A")) {
+            return scanner.hasNext() ? scanner.next() : "";
+        }
+    }
+}
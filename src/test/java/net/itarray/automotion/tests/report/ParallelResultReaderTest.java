@@ -0,0 +1,68 @@
+package net.itarray.automotion.tests.report;
+
+import net.itarray.automotion.internal.ParallelResultReader;
+import org.json.simple.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ParallelResultReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void deliversResultsInTheOrderOfTheFiles() throws Exception {
+        List<File> files = createResults(100);
+        List<Object> scenarios = new ArrayList<>();
+
+        try (ParallelResultReader reader = new ParallelResultReader(4)) {
+            reader.read(files, result -> scenarios.add(result.get("scenario")));
+        }
+
+        List<Object> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            expected.add("scenario " + i);
+        }
+        assertThat(scenarios).isEqualTo(expected);
+    }
+
+    @Test
+    public void deletesConsumedFiles() throws Exception {
+        List<File> files = createResults(10);
+
+        try (ParallelResultReader reader = new ParallelResultReader(2)) {
+            reader.read(files, result -> {});
+        }
+
+        for (File file : files) {
+            assertThat(file).doesNotExist();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveParallelism() {
+        new ParallelResultReader(0);
+    }
+
+    private List<File> createResults(int count) throws IOException {
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            JSONObject result = new JSONObject();
+            result.put("scenario", "scenario " + i);
+            File file = folder.newFile("result" + i + ".json");
+            Files.write(file.toPath(), result.toJSONString().getBytes(StandardCharsets.UTF_8));
+            files.add(file);
+        }
+        return files;
+    }
+}
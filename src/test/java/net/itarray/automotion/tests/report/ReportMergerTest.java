@@ -0,0 +1,95 @@
+package net.itarray.automotion.tests.report;
+
+import net.itarray.automotion.internal.ReportMerger;
+import net.itarray.automotion.internal.ResultPartition;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReportMergerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void mergesTheCommittedResultsOfAllPartitions() {
+        ResultPartition first = new ResultPartition(folder.getRoot(), "fork-1");
+        ResultPartition second = new ResultPartition(folder.getRoot(), "fork-2");
+        first.getResults().append(result("a"));
+        first.getResults().append(result("b"));
+        second.getResults().append(result("c"));
+        first.commit();
+        second.commit();
+
+        assertThat(new ReportMerger(folder.getRoot()).merge("merged")).isEqualTo(3);
+        assertThat(first.getDirectory()).doesNotExist();
+        assertThat(second.getDirectory()).doesNotExist();
+    }
+
+    @Test
+    public void ignoresResultsThatWereNotCommitted() {
+        ResultPartition partition = new ResultPartition(folder.getRoot(), "fork");
+        partition.getResults().append(result("a"));
+        partition.commit();
+        partition.getResults().append(result("b"));
+        partition.getResults().sync();
+        ResultPartition uncommitted = new ResultPartition(folder.getRoot(), "other");
+        uncommitted.getResults().append(result("c"));
+        uncommitted.getResults().sync();
+
+        assertThat(new ReportMerger(folder.getRoot()).merge("merged")).isEqualTo(1);
+        assertThat(uncommitted.getDirectory()).exists();
+    }
+
+    @Test
+    public void writesNothingWithoutPartitions() {
+        assertThat(new ReportMerger(new File(folder.getRoot(), "missing")).merge("merged")).isEqualTo(0);
+    }
+
+    @Test
+    public void concurrentCommitsDoNotClobberEachOther() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> commits = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                ResultPartition partition = new ResultPartition(folder.getRoot(), "fork-" + i);
+                commits.add(executor.submit(() -> {
+                    for (int j = 0; j < 10; j++) {
+                        partition.getResults().append(result("scenario " + j));
+                        partition.commit();
+                    }
+                }));
+            }
+            for (Future<?> commit : commits) {
+                commit.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(new ReportMerger(folder.getRoot()).merge("merged")).isEqualTo(80);
+    }
+
+    private JSONObject result(String scenario) {
+        JSONObject result = new JSONObject();
+        result.put("error", false);
+        result.put("details", new JSONArray());
+        result.put("scenario", scenario);
+        result.put("elementName", "element " + scenario);
+        result.put("timeExecution", "5 milliseconds");
+        result.put("screenshot", "");
+        result.put("drawings", "");
+        return result;
+    }
+}
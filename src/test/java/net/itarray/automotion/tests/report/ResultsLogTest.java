@@ -0,0 +1,130 @@
+package net.itarray.automotion.tests.report;
+
+import net.itarray.automotion.internal.ResultsLog;
+import org.json.simple.JSONObject;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResultsLogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ResultsLog log;
+
+    @Before
+    public void setUp() {
+        log = new ResultsLog(folder.getRoot());
+    }
+
+    @Test
+    public void isEmptyInitially() {
+        assertThat(log.isEmpty()).isTrue();
+        assertThat(log.getFile()).isNull();
+    }
+
+    @Test
+    public void writesAllResultsIntoOneFile() throws Exception {
+        log.append(result("first"));
+        log.append(result("second"));
+        log.sync();
+
+        assertThat(folder.getRoot().listFiles()).hasSize(1);
+        assertThat(Files.readAllLines(log.getFile().toPath(), StandardCharsets.UTF_8)).hasSize(2);
+        assertThat(log.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void readsResultsInTheOrderTheyWereAppended() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            log.append(result("scenario " + i));
+        }
+
+        List<Object> scenarios = new ArrayList<>();
+        log.read(result -> scenarios.add(result.get("scenario")));
+
+        assertThat(scenarios).hasSize(50);
+        assertThat(scenarios.get(0)).isEqualTo("scenario 0");
+        assertThat(scenarios.get(49)).isEqualTo("scenario 49");
+    }
+
+    @Test
+    public void startsANewFileAfterDelete() throws Exception {
+        log.append(result("first"));
+        File first = log.getFile();
+
+        log.delete();
+        assertThat(first).doesNotExist();
+        assertThat(log.isEmpty()).isTrue();
+
+        log.append(result("second"));
+        List<Object> scenarios = new ArrayList<>();
+        log.read(result -> scenarios.add(result.get("scenario")));
+        assertThat(scenarios).isEqualTo(asList("second"));
+    }
+
+    @Test
+    public void appendsLegacyResultFiles() throws Exception {
+        File legacy = folder.newFile("legacy.json");
+        Files.write(legacy.toPath(), result("legacy").toJSONString().getBytes(StandardCharsets.UTF_8));
+
+        log.appendFile(legacy);
+
+        assertThat(legacy).doesNotExist();
+        List<Object> scenarios = new ArrayList<>();
+        log.read(result -> scenarios.add(result.get("scenario")));
+        assertThat(scenarios).isEqualTo(asList("legacy"));
+    }
+
+    @Test
+    public void detachingKeepsResultsAppendedConcurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> appenders = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            appenders.add(executor.submit(() -> {
+                for (int j = 0; j < 500; j++) {
+                    log.append(result("scenario " + j));
+                }
+            }));
+        }
+        List<ResultsLog> detached = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            detached.add(log.detach());
+        }
+        for (Future<?> appender : appenders) {
+            appender.get();
+        }
+        executor.shutdown();
+        detached.add(log.detach());
+
+        int total = 0;
+        for (ResultsLog results : detached) {
+            int[] count = new int[1];
+            results.read(result -> count[0]++);
+            assertThat(count[0]).isEqualTo(results.size());
+            total += count[0];
+        }
+        assertThat(total).isEqualTo(4000);
+        assertThat(log.isEmpty()).isTrue();
+    }
+
+    private JSONObject result(String scenario) {
+        JSONObject result = new JSONObject();
+        result.put("scenario", scenario);
+        return result;
+    }
+}
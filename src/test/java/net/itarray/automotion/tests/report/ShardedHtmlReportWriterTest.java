@@ -0,0 +1,78 @@
+package net.itarray.automotion.tests.report;
+
+import net.itarray.automotion.internal.ShardedHtmlReportWriter;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ShardedHtmlReportWriterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void writesDetailsIntoShardsAndSummaryRowsIntoTheIndex() throws Exception {
+        File shards = new File(folder.getRoot(), "shards");
+        StringWriter index = new StringWriter();
+        ShardedHtmlReportWriter writer = new ShardedHtmlReportWriter(index, shards, "../shards", 2);
+
+        writer.writeHeader();
+        writer.writeScenario(result("first", false));
+        writer.writeScenario(result("second", true));
+        writer.writeScenario(result("third", false));
+        writer.writeFooter();
+
+        assertThat(shards.list()).containsExactlyInAnyOrder("shard-1.js", "shard-2.js");
+        String firstShard = new String(Files.readAllBytes(new File(shards, "shard-1.js").toPath()), StandardCharsets.UTF_8);
+        assertThat(firstShard).startsWith("automotionShard(1, [").contains("element first").contains("element second").doesNotContain("element third");
+
+        String html = index.toString();
+        assertThat(html).contains("Scenario: \"third\"");
+        assertThat(html).doesNotContain("element second");
+        assertThat(html).contains("var shardPath = '../shards/';");
+        assertThat(writer.getFailuresCounter()).isEqualTo(1);
+        assertThat(writer.getSuccessCounter()).isEqualTo(2);
+    }
+
+    @Test
+    public void keepsTheBudgetWarningsInTheShards() throws Exception {
+        File shards = new File(folder.getRoot(), "shards");
+        StringWriter index = new StringWriter();
+        ShardedHtmlReportWriter writer = new ShardedHtmlReportWriter(index, shards, "shards", 10);
+        JSONObject overrun = result("overrun", false);
+        JSONArray warnings = new JSONArray();
+        warnings.add("Budget exceeded: 12 round trips, 10 allowed");
+        overrun.put("warnings", warnings);
+
+        writer.writeHeader();
+        writer.writeScenario(overrun);
+        writer.writeScenario(result("within budget", false));
+        writer.writeFooter();
+
+        String shard = new String(Files.readAllBytes(new File(shards, "shard-1.js").toPath()), StandardCharsets.UTF_8);
+        assertThat(shard).contains("\"warnings\":[\"Budget exceeded: 12 round trips, 10 allowed\"]");
+        assertThat(shard.split("\"warnings\"", -1)).hasSize(2);
+        assertThat(index.toString()).contains("'Budget warnings:'");
+    }
+
+    private JSONObject result(String scenario, boolean failed) {
+        JSONObject result = new JSONObject();
+        result.put("error", failed);
+        result.put("details", new JSONArray());
+        result.put("scenario", scenario);
+        result.put("elementName", "element " + scenario);
+        result.put("timeExecution", "5 milliseconds");
+        result.put("screenshot", "");
+        result.put("drawings", "");
+        return result;
+    }
+}
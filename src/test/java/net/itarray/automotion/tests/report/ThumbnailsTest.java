@@ -0,0 +1,75 @@
+package net.itarray.automotion.tests.report;
+
+import net.itarray.automotion.internal.Thumbnails;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ThumbnailsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void averagesTheCoveredPixels() {
+        BufferedImage image = new BufferedImage(4, 2, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < 2; y++) {
+            for (int x = 0; x < 4; x++) {
+                image.setRGB(x, y, (x + y) % 2 == 0 ? 0xffffff : 0x000000);
+            }
+        }
+
+        BufferedImage thumbnail = Thumbnails.scale(image, 2);
+
+        assertThat(thumbnail.getWidth()).isEqualTo(2);
+        assertThat(thumbnail.getHeight()).isEqualTo(1);
+        assertThat(thumbnail.getRGB(0, 0) & 0xffffff).isEqualTo(0x7f7f7f);
+        assertThat(thumbnail.getRGB(1, 0) & 0xffffff).isEqualTo(0x7f7f7f);
+    }
+
+    @Test
+    public void keepsImagesThatAreAlreadySmallEnough() {
+        BufferedImage image = new BufferedImage(100, 50, BufferedImage.TYPE_INT_RGB);
+
+        assertThat(Thumbnails.scale(image, 100)).isSameAs(image);
+    }
+
+    @Test
+    public void compositesTheDrawingsOntoTheScreenshot() {
+        BufferedImage screenshot = new BufferedImage(2, 1, BufferedImage.TYPE_INT_RGB);
+        BufferedImage drawings = new BufferedImage(2, 1, BufferedImage.TYPE_INT_ARGB);
+        drawings.setRGB(1, 0, 0xffff0000);
+
+        BufferedImage composite = Thumbnails.composite(screenshot, drawings);
+
+        assertThat(composite.getRGB(0, 0) & 0xffffff).isEqualTo(0x000000);
+        assertThat(composite.getRGB(1, 0) & 0xffffff).isEqualTo(0xff0000);
+    }
+
+    @Test
+    public void writesAScaledPng() throws Exception {
+        File screenshot = folder.newFile("screenshot.png");
+        ImageIO.write(new BufferedImage(1000, 500, BufferedImage.TYPE_INT_RGB), "png", screenshot);
+        File thumbnail = new File(folder.getRoot(), "thumbnail.png");
+
+        assertThat(Thumbnails.write(screenshot, new BufferedImage(1000, 500, BufferedImage.TYPE_INT_ARGB), thumbnail, 200)).isTrue();
+
+        BufferedImage written = ImageIO.read(thumbnail);
+        assertThat(written.getWidth()).isEqualTo(200);
+        assertThat(written.getHeight()).isEqualTo(100);
+    }
+
+    @Test
+    public void skipsMissingScreenshots() throws Exception {
+        File thumbnail = new File(folder.getRoot(), "thumbnail.png");
+
+        assertThat(Thumbnails.write(new File(folder.getRoot(), "missing.png"), null, thumbnail, 200)).isFalse();
+        assertThat(thumbnail).doesNotExist();
+    }
+}
@@ -0,0 +1,158 @@
+package net.itarray.automotion.tests.timing;
+
+import net.itarray.automotion.internal.DriverFacade;
+import net.itarray.automotion.internal.DriverInstrumentation;
+import net.itarray.automotion.internal.PhaseRecorder;
+import net.itarray.automotion.validation.CommandStats;
+import net.itarray.automotion.validation.Phase;
+import net.itarray.automotion.validation.PhaseTimings;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openqa.selenium.*;
+
+import java.io.File;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DriverInstrumentationTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<Object> scriptArguments = new ArrayList<>();
+    private final WebElement element = stub(WebElement.class, "getRect", new Rectangle(1, 2, 3, 4));
+    private final WebDriver.Window window = stub(WebDriver.Window.class, "getSize", new Dimension(800, 600));
+    private final DriverInstrumentation instrumentation = new DriverInstrumentation();
+
+    @Test
+    public void countsEveryCommandByType() {
+        WebDriver driver = instrumentation.instrument(createDriver());
+
+        ((JavascriptExecutor) driver).executeScript("return 1");
+        ((JavascriptExecutor) driver).executeScript("return 2");
+        driver.findElement(By.id("id")).getRect();
+        driver.manage().window().getSize();
+
+        CommandStats stats = instrumentation.getStats();
+        assertThat(stats.getCount("driver.executeScript")).isEqualTo(2);
+        assertThat(stats.getCount("driver.findElement")).isEqualTo(1);
+        assertThat(stats.getCount("element.getRect")).isEqualTo(1);
+        assertThat(stats.getCount("window.getSize")).isEqualTo(1);
+        assertThat(stats.getCommands()).doesNotContain("driver.manage", "options.window");
+        assertThat(stats.getTotalCount()).isEqualTo(5);
+    }
+
+    @Test
+    public void passesTheOriginalElementsToScripts() {
+        WebDriver driver = instrumentation.instrument(createDriver());
+        List<WebElement> elements = driver.findElements(By.id("id"));
+
+        ((JavascriptExecutor) driver).executeScript("return arguments[0]", elements.get(0), elements);
+
+        assertThat(elements.get(0)).isNotSameAs(element).isEqualTo(element);
+        assertThat(scriptArguments).containsExactly(element, Collections.singletonList(element));
+    }
+
+    @Test
+    public void attributesCommandsToTheActiveValidation() {
+        WebDriver driver = instrumentation.instrument(createDriver());
+        PhaseRecorder recorder = new PhaseRecorder(new PhaseTimings(), new CommandStats(), instrumentation, "scenario");
+
+        recorder.record(Phase.GEOMETRY, () -> driver.findElement(By.id("id")).getRect());
+        driver.findElement(By.id("id"));
+
+        assertThat(recorder.getCommands().getCount("driver.findElement")).isEqualTo(1);
+        assertThat(recorder.getCommands().getCount("element.getRect")).isEqualTo(1);
+        assertThat(instrumentation.getStats().getCount("driver.findElement")).isEqualTo(2);
+    }
+
+    @Test
+    public void instrumentsElementsPassedToTheActiveValidation() {
+        PhaseRecorder recorder = new PhaseRecorder(new PhaseTimings(), new CommandStats(), instrumentation, "scenario");
+
+        recorder.record(Phase.GEOMETRY, () -> DriverInstrumentation.instrumentForActiveValidation(element).getRect());
+
+        assertThat(recorder.getCommands().getCount("element.getRect")).isEqualTo(1);
+        assertThat(DriverInstrumentation.instrumentForActiveValidation(element)).isSameAs(element);
+    }
+
+    @Test
+    public void facadeKeepsTheKindOfTheDriver() {
+        DriverFacade facade = new DriverFacade(createDriver()).instrumented(instrumentation);
+
+        assertThat(facade.isAppiumContext()).isFalse();
+        assertThat(facade.getResolution()).isEqualTo(new Dimension(800, 600));
+        assertThat(instrumentation.getStats().getCount("window.getSize")).isEqualTo(1);
+    }
+
+    @Test
+    public void writesEveryCommandIntoTheTrace() throws Exception {
+        File traceFile = new File(folder.getRoot(), "trace/commands.json");
+        DriverInstrumentation tracing = new DriverInstrumentation(traceFile);
+        WebDriver driver = tracing.instrument(createDriver());
+        PhaseRecorder recorder = new PhaseRecorder(new PhaseTimings(), new CommandStats(), tracing, "scenario");
+
+        ((JavascriptExecutor) driver).executeScript("return 1");
+        recorder.record(Phase.EVALUATION, () -> driver.findElement(By.id("id")));
+        tracing.close();
+
+        List<String> lines = Files.readAllLines(traceFile.toPath(), StandardCharsets.UTF_8);
+        assertThat(lines).hasSize(2);
+        JSONObject first = (JSONObject) new JSONParser().parse(lines.get(0));
+        JSONObject second = (JSONObject) new JSONParser().parse(lines.get(1));
+        assertThat(first.get("command")).isEqualTo("driver.executeScript");
+        assertThat(first.get("validation")).isNull();
+        assertThat(second.get("command")).isEqualTo("driver.findElement");
+        assertThat(second.get("validation")).isEqualTo("scenario");
+    }
+
+    private WebDriver createDriver() {
+        WebDriver.Options options = stub(WebDriver.Options.class, "window", window);
+        return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findElement":
+                            return element;
+                        case "findElements":
+                            return Collections.singletonList(element);
+                        case "manage":
+                            return options;
+                        case "executeScript":
+                            Collections.addAll(scriptArguments, (Object[]) args[1]);
+                            return null;
+                        case "toString":
+                            return "stand-in driver";
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<?> type, String methodName, Object result) {
+        return (T) Proxy.newProxyInstance(DriverInstrumentationTest.class.getClassLoader(),
+                new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return type.getSimpleName();
+                        default:
+                            return method.getName().equals(methodName) ? result : null;
+                    }
+                });
+    }
+}
@@ -0,0 +1,98 @@
+package net.itarray.automotion.tests.timing;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import net.itarray.automotion.internal.jfr.FlightRecorderEvents;
+import net.itarray.automotion.validation.ResponsiveUIValidator;
+import net.itarray.automotion.validation.UISnapshot;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import rectangles.DummyDriverFacade;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static rectangles.DummyWebElement.createElement;
+
+public class FlightRecorderEventsTest {
+
+    private static final List<String> EVENTS = asList(
+            "net.itarray.automotion.Snapshot",
+            "net.itarray.automotion.Validator",
+            "net.itarray.automotion.Assertion",
+            "net.itarray.automotion.Screenshot");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ResponsiveUIValidator validator = new ResponsiveUIValidator(DummyDriverFacade.createWebDriver());
+
+    @After
+    public void tearDown() {
+        validator.getResults().delete();
+    }
+
+    @Test
+    public void recordsTheLifecycleOfAValidation() throws Exception {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            for (String event : EVENTS) {
+                recording.enable(event).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            validate();
+            recording.stop();
+            File dump = folder.newFile("recording.jfr");
+            recording.dump(dump.toPath());
+            events = RecordingFile.readAllEvents(dump.toPath());
+        }
+        events.sort(Comparator.comparing(RecordedEvent::getStartTime));
+
+        assertThat(names(events)).containsExactly(
+                "net.itarray.automotion.Snapshot",
+                "net.itarray.automotion.Validator",
+                "net.itarray.automotion.Assertion",
+                "net.itarray.automotion.Assertion",
+                "net.itarray.automotion.Screenshot");
+        RecordedEvent validator = events.get(1);
+        assertThat(validator.getString("snapshot")).isEqualTo("lifecycle");
+        assertThat(validator.getString("element")).isEqualTo("element");
+        RecordedEvent passed = events.get(2);
+        assertThat(passed.getString("assertion")).isEqualTo("isLeftOf");
+        assertThat(passed.getInt("elements")).isEqualTo(2);
+        assertThat(passed.getBoolean("failed")).isFalse();
+        RecordedEvent failed = events.get(3);
+        assertThat(failed.getString("assertion")).isEqualTo("isRightOf");
+        assertThat(failed.getBoolean("failed")).isTrue();
+    }
+
+    @Test
+    public void spansAreNoOpsWithoutARecording() {
+        assertThat(FlightRecorderEvents.beginSnapshot("snapshot")).isSameAs(FlightRecorderEvents.Span.NONE);
+        assertThat(FlightRecorderEvents.beginAssertion("snapshot", "element", "isLeftOf")).isSameAs(FlightRecorderEvents.AssertionSpan.NONE);
+        assertThat(FlightRecorderEvents.beginReport("report")).isSameAs(FlightRecorderEvents.ReportSpan.NONE);
+    }
+
+    private void validate() {
+        validator.dontDrawMap();
+        UISnapshot snapshot = validator.snapshot("lifecycle");
+        snapshot.findElement(createElement(10, 10, 20, 20), "element")
+                .isLeftOf(createElement(30, 10, 40, 20))
+                .isRightOf(createElement(30, 10, 40, 20))
+                .validate();
+    }
+
+    private static List<String> names(List<RecordedEvent> events) {
+        return events.stream()
+                .map(event -> event.getEventType().getName())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,74 @@
+package net.itarray.automotion.tests.timing;
+
+import net.itarray.automotion.internal.PhaseRecorder;
+import net.itarray.automotion.validation.Phase;
+import net.itarray.automotion.validation.PhaseTimings;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PhaseRecorderTest {
+
+    private final PhaseRecorder recorder = new PhaseRecorder(new PhaseTimings());
+
+    @Test
+    public void countsEveryRecordedPhase() {
+        recorder.record(Phase.GEOMETRY, () -> {});
+        recorder.record(Phase.GEOMETRY, () -> {});
+        recorder.record(Phase.CSS, () -> {});
+
+        assertThat(recorder.getTimings().getCount(Phase.GEOMETRY)).isEqualTo(2);
+        assertThat(recorder.getTimings().getCount(Phase.CSS)).isEqualTo(1);
+        assertThat(recorder.getTimings().getCount(Phase.EVALUATION)).isEqualTo(0);
+    }
+
+    @Test
+    public void nestedPhasesAreNotCountedForTheEnclosingPhase() {
+        recorder.record(Phase.EVALUATION, () -> PhaseRecorder.time(Phase.SCREENSHOT, () -> sleep(50)));
+
+        PhaseTimings timings = recorder.getTimings();
+        assertThat(timings.getMillis(Phase.SCREENSHOT)).isGreaterThanOrEqualTo(50);
+        assertThat(timings.getMillis(Phase.EVALUATION)).isLessThan(25);
+        assertThat(timings.getCount(Phase.EVALUATION)).isEqualTo(1);
+    }
+
+    @Test
+    public void timingWithoutActiveRecorderOnlyRunsTheAction() {
+        assertThat(PhaseRecorder.time(Phase.GEOMETRY, () -> "result")).isEqualTo("result");
+
+        assertThat(recorder.getTimings().getTotalNanos()).isEqualTo(0);
+    }
+
+    @Test
+    public void activatesTheRecorderOnlyWhileRunning() {
+        recorder.activated(() -> PhaseRecorder.time(Phase.CSS, () -> "inside"));
+        PhaseRecorder.time(Phase.CSS, () -> "outside");
+
+        assertThat(recorder.getTimings().getCount(Phase.CSS)).isEqualTo(1);
+    }
+
+    @Test
+    public void addsUpTimingsOfSeveralValidations() {
+        PhaseTimings first = new PhaseTimings();
+        first.add(Phase.GEOMETRY, 10);
+        PhaseTimings second = new PhaseTimings();
+        second.add(Phase.GEOMETRY, 5);
+        second.add(Phase.JSON_WRITE, 1);
+
+        PhaseTimings total = new PhaseTimings();
+        total.addAll(first);
+        total.addAll(second);
+
+        assertThat(total.getNanos(Phase.GEOMETRY)).isEqualTo(15);
+        assertThat(total.getCount(Phase.GEOMETRY)).isEqualTo(2);
+        assertThat(total.getTotalNanos()).isEqualTo(16);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package rectangles;
+
+import net.itarray.automotion.validation.ReadinessProbe;
+import net.itarray.automotion.validation.ResponsiveUIValidator;
+import net.itarray.automotion.validation.UISnapshot;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static net.itarray.automotion.validation.properties.Resolution.resolution;
+import static net.itarray.automotion.validation.properties.Zoom.zoom;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static rectangles.DummyWebElement.createElement;
+
+public class AnimationFreezeTest {
+
+    private final List<String> scripts = new ArrayList<>();
+
+    private final WebElement left = createElement(10, 10, 20, 20);
+    private final WebElement right = createElement(30, 10, 40, 20);
+
+    private final DummyDriverFacade driver = new DummyDriverFacade() {
+        @Override
+        public Object executeScript(String script, Object... args) {
+            if (script.contains("automotion-freeze")) {
+                scripts.add(script.contains("createElement") ? "freeze" : "unfreeze");
+                return null;
+            }
+            throw new WebDriverException("not supported");
+        }
+
+        @Override
+        public void setZoom(int percentage) {
+        }
+    };
+
+    private final ResponsiveUIValidator validator = new ResponsiveUIValidator(driver);
+
+    @Before
+    public void setUp() {
+        validator.dontDrawMap();
+    }
+
+    @After
+    public void tearDown() {
+        validator.getResults().delete();
+    }
+
+    @Test
+    public void freezesAnimationsWhileTheSnapshotIsOpen() {
+        validator.withFrozenAnimations();
+
+        try (UISnapshot snapshot = validator.snapshot("frozen")) {
+            assertThat(scripts).containsExactly("freeze");
+            snapshot.findElement(left, "left").isLeftOf(right).validate();
+        }
+
+        assertThat(scripts).containsExactly("freeze", "unfreeze");
+    }
+
+    @Test
+    public void leavesAnimationsAloneByDefault() {
+        try (UISnapshot snapshot = validator.snapshot("animated")) {
+            snapshot.findElement(left, "left").isLeftOf(right).validate();
+        }
+
+        assertThat(scripts).isEmpty();
+    }
+
+    @Test
+    public void keepsAnimationsFrozenForAWholeSweep() {
+        validator.withFrozenAnimations();
+
+        validator.sweep()
+                .at(resolution(1280, 800), zoom(100))
+                .at(resolution(375, 667), zoom(100))
+                .withReadinessProbe(ReadinessProbe.none())
+                .run("sweep", snapshot -> snapshot.findElement(left, "left").isLeftOf(right).validate());
+
+        assertThat(scripts).containsExactly("freeze", "freeze", "unfreeze");
+    }
+
+    @Test
+    public void unfreezesTheAnimationsIfThePageDoesNotGetReady() {
+        validator.withFrozenAnimations();
+        validator.withReadinessProbe(driver -> {
+            throw new TimeoutException("not ready");
+        });
+
+        assertThatThrownBy(() -> validator.snapshot("never ready")).hasMessageContaining("not ready");
+        assertThat(scripts).containsExactly("freeze", "unfreeze");
+    }
+
+    @Test
+    public void unfreezesTheAnimationsIfARevalidationFails() {
+        validator.withFrozenAnimations();
+        UISnapshot snapshot = validator.snapshot("ready");
+        snapshot.close();
+        validator.withReadinessProbe(driver -> {
+            throw new TimeoutException("not ready");
+        });
+
+        assertThatThrownBy(() -> snapshot.revalidate("never ready")).hasMessageContaining("not ready");
+        assertThat(scripts).containsExactly("freeze", "unfreeze", "freeze", "unfreeze");
+    }
+
+    @Test
+    public void handsTheFreezeOverToTheRevalidatedSnapshot() {
+        validator.withFrozenAnimations();
+        validator.withReadinessProbe(ReadinessProbe.none());
+
+        try (UISnapshot closed = validator.snapshot("closed")) {
+            try (UISnapshot open = closed.revalidate("open")) {
+                closed.close();
+                assertThat(scripts).containsExactly("freeze", "freeze");
+                open.findElement(left, "left").isLeftOf(right).validate();
+            }
+            assertThat(scripts).containsExactly("freeze", "freeze", "unfreeze");
+        }
+
+        assertThat(scripts).containsExactly("freeze", "freeze", "unfreeze");
+    }
+}
@@ -0,0 +1,91 @@
+package rectangles;
+
+import net.itarray.automotion.validation.BisectionResult;
+import net.itarray.automotion.validation.ReadinessProbe;
+import net.itarray.automotion.validation.ResponsiveUIValidator;
+import net.itarray.automotion.validation.Spec;
+import org.junit.After;
+import org.junit.Test;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static rectangles.DummyWebElement.createElement;
+
+public class BisectionTest {
+
+    private static final int MENU_WRAPS_BELOW = 768;
+    private static final int SIDEBAR_WRAPS_BELOW = 1000;
+
+    // the geometry at the narrowest width, which is fetched from the elements before it is captured by script
+    private final WebElement logo = createElement(10, 10, 20, 20);
+    private final WebElement menu = createElement(10, 30, 20, 40);
+    private final WebElement sidebar = createElement(10, 50, 20, 60);
+
+    private final DummyDriverFacade driver = new DummyDriverFacade() {
+        @Override
+        public void setZoom(int percentage) {
+        }
+
+        @Override
+        public Object executeScript(String script, Object... args) {
+            int width = getResolution().getWidth();
+            List<?> elements = (List<?>) args[0];
+            return elements.stream()
+                    .map(element -> element == menu && width < MENU_WRAPS_BELOW ? asList(10, 30, 10, 10)
+                            : element == sidebar && width < SIDEBAR_WRAPS_BELOW ? asList(10, 50, 10, 10)
+                            : element == logo ? asList(10, 10, 10, 10)
+                            : element == menu ? asList(30, 10, 10, 10) : asList(50, 10, 10, 10))
+                    .collect(Collectors.toList());
+        }
+    };
+
+    private final ResponsiveUIValidator validator = new ResponsiveUIValidator(driver);
+
+    private final Spec spec = snapshot -> {
+        snapshot.findElement(logo, "logo").isLeftOf(menu).validate();
+        snapshot.findElement(logo, "logo").isLeftOf(sidebar).validate();
+    };
+
+    @After
+    public void tearDown() {
+        validator.getResults().delete();
+    }
+
+    @Test
+    public void findsTheExactWidthWhereEachValidationFlips() {
+        BisectionResult result = validator.bisection()
+                .between(320, 1280)
+                .withReadinessProbe(ReadinessProbe.none())
+                .run("layout", spec);
+
+        assertThat(result.getFlips()).extracting(BisectionResult.Flip::getValidation).containsExactly("logo", "logo #2");
+        assertThat(result.getFlips()).extracting(BisectionResult.Flip::getWidth).containsExactly(MENU_WRAPS_BELOW, SIDEBAR_WRAPS_BELOW);
+        assertThat(result.getFlips().get(0).isValidBelow()).isFalse();
+        assertThat(result.getFlips().get(0).isValidFrom()).isTrue();
+        // both ends and about log2(960) = 10 captures per flip
+        assertThat(result.getCaptures()).isLessThanOrEqualTo(2 + 2 * 10);
+    }
+
+    @Test
+    public void validationsWithTheSameOutcomeAtBothEndsNeedNoFurtherCaptures() {
+        BisectionResult result = validator.bisection()
+                .between(320, 700)
+                .withReadinessProbe(ReadinessProbe.none())
+                .run("layout", spec);
+
+        assertThat(result.getFlips()).isEmpty();
+        assertThat(result.getCaptures()).isEqualTo(2);
+    }
+
+    @Test
+    public void theRangeNeedsToBeOrdered() {
+        assertThatThrownBy(() -> validator.bisection().between(1280, 320))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("maxWidth needs to be greater than minWidth 1280, maxWidth supplied was 320");
+    }
+}
@@ -0,0 +1,124 @@
+package rectangles;
+
+import net.itarray.automotion.internal.DriverFacade;
+import net.itarray.automotion.internal.DriverInstrumentation;
+import net.itarray.automotion.validation.Budget;
+import net.itarray.automotion.validation.ResponsiveUIValidator;
+import net.itarray.automotion.validation.UISnapshot;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static rectangles.DummyWebElement.createElement;
+
+public class BudgetTest {
+
+    private ResponsiveUIValidator validator;
+
+    @Before
+    public void setUp() {
+        DriverInstrumentation instrumentation = new DriverInstrumentation();
+        DriverFacade driver = new DummyDriverFacade() {
+            @Override
+            public DriverInstrumentation getInstrumentation() {
+                return instrumentation;
+            }
+        };
+        validator = new ResponsiveUIValidator(driver);
+    }
+
+    @After
+    public void tearDown() {
+        validator.getResults().delete();
+    }
+
+    @Test
+    public void overrunsOfAWarningBudgetAreReportedAsWarnings() throws Exception {
+        validator.withBudget(Budget.unlimited().withMaxCommands(1));
+
+        boolean valid = validator.snapshot().findElement(createElement(10, 10, 20, 20), "element")
+                .isLeftOf(createElement(30, 10, 40, 20))
+                .validate();
+
+        assertThat(valid).isTrue();
+        List<String> warnings = readWarnings(0);
+        assertThat(warnings).hasSize(1);
+        assertThat(warnings.get(0))
+                .startsWith("Validation of \"element\" sent")
+                .contains("budget is 1")
+                .contains("Top commands: element.");
+    }
+
+    @Test
+    public void overrunsOfAFailingBudgetFailTheValidation() {
+        validator.withBudget(Budget.unlimited().withMaxCommands(1).failing());
+
+        boolean valid = validator.snapshot().findElement(createElement(10, 10, 20, 20), "element")
+                .isLeftOf(createElement(30, 10, 40, 20))
+                .validate();
+
+        assertThat(valid).isFalse();
+    }
+
+    @Test
+    public void budgetsWithinLimitsReportNothing() throws Exception {
+        validator.withBudget(Budget.unlimited().withMaxCommands(1000).withMaxMillis(60000).failing());
+
+        boolean valid = validator.snapshot().findElement(createElement(10, 10, 20, 20), "element")
+                .isLeftOf(createElement(30, 10, 40, 20))
+                .validate();
+
+        assertThat(valid).isTrue();
+        assertThat(readWarnings(0)).isEmpty();
+    }
+
+    @Test
+    public void snapshotOverrunsAreReportedOnce() throws Exception {
+        UISnapshot snapshot = validator.snapshot().withBudget(Budget.unlimited().withMaxCommands(3));
+
+        snapshot.findElement(createElement(10, 10, 20, 20), "first").isLeftOf(createElement(30, 10, 40, 20)).validate();
+        snapshot.findElement(createElement(10, 10, 20, 20), "second").isLeftOf(createElement(30, 10, 40, 20)).validate();
+        snapshot.findElement(createElement(10, 10, 20, 20), "third").isLeftOf(createElement(30, 10, 40, 20)).validate();
+
+        List<String> warnings = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            warnings.addAll(readWarnings(i));
+        }
+        assertThat(warnings).hasSize(1);
+        assertThat(warnings.get(0)).startsWith("Snapshot \"" + snapshot.getName() + "\" sent");
+    }
+
+    @Test
+    public void timeOverrunsNameTheSlowestCalls() throws Exception {
+        UISnapshot snapshot = validator.snapshot().withBudget(Budget.unlimited().withMaxMillis(1));
+        Thread.sleep(20);
+
+        snapshot.findElement(createElement(10, 10, 20, 20), "element").isLeftOf(createElement(30, 10, 40, 20)).validate();
+
+        List<String> warnings = readWarnings(0);
+        assertThat(warnings).hasSize(1);
+        assertThat(warnings.get(0)).contains("budget is 1 ms. Top calls: element.");
+    }
+
+    @Test
+    public void limitsNeedToBePositive() {
+        assertThatThrownBy(() -> Budget.unlimited().withMaxCommands(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("maxCommands needs to be greater than zero, maxCommands supplied was 0");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> readWarnings(int index) throws Exception {
+        List<JSONObject> results = new ArrayList<>();
+        validator.getResults().read(results::add);
+        JSONArray warnings = (JSONArray) results.get(index).get("warnings");
+        return warnings == null ? new ArrayList<>() : new ArrayList<String>(warnings);
+    }
+}
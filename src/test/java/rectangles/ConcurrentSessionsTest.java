@@ -0,0 +1,109 @@
+package rectangles;
+
+import net.itarray.automotion.validation.ResponsiveUIValidator;
+import net.itarray.automotion.validation.Units;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static rectangles.DummyDriverFacade.createWebDriver;
+import static rectangles.DummyWebElement.createElement;
+
+public class ConcurrentSessionsTest {
+
+    private ResponsiveUIValidator validator;
+
+    @Before
+    public void setUp() {
+        validator = new ResponsiveUIValidator(createWebDriver());
+    }
+
+    @After
+    public void tearDown() {
+        validator.getResults().delete();
+    }
+
+    @Test
+    public void sessionsStartWithTheSettingsOfTheValidator() {
+        validator.withTolerance(3);
+        validator.setThumbnailWidth(320);
+        validator.withShardedReport(50);
+
+        ResponsiveUIValidator session = validator.session(createWebDriver());
+
+        assertThat(session.getTolerance()).isEqualTo(validator.getTolerance());
+        assertThat(session.getDrawingConfiguration().getThumbnailWidth()).isEqualTo(320);
+        assertThat(session.getSettings().getScenariosPerShard()).isEqualTo(50);
+    }
+
+    @Test
+    public void sessionsChangeTheirSettingsIndependently() {
+        ResponsiveUIValidator session = validator.session(createWebDriver());
+
+        session.withTolerance(5);
+        session.changeMetricsUnitsTo(Units.PERCENT);
+        session.dontDrawMap();
+
+        assertThat(validator.getTolerance()).isNotEqualTo(session.getTolerance());
+        assertThat(validator.getUnits()).isEqualTo(Units.PX);
+        assertThat(validator.isWithReport()).isTrue();
+    }
+
+    @Test
+    public void handsOutCopiesOfTheDrawingConfiguration() {
+        ResponsiveUIValidator session = validator.session(createWebDriver());
+
+        session.getDrawingConfiguration().setThumbnailWidth(100);
+        validator.getSettings().getDrawingConfiguration().setThumbnailWidth(200);
+
+        assertThat(validator.getDrawingConfiguration().getThumbnailWidth()).isEqualTo(480);
+        assertThat(session.getDrawingConfiguration().getThumbnailWidth()).isEqualTo(480);
+    }
+
+    @Test
+    public void validationsKeepTheSettingsTheyStartedWith() {
+        validator.dontDrawMap();
+        net.itarray.automotion.validation.UIElementValidator element = validator.snapshot()
+                .findElement(createElement(10, 10, 20, 20), "element");
+
+        validator.drawMap();
+        element.validate();
+
+        assertThat(validator.getResults().isEmpty()).isTrue();
+    }
+
+    @Test
+    public void parallelSessionsReportAllResults() throws Exception {
+        int threads = 16;
+        int validationsPerThread = 25;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> sessions = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                sessions.add(executor.submit(() -> {
+                    ResponsiveUIValidator session = validator.session(createWebDriver());
+                    for (int j = 0; j < validationsPerThread; j++) {
+                        session.snapshot("scenario " + j)
+                                .findElement(createElement(10, 10, 20, 20), "element")
+                                .validate();
+                    }
+                }));
+            }
+            for (Future<?> session : sessions) {
+                session.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(validator.getResults().size()).isEqualTo(threads * validationsPerThread);
+        assertThat(validator.getResults().sync()).isEqualTo(threads * validationsPerThread);
+    }
+}
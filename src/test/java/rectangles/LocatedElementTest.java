@@ -0,0 +1,204 @@
+package rectangles;
+
+import net.itarray.automotion.internal.GeometryCache;
+import net.itarray.automotion.internal.LocatedElement;
+import net.itarray.automotion.internal.geometry.Rectangle;
+import net.itarray.automotion.validation.ResponsiveUIValidator;
+import net.itarray.automotion.validation.UISnapshot;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LocatedElementTest {
+
+    private final List<String> queries = new ArrayList<>();
+    private final List<By> finds = new ArrayList<>();
+    private final WebElement found = DummyWebElement.createElement(0, 0, 10, 10);
+    // the results of the next lookups by selector, the last one is repeated
+    private final Deque<List<WebElement>> lookups = new ArrayDeque<>(Collections.singletonList(Collections.singletonList(found)));
+    private final Set<WebElement> replaced = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final List<WebElement> clicked = new ArrayList<>();
+
+    // the page, a row of cards and a header above them
+    private final DummyDriverFacade driver = new DummyDriverFacade() {
+        @Override
+        public Object executeScript(String script, Object... args) {
+            if (!script.startsWith("var mode")) {
+                return capture((List<?>) args[0]);
+            }
+            queries.add(args[0] + " " + args[1]);
+            Map<String, String> css = new HashMap<>();
+            for (Object property : (List<?>) args[2]) {
+                css.put((String) property, "rgb(255, 0, 0)");
+            }
+            if (args[1].equals(".card")) {
+                return asList(
+                        asList(10L, 100L, 50L, 50L, "div", "first", "card", "One", css),
+                        asList(70L, 100L, 50L, 50L, "div", null, "card", "Two", css),
+                        asList(130L, 100L, 50L, 50L, "div", null, "card", "Three", css));
+            }
+            if (args[1].equals("[id=\"header\"]")) {
+                return Collections.singletonList(asList(10.5, 10.0, 170.0, 40.0, "header", "header", null, "Title", css));
+            }
+            return Collections.emptyList();
+        }
+
+        @Override
+        public WebDriver getDriver() {
+            return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{WebDriver.class}, (proxy, method, args) -> {
+                if (!method.getName().equals("findElements")) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                finds.add((By) args[0]);
+                return lookups.size() > 1 ? lookups.poll() : lookups.peek();
+            });
+        }
+    };
+
+    private final ResponsiveUIValidator validator = new ResponsiveUIValidator(driver);
+
+    @Before
+    public void setUp() {
+        validator.dontDrawMap();
+    }
+
+    @After
+    public void tearDown() {
+        validator.getResults().delete();
+    }
+
+    @Test
+    public void validatesAllMatchesOfASelectorWithOneScript() {
+        UISnapshot snapshot = validator.snapshot();
+
+        assertThat(snapshot.findElements(By.cssSelector(".card")).doNotOverlap().areTopAligned().validate()).isTrue();
+        assertThat(snapshot.findElement(By.id("header"), "Header").isAbove(snapshot.locate(By.cssSelector(".card")).get(0)).validate()).isTrue();
+
+        assertThat(queries).containsExactly("css .card", "css [id=\"header\"]");
+        assertThat(finds).isEmpty();
+    }
+
+    @Test
+    public void runsASpecOnTheMatchesOfSelectorsLocatedWithTheirCssValues() {
+        List<Boolean> outcomes = new ArrayList<>();
+
+        validator.snapshot().runPlanned(snapshot -> {
+            outcomes.add(snapshot.findElements(By.cssSelector(".card")).doNotOverlap().areTopAligned().validate());
+            outcomes.add(snapshot.findElement(By.id("header"), "Header").hasCssValue("color", "rgb(255, 0, 0)").validate());
+        }, asList(By.cssSelector(".card"), By.id("header")), "color");
+
+        assertThat(outcomes).containsExactly(true, true);
+        assertThat(queries).containsExactly("css .card", "css [id=\"header\"]");
+        assertThat(finds).isEmpty();
+    }
+
+    @Test
+    public void fetchesTheRequestedCssValuesWithTheMatches() {
+        UISnapshot snapshot = validator.snapshot();
+        List<WebElement> cards = snapshot.locate(By.cssSelector(".card"), "color");
+
+        assertThat(snapshot.findElement(cards.get(1), "Second card").hasCssValue("color", "rgb(255, 0, 0)").validate()).isTrue();
+        assertThat(cards.get(0).getAttribute("id")).isEqualTo("first");
+        assertThat(cards.get(2).getText()).isEqualTo("Three");
+        assertThat(queries).hasSize(1);
+        assertThat(finds).isEmpty();
+    }
+
+    @Test
+    public void looksUpTheElementOnlyWhenItIsNeeded() {
+        List<WebElement> cards = validator.snapshot().locate(By.cssSelector(".card"));
+
+        assertThat(((LocatedElement) cards.get(0)).getWrappedElement()).isSameAs(found);
+        assertThat(finds).containsExactly(By.cssSelector(".card"));
+        assertThatThrownBy(() -> cards.get(2).click()).hasMessageContaining("Cannot find match 2 of By.cssSelector: .card anymore");
+        assertThat(finds).hasSize(1);
+    }
+
+    @Test
+    public void rejectsSelectorsWithoutMatches() {
+        UISnapshot snapshot = validator.snapshot();
+
+        assertThat(snapshot.findZeroOrMoreElements(By.cssSelector(".missing")).validate()).isTrue();
+        assertThatThrownBy(() -> snapshot.findElement(By.xpath("//nav"), "Navigation")).hasMessageContaining("Cannot find Navigation by By.xpath: //nav");
+        assertThat(queries).containsExactly("css .missing", "xpath //nav");
+    }
+
+    @Test
+    public void looksUpAReplacedElementAgain() {
+        WebElement current = match(false);
+        lookups.clear();
+        lookups.add(Collections.singletonList(match(true)));
+        lookups.add(Collections.singletonList(current));
+        List<WebElement> cards = validator.snapshot().locate(By.cssSelector(".card"));
+
+        cards.get(0).click();
+
+        assertThat(clicked).hasSize(1);
+        assertThat(clicked.get(0)).isSameAs(current);
+        assertThat(finds).hasSize(2);
+    }
+
+    @Test
+    public void capturesReplacedElementsAfterLookingThemUpAgain() {
+        lookups.clear();
+        lookups.add(Collections.singletonList(match(true)));
+        lookups.add(Collections.singletonList(match(false)));
+        List<WebElement> cards = validator.snapshot().locate(By.cssSelector(".card"));
+        GeometryCache cache = new GeometryCache();
+        cache.include(cards.subList(0, 1));
+
+        cache.capture(driver);
+
+        assertThat(cache.getCaptures()).isEqualTo(1);
+        assertThat(finds).hasSize(2);
+        assertThat(cache.activated(() -> GeometryCache.rectangle(cards.get(0)))).isEqualTo(new Rectangle(5, 5, 15, 15));
+    }
+
+    private List<List<Long>> capture(List<?> elements) {
+        List<List<Long>> rows = new ArrayList<>();
+        for (Object element : elements) {
+            if (replaced.contains(((WrapsElement) element).getWrappedElement())) {
+                throw new StaleElementReferenceException("replaced");
+            }
+            rows.add(asList(5L, 5L, 10L, 10L));
+        }
+        return rows;
+    }
+
+    private WebElement match(boolean isReplaced) {
+        WebElement match = (WebElement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{WebElement.class}, (proxy, method, args) -> {
+            if (!method.getName().equals("click")) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            if (replaced.contains(proxy)) {
+                throw new StaleElementReferenceException("replaced");
+            }
+            clicked.add((WebElement) proxy);
+            return null;
+        });
+        if (isReplaced) {
+            replaced.add(match);
+        }
+        return match;
+    }
+}
@@ -0,0 +1,136 @@
+package rectangles;
+
+import net.itarray.automotion.validation.ChunkUIElementValidator;
+import net.itarray.automotion.validation.ResponsiveUIValidator;
+import net.itarray.automotion.validation.ValidationPlan;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static rectangles.DummyWebElement.createElement;
+
+public class QueryPlanTest {
+
+    // the elements report a layout where everything overlaps, the page has the planned one
+    private final Map<WebElement, List<Integer>> page = new HashMap<>();
+    private final Map<List<Integer>, List<Integer>> moved = new HashMap<>();
+    private final List<String> scripts = new ArrayList<>();
+    private final List<String> runs = new ArrayList<>();
+    private int pageSizes;
+
+    private final DummyDriverFacade driver = new DummyDriverFacade() {
+        @Override
+        public Object executeScript(String script, Object... args) {
+            List<?> elements = (List<?>) args[0];
+            if (script.contains("getBoundingClientRect")) {
+                scripts.add("geometry of " + elements.size());
+                return elements.stream().map(page::get).collect(Collectors.toList());
+            }
+            scripts.add("details of " + elements.size());
+            Map<String, String> css = new HashMap<>();
+            for (Object property : (List<?>) args[2]) {
+                css.put((String) property, "rgb(255, 0, 0)");
+            }
+            return elements.stream().map(element -> asList("div", null, "card", "text", css)).collect(Collectors.toList());
+        }
+
+        @Override
+        public Dimension retrievePageSize() {
+            pageSizes++;
+            return super.retrievePageSize();
+        }
+    };
+
+    private final ResponsiveUIValidator validator = new ResponsiveUIValidator(driver);
+    private final List<Boolean> outcomes = Collections.synchronizedList(new ArrayList<>());
+
+    private final ValidationPlan plan = ValidationPlan.builder()
+            .chunk("row", new int[]{10, 10, 20, 20}, new int[]{30, 10, 40, 20}, new int[]{50, 10, 60, 20})
+            .chunk("unused", new int[]{0, 0, 5, 5})
+            .check("doNotOverlap", "", true, "row", true, run("doNotOverlap", ChunkUIElementValidator::doNotOverlap))
+            .check("areTopAligned", "", true, "row", true, run("areTopAligned", ChunkUIElementValidator::areTopAligned))
+            .check("haveDifferentSizes", "", false, "row", true, run("haveDifferentSizes", ChunkUIElementValidator::haveDifferentSizes))
+            .build();
+
+    @Before
+    public void setUp() {
+        driver.setPageSize(new Dimension(1000, 800));
+        validator.dontDrawMap();
+        validator.addValidationListener((snapshot, elementName, valid, timings) -> outcomes.add(valid));
+    }
+
+    @After
+    public void tearDown() {
+        validator.getResults().delete();
+    }
+
+    @Test
+    public void fetchesTheElementsOfTheChecksInTwoScripts() {
+        validator.snapshot("planned").runPlanned(plan, this::createElementOnPage);
+
+        assertThat(scripts).containsExactly("details of 3", "geometry of 3");
+        assertThat(pageSizes).isEqualTo(1);
+    }
+
+    @Test
+    public void runsEveryCheckOnce() {
+        List<ValidationPlan.Outcome> planned = validator.snapshot("planned").runPlanned(plan, this::createElementOnPage);
+
+        assertThat(runs).containsExactlyInAnyOrder("doNotOverlap", "areTopAligned", "haveDifferentSizes");
+        assertThat(planned).allSatisfy(outcome -> assertThat(outcome.isAsExpected()).describedAs(outcome.toString()).isTrue());
+        assertThat(outcomes).containsExactlyInAnyOrder(true, true, false);
+    }
+
+    @Test
+    public void evaluatesTheFetchedGeometry() {
+        // the last element moved down, the elements themselves are still top aligned and overlap
+        moved.put(asList(50, 10, 60, 20), asList(50, 15, 10, 10));
+
+        List<ValidationPlan.Outcome> planned = validator.snapshot("planned").runPlanned(plan, this::createElementOnPage);
+
+        assertThat(planned).extracting(outcome -> outcome.getCheck().getMethodName() + " " + outcome.isValid())
+                .containsExactlyInAnyOrder("doNotOverlap true", "areTopAligned false", "haveDifferentSizes false");
+    }
+
+    @Test
+    public void fetchesTheElementsAndCssValuesOfASpecInTwoScripts() {
+        WebElement first = createElementOnPage(10, 10, 20, 20);
+        WebElement second = createElementOnPage(30, 10, 40, 20);
+
+        validator.snapshot("planned").runPlanned(snapshot -> {
+            runs.add("spec");
+            outcomes.add(snapshot.findElements(asList(first, second)).doNotOverlap().areTopAligned().validate());
+            outcomes.add(snapshot.findElement(first, "first").hasCssValue("color", "rgb(255, 0, 0)").validate());
+        }, asList(first, second), "color");
+
+        assertThat(runs).containsExactly("spec");
+        assertThat(scripts).containsExactly("details of 2", "geometry of 2");
+        assertThat(pageSizes).isEqualTo(1);
+        assertThat(outcomes).containsOnly(true);
+    }
+
+    private WebElement createElementOnPage(int originX, int originY, int cornerX, int cornerY) {
+        WebElement element = createElement(0, 0, 100, 100);
+        page.put(element, moved.getOrDefault(asList(originX, originY, cornerX, cornerY), asList(originX, originY, cornerX - originX, cornerY - originY)));
+        return element;
+    }
+
+    private Consumer<ChunkUIElementValidator> run(String name, Consumer<ChunkUIElementValidator> validation) {
+        return chunk -> {
+            runs.add(name);
+            validation.accept(chunk);
+        };
+    }
+}
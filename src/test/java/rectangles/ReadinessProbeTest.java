@@ -0,0 +1,71 @@
+package rectangles;
+
+import net.itarray.automotion.validation.ReadinessProbe;
+import net.itarray.automotion.validation.ResponsiveUIValidator;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReadinessProbeTest {
+
+    private final List<List<Object>> polls = new ArrayList<>();
+    private Iterator<String> states;
+
+    private final DummyDriverFacade driver = new DummyDriverFacade() {
+        @Override
+        public Object executeAsyncScript(String script, Object... args) {
+            polls.add(Arrays.asList(args));
+            return states.hasNext() ? states.next() : "loading";
+        }
+    };
+
+    private final ResponsiveUIValidator validator = new ResponsiveUIValidator(driver);
+
+    @After
+    public void tearDown() {
+        validator.getResults().delete();
+    }
+
+    @Test
+    public void pollsUntilTheLayoutSettled() {
+        states = asList("fonts", "changed 20 ms ago", "settled").iterator();
+
+        ReadinessProbe.layoutSettled(200).awaitReady(driver);
+
+        assertThat(polls).hasSize(3);
+        assertThat(polls.get(0).get(0)).isEqualTo(200L);
+    }
+
+    @Test
+    public void givesUpAfterTheTimeout() {
+        states = asList("loading").iterator();
+
+        ReadinessProbe.layoutSettled(100, 50).awaitReady(driver);
+
+        assertThat(polls).isNotEmpty();
+        // no poll waits longer than the time left
+        assertThat(polls).allSatisfy(poll -> assertThat((Long) poll.get(1)).isLessThanOrEqualTo(50L));
+    }
+
+    @Test
+    public void snapshotsWaitForTheProbeOfTheValidator() {
+        states = asList("settled", "settled").iterator();
+        validator.withReadinessProbe(ReadinessProbe.layoutSettled());
+
+        validator.snapshot("first").revalidate("second");
+
+        assertThat(polls).hasSize(2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void needsAQuietPeriod() {
+        ReadinessProbe.layoutSettled(0);
+    }
+}
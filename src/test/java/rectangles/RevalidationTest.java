@@ -0,0 +1,127 @@
+package rectangles;
+
+import net.itarray.automotion.validation.ResponsiveUIValidator;
+import net.itarray.automotion.validation.UISnapshot;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.WebElement;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static net.itarray.automotion.validation.properties.Condition.between;
+import static org.assertj.core.api.Assertions.assertThat;
+import static rectangles.DummyWebElement.createElement;
+
+public class RevalidationTest {
+
+    private final WebElement left = createElement(10, 10, 20, 20);
+    private final WebElement right = createElement(30, 10, 40, 20);
+    private final WebElement below = createElement(10, 30, 20, 40);
+
+    // the geometry after the interaction, x, y, width and height
+    private final Map<WebElement, List<Integer>> moved = new HashMap<>();
+    private int captures;
+
+    private final DummyDriverFacade driver = new DummyDriverFacade() {
+        @Override
+        public Object executeScript(String script, Object... args) {
+            captures++;
+            return ((List<?>) args[0]).stream().map(moved::get).collect(Collectors.toList());
+        }
+    };
+
+    private final ResponsiveUIValidator validator = new ResponsiveUIValidator(driver);
+
+    @Before
+    public void setUp() {
+        validator.dontDrawMap();
+        moved.put(left, asList(10, 10, 10, 10));
+        moved.put(right, asList(30, 10, 10, 10));
+        moved.put(below, asList(10, 30, 10, 10));
+    }
+
+    @After
+    public void tearDown() {
+        validator.getResults().delete();
+    }
+
+    @Test
+    public void carriesForwardAssertionsWhoseElementsDidNotMove() {
+        UISnapshot before = validator.snapshot("before");
+        assertThat(before.findElement(left, "left").isLeftOf(right).isAbove(below).validate()).isTrue();
+
+        moved.put(below, asList(10, 50, 10, 10));
+        UISnapshot after = before.revalidate("after");
+        boolean valid = after.findElement(left, "left").isLeftOf(right).isAbove(below).validate();
+
+        assertThat(valid).isTrue();
+        assertThat(captures).isEqualTo(1);
+        assertThat(after.getRevalidation().getCarriedForward()).isEqualTo(1);
+    }
+
+    @Test
+    public void evaluatesAssertionsWhoseElementsMoved() {
+        UISnapshot before = validator.snapshot("before");
+        before.findElement(left, "left").isLeftOf(right).validate();
+
+        moved.put(right, asList(15, 10, 10, 10));
+        UISnapshot after = before.revalidate("after");
+
+        assertThat(after.findElement(left, "left").isLeftOf(right).validate()).isFalse();
+        assertThat(after.getRevalidation().getCarriedForward()).isEqualTo(0);
+    }
+
+    @Test
+    public void evaluatesFailedAssertionsAgain() {
+        UISnapshot before = validator.snapshot("before");
+        assertThat(before.findElement(right, "right").isLeftOf(left).validate()).isFalse();
+
+        UISnapshot after = before.revalidate("after");
+
+        assertThat(after.findElement(right, "right").isLeftOf(left).validate()).isFalse();
+        assertThat(after.getRevalidation().getCarriedForward()).isEqualTo(0);
+    }
+
+    @Test
+    public void evaluatesAssertionsWhoseConditionChanged() {
+        UISnapshot before = validator.snapshot("before");
+        assertThat(before.findElement(left, "left").hasWidth(between(5).and(15)).validate()).isTrue();
+
+        UISnapshot after = before.revalidate("after");
+
+        assertThat(after.findElement(left, "left").hasWidth(between(30).and(40)).validate()).isFalse();
+        assertThat(after.getRevalidation().getCarriedForward()).isEqualTo(0);
+    }
+
+    @Test
+    public void evaluatesAssertionsWhoseComparedElementChanged() {
+        UISnapshot before = validator.snapshot("before");
+        assertThat(before.findElement(left, "left").isLeftOf(right).validate()).isTrue();
+
+        UISnapshot after = before.revalidate("after");
+
+        assertThat(after.findElement(left, "left").isLeftOf(below).validate()).isFalse();
+        assertThat(after.getRevalidation().getCarriedForward()).isEqualTo(0);
+    }
+
+    @Test
+    public void checksOnlyTheMovedElementsOfAChunkForOverlaps() {
+        UISnapshot before = validator.snapshot("before");
+        assertThat(before.findElements(asList(left, right, below)).doNotOverlap().validate()).isTrue();
+
+        moved.put(below, asList(10, 60, 10, 10));
+        UISnapshot moving = before.revalidate("moving");
+        assertThat(moving.findElements(asList(left, right, below)).doNotOverlap().validate()).isTrue();
+        assertThat(moving.getRevalidation().getEvaluatedIncrementally()).isEqualTo(1);
+
+        moved.put(below, asList(35, 15, 10, 10));
+        UISnapshot overlapping = moving.revalidate("overlapping");
+        assertThat(overlapping.findElements(asList(left, right, below)).doNotOverlap().validate()).isFalse();
+        assertThat(overlapping.getRevalidation().getEvaluatedIncrementally()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,119 @@
+package rectangles;
+
+import net.itarray.automotion.validation.ReadinessProbe;
+import net.itarray.automotion.validation.ResponsiveUIValidator;
+import net.itarray.automotion.validation.Spec;
+import net.itarray.automotion.validation.SweepResult;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static net.itarray.automotion.validation.properties.Resolution.resolution;
+import static net.itarray.automotion.validation.properties.Zoom.zoom;
+import static org.assertj.core.api.Assertions.assertThat;
+import static rectangles.DummyWebElement.createElement;
+
+public class SweepTest {
+
+    private final List<String> applied = new ArrayList<>();
+    private int captures;
+    private int probes;
+
+    private final WebElement left = createElement(10, 10, 20, 20);
+    private final WebElement right = createElement(30, 10, 40, 20);
+
+    private final DummyDriverFacade driver = new DummyDriverFacade() {
+        @Override
+        public void setResolution(Dimension resolution) {
+            super.setResolution(resolution);
+            applied.add(resolution.getWidth() + "x" + resolution.getHeight());
+        }
+
+        @Override
+        public void setZoom(int percentage) {
+            applied.add(percentage + "%");
+        }
+
+        @Override
+        public Object executeScript(String script, Object... args) {
+            captures++;
+            // below 500 pixels the right element wraps below the left one
+            boolean wrapped = getResolution().getWidth() < 500;
+            return asList(asList(10, 10, 10, 10), wrapped ? asList(10, 30, 10, 10) : asList(30, 10, 10, 10));
+        }
+
+        @Override
+        public Object executeAsyncScript(String script, Object... args) {
+            probes++;
+            return "complete," + getResolution().getWidth();
+        }
+    };
+
+    private final ResponsiveUIValidator validator = new ResponsiveUIValidator(driver);
+
+    private final Spec spec = snapshot -> snapshot.findElement(left, "left").isLeftOf(right).validate();
+
+    @Before
+    public void setUp() {
+        validator.dontDrawMap();
+    }
+
+    @After
+    public void tearDown() {
+        validator.getResults().delete();
+    }
+
+    @Test
+    public void ordersBreakpointsByZoomAndDecreasingWidth() {
+        SweepResult result = validator.sweep()
+                .at(resolution(768, 1024), zoom(100))
+                .at(resolution(375, 667), zoom(100))
+                .at(resolution(1280, 800), zoom(100))
+                .at(resolution(1280, 800), zoom(50))
+                .run("ordered", spec);
+
+        assertThat(descriptions(result)).containsExactly("1280x800 50%", "1280x800 100%", "768x1024 100%", "375x667 100%");
+        assertThat(applied).containsExactly("1280x800", "50%", "100%", "768x1024", "375x667");
+    }
+
+    @Test
+    public void resizesAndProbesOnlyWhenTheBreakpointChanges() {
+        validator.sweep()
+                .at(resolution(768, 1024), zoom(100))
+                .at(resolution(768, 1024), zoom(100))
+                .run("twice", spec);
+
+        assertThat(applied).containsExactly("768x1024", "100%");
+        // the layout is the same in two consecutive polls
+        assertThat(probes).isEqualTo(2);
+    }
+
+    @Test
+    public void capturesTheGeometryOfKnownElementsInOneRoundTrip() {
+        SweepResult result = validator.sweep()
+                .at(resolution(1280, 800), zoom(100))
+                .at(resolution(768, 1024), zoom(100))
+                .at(resolution(375, 667), zoom(100))
+                .withReadinessProbe(ReadinessProbe.none())
+                .run("captured", spec);
+
+        assertThat(result.getGeometryMisses()).isEqualTo(2);
+        assertThat(result.getGeometryCaptures()).isEqualTo(2);
+        assertThat(captures).isEqualTo(2);
+        assertThat(result.getBreakpoints()).extracting(SweepResult.Breakpoint::isValid).containsExactly(true, true, false);
+        assertThat(result.isValid()).isFalse();
+    }
+
+    private static List<String> descriptions(SweepResult result) {
+        return result.getBreakpoints().stream()
+                .map(breakpoint -> breakpoint.getResolution() + " " + breakpoint.getZoom())
+                .collect(Collectors.toList());
+    }
+}
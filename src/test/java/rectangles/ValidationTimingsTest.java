@@ -0,0 +1,75 @@
+package rectangles;
+
+import net.itarray.automotion.validation.Phase;
+import net.itarray.automotion.validation.PhaseTimings;
+import net.itarray.automotion.validation.ResponsiveUIValidator;
+import net.itarray.automotion.validation.UISnapshot;
+import org.json.simple.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static rectangles.DummyDriverFacade.createWebDriver;
+import static rectangles.DummyWebElement.createElement;
+
+public class ValidationTimingsTest {
+
+    private ResponsiveUIValidator validator;
+    private final List<PhaseTimings> notified = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        validator = new ResponsiveUIValidator(createWebDriver());
+        validator.addValidationListener((snapshot, elementName, valid, timings) -> notified.add(timings));
+    }
+
+    @After
+    public void tearDown() {
+        validator.getResults().delete();
+    }
+
+    @Test
+    public void recordsGeometryAndEvaluationPerValidation() {
+        UISnapshot snapshot = validator.snapshot();
+
+        snapshot.findElement(createElement(10, 10, 20, 20), "element")
+                .isLeftOf(createElement(30, 10, 40, 20))
+                .isAbove(createElement(10, 30, 20, 40))
+                .validate();
+
+        assertThat(notified).hasSize(1);
+        PhaseTimings timings = notified.get(0);
+        // page size, root element and the two compared elements
+        assertThat(timings.getCount(Phase.GEOMETRY)).isEqualTo(4);
+        assertThat(timings.getCount(Phase.EVALUATION)).isEqualTo(2);
+        assertThat(timings.getCount(Phase.JSON_WRITE)).isEqualTo(1);
+        assertThat(timings.getCount(Phase.SCREENSHOT)).isEqualTo(0);
+    }
+
+    @Test
+    public void addsTheTimingsOfAllValidationsToTheSnapshot() {
+        UISnapshot snapshot = validator.snapshot();
+
+        snapshot.findElement(createElement(10, 10, 20, 20), "first").isLeftOf(createElement(30, 10, 40, 20)).validate();
+        snapshot.findElement(createElement(10, 10, 20, 20), "second").isLeftOf(createElement(30, 10, 40, 20)).validate();
+
+        assertThat(snapshot.getTimings().getCount(Phase.EVALUATION)).isEqualTo(2);
+    }
+
+    @Test
+    public void writesTheTimingsIntoTheResult() throws Exception {
+        validator.snapshot().findElement(createElement(10, 10, 20, 20), "element")
+                .isLeftOf(createElement(30, 10, 40, 20))
+                .validate();
+
+        List<JSONObject> results = new ArrayList<>();
+        validator.getResults().read(results::add);
+        JSONObject timings = (JSONObject) results.get(0).get("timings");
+        assertThat(timings).containsKeys("geometry", "evaluation");
+        assertThat(((JSONObject) timings.get("evaluation")).get("count")).isEqualTo(1L);
+    }
+}